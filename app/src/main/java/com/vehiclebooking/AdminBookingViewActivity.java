@@ -10,9 +10,9 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import com.vehiclebooking.data.DbExecutor;
+import com.vehiclebooking.data.model.BookingCounts;
 import java.util.List;
-import java.util.Collections;
-import java.util.Comparator;
 
 public class AdminBookingViewActivity extends AppCompatActivity {
     private LinearLayout bookingsContainer;
@@ -20,6 +20,9 @@ public class AdminBookingViewActivity extends AppCompatActivity {
     private Button refreshButton;
     private Button backButton;
     private TextView emptyStateText;
+    private Button loadMoreButton;
+    private BookingRequest lastLoadedBooking;
+    private int loadGeneration;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -47,61 +50,57 @@ public class AdminBookingViewActivity extends AppCompatActivity {
     private void loadBookingData() {
         // Clear existing views
         bookingsContainer.removeAllViews();
+        lastLoadedBooking = null;
+        // Results of an older load (e.g. onCreate followed by onResume) are discarded
+        int generation = ++loadGeneration;
         
-        // Get all bookings
-        List<BookingRequest> bookings = BookingStorage.getAllBookings(this);
-        
-        if (bookings.isEmpty()) {
-            emptyStateText.setVisibility(View.VISIBLE);
-            analyticsText.setText("📊 No booking data available");
-        } else {
-            emptyStateText.setVisibility(View.GONE);
-            displayBookingAnalytics(bookings);
-            displayBookings(bookings);
-        }
+        // Counts come from GROUP BY queries; the list is loaded one keyset page at a time
+        DbExecutor.load(this, () -> BookingStorage.getBookingStats(this), stats -> {
+            if (generation != loadGeneration) return;
+            
+            if (stats.getTotalCount() == 0) {
+                emptyStateText.setVisibility(View.VISIBLE);
+                analyticsText.setText("📊 No booking data available");
+            } else {
+                emptyStateText.setVisibility(View.GONE);
+                DbExecutor.load(this, () -> BookingStorage.getVehicleTypeCounts(this), vehicleTypeCounts -> {
+                    if (generation == loadGeneration) {
+                        displayBookingAnalytics(stats, vehicleTypeCounts);
+                    }
+                });
+                loadNextPage();
+            }
+        });
     }
 
-    private void displayBookingAnalytics(List<BookingRequest> bookings) {
+    private void displayBookingAnalytics(BookingStorage.BookingStats stats,
+                                         List<BookingCounts.ByVehicleType> vehicleTypeCounts) {
         StringBuilder analytics = new StringBuilder();
         
-        // Basic stats
-        int totalBookings = bookings.size();
-        int pendingBookings = 0;
-        int confirmedBookings = 0;
-        int completedBookings = 0;
-        int cancelledBookings = 0;
-        
         // Vehicle type stats
         int sedanRequests = 0;
         int suvRequests = 0;
         int vanRequests = 0;
         int luxuryRequests = 0;
         
-        for (BookingRequest booking : bookings) {
-            // Count by status
-            if (booking.getStatus() == BookingStatus.PENDING) pendingBookings++;
-            else if (booking.getStatus() == BookingStatus.CONFIRMED) confirmedBookings++;
-            else if (booking.getStatus() == BookingStatus.COMPLETED) completedBookings++;
-            else if (booking.getStatus() == BookingStatus.CANCELLED) cancelledBookings++;
-            
+        for (BookingCounts.ByVehicleType row : vehicleTypeCounts) {
             // Count by vehicle type
-            String vehicleType = booking.getVehicleType();
-            if (vehicleType != null) {
-                String type = vehicleType.toLowerCase();
-                if (type.contains("sedan")) sedanRequests++;
-                else if (type.contains("suv")) suvRequests++;
-                else if (type.contains("van")) vanRequests++;
-                else if (type.contains("luxury")) luxuryRequests++;
+            if (row.vehicleType != null) {
+                String type = row.vehicleType.toLowerCase();
+                if (type.contains("sedan")) sedanRequests += row.count;
+                else if (type.contains("suv")) suvRequests += row.count;
+                else if (type.contains("van")) vanRequests += row.count;
+                else if (type.contains("luxury")) luxuryRequests += row.count;
             }
         }
         
         analytics.append("📊 BOOKING ANALYTICS\n");
         analytics.append("═══════════════════\n\n");
-        analytics.append("📋 Total Bookings: ").append(totalBookings).append("\n");
-        analytics.append("🆕 Pending: ").append(pendingBookings).append("\n");
-        analytics.append("✅ Confirmed: ").append(confirmedBookings).append("\n");
-        analytics.append("🎯 Completed: ").append(completedBookings).append("\n");
-        analytics.append("❌ Cancelled: ").append(cancelledBookings).append("\n\n");
+        analytics.append("📋 Total Bookings: ").append(stats.getTotalCount()).append("\n");
+        analytics.append("🆕 Pending: ").append(stats.getPendingCount()).append("\n");
+        analytics.append("✅ Confirmed: ").append(stats.getConfirmedCount()).append("\n");
+        analytics.append("🎯 Completed: ").append(stats.getCompletedCount()).append("\n");
+        analytics.append("❌ Cancelled: ").append(stats.getCancelledCount()).append("\n\n");
         
         analytics.append("🚗 POPULAR VEHICLES\n");
         analytics.append("═══════════════════\n");
@@ -113,18 +112,34 @@ public class AdminBookingViewActivity extends AppCompatActivity {
         analyticsText.setText(analytics.toString());
     }
 
-    private void displayBookings(List<BookingRequest> bookings) {
-        // Sort bookings by timestamp (newest first) - compatible with API 21+
-        Collections.sort(bookings, new Comparator<BookingRequest>() {
-            @Override
-            public int compare(BookingRequest b1, BookingRequest b2) {
-                return Long.compare(b2.getTimestamp(), b1.getTimestamp());
+    private void loadNextPage() {
+        if (loadMoreButton != null) {
+            bookingsContainer.removeView(loadMoreButton);
+        }
+        
+        // Newest first, continuing after the last booking already shown
+        int generation = loadGeneration;
+        BookingRequest after = lastLoadedBooking;
+        DbExecutor.load(this, () -> BookingStorage.getBookingsPage(this, after, BookingStorage.PAGE_SIZE), page -> {
+            if (generation != loadGeneration) return;
+            
+            for (BookingRequest booking : page) {
+                createBookingView(booking);
+            }
+            
+            if (!page.isEmpty()) {
+                lastLoadedBooking = page.get(page.size() - 1);
+            }
+            
+            if (page.size() == BookingStorage.PAGE_SIZE) {
+                if (loadMoreButton == null) {
+                    loadMoreButton = new Button(this);
+                    loadMoreButton.setText("⬇️ Load more");
+                    loadMoreButton.setOnClickListener(v -> loadNextPage());
+                }
+                bookingsContainer.addView(loadMoreButton);
             }
         });
-        
-        for (BookingRequest booking : bookings) {
-            createBookingView(booking);
-        }
     }
 
     private void createBookingView(BookingRequest booking) {
@@ -194,6 +209,15 @@ public class AdminBookingViewActivity extends AppCompatActivity {
         statusButton.setOnClickListener(v -> showStatusDialog(booking));
         buttonsContainer.addView(statusButton);
         
+        // Dispatch button for bookings still waiting for a driver
+        if (booking.getStatus() == null || booking.getStatus() == BookingStatus.PENDING) {
+            Button assignButton = new Button(this);
+            assignButton.setText("🚗 Assign");
+            assignButton.setTextSize(12);
+            assignButton.setOnClickListener(v -> assignNearestDriver(booking));
+            buttonsContainer.addView(assignButton);
+        }
+        
         bookingContainer.addView(buttonsContainer);
         
         // Add to main container
@@ -247,8 +271,8 @@ public class AdminBookingViewActivity extends AppCompatActivity {
                 BookingStatus newStatus = statuses[which];
                 booking.changeStatus(newStatus, "Status updated by admin");
                 
-                // Save updated booking
-                BookingStorage.updateBooking(this, booking);
+                // Save updated booking; the reload is queued behind the write
+                DbExecutor.execute(() -> BookingStorage.updateBooking(this, booking));
                 
                 loadBookingData(); // Refresh the display
                 Toast.makeText(this, "Status updated to: " + newStatus.getDisplayName(), Toast.LENGTH_SHORT).show();
@@ -257,6 +281,40 @@ public class AdminBookingViewActivity extends AppCompatActivity {
             .show();
     }
 
+    private void assignNearestDriver(BookingRequest booking) {
+        DriverDispatch.resolvePickup(this, booking.getSource(), pickup -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            if (pickup == null) {
+                Toast.makeText(this, "Pickup location not found for \"" + booking.getSource() + "\"",
+                    Toast.LENGTH_SHORT).show();
+                return;
+            }
+            DbExecutor.load(this, () -> DriverDispatch.assignNearestDriver(this, booking, pickup[0], pickup[1]),
+                result -> {
+                    switch (result) {
+                        case ASSIGNED:
+                            NotificationHelper.sendStatusChangeNotification(this, booking, BookingStatus.CONFIRMED);
+                            Toast.makeText(this, "✅ Nearest driver assigned, booking confirmed", Toast.LENGTH_SHORT).show();
+                            loadBookingData();
+                            break;
+                        case NOT_PENDING:
+                            Toast.makeText(this, "Only pending bookings can be assigned", Toast.LENGTH_SHORT).show();
+                            break;
+                        case NO_DRIVER_NEARBY:
+                            Toast.makeText(this, "No available driver near the pickup point", Toast.LENGTH_SHORT).show();
+                            break;
+                    }
+                },
+                error -> {
+                    Toast.makeText(this, "Could not save the assignment, please try again", Toast.LENGTH_SHORT).show();
+                    // The booking shown was changed in memory before the save failed
+                    loadBookingData();
+                });
+        });
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
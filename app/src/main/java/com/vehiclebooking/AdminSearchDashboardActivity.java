@@ -10,9 +10,11 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import com.vehiclebooking.data.DbExecutor;
 import java.util.List;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Map;
 
 public class AdminSearchDashboardActivity extends AppCompatActivity {
     private LinearLayout searchRecordsContainer;
@@ -20,6 +22,7 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
     private Button refreshButton;
     private Button clearAllButton;
     private TextView emptyStateText;
+    private int loadGeneration;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -49,22 +52,32 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
         // Clear existing views
         searchRecordsContainer.removeAllViews();
         
-        // Get search records from storage
-        List<VehicleSearchActivity.SearchRecord> records = SearchStorage.getSearchRecords(this);
+        // Results of an older load (e.g. onCreate followed by onResume) are discarded
+        int generation = ++loadGeneration;
         
-        if (records.isEmpty()) {
-            emptyStateText.setVisibility(View.VISIBLE);
-            analyticsText.setText("📊 No search data available");
-        } else {
-            emptyStateText.setVisibility(View.GONE);
-            displayAnalytics(records);
-            displaySearchRecords(records);
-        }
+        // Get search records from storage
+        DbExecutor.load(this, () -> SearchStorage.getSearchRecords(this), records -> {
+            if (generation != loadGeneration) return;
+            
+            if (records.isEmpty()) {
+                emptyStateText.setVisibility(View.VISIBLE);
+                analyticsText.setText("📊 No search data available");
+            } else {
+                emptyStateText.setVisibility(View.GONE);
+                // Tallied from the records just loaded rather than read again
+                displayAnalytics(SearchStorage.getSearchAnalytics(records));
+                displaySearchRecords(records);
+            }
+        });
     }
 
-    private void displayAnalytics(List<VehicleSearchActivity.SearchRecord> records) {
-        SearchStorage.SearchAnalytics analytics = SearchStorage.getSearchAnalytics(this);
-        
+    private void displayAnalytics(SearchAnalytics analytics) {
+        StringBuilder vehicleTypes = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : analytics.getVehicleTypeSearches().entrySet()) {
+            vehicleTypes.append("   • ").append(entry.getKey()).append(": ")
+                .append(entry.getValue()).append(" searches\n");
+        }
+
         String analyticsInfo = String.format(
             "📊 SEARCH ANALYTICS\n\n" +
             "📈 Total Searches: %d\n" +
@@ -75,10 +88,7 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
             "📱 Contact Rate: %.1f%%\n" +
             "🎯 Completion Rate: %.1f%%\n\n" +
             "🚗 Popular Vehicle Types:\n" +
-            "   • Sedan: %d searches\n" +
-            "   • SUV: %d searches\n" +
-            "   • Van: %d searches\n" +
-            "   • Luxury: %d searches\n" +
+            "%s" +
             "🏆 Most Popular: %s",
             
             analytics.totalSearches,
@@ -88,10 +98,7 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
             analytics.searchesWithLocation,
             analytics.getContactRate(),
             analytics.getCompletionRate(),
-            analytics.sedanSearches,
-            analytics.suvSearches,
-            analytics.vanSearches,
-            analytics.luxurySearches,
+            vehicleTypes,
             analytics.getMostPopularVehicleType()
         );
         
@@ -103,7 +110,7 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
         Collections.sort(records, new Comparator<VehicleSearchActivity.SearchRecord>() {
             @Override
             public int compare(VehicleSearchActivity.SearchRecord r1, VehicleSearchActivity.SearchRecord r2) {
-                return r2.timestamp.compareTo(r1.timestamp);
+                return Long.compare(r2.timestamp, r1.timestamp);
             }
         });
         
@@ -148,7 +155,7 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
             record.searchQuery,
             record.customerName,
             record.phoneNumber,
-            record.timestamp,
+            record.getFormattedTimestamp(),
             locationInfo,
             record.vehicleInterest.isEmpty() ? "" : "🚗 Interested in: " + record.vehicleInterest
         );
@@ -273,7 +280,7 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
             .setTitle("Update Status for " + record.customerName)
             .setItems(statusOptions, (dialog, which) -> {
                 String newStatus = statusOptions[which];
-                SearchStorage.updateSearchStatus(this, record.phoneNumber, record.timestamp, newStatus);
+                DbExecutor.execute(() -> SearchStorage.updateSearchStatus(this, record.id, newStatus));
                 loadSearchRecords(); // Refresh the display
                 Toast.makeText(this, "Status updated to: " + newStatus, Toast.LENGTH_SHORT).show();
             })
@@ -291,7 +298,7 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
             .setView(noteInput)
             .setPositiveButton("Save", (dialog, which) -> {
                 String notes = noteInput.getText().toString().trim();
-                SearchStorage.updateAdminNotes(this, record.phoneNumber, record.timestamp, notes);
+                DbExecutor.execute(() -> SearchStorage.updateAdminNotes(this, record.id, notes));
                 loadSearchRecords(); // Refresh the display
                 Toast.makeText(this, "Notes saved!", Toast.LENGTH_SHORT).show();
             })
@@ -304,7 +311,7 @@ public class AdminSearchDashboardActivity extends AppCompatActivity {
             .setTitle("Clear All Search Records")
             .setMessage("Are you sure you want to delete all search records? This action cannot be undone.")
             .setPositiveButton("Yes, Clear All", (dialog, which) -> {
-                SearchStorage.clearAllSearchRecords(this);
+                DbExecutor.execute(() -> SearchStorage.clearAllSearchRecords(this));
                 loadSearchRecords();
                 Toast.makeText(this, "All search records cleared", Toast.LENGTH_SHORT).show();
             })
@@ -17,6 +17,7 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import com.vehiclebooking.data.DbExecutor;
 import com.jakewharton.threetenabp.AndroidThreeTen;
 import com.vehiclebooking.databinding.ActivityBookingBinding;
 
@@ -296,27 +297,28 @@ public class BookingActivity extends AppCompatActivity {
         bookingRequest.setPhoneNumber(phoneNumber);
         bookingRequest.setVehicleType(vehicleType);
         
-        // Generate unique booking ID using utility method
-        String bookingId = BookingStorage.generateUniqueBookingId(this);
-        bookingRequest.setBookingId(bookingId);
-        
-        // Save booking to storage
-        BookingStorage.saveBooking(this, bookingRequest);
-        
-        // Send notification to vehicle owner (you)
-        notificationHelper.sendBookingNotification(bookingRequest);
-        
-        // Show confirmation to user with booking ID
-        Toast.makeText(this, "\u2705 Booking submitted successfully!\nBooking ID: " + bookingId + 
-            "\nRedirecting to your booking status...", Toast.LENGTH_SHORT).show();
-        
-        // Clear form and reset submission state
-        clearForm();
-        resetSubmissionState();
-        
-        // Redirect to customer booking status
-        CustomerBookingStatusActivity.launch(this, phoneNumber);
-        finish();
+        // Generate unique booking ID and save booking to storage off the main thread
+        DbExecutor.load(this, () -> {
+            String id = BookingStorage.generateUniqueBookingId(this);
+            bookingRequest.setBookingId(id);
+            BookingStorage.saveBooking(this, bookingRequest);
+            return id;
+        }, bookingId -> {
+            // Send notification to vehicle owner (you)
+            notificationHelper.sendBookingNotification(bookingRequest);
+            
+            // Show confirmation to user with booking ID
+            Toast.makeText(this, "\u2705 Booking submitted successfully!\nBooking ID: " + bookingId + 
+                "\nRedirecting to your booking status...", Toast.LENGTH_SHORT).show();
+            
+            // Clear form and reset submission state
+            clearForm();
+            resetSubmissionState();
+            
+            // Redirect to customer booking status
+            CustomerBookingStatusActivity.launch(this, phoneNumber);
+            finish();
+        });
     }
 
     private void clearForm() {
@@ -10,22 +10,28 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.vehiclebooking.data.model.BookingSummary;
+
 import java.util.List;
 
+/**
+ * Booking list adapter. Rows are BookingSummary projections; listeners load the
+ * full booking (BookingStorage.getBookingById) when a row is acted on.
+ */
 public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingViewHolder> {
     
-    private List<BookingRequest> bookingList;
+    private List<BookingSummary> bookingList;
     private OnStatusChangeClickListener statusChangeClickListener;
 
     public interface OnStatusChangeClickListener {
-        void onStatusChangeClick(BookingRequest booking, int position);
+        void onStatusChangeClick(BookingSummary booking, int position);
     }
 
-    public BookingAdapter(List<BookingRequest> bookingList) {
+    public BookingAdapter(List<BookingSummary> bookingList) {
         this.bookingList = bookingList;
     }
 
-    public BookingAdapter(List<BookingRequest> bookingList, OnStatusChangeClickListener statusChangeClickListener) {
+    public BookingAdapter(List<BookingSummary> bookingList, OnStatusChangeClickListener statusChangeClickListener) {
         this.bookingList = bookingList;
         this.statusChangeClickListener = statusChangeClickListener;
     }
@@ -40,17 +46,20 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
 
     @Override
     public void onBindViewHolder(@NonNull BookingViewHolder holder, int position) {
-        BookingRequest booking = bookingList.get(position);
-        
+        bindBooking(holder, bookingList.get(position), position, statusChangeClickListener);
+    }
+
+    /**
+     * Bind a booking to an item_booking view holder (shared with BookingPagingAdapter)
+     */
+    static void bindBooking(@NonNull BookingViewHolder holder, @NonNull BookingSummary booking, int position,
+                            OnStatusChangeClickListener statusChangeClickListener) {
         // Generate booking ID based on timestamp
-        String bookingId = "BK" + String.valueOf(booking.getTimestamp()).substring(8);
+        String bookingId = "BK" + String.valueOf(booking.timestamp).substring(8);
         holder.bookingId.setText("Booking #" + bookingId);
         
         // Set dynamic booking status with color and icon
-        BookingStatus status = booking.getStatus();
-        if (status == null) {
-            status = BookingStatus.PENDING; // Default fallback
-        }
+        BookingStatus status = booking.getStatusOrDefault();
         
         holder.bookingStatus.setText(status.getDisplayName());
         
@@ -65,17 +74,16 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
         holder.bookingStatus.setTextColor(0xFFFFFFFF);
         
         // Set route information
-        holder.source.setText("From: " + booking.getSource());
-        holder.destination.setText("To: " + booking.getDestination());
-        holder.travelDate.setText("📅 " + booking.getFormattedTravelDate());
+        holder.source.setText("From: " + booking.source);
+        holder.destination.setText("To: " + booking.destination);
+        holder.travelDate.setText("📅 " + DateUtils.formatDate(booking.travelDate));
         
         // Set booking timestamp and latest status change info
-        String bookingTime = DateUtils.formatDateTime12Hour(DateUtils.timestampToLocalDateTime(booking.getTimestamp()));
+        String bookingTime = DateUtils.formatDateTime12Hour(DateUtils.timestampToLocalDateTime(booking.timestamp));
         
         // Show latest status change if available
-        StatusChange latestChange = booking.getLatestStatusChange();
-        if (latestChange != null && latestChange.getStatus() != BookingStatus.PENDING) {
-            String statusTime = DateUtils.formatDateTime12Hour(DateUtils.timestampToLocalDateTime(latestChange.getTimestamp()));
+        if (status != BookingStatus.PENDING && booking.statusUpdatedAt > 0) {
+            String statusTime = DateUtils.formatDateTime12Hour(DateUtils.timestampToLocalDateTime(booking.statusUpdatedAt));
             holder.bookingTime.setText("Booked: " + bookingTime + "\n" + 
                                     status.getIcon() + " " + status.getDisplayName() + ": " + statusTime);
         } else {
@@ -86,7 +94,7 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
         holder.itemView.setOnClickListener(v -> {
             Context context = holder.itemView.getContext();
             Intent intent = new Intent(context, BookingDetailsActivity.class);
-            intent.putExtra(BookingDetailsActivity.EXTRA_BOOKING_TIMESTAMP, booking.getTimestamp());
+            intent.putExtra(BookingDetailsActivity.EXTRA_BOOKING_TIMESTAMP, booking.timestamp);
             context.startActivity(intent);
         });
         
@@ -103,7 +111,7 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
         return bookingList.size();
     }
 
-    public void updateBookings(List<BookingRequest> newBookings) {
+    public void updateBookings(List<BookingSummary> newBookings) {
         this.bookingList = newBookings;
         notifyDataSetChanged();
     }
@@ -1,10 +1,6 @@
 package com.vehiclebooking;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -77,228 +73,68 @@ public class BookingAnalytics {
         public double avgBookingsPerWeek = 0.0;
     }
     
+    /**
+     * Full analytics result for one booking list
+     */
+    public static class AnalyticsReport {
+        public BookingStats stats;
+        public List<RouteStats> routes;
+        public BookingTrends trends;
+        public BookingInsights insights;
+    }
+    
+    /**
+     * Compute stats, routes, trends and insights in a single pass over the bookings
+     */
+    public static AnalyticsReport analyze(List<BookingRequest> bookings) {
+        BookingAnalyticsEngine engine = BookingAnalyticsEngine.analyze(bookings);
+        AnalyticsReport report = new AnalyticsReport();
+        report.stats = engine.toBookingStats();
+        report.routes = engine.toRouteStats();
+        report.trends = engine.toBookingTrends();
+        report.insights = generateInsights(report.stats, report.routes, report.trends);
+        return report;
+    }
+    
     /**
      * Calculate comprehensive booking statistics
      */
     public static BookingStats calculateBookingStats(List<BookingRequest> bookings) {
-        BookingStats stats = new BookingStats();
-        
-        if (bookings.isEmpty()) {
-            return stats;
-        }
-        
-        stats.totalBookings = bookings.size();
-        
-        // Calculate current time boundaries using LocalDate
-        LocalDate today = DateUtils.today();
-        LocalDate weekStart = today.minusDays(7);
-        LocalDate monthStart = today.minusDays(30);
-        long weekStartTimestamp = DateUtils.localDateToTimestamp(weekStart);
-        long monthStartTimestamp = DateUtils.localDateToTimestamp(monthStart);
-        
-        long totalDuration = 0;
-        BookingRequest newest = bookings.get(0);
-        BookingRequest oldest = bookings.get(0);
-        
-        for (BookingRequest booking : bookings) {
-            BookingStatus status = booking.getStatus();
-            if (status == null) status = BookingStatus.PENDING;
-            
-            // Count by status
-            switch (status) {
-                case PENDING: stats.pendingBookings++; break;
-                case CONFIRMED: stats.confirmedBookings++; break;
-                case IN_PROGRESS: stats.inProgressBookings++; break;
-                case COMPLETED: stats.completedBookings++; break;
-                case CANCELLED: stats.cancelledBookings++; break;
-            }
-            
-            // Active bookings (not completed or cancelled)
-            if (status != BookingStatus.COMPLETED && status != BookingStatus.CANCELLED) {
-                stats.activeBookings++;
-            }
-            
-            // Time-based counting
-            long bookingTimestamp = booking.getTimestamp();
-            if (bookingTimestamp >= weekStartTimestamp) {
-                stats.thisWeekBookings++;
-            }
-            if (bookingTimestamp >= monthStartTimestamp) {
-                stats.thisMonthBookings++;
-            }
-            
-            // Duration calculation (from booking to travel date)
-            long travelDateTimestamp = DateUtils.localDateToTimestamp(booking.getTravelDate());
-            totalDuration += travelDateTimestamp - bookingTimestamp;
-            
-            // Find newest and oldest
-            if (booking.getTimestamp() > newest.getTimestamp()) {
-                newest = booking;
-            }
-            if (booking.getTimestamp() < oldest.getTimestamp()) {
-                oldest = booking;
-            }
-        }
-        
-        // Calculate rates
-        if (stats.totalBookings > 0) {
-            stats.completionRate = (stats.completedBookings * 100.0) / stats.totalBookings;
-            stats.cancellationRate = (stats.cancelledBookings * 100.0) / stats.totalBookings;
-            stats.avgBookingDuration = totalDuration / stats.totalBookings;
-        }
-        
-        stats.mostRecentBooking = newest;
-        stats.oldestBooking = oldest;
-        
-        return stats;
+        return BookingAnalyticsEngine.run(bookings, false, false).toBookingStats();
     }
     
     /**
      * Analyze route popularity and patterns
      */
     public static List<RouteStats> analyzeRoutePopularity(List<BookingRequest> bookings) {
-        Map<String, Integer> routeCounts = new HashMap<>();
-        Map<String, List<BookingStatus>> routeStatuses = new HashMap<>();
-        Map<String, Long> routeDurations = new HashMap<>();
-        
-        for (BookingRequest booking : bookings) {
-            String route = booking.getSource() + " → " + booking.getDestination();
-            
-            Integer currentCount = routeCounts.get(route);
-            routeCounts.put(route, (currentCount == null ? 0 : currentCount) + 1);
-            
-            // Track statuses for this route
-            if (!routeStatuses.containsKey(route)) {
-                routeStatuses.put(route, new ArrayList<>());
-            }
-            BookingStatus status = booking.getStatus();
-            if (status == null) status = BookingStatus.PENDING;
-            routeStatuses.get(route).add(status);
-            
-            // Track durations
-            long travelDateTimestamp = DateUtils.localDateToTimestamp(booking.getTravelDate());
-            long duration = travelDateTimestamp - booking.getTimestamp();
-            Long currentDuration = routeDurations.get(route);
-            routeDurations.put(route, (currentDuration == null ? 0L : currentDuration) + duration);
-        }
-        
-        List<RouteStats> routeStats = new ArrayList<>();
-        int totalBookings = bookings.size();
-        
-        for (Map.Entry<String, Integer> entry : routeCounts.entrySet()) {
-            String route = entry.getKey();
-            int count = entry.getValue();
-            double percentage = (count * 100.0) / totalBookings;
-            
-            RouteStats stats = new RouteStats(route, count, percentage);
-            
-            // Find most common status for this route
-            List<BookingStatus> statuses = routeStatuses.get(route);
-            Map<BookingStatus, Integer> statusCount = new HashMap<>();
-            for (BookingStatus status : statuses) {
-                Integer currentStatusCount = statusCount.get(status);
-                statusCount.put(status, (currentStatusCount == null ? 0 : currentStatusCount) + 1);
-            }
-            
-            BookingStatus mostCommon = BookingStatus.PENDING;
-            int maxCount = 0;
-            for (Map.Entry<BookingStatus, Integer> statusEntry : statusCount.entrySet()) {
-                if (statusEntry.getValue() > maxCount) {
-                    maxCount = statusEntry.getValue();
-                    mostCommon = statusEntry.getKey();
-                }
-            }
-            stats.mostCommonStatus = mostCommon;
-            
-            // Average duration for this route
-            stats.avgDuration = routeDurations.get(route) / count;
-            
-            routeStats.add(stats);
-        }
-        
-        // Sort by popularity
-        Collections.sort(routeStats, (a, b) -> Integer.compare(b.count, a.count));
-        
-        return routeStats;
+        return BookingAnalyticsEngine.run(bookings, true, false).toRouteStats();
     }
     
     /**
      * Analyze booking trends over time
      */
     public static BookingTrends analyzeBookingTrends(List<BookingRequest> bookings) {
-        BookingTrends trends = new BookingTrends();
-        
-        Map<Integer, Integer> hourCounts = new HashMap<>();
-        Map<String, Integer> dayCounts = new HashMap<>();
-        Map<String, Integer> monthCounts = new HashMap<>();
-        
-        for (BookingRequest booking : bookings) {
-            long bookingTimestamp = booking.getTimestamp();
-            
-            // Daily trends
-            String dayName = DateUtils.getDayName(bookingTimestamp);
-            Integer currentDayCount = dayCounts.get(dayName);
-            dayCounts.put(dayName, (currentDayCount == null ? 0 : currentDayCount) + 1);
-            
-            // Monthly trends
-            String monthName = DateUtils.getMonthYear(bookingTimestamp);
-            Integer currentMonthCount = monthCounts.get(monthName);
-            monthCounts.put(monthName, (currentMonthCount == null ? 0 : currentMonthCount) + 1);
-            
-            // Hour trends
-            int hour = DateUtils.getHour(bookingTimestamp);
-            Integer currentHourCount = hourCounts.get(hour);
-            hourCounts.put(hour, (currentHourCount == null ? 0 : currentHourCount) + 1);
-        }
-        
-        trends.dailyBookings.putAll(dayCounts);
-        trends.monthlyBookings.putAll(monthCounts);
-        
-        // Find peak hour
-        int maxHourCount = 0;
-        for (Map.Entry<Integer, Integer> entry : hourCounts.entrySet()) {
-            if (entry.getValue() > maxHourCount) {
-                maxHourCount = entry.getValue();
-                trends.peakBookingHour = entry.getKey();
-            }
-        }
-        
-        // Find busiest day
-        int maxDayCount = 0;
-        for (Map.Entry<String, Integer> entry : dayCounts.entrySet()) {
-            if (entry.getValue() > maxDayCount) {
-                maxDayCount = entry.getValue();
-                trends.busiestDay = entry.getKey();
-            }
-        }
-        
-        // Find busiest month
-        int maxMonthCount = 0;
-        for (Map.Entry<String, Integer> entry : monthCounts.entrySet()) {
-            if (entry.getValue() > maxMonthCount) {
-                maxMonthCount = entry.getValue();
-                trends.busiestMonth = entry.getKey();
-            }
-        }
-        
-        return trends;
+        return BookingAnalyticsEngine.run(bookings, false, true).toBookingTrends();
     }
     
     /**
      * Generate smart insights and recommendations
      */
     public static BookingInsights generateInsights(List<BookingRequest> bookings) {
+        return analyze(bookings).insights;
+    }
+    
+    /**
+     * Generate smart insights from already computed stats, routes and trends
+     */
+    public static BookingInsights generateInsights(BookingStats stats, List<RouteStats> routes, BookingTrends trends) {
         BookingInsights insights = new BookingInsights();
         
-        if (bookings.isEmpty()) {
+        if (stats.totalBookings == 0) {
             insights.primaryInsight = "No booking data available yet. Start making bookings to see insights!";
             return insights;
         }
         
-        BookingStats stats = calculateBookingStats(bookings);
-        List<RouteStats> routes = analyzeRoutePopularity(bookings);
-        BookingTrends trends = analyzeBookingTrends(bookings);
-        
         // Primary insight based on data
         if (stats.completionRate > 80) {
             insights.primaryInsight = "Excellent! You have a " + String.format("%.1f", stats.completionRate) + "% booking completion rate.";
@@ -326,7 +162,7 @@ public class BookingAnalytics {
         insights.preferredBookingDay = trends.busiestDay.isEmpty() ? "No pattern yet" : trends.busiestDay;
         
         // Average bookings per week
-        if (!bookings.isEmpty()) {
+        if (stats.oldestBooking != null) {
             long daysSinceFirst = (System.currentTimeMillis() - stats.oldestBooking.getTimestamp()) / (24 * 60 * 60 * 1000);
             if (daysSinceFirst > 7) {
                 insights.avgBookingsPerWeek = (stats.totalBookings * 7.0) / daysSinceFirst;
@@ -9,6 +9,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
+import com.vehiclebooking.data.DbExecutor;
 import java.util.*;
 
 /**
@@ -142,20 +143,23 @@ public class BookingAnalyticsActivity extends AppCompatActivity {
     private void loadAnalyticsData() {
         showLoading(true);
         
-        // Get booking data
-        BookingStorage storage = new BookingStorage(this);
-        List<BookingRequest> bookings = storage.getBookings();
-        
-        if (bookings.isEmpty()) {
-            showEmptyState();
-            return;
-        }
-        
-        // Calculate analytics
-        BookingAnalytics.BookingStats stats = BookingAnalytics.calculateBookingStats(bookings);
-        List<BookingAnalytics.RouteStats> routes = BookingAnalytics.analyzeRoutePopularity(bookings);
-        BookingAnalytics.BookingTrends trends = BookingAnalytics.analyzeBookingTrends(bookings);
-        BookingAnalytics.BookingInsights insights = BookingAnalytics.generateInsights(bookings);
+        // Read the trigger-maintained aggregates instead of walking every booking
+        DbExecutor.load(this, () -> BookingAnalyticsStore.getBookingStats(this), stats -> {
+            if (stats.totalBookings == 0) {
+                showEmptyState();
+                return;
+            }
+            
+            DbExecutor.load(this, () -> BookingAnalyticsStore.getRouteStats(this), routes ->
+                DbExecutor.load(this, () -> BookingAnalyticsStore.getBookingTrends(this), trends ->
+                    populateAnalytics(stats, routes, trends)));
+        });
+    }
+    
+    private void populateAnalytics(BookingAnalytics.BookingStats stats,
+                                   List<BookingAnalytics.RouteStats> routes,
+                                   BookingAnalytics.BookingTrends trends) {
+        BookingAnalytics.BookingInsights insights = BookingAnalytics.generateInsights(stats, routes, trends);
         
         // Populate UI
         populateStatsCard(stats);
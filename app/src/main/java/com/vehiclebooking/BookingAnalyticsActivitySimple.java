@@ -6,6 +6,7 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
+import com.vehiclebooking.data.DbExecutor;
 import java.util.*;
 
 /**
@@ -40,6 +41,11 @@ public class BookingAnalyticsActivitySimple extends AppCompatActivity {
     }
     
     private void loadAnalyticsData() {
+        // Queries and text building both run on the database thread
+        DbExecutor.load(this, this::buildAnalyticsText, analyticsTextView::setText);
+    }
+    
+    private String buildAnalyticsText() {
         try {
             // Get booking data safely
             BookingStorage storage = new BookingStorage(this);
@@ -47,7 +53,7 @@ public class BookingAnalyticsActivitySimple extends AppCompatActivity {
             
             // Get search data safely  
             List<VehicleSearchActivity.SearchRecord> searches = SearchStorage.getSearchRecords(this);
-            SearchStorage.SearchAnalytics searchAnalytics = SearchStorage.getSearchAnalytics(this);
+            SearchAnalytics searchAnalytics = SearchStorage.getSearchAnalytics(searches);
             
             StringBuilder analyticsText = new StringBuilder();
             
@@ -108,10 +114,10 @@ public class BookingAnalyticsActivitySimple extends AppCompatActivity {
                 
                 analyticsText.append("🚗 POPULAR VEHICLES\n");
                 analyticsText.append("═══════════════════\n");
-                analyticsText.append("🚙 Sedan: ").append(searchAnalytics.sedanSearches).append(" searches\n");
-                analyticsText.append("🚐 SUV: ").append(searchAnalytics.suvSearches).append(" searches\n");
-                analyticsText.append("🚚 Van: ").append(searchAnalytics.vanSearches).append(" searches\n");
-                analyticsText.append("✨ Luxury: ").append(searchAnalytics.luxurySearches).append(" searches\n");
+                for (Map.Entry<String, Integer> entry : searchAnalytics.getVehicleTypeSearches().entrySet()) {
+                    analyticsText.append("🚙 ").append(entry.getKey()).append(": ")
+                        .append(entry.getValue()).append(" searches\n");
+                }
                 analyticsText.append("🏆 Most Popular: ").append(searchAnalytics.getMostPopularVehicleType()).append("\n\n");
                 
                 analyticsText.append("📍 LOCATION DATA\n");
@@ -142,16 +148,16 @@ public class BookingAnalyticsActivitySimple extends AppCompatActivity {
             
             analyticsText.append("\n💡 TIP: Use Admin Dashboard to manage customer leads!");
             
-            analyticsTextView.setText(analyticsText.toString());
+            return analyticsText.toString();
             
         } catch (Exception e) {
             // Fallback if analytics fail
-            analyticsTextView.setText("📊 ANALYTICS DASHBOARD\n\n❌ Unable to load analytics data.\n\n" +
+            return "📊 ANALYTICS DASHBOARD\n\n❌ Unable to load analytics data.\n\n" +
                 "This might happen if:\n" +
                 "• No data is available yet\n" +
                 "• Storage permissions issue\n" +
                 "• First time using the app\n\n" +
-                "💡 Try creating some bookings and vehicle searches first!");
+                "💡 Try creating some bookings and vehicle searches first!";
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,249 @@
+package com.vehiclebooking;
+
+import androidx.annotation.NonNull;
+
+import org.threeten.bp.DayOfWeek;
+import org.threeten.bp.YearMonth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Single-pass analytics over an in-memory booking list.
+ * Works on epoch-millis arithmetic with int[] accumulators instead of formatting every
+ * timestamp through DateUtils; display strings are only built once, from the final counters.
+ * Results are the same BookingAnalytics value objects the screens already consume.
+ */
+final class BookingAnalyticsEngine {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final long HOUR_MS = 60L * 60 * 1000;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final boolean trackRoutes;
+    private final boolean trackTrends;
+    private final TimeZone timeZone = TimeZone.getDefault();
+    private final long weekStartTimestamp;
+    private final long monthStartTimestamp;
+
+    // Stats
+    private int total;
+    private final int[] statusCounts = new int[STATUSES.length];
+    private int thisWeek;
+    private int thisMonth;
+    private long totalDuration;
+    private BookingRequest newest;
+    private BookingRequest oldest;
+
+    // Routes: source -> destination -> accumulator, so no route string is built per booking
+    private final Map<String, Map<String, RouteAccumulator>> routes = new HashMap<>();
+
+    // Trends
+    private final int[] hourCounts = new int[24];
+    private final int[] dayOfWeekCounts = new int[7]; // ISO order, index 0 = Monday
+    private int[] monthCounts = new int[0];            // index = months since monthBase
+    private int monthBase;
+
+    private BookingAnalyticsEngine(boolean trackRoutes, boolean trackTrends) {
+        this.trackRoutes = trackRoutes;
+        this.trackTrends = trackTrends;
+        this.weekStartTimestamp = DateUtils.localDateToTimestamp(DateUtils.today().minusDays(7));
+        this.monthStartTimestamp = DateUtils.localDateToTimestamp(DateUtils.today().minusDays(30));
+    }
+
+    /**
+     * Run one pass computing stats, routes and trends together
+     */
+    @NonNull
+    static BookingAnalyticsEngine analyze(@NonNull List<BookingRequest> bookings) {
+        return run(bookings, true, true);
+    }
+
+    @NonNull
+    static BookingAnalyticsEngine run(@NonNull List<BookingRequest> bookings, boolean trackRoutes, boolean trackTrends) {
+        BookingAnalyticsEngine engine = new BookingAnalyticsEngine(trackRoutes, trackTrends);
+        for (int i = 0, size = bookings.size(); i < size; i++) {
+            engine.accept(bookings.get(i));
+        }
+        return engine;
+    }
+
+    private void accept(BookingRequest booking) {
+        BookingStatus status = booking.getStatus();
+        if (status == null) status = BookingStatus.PENDING;
+        long timestamp = booking.getTimestamp();
+        long duration = travelDateTimestamp(booking) - timestamp;
+
+        total++;
+        statusCounts[status.ordinal()]++;
+        if (timestamp >= weekStartTimestamp) thisWeek++;
+        if (timestamp >= monthStartTimestamp) thisMonth++;
+        totalDuration += duration;
+        if (newest == null || timestamp > newest.getTimestamp()) newest = booking;
+        if (oldest == null || timestamp < oldest.getTimestamp()) oldest = booking;
+
+        if (trackRoutes) {
+            Map<String, RouteAccumulator> byDestination = routes.get(booking.getSource());
+            if (byDestination == null) {
+                byDestination = new HashMap<>();
+                routes.put(booking.getSource(), byDestination);
+            }
+            RouteAccumulator route = byDestination.get(booking.getDestination());
+            if (route == null) {
+                route = new RouteAccumulator();
+                byDestination.put(booking.getDestination(), route);
+            }
+            route.count++;
+            route.statusCounts[status.ordinal()]++;
+            route.totalDuration += duration;
+        }
+
+        if (trackTrends) {
+            long localMillis = timestamp + timeZone.getOffset(timestamp);
+            long epochDay = Math.floorDiv(localMillis, DAY_MS);
+            hourCounts[(int) (Math.floorMod(localMillis, DAY_MS) / HOUR_MS)]++;
+            // 1970-01-01 was a Thursday (ISO index 3)
+            dayOfWeekCounts[(int) Math.floorMod(epochDay + 3, 7L)]++;
+            incrementMonth(monthIndex(epochDay));
+        }
+    }
+
+    /**
+     * Local midnight of the travel date, as DateUtils.localDateToTimestamp computes it
+     */
+    private long travelDateTimestamp(BookingRequest booking) {
+        long utcMidnight = booking.getTravelDate().toEpochDay() * DAY_MS;
+        return utcMidnight - timeZone.getOffset(utcMidnight);
+    }
+
+    /**
+     * Months since year 0 for an epoch day (civil-from-days, no calendar objects)
+     */
+    private static int monthIndex(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 12 + month - 1);
+    }
+
+    private void incrementMonth(int month) {
+        if (monthCounts.length == 0) {
+            monthBase = month;
+            monthCounts = new int[12];
+        } else if (month < monthBase) {
+            int shift = monthBase - month;
+            int[] grown = new int[monthCounts.length + shift];
+            System.arraycopy(monthCounts, 0, grown, shift, monthCounts.length);
+            monthCounts = grown;
+            monthBase = month;
+        } else if (month - monthBase >= monthCounts.length) {
+            int[] grown = new int[Math.max(monthCounts.length * 2, month - monthBase + 1)];
+            System.arraycopy(monthCounts, 0, grown, 0, monthCounts.length);
+            monthCounts = grown;
+        }
+        monthCounts[month - monthBase]++;
+    }
+
+    @NonNull
+    BookingAnalytics.BookingStats toBookingStats() {
+        BookingAnalytics.BookingStats stats = new BookingAnalytics.BookingStats();
+        if (total == 0) {
+            return stats;
+        }
+
+        stats.totalBookings = total;
+        stats.pendingBookings = statusCounts[BookingStatus.PENDING.ordinal()];
+        stats.confirmedBookings = statusCounts[BookingStatus.CONFIRMED.ordinal()];
+        stats.inProgressBookings = statusCounts[BookingStatus.IN_PROGRESS.ordinal()];
+        stats.completedBookings = statusCounts[BookingStatus.COMPLETED.ordinal()];
+        stats.cancelledBookings = statusCounts[BookingStatus.CANCELLED.ordinal()];
+        stats.activeBookings = stats.pendingBookings + stats.confirmedBookings + stats.inProgressBookings;
+        stats.thisWeekBookings = thisWeek;
+        stats.thisMonthBookings = thisMonth;
+        stats.completionRate = (stats.completedBookings * 100.0) / total;
+        stats.cancellationRate = (stats.cancelledBookings * 100.0) / total;
+        stats.avgBookingDuration = totalDuration / total;
+        stats.mostRecentBooking = newest;
+        stats.oldestBooking = oldest;
+        return stats;
+    }
+
+    @NonNull
+    List<BookingAnalytics.RouteStats> toRouteStats() {
+        List<BookingAnalytics.RouteStats> routeStats = new ArrayList<>();
+
+        for (Map.Entry<String, Map<String, RouteAccumulator>> sourceEntry : routes.entrySet()) {
+            for (Map.Entry<String, RouteAccumulator> entry : sourceEntry.getValue().entrySet()) {
+                RouteAccumulator route = entry.getValue();
+                BookingAnalytics.RouteStats stats = new BookingAnalytics.RouteStats(
+                        sourceEntry.getKey() + " → " + entry.getKey(), route.count, (route.count * 100.0) / total);
+                stats.mostCommonStatus = STATUSES[argMax(route.statusCounts)];
+                stats.avgDuration = route.totalDuration / route.count;
+                routeStats.add(stats);
+            }
+        }
+
+        // Sort by popularity
+        Collections.sort(routeStats, (a, b) -> Integer.compare(b.count, a.count));
+        return routeStats;
+    }
+
+    @NonNull
+    BookingAnalytics.BookingTrends toBookingTrends() {
+        BookingAnalytics.BookingTrends trends = new BookingAnalytics.BookingTrends();
+
+        if (total > 0) {
+            trends.peakBookingHour = argMax(hourCounts);
+        }
+
+        int busiestDay = -1;
+        for (int day = 0; day < dayOfWeekCounts.length; day++) {
+            if (dayOfWeekCounts[day] == 0) continue;
+            String dayName = DateUtils.getDayName(DayOfWeek.of(day + 1));
+            trends.dailyBookings.put(dayName, dayOfWeekCounts[day]);
+            if (busiestDay < 0 || dayOfWeekCounts[day] > dayOfWeekCounts[busiestDay]) {
+                busiestDay = day;
+                trends.busiestDay = dayName;
+            }
+        }
+
+        int busiestMonth = -1;
+        for (int i = 0; i < monthCounts.length; i++) {
+            if (monthCounts[i] == 0) continue;
+            int month = monthBase + i;
+            String monthName = DateUtils.formatYearMonth(YearMonth.of(month / 12, month % 12 + 1));
+            trends.monthlyBookings.put(monthName, monthCounts[i]);
+            if (busiestMonth < 0 || monthCounts[i] > monthCounts[busiestMonth]) {
+                busiestMonth = i;
+                trends.busiestMonth = monthName;
+            }
+        }
+
+        return trends;
+    }
+
+    private static int argMax(int[] counts) {
+        int best = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static class RouteAccumulator {
+        int count;
+        long totalDuration;
+        final int[] statusCounts = new int[STATUSES.length];
+    }
+}
@@ -0,0 +1,179 @@
+package com.vehiclebooking;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+
+import com.vehiclebooking.data.AppDatabase;
+import com.vehiclebooking.data.dao.BookingAggregateDao;
+import com.vehiclebooking.data.dao.BookingDao;
+import com.vehiclebooking.data.model.BookingAggregateEntity;
+import com.vehiclebooking.data.model.BookingEntity;
+import com.vehiclebooking.data.model.RouteAggregateEntity;
+
+import org.threeten.bp.DayOfWeek;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.YearMonth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads BookingAnalytics results from the materialized aggregate tables.
+ * The tables are kept current by SQL triggers on every booking insert, update and delete
+ * (see BookingAggregateTriggers), so the cost here does not depend on the number of bookings.
+ * Produces the same BookingStats, RouteStats, BookingTrends and BookingInsights as BookingAnalytics.
+ */
+public class BookingAnalyticsStore {
+
+    private BookingAnalyticsStore() {
+        // Static access only
+    }
+
+    /**
+     * Overall booking statistics
+     */
+    @NonNull
+    public static BookingAnalytics.BookingStats getBookingStats(@NonNull Context context) {
+        AppDatabase database = AppDatabase.getDatabase(context);
+        BookingAggregateDao aggregateDao = database.bookingAggregateDao();
+        BookingDao bookingDao = database.bookingDao();
+        BookingAnalytics.BookingStats stats = new BookingAnalytics.BookingStats();
+
+        stats.totalBookings = (int) aggregateDao.getValue(
+                BookingAggregateEntity.KIND_TOTAL, BookingAggregateEntity.TOTAL_COUNT);
+        if (stats.totalBookings == 0) {
+            return stats;
+        }
+
+        for (BookingAggregateEntity row : aggregateDao.getBuckets(BookingAggregateEntity.KIND_STATUS)) {
+            int count = (int) row.value;
+            switch (BookingStatus.valueOf(row.bucket)) {
+                case PENDING: stats.pendingBookings = count; break;
+                case CONFIRMED: stats.confirmedBookings = count; break;
+                case IN_PROGRESS: stats.inProgressBookings = count; break;
+                case COMPLETED: stats.completedBookings = count; break;
+                case CANCELLED: stats.cancelledBookings = count; break;
+            }
+        }
+        stats.activeBookings = stats.pendingBookings + stats.confirmedBookings + stats.inProgressBookings;
+
+        // Day buckets are ISO dates, so a string range is a date range
+        LocalDate today = DateUtils.today();
+        stats.thisWeekBookings = (int) aggregateDao.sumBucketsFrom(
+                BookingAggregateEntity.KIND_DAY, today.minusDays(7).toString());
+        stats.thisMonthBookings = (int) aggregateDao.sumBucketsFrom(
+                BookingAggregateEntity.KIND_DAY, today.minusDays(30).toString());
+
+        stats.completionRate = (stats.completedBookings * 100.0) / stats.totalBookings;
+        stats.cancellationRate = (stats.cancelledBookings * 100.0) / stats.totalBookings;
+        stats.avgBookingDuration = aggregateDao.getValue(
+                BookingAggregateEntity.KIND_TOTAL, BookingAggregateEntity.TOTAL_DURATION) / stats.totalBookings;
+
+        // Newest and oldest come straight off the timestamp index
+        BookingEntity newest = bookingDao.getNewestBooking();
+        BookingEntity oldest = bookingDao.getOldestBooking();
+        stats.mostRecentBooking = newest != null ? newest.toBookingRequest() : null;
+        stats.oldestBooking = oldest != null ? oldest.toBookingRequest() : null;
+
+        return stats;
+    }
+
+    /**
+     * Route popularity, most popular first
+     */
+    @NonNull
+    public static List<BookingAnalytics.RouteStats> getRouteStats(@NonNull Context context) {
+        BookingAggregateDao aggregateDao = AppDatabase.getDatabase(context).bookingAggregateDao();
+        long totalBookings = aggregateDao.getValue(
+                BookingAggregateEntity.KIND_TOTAL, BookingAggregateEntity.TOTAL_COUNT);
+
+        // Fold the per-status rows into one entry per route
+        Map<String, RouteTotals> routes = new HashMap<>();
+        for (RouteAggregateEntity row : aggregateDao.getRouteAggregates()) {
+            String route = row.source + " → " + row.destination;
+            RouteTotals totals = routes.get(route);
+            if (totals == null) {
+                totals = new RouteTotals();
+                routes.put(route, totals);
+            }
+            totals.count += row.count;
+            totals.totalDuration += row.totalDuration;
+            totals.statusCounts.put(row.status, row.count);
+        }
+
+        List<BookingAnalytics.RouteStats> routeStats = new ArrayList<>(routes.size());
+        for (Map.Entry<String, RouteTotals> entry : routes.entrySet()) {
+            RouteTotals totals = entry.getValue();
+            BookingAnalytics.RouteStats stats = new BookingAnalytics.RouteStats(
+                    entry.getKey(), totals.count, (totals.count * 100.0) / totalBookings);
+
+            BookingStatus mostCommon = BookingStatus.PENDING;
+            int maxCount = 0;
+            for (Map.Entry<BookingStatus, Integer> statusEntry : totals.statusCounts.entrySet()) {
+                if (statusEntry.getValue() > maxCount) {
+                    maxCount = statusEntry.getValue();
+                    mostCommon = statusEntry.getKey();
+                }
+            }
+            stats.mostCommonStatus = mostCommon;
+            stats.avgDuration = totals.totalDuration / totals.count;
+
+            routeStats.add(stats);
+        }
+
+        // Sort by popularity
+        Collections.sort(routeStats, (a, b) -> Integer.compare(b.count, a.count));
+        return routeStats;
+    }
+
+    /**
+     * Booking trends by hour of day, day of week and month
+     */
+    @NonNull
+    public static BookingAnalytics.BookingTrends getBookingTrends(@NonNull Context context) {
+        BookingAggregateDao aggregateDao = AppDatabase.getDatabase(context).bookingAggregateDao();
+        BookingAnalytics.BookingTrends trends = new BookingAnalytics.BookingTrends();
+
+        long maxHourCount = 0;
+        for (BookingAggregateEntity row : aggregateDao.getBuckets(BookingAggregateEntity.KIND_HOUR)) {
+            if (row.value > maxHourCount) {
+                maxHourCount = row.value;
+                trends.peakBookingHour = Integer.parseInt(row.bucket);
+            }
+        }
+
+        // SQLite %w is 0 = Sunday .. 6 = Saturday
+        long maxDayCount = 0;
+        for (BookingAggregateEntity row : aggregateDao.getBuckets(BookingAggregateEntity.KIND_WEEKDAY)) {
+            int weekday = Integer.parseInt(row.bucket);
+            String dayName = DateUtils.getDayName(weekday == 0 ? DayOfWeek.SUNDAY : DayOfWeek.of(weekday));
+            trends.dailyBookings.put(dayName, (int) row.value);
+            if (row.value > maxDayCount) {
+                maxDayCount = row.value;
+                trends.busiestDay = dayName;
+            }
+        }
+
+        long maxMonthCount = 0;
+        for (BookingAggregateEntity row : aggregateDao.getBuckets(BookingAggregateEntity.KIND_MONTH)) {
+            String monthName = DateUtils.formatYearMonth(YearMonth.parse(row.bucket));
+            trends.monthlyBookings.put(monthName, (int) row.value);
+            if (row.value > maxMonthCount) {
+                maxMonthCount = row.value;
+                trends.busiestMonth = monthName;
+            }
+        }
+
+        return trends;
+    }
+
+    private static class RouteTotals {
+        int count;
+        long totalDuration;
+        final Map<BookingStatus, Integer> statusCounts = new EnumMap<>(BookingStatus.class);
+    }
+}
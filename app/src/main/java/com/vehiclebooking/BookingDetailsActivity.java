@@ -11,6 +11,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.jakewharton.threetenabp.AndroidThreeTen;
+import com.vehiclebooking.data.DbExecutor;
 import org.threeten.bp.LocalDate;
 
 public class BookingDetailsActivity extends AppCompatActivity {
@@ -44,7 +45,6 @@ public class BookingDetailsActivity extends AppCompatActivity {
         
         initializeViews();
         loadBookingData();
-        setupClickListeners();
     }
     
     private void initializeViews() {
@@ -75,24 +75,22 @@ public class BookingDetailsActivity extends AppCompatActivity {
         }
         
         // Find the booking from storage
-        booking = findBookingByTimestamp(bookingTimestamp);
-        
-        if (booking == null) {
-            Toast.makeText(this, "Booking not found", Toast.LENGTH_SHORT).show();
-            finish();
-            return;
-        }
-        
-        populateUI();
+        DbExecutor.load(this, () -> findBookingByTimestamp(bookingTimestamp), loaded -> {
+            if (loaded == null) {
+                Toast.makeText(this, "Booking not found", Toast.LENGTH_SHORT).show();
+                finish();
+                return;
+            }
+            
+            booking = loaded;
+            populateUI();
+            // Actions need the booking, so they are wired once it has loaded
+            setupClickListeners();
+        });
     }
     
     private BookingRequest findBookingByTimestamp(long timestamp) {
-        for (BookingRequest b : BookingStorage.getAllBookings(this)) {
-            if (b.getTimestamp() == timestamp) {
-                return b;
-            }
-        }
-        return null;
+        return BookingStorage.getBookingWithHistoryByTimestamp(this, timestamp);
     }
     
     private void populateUI() {
@@ -248,7 +246,7 @@ public class BookingDetailsActivity extends AppCompatActivity {
         String reason = "Status updated from booking details";
         
         if (booking.changeStatus(newStatus, reason)) {
-            BookingStorage.updateBooking(this, booking);
+            DbExecutor.execute(() -> BookingStorage.updateBooking(this, booking));
             
             Toast.makeText(this, "Status updated to " + newStatus.getDisplayName(), 
                          Toast.LENGTH_SHORT).show();
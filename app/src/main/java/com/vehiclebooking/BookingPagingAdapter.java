@@ -0,0 +1,60 @@
+package com.vehiclebooking;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.vehiclebooking.data.model.BookingSummary;
+
+import java.util.Objects;
+
+/**
+ * Paging 3 adapter for the booking list, over BookingSummary projection rows.
+ * Items are diffed by bookingId, so Room invalidations only rebind rows that actually changed.
+ * (PagingDataAdapter does not allow setHasStableIds; the bookingId DiffUtil key plays that role.)
+ */
+public class BookingPagingAdapter extends PagingDataAdapter<BookingSummary, BookingAdapter.BookingViewHolder> {
+
+    private static final DiffUtil.ItemCallback<BookingSummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<BookingSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull BookingSummary oldItem, @NonNull BookingSummary newItem) {
+            return oldItem.bookingId.equals(newItem.bookingId);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull BookingSummary oldItem, @NonNull BookingSummary newItem) {
+            return oldItem.status == newItem.status
+                    && oldItem.timestamp == newItem.timestamp
+                    && oldItem.statusUpdatedAt == newItem.statusUpdatedAt
+                    && Objects.equals(oldItem.source, newItem.source)
+                    && Objects.equals(oldItem.destination, newItem.destination)
+                    && Objects.equals(oldItem.travelDate, newItem.travelDate);
+        }
+    };
+
+    private final BookingAdapter.OnStatusChangeClickListener statusChangeClickListener;
+
+    public BookingPagingAdapter(BookingAdapter.OnStatusChangeClickListener statusChangeClickListener) {
+        super(DIFF_CALLBACK);
+        this.statusChangeClickListener = statusChangeClickListener;
+    }
+
+    @NonNull
+    @Override
+    public BookingAdapter.BookingViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_booking, parent, false);
+        return new BookingAdapter.BookingViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull BookingAdapter.BookingViewHolder holder, int position) {
+        BookingSummary booking = getItem(position);
+        if (booking != null) {
+            BookingAdapter.bindBooking(holder, booking, position, statusChangeClickListener);
+        }
+    }
+}
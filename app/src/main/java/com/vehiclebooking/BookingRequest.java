@@ -33,6 +33,9 @@ public class BookingRequest {
     @NonNull
     private final List<StatusChange> statusHistory;
     
+    @SerializedName("status_updated_at")
+    private long statusUpdatedAt;
+    
     @SerializedName("phone_number")
     @Nullable
     private String phoneNumber;
@@ -53,6 +56,7 @@ public class BookingRequest {
         this.status = BookingStatus.PENDING;
         this.statusHistory = new ArrayList<>();
         this.statusHistory.add(new StatusChange(BookingStatus.PENDING, System.currentTimeMillis(), "Booking request submitted"));
+        this.statusUpdatedAt = this.timestamp;
     }
 
     // Constructor for restoring from storage
@@ -64,6 +68,9 @@ public class BookingRequest {
         this.timestamp = timestamp;
         this.status = status;
         this.statusHistory = statusHistory != null ? statusHistory : new ArrayList<>();
+        this.statusUpdatedAt = this.statusHistory.isEmpty()
+                ? timestamp
+                : this.statusHistory.get(this.statusHistory.size() - 1).getTimestamp();
     }
     
     /**
@@ -85,6 +92,7 @@ public class BookingRequest {
             copy.statusHistory.addAll(this.statusHistory);
             // Restore status
             copy.status = this.status;
+            copy.statusUpdatedAt = this.statusUpdatedAt;
         }
         return copy;
     }
@@ -131,10 +139,23 @@ public class BookingRequest {
         }
         
         status = newStatus;
-        statusHistory.add(new StatusChange(newStatus, System.currentTimeMillis(), reason));
+        statusUpdatedAt = System.currentTimeMillis();
+        statusHistory.add(new StatusChange(newStatus, statusUpdatedAt, reason));
         return true;
     }
 
+    /**
+     * Time of the latest status change. Available even when the booking was loaded
+     * without its status history.
+     */
+    public long getStatusUpdatedAt() {
+        return statusUpdatedAt;
+    }
+
+    public void setStatusUpdatedAt(long statusUpdatedAt) {
+        this.statusUpdatedAt = statusUpdatedAt;
+    }
+
     /**
      * Get the latest status change
      */
@@ -0,0 +1,117 @@
+package com.vehiclebooking;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import org.threeten.bp.LocalDate;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streaming Gson adapter for BookingRequest. Writes the same JSON as the reflective adapter
+ * (field order and @SerializedName names) and reads it back through the restoring
+ * constructor, so missing fields get the constructor's defaults instead of staying unset.
+ */
+public class BookingRequestAdapter extends TypeAdapter<BookingRequest> {
+
+    public static final BookingRequestAdapter INSTANCE = new BookingRequestAdapter();
+
+    @Override
+    public void write(JsonWriter out, BookingRequest booking) throws IOException {
+        if (booking == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("source").value(booking.getSource());
+        out.name("destination").value(booking.getDestination());
+        out.name("travel_date");
+        LocalDateAdapter.INSTANCE.write(out, booking.getTravelDate());
+        out.name("timestamp").value(booking.getTimestamp());
+        out.name("status").value(booking.getStatus() != null ? booking.getStatus().name() : null);
+        out.name("status_history");
+        StatusChangeAdapter.writeList(out, booking.getStatusHistory());
+        out.name("status_updated_at").value(booking.getStatusUpdatedAt());
+        out.name("phone_number").value(booking.getPhoneNumber());
+        out.name("vehicle_type").value(booking.getVehicleType());
+        out.name("booking_id").value(booking.getBookingId());
+        out.endObject();
+    }
+
+    @Override
+    public BookingRequest read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String source = null;
+        String destination = null;
+        LocalDate travelDate = null;
+        long timestamp = 0;
+        BookingStatus status = null;
+        List<StatusChange> statusHistory = null;
+        long statusUpdatedAt = -1;
+        String phoneNumber = null;
+        String vehicleType = null;
+        String bookingId = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "source":
+                    source = in.nextString();
+                    break;
+                case "destination":
+                    destination = in.nextString();
+                    break;
+                case "travel_date":
+                    travelDate = LocalDateAdapter.INSTANCE.read(in);
+                    break;
+                case "timestamp":
+                    timestamp = in.nextLong();
+                    break;
+                case "status":
+                    status = StatusChangeAdapter.readStatus(in);
+                    break;
+                case "status_history":
+                    statusHistory = StatusChangeAdapter.readList(in);
+                    break;
+                case "status_updated_at":
+                    statusUpdatedAt = in.nextLong();
+                    break;
+                case "phone_number":
+                    phoneNumber = in.nextString();
+                    break;
+                case "vehicle_type":
+                    vehicleType = in.nextString();
+                    break;
+                case "booking_id":
+                    bookingId = in.nextString();
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        BookingRequest booking = new BookingRequest(source, destination, travelDate,
+                timestamp, status, statusHistory);
+        // Without it the constructor derives the time from the last history entry
+        if (statusUpdatedAt >= 0) {
+            booking.setStatusUpdatedAt(statusUpdatedAt);
+        }
+        booking.setPhoneNumber(phoneNumber);
+        booking.setVehicleType(vehicleType);
+        booking.setBookingId(bookingId);
+        return booking;
+    }
+}
@@ -1,22 +1,41 @@
 package com.vehiclebooking;
 
 import android.content.Context;
+import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.vehiclebooking.data.AppDatabase;
+import com.vehiclebooking.data.BookingBatchWriter;
+import com.vehiclebooking.data.BookingCache;
+import com.vehiclebooking.data.BookingIdGenerator;
 import com.vehiclebooking.data.dao.BookingDao;
+import com.vehiclebooking.data.dao.BookingQueries;
+import com.vehiclebooking.data.model.BookingCounts;
 import com.vehiclebooking.data.model.BookingEntity;
+import com.vehiclebooking.data.model.BookingSummary;
+import com.vehiclebooking.data.model.BookingWithHistory;
+import com.vehiclebooking.data.model.StatusChangeEntity;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import org.threeten.bp.LocalDate;
 
-import org.threeten.bp.LocalDate;
-
+/**
+ * Booking persistence facade for the Java screens.
+ * Storage methods block on SQLCipher I/O; UI code calls them through DbExecutor.
+ * Single-booking and per-phone lookups are served from BookingCache when they can be.
+ */
 public class BookingStorage {
     
+    private static final String TAG = "BookingStorage";
+    
+    /**
+     * Default number of rows per keyset page
+     */
+    public static final int PAGE_SIZE = 50;
+    
     private Context context;
     
     // Instance constructor for analytics activity
@@ -32,25 +51,222 @@ public class BookingStorage {
     public static void saveBooking(@NonNull Context context, @NonNull BookingRequest booking) {
         BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
         
-        // Check for duplicate booking ID to prevent duplicates
-        if (booking.getBookingId() != null) {
-            BookingEntity existing = bookingDao.getBookingById(booking.getBookingId());
-            if (existing != null) {
-                // Duplicate booking ID found, don't save
-                return;
-            }
+        // Add new booking; a duplicate booking ID is ignored by the insert itself
+        BookingEntity entity = new BookingEntity(booking);
+        if (bookingDao.insertNewBookingAndHistory(entity)) {
+            BookingCache.get(context).onInserted(entity);
         }
-        
-        // Add new booking
-        bookingDao.insertBookingBlocking(new BookingEntity(booking));
+    }
+
+    /**
+     * Bulk insert for imports and restores. Bookings whose ID is already stored are skipped.
+     * Runs in chunked transactions; see BookingBatchWriter for the returned metrics.
+     */
+    @NonNull
+    public static BookingBatchWriter.BatchWriteStats saveBookings(@NonNull Context context,
+                                                                  @NonNull List<BookingRequest> bookings) {
+        List<BookingEntity> entities = new ArrayList<>(bookings.size());
+        for (BookingRequest booking : bookings) {
+            entities.add(new BookingEntity(booking));
+        }
+        BookingBatchWriter writer = new BookingBatchWriter(AppDatabase.getDatabase(context));
+        BookingBatchWriter.BatchWriteStats stats = writer.write(entities, BookingBatchWriter.OnExisting.IGNORE);
+        BookingCache.get(context).invalidateAll();
+        Log.d(TAG, "Bulk booking import: " + stats);
+        return stats;
     }
 
     @NonNull
     public static List<BookingRequest> getAllBookings(@NonNull Context context) {
         BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
-        List<BookingEntity> entities = bookingDao.getAllBookingsBlocking();
-        
-        List<BookingRequest> bookings = new ArrayList<>();
+        return toBookingRequests(bookingDao.findAllBookings());
+    }
+
+    /**
+     * Find a single booking by its booking ID (primary key lookup)
+     */
+    @Nullable
+    public static BookingRequest getBookingById(@NonNull Context context, @NonNull String bookingId) {
+        BookingCache cache = BookingCache.get(context);
+        BookingRequest cached = cache.getById(bookingId, false);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        BookingEntity entity = bookingDao.getBookingById(bookingId);
+        if (entity == null) {
+            return null;
+        }
+        cache.putLoaded(generation, entity, null);
+        return entity.toBookingRequest();
+    }
+
+    /**
+     * Get summaries of all bookings, newest first (list screens)
+     */
+    @NonNull
+    public static List<BookingSummary> getBookingSummaries(@NonNull Context context) {
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return bookingDao.getAllBookingSummaries();
+    }
+
+    /**
+     * Get the next page of booking summaries, newest first.
+     * Pass the last summary of the previous page as {@code after}, or null for the first page.
+     */
+    @NonNull
+    public static List<BookingSummary> getBookingSummariesPage(@NonNull Context context, @Nullable BookingSummary after, int limit) {
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return bookingDao.getBookingSummariesPage(
+                after != null ? after.timestamp : Long.MAX_VALUE,
+                after != null ? after.bookingId : "",
+                limit);
+    }
+
+    /**
+     * Find a single booking by its creation timestamp (indexed lookup)
+     */
+    @Nullable
+    public static BookingRequest getBookingByTimestamp(@NonNull Context context, long timestamp) {
+        BookingCache cache = BookingCache.get(context);
+        BookingRequest cached = cache.getByTimestamp(timestamp, false);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        BookingEntity entity = bookingDao.findBookingByTimestamp(timestamp);
+        if (entity == null) {
+            return null;
+        }
+        cache.putLoaded(generation, entity, null);
+        return entity.toBookingRequest();
+    }
+
+    /**
+     * Find a single booking by its creation timestamp, together with its full status history
+     */
+    @Nullable
+    public static BookingRequest getBookingWithHistoryByTimestamp(@NonNull Context context, long timestamp) {
+        BookingCache cache = BookingCache.get(context);
+        BookingRequest cached = cache.getByTimestamp(timestamp, true);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        BookingWithHistory entity = bookingDao.findBookingWithHistoryByTimestamp(timestamp);
+        if (entity == null) {
+            return null;
+        }
+        BookingRequest booking = entity.toBookingRequest();
+        cache.putLoaded(generation, entity.booking, booking.getStatusHistory());
+        return booking;
+    }
+
+    /**
+     * Load the status history of a booking, oldest change first.
+     * Bookings read through the list/page queries come without history.
+     */
+    @NonNull
+    public static List<StatusChange> getStatusHistory(@NonNull Context context, @NonNull String bookingId) {
+        List<StatusChange> cached = BookingCache.get(context).getStatusHistory(bookingId);
+        if (cached != null) {
+            return cached;
+        }
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return StatusChangeEntity.toHistory(bookingDao.getStatusHistory(bookingId));
+    }
+
+    /**
+     * Get all bookings for a customer phone number, newest first
+     */
+    @NonNull
+    public static List<BookingRequest> getBookingsByPhoneNumber(@NonNull Context context, @NonNull String phoneNumber) {
+        BookingCache cache = BookingCache.get(context);
+        List<BookingRequest> cached = cache.getByPhoneNumber(phoneNumber);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.generation();
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        List<BookingEntity> entities = bookingDao.findBookingsByPhoneNumber(phoneNumber);
+        cache.putPhoneNumberResult(generation, phoneNumber, entities);
+        return toBookingRequests(entities);
+    }
+
+    /**
+     * Get the next page of bookings, newest first.
+     * Pass the last booking of the previous page as {@code after}, or null for the first page.
+     */
+    @NonNull
+    public static List<BookingRequest> getBookingsPage(@NonNull Context context, @Nullable BookingRequest after, int limit) {
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return toBookingRequests(bookingDao.getBookingsPage(
+                cursorTimestamp(after), cursorBookingId(after), limit));
+    }
+
+    /**
+     * Get the next page of bookings for a phone number, newest first
+     */
+    @NonNull
+    public static List<BookingRequest> getBookingsByPhoneNumberPage(@NonNull Context context, @NonNull String phoneNumber,
+                                                                     @Nullable BookingRequest after, int limit) {
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return toBookingRequests(bookingDao.getBookingsByPhoneNumberPage(
+                phoneNumber, cursorTimestamp(after), cursorBookingId(after), limit));
+    }
+
+    /**
+     * Get the next page of bookings with the given status, newest first
+     */
+    @NonNull
+    public static List<BookingRequest> getBookingsByStatusPage(@NonNull Context context, @NonNull BookingStatus status,
+                                                                @Nullable BookingRequest after, int limit) {
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return toBookingRequests(bookingDao.getBookingsByStatusPage(
+                status, cursorTimestamp(after), cursorBookingId(after), limit));
+    }
+
+    /**
+     * Get the next page of bookings created within [fromTimestamp, toTimestamp], newest first
+     */
+    @NonNull
+    public static List<BookingRequest> getBookingsBetweenPage(@NonNull Context context, long fromTimestamp, long toTimestamp,
+                                                               @Nullable BookingRequest after, int limit) {
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        long beforeTimestamp = after != null ? after.getTimestamp() : toTimestamp + 1;
+        return toBookingRequests(bookingDao.getBookingsSincePage(
+                fromTimestamp, beforeTimestamp, cursorBookingId(after), limit));
+    }
+
+    /**
+     * Prefix-search bookings by source, destination, booking ID, vehicle type, phone or travel date
+     * using the FTS index, newest first
+     */
+    @NonNull
+    public static List<BookingRequest> searchBookings(@NonNull Context context, @Nullable String searchQuery, int limit) {
+        String match = BookingQueries.ftsPrefixMatch(searchQuery);
+        if (match == null) {
+            return new ArrayList<>();
+        }
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return toBookingRequests(bookingDao.searchBookings(match, limit));
+    }
+
+    private static long cursorTimestamp(@Nullable BookingRequest after) {
+        return after != null ? after.getTimestamp() : Long.MAX_VALUE;
+    }
+
+    @NonNull
+    private static String cursorBookingId(@Nullable BookingRequest after) {
+        return after != null && after.getBookingId() != null ? after.getBookingId() : "";
+    }
+
+    @NonNull
+    private static List<BookingRequest> toBookingRequests(@NonNull List<BookingEntity> entities) {
+        List<BookingRequest> bookings = new ArrayList<>(entities.size());
         for (BookingEntity entity : entities) {
             bookings.add(entity.toBookingRequest());
         }
@@ -59,7 +275,8 @@ public class BookingStorage {
 
     public static void clearAllBookings(@NonNull Context context) {
         BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
-        bookingDao.deleteAllBookingsBlocking();
+        bookingDao.deleteAllBookingsAndHistory();
+        BookingCache.get(context).invalidateAll();
     }
 
     /**
@@ -67,7 +284,17 @@ public class BookingStorage {
      */
     public static void updateBooking(@NonNull Context context, @NonNull BookingRequest updatedBooking) {
         BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
-        bookingDao.updateBookingBlocking(new BookingEntity(updatedBooking));
+        BookingEntity entity = new BookingEntity(updatedBooking);
+        bookingDao.updateBookingAndHistory(entity);
+        BookingCache.get(context).onUpdated(entity);
+    }
+
+    /**
+     * Hit rate and size of the booking lookup cache
+     */
+    @NonNull
+    public static BookingCache.Stats getCacheStats(@NonNull Context context) {
+        return BookingCache.get(context).getStats();
     }
     
     /**
@@ -76,13 +303,7 @@ public class BookingStorage {
     @NonNull
     public static List<BookingRequest> getBookingsByStatus(@NonNull Context context, @NonNull BookingStatus status) {
         BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
-        List<BookingEntity> entities = bookingDao.getBookingsByStatus(status);
-        
-        List<BookingRequest> bookings = new ArrayList<>();
-        for (BookingEntity entity : entities) {
-            bookings.add(entity.toBookingRequest());
-        }
-        return bookings;
+        return toBookingRequests(bookingDao.getBookingsByStatus(status));
     }
 
     /**
@@ -90,39 +311,76 @@ public class BookingStorage {
      */
     @NonNull
     public static BookingStats getBookingStats(@NonNull Context context) {
-        List<BookingRequest> allBookings = getAllBookings(context);
         BookingStats stats = new BookingStats();
         
-        for (BookingRequest booking : allBookings) {
-            BookingStatus status = booking.getStatus();
+        for (BookingCounts.ByStatus row : getStatusCounts(context)) {
+            BookingStatus status = row.status;
             if (status == null) {
                 status = BookingStatus.PENDING;
             }
-            stats.incrementCount(status);
+            stats.addCount(status, row.count);
         }
         
         return stats;
     }
 
     /**
-     * Generate a unique booking ID
+     * Get booking counts grouped by status (computed in SQL)
      */
     @NonNull
-    public static String generateUniqueBookingId(@NonNull Context context) {
-        long timestamp = System.currentTimeMillis();
-        int randomComponent = (int)(Math.random() * 1000);
-        String bookingId = "BK" + timestamp + randomComponent;
-        
-        // Ensure this ID doesn't already exist
+    public static List<BookingCounts.ByStatus> getStatusCounts(@NonNull Context context) {
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return bookingDao.getStatusCounts();
+    }
+
+    /**
+     * Get booking counts grouped by requested vehicle type (computed in SQL)
+     */
+    @NonNull
+    public static List<BookingCounts.ByVehicleType> getVehicleTypeCounts(@NonNull Context context) {
+        BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
+        return bookingDao.getVehicleTypeCounts();
+    }
+
+    /**
+     * Count bookings matching a search query and optional status filter (computed in SQL)
+     */
+    public static int countFilteredBookings(@NonNull Context context, @Nullable String searchQuery,
+                                            @Nullable BookingStatus statusFilter) {
         BookingDao bookingDao = AppDatabase.getDatabase(context).bookingDao();
-        BookingEntity existing = bookingDao.getBookingById(bookingId);
+        return bookingDao.countBookings(BookingQueries.countFilteredBookings(searchQuery, statusFilter));
+    }
+
+    /**
+     * Get per-status counts for the booking list filter chips
+     */
+    @NonNull
+    public static BookingFilter.FilterStats getFilterStats(@NonNull Context context) {
+        BookingFilter.FilterStats stats = new BookingFilter.FilterStats();
         
-        if (existing != null) {
-            // Very rare collision, generate new ID
-            bookingId = "BK" + System.currentTimeMillis() + (int)(Math.random() * 10000);
+        for (BookingCounts.ByStatus row : getStatusCounts(context)) {
+            BookingStatus status = row.status;
+            if (status == null) status = BookingStatus.PENDING;
+            
+            switch (status) {
+                case PENDING: stats.pendingCount += row.count; break;
+                case CONFIRMED: stats.confirmedCount += row.count; break;
+                case IN_PROGRESS: stats.inProgressCount += row.count; break;
+                case COMPLETED: stats.completedCount += row.count; break;
+                case CANCELLED: stats.cancelledCount += row.count; break;
+            }
+            stats.totalCount += row.count;
         }
         
-        return bookingId;
+        return stats;
+    }
+
+    /**
+     * Generate a unique booking ID. No database lookup is needed; see BookingIdGenerator.
+     */
+    @NonNull
+    public static String generateUniqueBookingId(@NonNull Context context) {
+        return BookingIdGenerator.shared().nextId();
     }
     
     /**
@@ -217,12 +475,16 @@ public class BookingStorage {
         private int cancelledCount = 0;
         
         public void incrementCount(BookingStatus status) {
+            addCount(status, 1);
+        }
+        
+        public void addCount(BookingStatus status, int count) {
             switch (status) {
-                case PENDING: pendingCount++; break;
-                case CONFIRMED: confirmedCount++; break;
-                case IN_PROGRESS: inProgressCount++; break;
-                case COMPLETED: completedCount++; break;
-                case CANCELLED: cancelledCount++; break;
+                case PENDING: pendingCount += count; break;
+                case CONFIRMED: confirmedCount += count; break;
+                case IN_PROGRESS: inProgressCount += count; break;
+                case COMPLETED: completedCount += count; break;
+                case CANCELLED: cancelledCount += count; break;
             }
         }
         
@@ -10,9 +10,9 @@ import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
+import com.vehiclebooking.data.DbExecutor;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Collections;
-import java.util.Comparator;
 
 public class CustomerBookingStatusActivity extends AppCompatActivity {
     private LinearLayout bookingsContainer;
@@ -54,25 +54,20 @@ public class CustomerBookingStatusActivity extends AppCompatActivity {
     }
 
     private void loadCustomerBookings() {
-        bookingsContainer.removeAllViews();
-        
-        // Get all bookings and filter by phone number
-        List<BookingRequest> allBookings = BookingStorage.getAllBookings(this);
-        List<BookingRequest> customerBookings = new java.util.ArrayList<>();
-        
-        for (BookingRequest booking : allBookings) {
-            if (booking.getPhoneNumber() != null && 
-                booking.getPhoneNumber().equals(customerPhoneNumber)) {
-                customerBookings.add(booking);
+        // Indexed lookup by phone number
+        DbExecutor.load(this, () -> customerPhoneNumber != null
+            ? BookingStorage.getBookingsByPhoneNumber(this, customerPhoneNumber)
+            : new ArrayList<BookingRequest>(), customerBookings -> {
+            // Cleared here so overlapping loads (onCreate + onResume) don't stack rows
+            bookingsContainer.removeAllViews();
+            
+            if (customerBookings.isEmpty()) {
+                showEmptyState();
+            } else {
+                hideEmptyState();
+                displayCustomerBookings(customerBookings);
             }
-        }
-        
-        if (customerBookings.isEmpty()) {
-            showEmptyState();
-        } else {
-            hideEmptyState();
-            displayCustomerBookings(customerBookings);
-        }
+        });
     }
 
     private void showEmptyState() {
@@ -88,14 +83,7 @@ public class CustomerBookingStatusActivity extends AppCompatActivity {
     }
 
     private void displayCustomerBookings(List<BookingRequest> bookings) {
-        // Sort by timestamp (newest first)
-        Collections.sort(bookings, new Comparator<BookingRequest>() {
-            @Override
-            public int compare(BookingRequest b1, BookingRequest b2) {
-                return Long.compare(b2.getTimestamp(), b1.getTimestamp());
-            }
-        });
-        
+        // Already sorted newest first by the query
         for (BookingRequest booking : bookings) {
             createBookingStatusView(booking);
         }
@@ -246,7 +234,7 @@ public class CustomerBookingStatusActivity extends AppCompatActivity {
             .setPositiveButton("Yes, Cancel", (dialog, which) -> {
                 // Update booking status to cancelled
                 booking.changeStatus(BookingStatus.CANCELLED, "Cancelled by customer");
-                BookingStorage.updateBooking(this, booking);
+                DbExecutor.execute(() -> BookingStorage.updateBooking(this, booking));
                 
                 Toast.makeText(this, "✅ Booking cancelled successfully", Toast.LENGTH_LONG).show();
                 loadCustomerBookings(); // Refresh the view
@@ -270,21 +258,25 @@ public class CustomerBookingStatusActivity extends AppCompatActivity {
             DateUtils.formatTimestampLong(booking.getTimestamp())
         ).append("\n\n");
         
-        // Show status history if available
-        if (booking.getStatusHistory() != null && !booking.getStatusHistory().isEmpty()) {
-            details.append("📊 STATUS HISTORY\n");
-            details.append("════════════════\n");
-            for (StatusChange change : booking.getStatusHistory()) {
-                details.append("• ").append(change.getStatus().getDisplayName())
-                    .append(" - ").append(change.getReason()).append("\n");
+        // Show status history if available (list rows come without it, so load it now)
+        DbExecutor.load(this, () -> booking.getBookingId() != null
+                ? BookingStorage.getStatusHistory(this, booking.getBookingId())
+                : booking.getStatusHistory(), statusHistory -> {
+            if (!statusHistory.isEmpty()) {
+                details.append("📊 STATUS HISTORY\n");
+                details.append("════════════════\n");
+                for (StatusChange change : statusHistory) {
+                    details.append("• ").append(change.getStatus().getDisplayName())
+                        .append(" - ").append(change.getReason()).append("\n");
+                }
             }
-        }
-        
-        new AlertDialog.Builder(this)
-            .setTitle("Booking Details")
-            .setMessage(details.toString())
-            .setPositiveButton("OK", null)
-            .show();
+            
+            new AlertDialog.Builder(this)
+                .setTitle("Booking Details")
+                .setMessage(details.toString())
+                .setPositiveButton("OK", null)
+                .show();
+        });
     }
 
     @Override
@@ -3,11 +3,16 @@ package com.vehiclebooking;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import org.threeten.bp.DayOfWeek;
 import org.threeten.bp.LocalDate;
 import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.YearMonth;
 import org.threeten.bp.ZoneId;
 import org.threeten.bp.format.DateTimeFormatter;
 import org.threeten.bp.format.DateTimeParseException;
+import org.threeten.bp.format.TextStyle;
+
+import java.util.Locale;
 
 /**
  * Utility class for date operations using java.time API via ThreeTenABP.
@@ -205,6 +210,22 @@ public class DateUtils {
         return dateTime.format(MONTH_YEAR_FORMATTER);
     }
     
+    /**
+     * Get day name (e.g. "Monday") for a day of week, same text as getDayName(timestamp)
+     */
+    @NonNull
+    public static String getDayName(@NonNull DayOfWeek dayOfWeek) {
+        return dayOfWeek.getDisplayName(TextStyle.FULL, Locale.getDefault());
+    }
+    
+    /**
+     * Format a year and month (e.g. "June 2024"), same text as getMonthYear(timestamp)
+     */
+    @NonNull
+    public static String formatYearMonth(@NonNull YearMonth yearMonth) {
+        return yearMonth.format(MONTH_YEAR_FORMATTER);
+    }
+    
     /**
      * Get hour from timestamp
      */
@@ -0,0 +1,183 @@
+package com.vehiclebooking;
+
+import android.content.Context;
+import android.location.Address;
+import android.location.Geocoder;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.vehiclebooking.data.AppDatabase;
+import com.vehiclebooking.data.DbExecutor;
+import com.vehiclebooking.data.model.AvailableDriver;
+import com.vehiclebooking.data.model.DriverLocationEntity;
+import com.vehiclebooking.data.model.UserEntity;
+import com.vehiclebooking.dispatch.DispatchEngine;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Driver dispatch facade for the Java screens. Keeps DispatchEngine.shared() in step with the
+ * users and driver_locations tables and assigns pending bookings to the nearest available driver.
+ *
+ * The engine is seeded on first use from every active, available driver's last stored location,
+ * so drivers who went available on another screen or in an earlier session can be matched.
+ * Methods block on SQLCipher I/O; UI code calls them through DbExecutor, whose single thread
+ * keeps them in order with the user updates queued before them. Geocoding the pickup is a
+ * network lookup, so it is done first with {@link #resolvePickup}, off the db-io thread.
+ */
+public class DriverDispatch {
+
+    public enum Result {
+        ASSIGNED,
+        // Only pending bookings are dispatched
+        NOT_PENDING,
+        NO_DRIVER_NEARBY
+    }
+
+    /**
+     * Receives a geocoded pickup point on the main thread
+     */
+    public interface PickupCallback {
+        // {latitude, longitude}, or null if the address could not be turned into coordinates
+        void onPickup(@Nullable double[] pickup);
+    }
+
+    // Pre-33 geocoder lookups block on the network; kept off db-io so storage calls are not held up
+    private static final ExecutorService GEOCODER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "geocoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Object LOCK = new Object();
+    // Guarded by LOCK
+    private static boolean seeded;
+
+    /**
+     * Store a driver's location and make them available for matching there
+     */
+    public static void setDriverAvailable(Context context, User driver, double latitude, double longitude) {
+        AppDatabase database = AppDatabase.getDatabase(context);
+        database.driverLocationDao().saveDriverLocation(
+                new DriverLocationEntity(driver.getUserId(), latitude, longitude, System.currentTimeMillis()));
+        getEngine(context).setDriverAvailable(driver.getUserId(),
+                DispatchEngine.vehicleTypeOf(driver.getVehicleDetails()), latitude, longitude);
+    }
+
+    // Take a driver out of matching (their users row is updated by the caller)
+    public static void setDriverOffline(Context context, String driverId) {
+        getEngine(context).setDriverOffline(driverId);
+    }
+
+    /**
+     * Geocode a booking's source address and hand the pickup point to {@code callback} on the
+     * main thread
+     */
+    public static void resolvePickup(Context context, @Nullable String address, @NonNull PickupCallback callback) {
+        if (address == null || address.trim().isEmpty() || !Geocoder.isPresent()) {
+            DbExecutor.postToMain(() -> callback.onPickup(null));
+            return;
+        }
+        Geocoder geocoder = new Geocoder(context.getApplicationContext(), Locale.getDefault());
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            geocoder.getFromLocationName(address, 1, new Geocoder.GeocodeListener() {
+                @Override
+                public void onGeocode(@NonNull List<Address> addresses) {
+                    double[] pickup = firstLocation(addresses);
+                    DbExecutor.postToMain(() -> callback.onPickup(pickup));
+                }
+
+                @Override
+                public void onError(@Nullable String errorMessage) {
+                    // No network or backend service
+                    DbExecutor.postToMain(() -> callback.onPickup(null));
+                }
+            });
+        } else {
+            GEOCODER.execute(() -> {
+                double[] pickup = geocode(geocoder, address);
+                DbExecutor.postToMain(() -> callback.onPickup(pickup));
+            });
+        }
+    }
+
+    /**
+     * Confirm a pending booking with the nearest available driver of its vehicle type to the
+     * pickup point (see {@link #resolvePickup}). The driver is marked unavailable and named in the
+     * status history. If saving the assignment fails the driver is put back up for matching and
+     * the exception is rethrown.
+     */
+    @NonNull
+    public static Result assignNearestDriver(Context context, BookingRequest booking,
+                                             double pickupLatitude, double pickupLongitude) {
+        BookingStatus status = booking.getStatus();
+        if (status != null && status != BookingStatus.PENDING) {
+            return Result.NOT_PENDING;
+        }
+        DispatchEngine engine = getEngine(context);
+        DispatchEngine.Match match = engine.match(booking, pickupLatitude, pickupLongitude);
+        if (match == null) {
+            return Result.NO_DRIVER_NEARBY;
+        }
+
+        AppDatabase database = AppDatabase.getDatabase(context);
+        try {
+            UserEntity driver = database.userDao().findUserById(match.getDriverId());
+            String driverName = driver != null && driver.fullName != null ? driver.fullName : match.getDriverId();
+            booking.changeStatus(BookingStatus.CONFIRMED, String.format(Locale.US,
+                    "Assigned to driver %s (%.1f km from pickup)", driverName, match.getDistanceKm()));
+            // Both writes or neither, so a driver left available in the users table is also matchable
+            database.runInTransaction(() -> {
+                database.userDao().setUserAvailable(match.getDriverId(), false);
+                BookingStorage.updateBooking(context, booking);
+            });
+        } catch (RuntimeException e) {
+            engine.release(match);
+            throw e;
+        }
+        return Result.ASSIGNED;
+    }
+
+    @NonNull
+    private static DispatchEngine getEngine(Context context) {
+        DispatchEngine engine = DispatchEngine.shared();
+        synchronized (LOCK) {
+            if (!seeded) {
+                List<AvailableDriver> drivers =
+                        AppDatabase.getDatabase(context).driverLocationDao().findAvailableDrivers();
+                for (AvailableDriver driver : drivers) {
+                    engine.setDriverAvailable(driver.driverId, DispatchEngine.vehicleTypeOf(driver.vehicleDetails),
+                            driver.latitude, driver.longitude);
+                }
+                seeded = true;
+            }
+        }
+        return engine;
+    }
+
+    // {latitude, longitude} of the best match for an address, or null; blocks on the network
+    @Nullable
+    @SuppressWarnings("deprecation")
+    private static double[] geocode(Geocoder geocoder, String address) {
+        try {
+            return firstLocation(geocoder.getFromLocationName(address, 1));
+        } catch (IOException | IllegalArgumentException e) {
+            // No network or backend service
+            return null;
+        }
+    }
+
+    @Nullable
+    private static double[] firstLocation(@Nullable List<Address> addresses) {
+        if (addresses == null || addresses.isEmpty()) {
+            return null;
+        }
+        return new double[] {addresses.get(0).getLatitude(), addresses.get(0).getLongitude()};
+    }
+}
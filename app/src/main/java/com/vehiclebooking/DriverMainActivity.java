@@ -1,6 +1,9 @@
 package com.vehiclebooking;
 
+import android.Manifest;
+import android.content.Context;
 import android.content.Intent;
+import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -10,8 +13,11 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import com.google.android.gms.location.LocationServices;
 import com.google.android.material.card.MaterialCardView;
+import com.vehiclebooking.data.DbExecutor;
 
 public class DriverMainActivity extends AppCompatActivity {
 
@@ -110,7 +116,8 @@ public class DriverMainActivity extends AppCompatActivity {
     private void updateDriverAvailability(boolean isAvailable) {
         User currentUser = userManager.getCurrentUser();
         currentUser.setAvailable(isAvailable);
-        userManager.updateUser(currentUser);
+        DbExecutor.execute(() -> userManager.updateUser(currentUser));
+        updateDispatchIndex(currentUser, isAvailable);
         
         statusText.setText(isAvailable ? "Status: Available for rides" : "Status: Offline");
         statusText.setTextColor(isAvailable ? 
@@ -121,6 +128,34 @@ public class DriverMainActivity extends AppCompatActivity {
                       Toast.LENGTH_SHORT).show();
     }
 
+    /**
+     * Add the driver to the dispatch index at their last known location, or take them out of it.
+     * Without a location the driver cannot be matched by distance and stays out of the index.
+     * Queued behind the users row update, so the index is never seeded from a stale row.
+     */
+    private void updateDispatchIndex(User driver, boolean isAvailable) {
+        Context appContext = getApplicationContext();
+        if (!isAvailable) {
+            DbExecutor.execute(() -> DriverDispatch.setDriverOffline(appContext, driver.getUserId()));
+            return;
+        }
+        if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION)
+                != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+
+        LocationServices.getFusedLocationProviderClient(this).getLastLocation()
+                .addOnSuccessListener(this, location -> {
+                    // The switch may have been turned off again while the location was read
+                    if (location != null && driver.isAvailable()) {
+                        double latitude = location.getLatitude();
+                        double longitude = location.getLongitude();
+                        DbExecutor.execute(() ->
+                                DriverDispatch.setDriverAvailable(appContext, driver, latitude, longitude));
+                    }
+                });
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.driver_menu, menu);
@@ -146,11 +181,18 @@ public class DriverMainActivity extends AppCompatActivity {
     private void handleLogout() {
         // Set driver offline when logging out
         User currentUser = userManager.getCurrentUser();
+        Context appContext = getApplicationContext();
+        DbExecutor.execute(() -> DriverDispatch.setDriverOffline(appContext, currentUser.getUserId()));
         if (currentUser.isAvailable()) {
             currentUser.setAvailable(false);
-            userManager.updateUser(currentUser);
+            // Log out only once the offline status is stored, so the session is not re-saved
+            DbExecutor.execute(this, () -> userManager.updateUser(currentUser), this::completeLogout);
+        } else {
+            completeLogout();
         }
-        
+    }
+
+    private void completeLogout() {
         userManager.logout();
         Toast.makeText(this, "Driver logged out successfully", Toast.LENGTH_SHORT).show();
         redirectToLogin();
@@ -3,6 +3,8 @@ package com.vehiclebooking;
 import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.View;
@@ -13,13 +15,21 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+import com.vehiclebooking.data.DbExecutor;
+import com.vehiclebooking.data.model.BookingSummary;
+import com.vehiclebooking.data.repository.BookingPager;
 
 public class EnhancedViewBookingsActivity extends AppCompatActivity implements BookingAdapter.OnStatusChangeClickListener {
 
+    // Wait for a pause in typing before re-running the search query
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+
     // UI Components
     private TextView bookingCountText;
     private EditText searchEditText;
@@ -38,10 +48,10 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
     private TextView sortByDate, sortByStatus, sortByRoute;
 
     // Data
-    private List<BookingRequest> allBookings;
-    private List<BookingRequest> filteredBookings;
-    private BookingAdapter bookingAdapter;
+    private LiveData<PagingData<BookingSummary>> bookingPages;
+    private BookingPagingAdapter bookingAdapter;
     private BookingFilter.FilterStats filterStats;
+    private int filteredCount;
 
     // Filter state
     private String currentSearchQuery = "";
@@ -49,6 +59,10 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
     private BookingFilter.SortType currentSort = BookingFilter.SortType.DATE_NEWEST_FIRST;
     private boolean isDateSortAscending = false;
 
+    // Debounced search
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::applyFilters;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -95,6 +109,8 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
 
     private void setupRecyclerView() {
         recyclerBookings.setLayoutManager(new LinearLayoutManager(this));
+        bookingAdapter = new BookingPagingAdapter(this);
+        recyclerBookings.setAdapter(bookingAdapter);
     }
 
     private void setupClickListeners() {
@@ -105,9 +121,14 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                currentSearchQuery = s.toString();
+                String query = s.toString();
                 clearSearchButton.setVisibility(s.length() > 0 ? View.VISIBLE : View.GONE);
-                applyFilters();
+                if (query.trim().equals(currentSearchQuery.trim())) {
+                    return;
+                }
+                currentSearchQuery = query;
+                searchHandler.removeCallbacks(searchRunnable);
+                searchHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
             }
 
             @Override
@@ -143,29 +164,58 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
     }
 
     private void loadBookings() {
-        allBookings = BookingStorage.getAllBookings(this);
-        filterStats = BookingFilter.getFilterStats(allBookings);
-        updateFilterChips();
+        refreshFilterStats();
         applyFilters();
     }
 
+    private void refreshCounts() {
+        refreshFilterStats();
+        refreshFilteredCount();
+    }
+
+    private void refreshFilterStats() {
+        // Chip and result counts come from COUNT queries instead of a full load
+        DbExecutor.load(this, () -> BookingStorage.getFilterStats(this), stats -> {
+            filterStats = stats;
+            updateFilterChips();
+            updateUI();
+        });
+    }
+
+    private void refreshFilteredCount() {
+        // Results arrive in submission order, so the latest filter always wins
+        String query = currentSearchQuery;
+        BookingStatus statusFilter = currentStatusFilter;
+        DbExecutor.load(this, () -> BookingStorage.countFilteredBookings(this, query, statusFilter), count -> {
+            filteredCount = count;
+            updateUI();
+        });
+    }
+
     private void applyFilters() {
-        // Apply search and status filters
-        filteredBookings = BookingFilter.filterBookings(allBookings, currentSearchQuery, currentStatusFilter);
+        // Search, status filter and sort order are all evaluated in SQL, one page at a time
+        if (bookingPages != null) {
+            bookingPages.removeObservers(this);
+        }
+        bookingPages = PagingLiveData.cachedIn(
+                BookingPager.getBookingSummaries(this, currentSearchQuery, currentStatusFilter, currentSort),
+                getLifecycle());
+        bookingPages.observe(this, pagingData -> bookingAdapter.submitData(getLifecycle(), pagingData));
         
-        // Apply sorting
-        filteredBookings = BookingFilter.sortBookings(filteredBookings, currentSort);
-
-        updateUI();
+        refreshFilteredCount();
     }
 
     private void updateUI() {
+        if (filterStats == null) {
+            // Counts are still loading
+            return;
+        }
+        
         // Update booking count
-        int totalCount = allBookings.size();
+        int totalCount = filterStats.totalCount;
         bookingCountText.setText(totalCount + (totalCount == 1 ? " booking" : " bookings"));
 
         // Update results count
-        int filteredCount = filteredBookings.size();
         if (hasActiveFilters()) {
             resultsCountText.setText("Showing " + filteredCount + " of " + totalCount + " bookings");
             clearFiltersButton.setVisibility(View.VISIBLE);
@@ -175,11 +225,10 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
         }
 
         // Update empty state
-        if (filteredBookings.isEmpty()) {
+        if (filteredCount == 0) {
             showEmptyState();
         } else {
             hideEmptyState();
-            updateRecyclerView();
         }
     }
 
@@ -187,7 +236,7 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
         emptyStateLayout.setVisibility(View.VISIBLE);
         recyclerBookings.setVisibility(View.GONE);
 
-        if (allBookings.isEmpty()) {
+        if (filterStats.totalCount == 0) {
             // No bookings at all
             emptyIcon.setText("📋");
             emptyTitle.setText("No Bookings Yet");
@@ -213,15 +262,6 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
         recyclerBookings.setVisibility(View.VISIBLE);
     }
 
-    private void updateRecyclerView() {
-        if (bookingAdapter == null) {
-            bookingAdapter = new BookingAdapter(filteredBookings, this);
-            recyclerBookings.setAdapter(bookingAdapter);
-        } else {
-            bookingAdapter.updateBookings(filteredBookings);
-        }
-    }
-
     private void setStatusFilter(BookingStatus status) {
         currentStatusFilter = status;
         updateFilterChipSelection();
@@ -328,6 +368,7 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
     }
 
     private void clearAllFilters() {
+        searchHandler.removeCallbacks(searchRunnable);
         currentSearchQuery = "";
         currentStatusFilter = null;
         searchEditText.setText("");
@@ -336,8 +377,15 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
     }
 
     @Override
-    public void onStatusChangeClick(BookingRequest booking, int position) {
-        showStatusChangeDialog(booking);
+    public void onStatusChangeClick(BookingSummary summary, int position) {
+        // List rows are summaries; load the full booking before changing it
+        DbExecutor.load(this, () -> BookingStorage.getBookingById(this, summary.bookingId), booking -> {
+            if (booking == null) {
+                Toast.makeText(this, "Booking not found", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            showStatusChangeDialog(booking);
+        });
     }
 
     private void showStatusChangeDialog(BookingRequest booking) {
@@ -375,19 +423,25 @@ public class EnhancedViewBookingsActivity extends AppCompatActivity implements B
         String reason = "Status updated by admin";
         
         if (booking.changeStatus(newStatus, reason)) {
-            BookingStorage.updateBooking(this, booking);
+            DbExecutor.execute(() -> BookingStorage.updateBooking(this, booking));
             
             String message = newStatus.getTransitionMessage(newStatus);
             Toast.makeText(this, message, Toast.LENGTH_LONG).show();
             
             NotificationHelper.sendStatusChangeNotification(this, booking, newStatus);
             
-            // Refresh the data
-            loadBookings();
+            // Room invalidation refreshes the visible page; only the counts need reloading
+            refreshCounts();
             
         } else {
             Toast.makeText(this, "Cannot change status from " + booking.getStatus().getDisplayName() + 
                          " to " + newStatus.getDisplayName(), Toast.LENGTH_SHORT).show();
         }
     }
+
+    @Override
+    protected void onDestroy() {
+        searchHandler.removeCallbacks(searchRunnable);
+        super.onDestroy();
+    }
 }
\ No newline at end of file
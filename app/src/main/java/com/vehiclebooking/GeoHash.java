@@ -0,0 +1,193 @@
+package com.vehiclebooking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash encoding for search lead locations.
+ *
+ * A geohash interleaves longitude and latitude bits into a base-32 string, so points
+ * that share a prefix lie in the same cell and every cell is one contiguous range of
+ * the sorted strings. That lets the plain B-tree index on search_records.geohash answer
+ * bounding-box queries as a handful of range scans instead of a haversine per row.
+ *
+ * The dispatch DriverIndex buckets available drivers by the same cells in memory.
+ */
+public final class GeoHash {
+
+    /**
+     * Stored precision: 9 characters is a cell of about 4.8 m x 4.8 m
+     */
+    public static final int PRECISION = 9;
+
+    /**
+     * Upper bound on the cells a bounding box is covered with (one index range each)
+     */
+    public static final int MAX_COVER_CELLS = 16;
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    // Base-32 alphabet in ASCII order, so string order is cell order
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    // Sorts after every BASE32 character: [prefix, prefix + RANGE_END) is the whole cell
+    private static final char RANGE_END = '~';
+
+    private GeoHash() {
+    }
+
+    /**
+     * Geohash of a point at the stored {@link #PRECISION}
+     */
+    public static String encode(double latitude, double longitude) {
+        return encode(latitude, longitude, PRECISION);
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        checkPrecision(precision);
+        int bits = 5 * precision;
+        int lonBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+        return encodeCell(cellIndex(latitude, -90, 180, latBits), cellIndex(longitude, -180, 360, lonBits), precision);
+    }
+
+    /**
+     * Bounds of the cell a geohash names, as {minLat, minLon, maxLat, maxLon}
+     */
+    public static double[] decodeBounds(String geohash) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        boolean lonBit = true;
+        for (int i = 0; i < geohash.length(); i++) {
+            int value = indexOf(geohash.charAt(i));
+            for (int mask = 16; mask > 0; mask >>= 1) {
+                boolean set = (value & mask) != 0;
+                if (lonBit) {
+                    double mid = (minLon + maxLon) / 2;
+                    if (set) minLon = mid; else maxLon = mid;
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) minLat = mid; else maxLat = mid;
+                }
+                lonBit = !lonBit;
+            }
+        }
+        return new double[]{minLat, minLon, maxLat, maxLon};
+    }
+
+    /**
+     * Great-circle distance in kilometres (haversine)
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Smallest latitude/longitude box containing every point within {@code radiusKm},
+     * as {minLat, minLon, maxLat, maxLon}. When the box crosses the antimeridian
+     * minLon is greater than maxLon; near a pole it spans all longitudes.
+     */
+    public static double[] boundingBox(double latitude, double longitude, double radiusKm) {
+        double dLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = latitude - dLat;
+        double maxLat = latitude + dLat;
+        if (minLat <= -90 || maxLat >= 90) {
+            return new double[]{Math.max(minLat, -90), -180, Math.min(maxLat, 90), 180};
+        }
+        double dLon = Math.toDegrees(Math.asin(Math.min(1,
+                Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude)))));
+        if (dLon >= 180) {
+            return new double[]{minLat, -180, maxLat, 180};
+        }
+        return new double[]{minLat, wrapLongitude(longitude - dLon), maxLat, wrapLongitude(longitude + dLon)};
+    }
+
+    /**
+     * Cells covering a box, at the finest precision that needs at most {@link #MAX_COVER_CELLS}.
+     * A box with minLon greater than maxLon wraps across the antimeridian.
+     * Every point in the box has a geohash starting with one of the returned prefixes.
+     */
+    public static List<String> coverBoundingBox(double minLat, double minLon, double maxLat, double maxLon) {
+        boolean wraps = minLon > maxLon;
+        for (int precision = PRECISION; ; precision--) {
+            int bits = 5 * precision;
+            int lonBits = (bits + 1) / 2;
+            int latBits = bits / 2;
+            int latLo = cellIndex(minLat, -90, 180, latBits);
+            int latHi = cellIndex(maxLat, -90, 180, latBits);
+            int lonLo = cellIndex(minLon, -180, 360, lonBits);
+            int lonHi = cellIndex(maxLon, -180, 360, lonBits);
+            long lonCells = wraps ? (1L << lonBits) - lonLo + lonHi + 1 : lonHi - lonLo + 1;
+            long cells = (latHi - latLo + 1) * lonCells;
+            if (cells > MAX_COVER_CELLS && precision > 1) {
+                continue;
+            }
+
+            List<String> prefixes = new ArrayList<>((int) cells);
+            for (int lat = latLo; lat <= latHi; lat++) {
+                for (long i = 0; i < lonCells; i++) {
+                    int lon = (int) ((lonLo + i) & ((1L << lonBits) - 1));
+                    prefixes.add(encodeCell(lat, lon, precision));
+                }
+            }
+            return prefixes;
+        }
+    }
+
+    /**
+     * Exclusive upper bound of the geohashes starting with {@code prefix}
+     */
+    public static String rangeEnd(String prefix) {
+        return prefix + RANGE_END;
+    }
+
+    private static int cellIndex(double value, double min, double span, int bits) {
+        long cells = 1L << bits;
+        long index = (long) Math.floor((value - min) / span * cells);
+        // The top edge (90 or 180) belongs to the last cell
+        return (int) Math.max(0, Math.min(cells - 1, index));
+    }
+
+    // Interleaves the bits, longitude first, five to a character
+    private static String encodeCell(int latIndex, int lonIndex, int precision) {
+        int bits = 5 * precision;
+        int lonBit = (bits + 1) / 2;
+        int latBit = bits / 2;
+        char[] hash = new char[precision];
+        int value = 0;
+        for (int i = 0; i < bits; i++) {
+            int bit = (i & 1) == 0 ? (lonIndex >>> --lonBit) & 1 : (latIndex >>> --latBit) & 1;
+            value = (value << 1) | bit;
+            if (i % 5 == 4) {
+                hash[i / 5] = BASE32[value];
+                value = 0;
+            }
+        }
+        return new String(hash);
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not a geohash character: " + c);
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -180) return longitude + 360;
+        if (longitude > 180) return longitude - 360;
+        return longitude;
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("precision must be 1..12");
+        }
+    }
+}
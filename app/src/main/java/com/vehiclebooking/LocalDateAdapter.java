@@ -1,46 +1,54 @@
 package com.vehiclebooking;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import org.threeten.bp.LocalDate;
 import org.threeten.bp.format.DateTimeFormatter;
+import org.threeten.bp.format.DateTimeParseException;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * Gson adapter for LocalDate serialization/deserialization
- * Uses ISO format (yyyy-MM-dd) for efficient parsing
+ * Uses ISO format (yyyy-MM-dd) for efficient parsing, with dd/MM/yyyy accepted for older data
  */
-public class LocalDateAdapter implements JsonSerializer<LocalDate>, JsonDeserializer<LocalDate> {
-    
+public class LocalDateAdapter extends TypeAdapter<LocalDate> {
+
+    public static final LocalDateAdapter INSTANCE = new LocalDateAdapter();
+
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
-    
+    // Formatters are immutable and thread-safe, so the fallback is built once
+    private static final DateTimeFormatter FALLBACK_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     @Override
-    public JsonElement serialize(LocalDate src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(src.format(FORMATTER));
+    public void write(JsonWriter out, LocalDate date) throws IOException {
+        if (date == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(date.format(FORMATTER));
     }
-    
+
     @Override
-    public LocalDate deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-            throws JsonParseException {
+    public LocalDate read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return parse(in.nextString());
+    }
+
+    static LocalDate parse(String value) {
+        // Pick the format up front instead of letting the ISO parse fail first
+        boolean slashes = value.length() == 10 && value.charAt(2) == '/' && value.charAt(5) == '/';
         try {
-            // Try ISO format first (efficient)
-            return LocalDate.parse(json.getAsString(), FORMATTER);
-        } catch (Exception e) {
-            // Fallback to custom format if needed
-            try {
-                DateTimeFormatter customFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-                return LocalDate.parse(json.getAsString(), customFormatter);
-            } catch (Exception e2) {
-                throw new JsonParseException("Unable to parse date: " + json.getAsString(), e2);
-            }
+            return LocalDate.parse(value, slashes ? FALLBACK_FORMATTER : FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new JsonParseException("Unable to parse date: " + value, e);
         }
     }
 }
-
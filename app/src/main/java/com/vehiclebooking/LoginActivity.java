@@ -11,6 +11,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import com.vehiclebooking.data.DbExecutor;
 import com.vehiclebooking.databinding.ActivityLoginBinding;
 
 public class LoginActivity extends AppCompatActivity {
@@ -31,8 +32,8 @@ public class LoginActivity extends AppCompatActivity {
             userManager = UserManager.getInstance(this);
             android.util.Log.d("LoginActivity", "UserManager initialized");
             
-            userManager.initializeDefaultUsers(); // Create default admin if needed
-            android.util.Log.d("LoginActivity", "Default users initialized");
+            // Create default admin if needed (queued before any login attempt)
+            DbExecutor.execute(userManager::initializeDefaultUsers);
 
             // Check if user is already logged in
             if (userManager.isLoggedIn()) {
@@ -127,13 +128,17 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        // Attempt login
-        if (userManager.login(username, password)) {
-            Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
-            redirectToAppropriateActivity();
-        } else {
-            Toast.makeText(this, "Invalid username or password", Toast.LENGTH_SHORT).show();
-        }
+        // Attempt login (password hashing and the user lookup run off the main thread)
+        binding.btnLogin.setEnabled(false);
+        DbExecutor.load(this, () -> userManager.login(username, password), success -> {
+            binding.btnLogin.setEnabled(true);
+            if (success) {
+                Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
+                redirectToAppropriateActivity();
+            } else {
+                Toast.makeText(this, "Invalid username or password", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void redirectToAppropriateActivity() {
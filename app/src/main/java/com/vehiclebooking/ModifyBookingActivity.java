@@ -11,10 +11,10 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import com.jakewharton.threetenabp.AndroidThreeTen;
+import com.vehiclebooking.data.DbExecutor;
 
 import org.threeten.bp.LocalDate;
 
-import java.util.List;
 
 public class ModifyBookingActivity extends AppCompatActivity {
 
@@ -92,33 +92,33 @@ public class ModifyBookingActivity extends AppCompatActivity {
     }
 
     private void loadBookingData() {
-        // Find the booking by ID and phone number
-        List<BookingRequest> allBookings = BookingStorage.getAllBookings(this);
+        // Saving is only possible once the booking has loaded
+        saveChangesButton.setEnabled(false);
         
-        for (BookingRequest booking : allBookings) {
-            if (booking.getBookingId() != null && 
-                booking.getBookingId().equals(bookingId) &&
+        // Find the booking by ID and make sure it belongs to this phone number
+        DbExecutor.load(this, () -> bookingId != null ? BookingStorage.getBookingById(this, bookingId) : null, booking -> {
+            if (booking != null &&
                 booking.getPhoneNumber() != null &&
                 booking.getPhoneNumber().equals(phoneNumber)) {
                 currentBooking = booking;
-                break;
             }
-        }
 
-        if (currentBooking == null) {
-            Toast.makeText(this, "Booking not found", Toast.LENGTH_SHORT).show();
-            finish();
-            return;
-        }
+            if (currentBooking == null) {
+                Toast.makeText(this, "Booking not found", Toast.LENGTH_SHORT).show();
+                finish();
+                return;
+            }
 
-        // Populate fields with current booking data
-        sourceEditText.setText(currentBooking.getSource());
-        destinationEditText.setText(currentBooking.getDestination());
-        vehicleTypeEditText.setText(currentBooking.getVehicleType() != null ? currentBooking.getVehicleType() : "");
-        
-        // Set the date to the current booking date
-        selectedDate = currentBooking.getTravelDate();
-        updateSelectedDateDisplay();
+            // Populate fields with current booking data
+            sourceEditText.setText(currentBooking.getSource());
+            destinationEditText.setText(currentBooking.getDestination());
+            vehicleTypeEditText.setText(currentBooking.getVehicleType() != null ? currentBooking.getVehicleType() : "");
+            
+            // Set the date to the current booking date
+            selectedDate = currentBooking.getTravelDate();
+            updateSelectedDateDisplay();
+            saveChangesButton.setEnabled(true);
+        });
     }
 
     private void showDatePicker() {
@@ -176,9 +176,6 @@ public class ModifyBookingActivity extends AppCompatActivity {
         BookingRequest updatedBooking = currentBooking.createModifiedCopy(source, destination, selectedDate);
         updatedBooking.setVehicleType(vehicleType);
         
-        // Update booking in storage
-        BookingStorage.updateBooking(this, updatedBooking);
-        
         // Update current booking reference
         currentBooking = updatedBooking;
         
@@ -191,8 +188,9 @@ public class ModifyBookingActivity extends AppCompatActivity {
             currentBooking.changeStatus(currentBooking.getStatus(), "Booking modified by customer");
         }
         
-        // Save the updated booking
-        BookingStorage.updateBooking(this, currentBooking);
+        // Save the updated booking (one write, once all changes are applied)
+        BookingRequest bookingToSave = currentBooking;
+        DbExecutor.execute(() -> BookingStorage.updateBooking(this, bookingToSave));
 
         String statusMessage = "";
         if (originalStatus == BookingStatus.CONFIRMED) {
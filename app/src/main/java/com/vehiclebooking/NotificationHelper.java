@@ -4,6 +4,7 @@ import android.content.Context;
 import androidx.work.Data;
 import androidx.work.OneTimeWorkRequest;
 import androidx.work.WorkManager;
+import com.vehiclebooking.data.DbExecutor;
 
 public class NotificationHelper {
     
@@ -20,7 +21,7 @@ public class NotificationHelper {
         scheduleNotification(title, content);
 
         // Also save booking to local storage for future reference
-        BookingStorage.saveBooking(context, bookingRequest);
+        DbExecutor.execute(() -> BookingStorage.saveBooking(context, bookingRequest));
     }
 
     /**
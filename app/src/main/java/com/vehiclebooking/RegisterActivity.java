@@ -13,6 +13,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import com.vehiclebooking.data.DbExecutor;
 import com.vehiclebooking.databinding.ActivityRegisterBinding;
 
 public class RegisterActivity extends AppCompatActivity {
@@ -151,19 +152,23 @@ public class RegisterActivity extends AppCompatActivity {
             }
         }
 
-        // Attempt registration
-        if (userManager.registerUser(username, email, phoneNumber, password, selectedRole, fullName)) {
-            // If driver, update additional fields
-            if (selectedRole == UserRole.DRIVER) {
-                // We'll need to update the user with driver-specific details
-                // For now, we'll handle this in a future update
+        // Attempt registration (duplicate checks, hashing and insert run off the main thread)
+        DbExecutor.load(this,
+                () -> userManager.registerUser(username, email, phoneNumber, password, selectedRole, fullName),
+                success -> {
+            if (success) {
+                // If driver, update additional fields
+                if (selectedRole == UserRole.DRIVER) {
+                    // We'll need to update the user with driver-specific details
+                    // For now, we'll handle this in a future update
+                }
+
+                Toast.makeText(this, "Registration successful! Please login.", Toast.LENGTH_LONG).show();
+                finish(); // Go back to login
+            } else {
+                Toast.makeText(this, "Registration failed. Username or email may already exist.", 
+                             Toast.LENGTH_LONG).show();
             }
-
-            Toast.makeText(this, "Registration successful! Please login.", Toast.LENGTH_LONG).show();
-            finish(); // Go back to login
-        } else {
-            Toast.makeText(this, "Registration failed. Username or email may already exist.", 
-                         Toast.LENGTH_LONG).show();
-        }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.vehiclebooking;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated counters over vehicle search records.
+ *
+ * Vehicle types come from a VehicleTypeClassifier; each distinct query text is classified
+ * once, since customers repeat the same few searches.
+ *
+ * Kept free of Android and storage dependencies so the tallying logic can be
+ * exercised on a plain JVM (see the :benchmark module).
+ */
+public class SearchAnalytics {
+    public int totalSearches = 0;
+    public int newSearches = 0;
+    public int contactedSearches = 0;
+    public int completedSearches = 0;
+    public int searchesWithLocation = 0;
+
+    private final VehicleTypeClassifier classifier;
+    // Indexed like classifier.getTypes()
+    private final int[] vehicleTypeSearches;
+    private final Map<String, Long> typesByQuery = new HashMap<>();
+
+    public SearchAnalytics() {
+        this(VehicleTypeClassifier.DEFAULT);
+    }
+
+    public SearchAnalytics(VehicleTypeClassifier classifier) {
+        this.classifier = classifier;
+        this.vehicleTypeSearches = new int[classifier.getTypes().size()];
+    }
+
+    /**
+     * Tally a single search record into the counters
+     */
+    public void add(String status, String searchQuery, boolean locationAvailable) {
+        totalSearches++;
+
+        // Count by status
+        if (status != null) {
+            switch (status) {
+                case "New":
+                    newSearches++;
+                    break;
+                case "Contacted":
+                    contactedSearches++;
+                    break;
+                case "Completed":
+                    completedSearches++;
+                    break;
+            }
+        }
+
+        addSearchQuery(searchQuery);
+
+        // Count searches with location
+        if (locationAvailable) {
+            searchesWithLocation++;
+        }
+    }
+
+    // Tally one search's query text into the vehicle type counters
+    private void addSearchQuery(String searchQuery) {
+        if (searchQuery == null) {
+            return;
+        }
+        Long types = typesByQuery.get(searchQuery);
+        if (types == null) {
+            types = classifier.classify(searchQuery);
+            typesByQuery.put(searchQuery, types);
+        }
+        for (long mask = types; mask != 0; mask &= mask - 1) {
+            vehicleTypeSearches[Long.numberOfTrailingZeros(mask)]++;
+        }
+    }
+
+    /**
+     * Searches per vehicle type, in the classifier's order; types nobody searched for are included
+     */
+    public Map<String, Integer> getVehicleTypeSearches() {
+        List<String> types = classifier.getTypes();
+        Map<String, Integer> searches = new LinkedHashMap<>();
+        for (int i = 0; i < types.size(); i++) {
+            searches.put(types.get(i), vehicleTypeSearches[i]);
+        }
+        return searches;
+    }
+
+    public int getVehicleTypeSearches(String vehicleType) {
+        int i = classifier.getTypes().indexOf(vehicleType);
+        return i >= 0 ? vehicleTypeSearches[i] : 0;
+    }
+
+    public double getContactRate() {
+        if (totalSearches == 0) return 0.0;
+        return (double) contactedSearches / totalSearches * 100;
+    }
+
+    public double getCompletionRate() {
+        if (totalSearches == 0) return 0.0;
+        return (double) completedSearches / totalSearches * 100;
+    }
+
+    /**
+     * The most searched vehicle type; the classifier's first type wins a tie
+     */
+    public String getMostPopularVehicleType() {
+        int best = -1;
+        for (int i = 0; i < vehicleTypeSearches.length; i++) {
+            if (vehicleTypeSearches[i] > 0 && (best < 0 || vehicleTypeSearches[i] > vehicleTypeSearches[best])) {
+                best = i;
+            }
+        }
+        return best >= 0 ? classifier.getTypes().get(best) : "None";
+    }
+}
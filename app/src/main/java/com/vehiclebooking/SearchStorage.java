@@ -4,86 +4,60 @@ import android.content.Context;
 
 import com.vehiclebooking.data.AppDatabase;
 import com.vehiclebooking.data.dao.SearchRecordDao;
+import com.vehiclebooking.data.dao.SearchRecordQueries;
+import com.vehiclebooking.data.model.LeadCellCount;
 import com.vehiclebooking.data.model.SearchRecordEntity;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Search lead persistence facade for the Java screens.
+ * Storage methods block on SQLCipher I/O; UI code calls them through DbExecutor.
+ */
 public class SearchStorage {
+
+    // Nearest-lead search starts with this radius and widens it 4x until it has enough leads
+    private static final double NEAREST_INITIAL_RADIUS_KM = 5.0;
+    // Half the Earth's circumference: every lead is within this distance
+    private static final double NEAREST_MAX_RADIUS_KM = Math.PI * GeoHash.EARTH_RADIUS_KM;
     
     /**
-     * Save a new search record to storage
+     * Save a new search record to storage and set its id
      */
     public static void saveSearchRecord(Context context, VehicleSearchActivity.SearchRecord searchRecord) {
         SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
-        
-        // Check if record with same phone number and timestamp already exists
-        SearchRecordEntity existing = dao.getSearchRecordBlocking(searchRecord.phoneNumber, searchRecord.timestamp);
-        
-        // Add new record if it doesn't exist
-        if (existing == null) {
-            dao.insertSearchRecordBlocking(new SearchRecordEntity(searchRecord));
-        }
+        searchRecord.id = (int) dao.insertSearchRecordRow(new SearchRecordEntity(searchRecord));
     }
 
     /**
-     * Update vehicle interest for an existing search record
-     */
-    /**
-     * Update vehicle interest for an existing search record
+     * Append a vehicle interest to the customer's most recent search record
+     * (one indexed UPDATE; nothing happens if the phone number has no searches)
      */
     public static void updateVehicleInterest(Context context, String phoneNumber, String vehicleInterest) {
         SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
-        List<SearchRecordEntity> entities = dao.getAllSearchRecordsBlocking();
-        
-        SearchRecordEntity mostRecent = null;
-        
-        // Find the most recent record for this phone number
-        for (SearchRecordEntity record : entities) {
-            if (record.phoneNumber.equals(phoneNumber)) {
-                if (mostRecent == null || record.timestamp.compareTo(mostRecent.timestamp) > 0) {
-                    mostRecent = record;
-                }
-            }
-        }
-        
-        if (mostRecent != null) {
-            if (mostRecent.vehicleInterest == null || mostRecent.vehicleInterest.isEmpty()) {
-                mostRecent.vehicleInterest = vehicleInterest;
-            } else {
-                mostRecent.vehicleInterest += ", " + vehicleInterest;
-            }
-            dao.updateSearchRecordBlocking(mostRecent);
-        }
+        dao.appendVehicleInterest(phoneNumber, vehicleInterest);
     }
-    
-    // Get all search records (for admin dashboard)
+
+    // Get all search records, newest first (for admin dashboard)
     public static List<VehicleSearchActivity.SearchRecord> getAllSearchRecords(Context context) {
         SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
-        List<SearchRecordEntity> entities = dao.getAllSearchRecordsBlocking();
+        List<SearchRecordEntity> entities = dao.findAllSearchRecords();
         
-        List<VehicleSearchActivity.SearchRecord> records = new ArrayList<>();
+        List<VehicleSearchActivity.SearchRecord> records = new ArrayList<>(entities.size());
         for (SearchRecordEntity entity : entities) {
             records.add(entity.toSearchRecord());
         }
-        
-        // Sort by timestamp descending (newest first)
-        Collections.sort(records, new Comparator<VehicleSearchActivity.SearchRecord>() {
-            @Override
-            public int compare(VehicleSearchActivity.SearchRecord r1, VehicleSearchActivity.SearchRecord r2) {
-                return r2.timestamp.compareTo(r1.timestamp);
-            }
-        });
-        
         return records;
     }
     
     // Get records by status
     public static List<VehicleSearchActivity.SearchRecord> getSearchRecordsByStatus(Context context, String status) {
         SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
-        List<SearchRecordEntity> entities = dao.getSearchRecordsByStatusBlocking(status);
+        List<SearchRecordEntity> entities = dao.findSearchRecordsByStatus(status);
         
         List<VehicleSearchActivity.SearchRecord> records = new ArrayList<>();
         for (SearchRecordEntity entity : entities) {
@@ -95,13 +69,13 @@ public class SearchStorage {
     // Delete a record
     public static void deleteSearchRecord(Context context, VehicleSearchActivity.SearchRecord record) {
         SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
-        dao.deleteSearchRecordBlocking(record.phoneNumber, record.timestamp);
+        dao.deleteSearchRecordRow(record.id);
     }
     
     // Clear all records (for testing/maintenance)
     public static void clearAllRecords(Context context) {
         SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
-        dao.deleteAllSearchRecordsBlocking();
+        dao.deleteAllSearchRecordRows();
     }
     
     // Alias for compatibility
@@ -114,105 +88,131 @@ public class SearchStorage {
         return getAllSearchRecords(context);
     }
     
+    // Get a single record by id
+    public static VehicleSearchActivity.SearchRecord getSearchRecord(Context context, int id) {
+        SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
+        SearchRecordEntity entity = dao.findSearchRecord(id);
+        return entity != null ? entity.toSearchRecord() : null;
+    }
+    
     // Update search status
-    public static void updateSearchStatus(Context context, String phoneNumber, String timestamp, String newStatus) {
+    public static void updateSearchStatus(Context context, int id, String newStatus) {
         SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
-        SearchRecordEntity entity = dao.getSearchRecordBlocking(phoneNumber, timestamp);
-        if (entity != null) {
-            entity.status = newStatus;
-            dao.updateSearchRecordBlocking(entity);
-        }
+        dao.updateSearchStatusRow(id, newStatus);
     }
     
     // Update admin notes
-    public static void updateAdminNotes(Context context, String phoneNumber, String timestamp, String notes) {
+    public static void updateAdminNotes(Context context, int id, String notes) {
         SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
-        SearchRecordEntity entity = dao.getSearchRecordBlocking(phoneNumber, timestamp);
-        if (entity != null) {
-            entity.adminNotes = notes;
-            dao.updateSearchRecordBlocking(entity);
-        }
+        dao.updateAdminNotesRow(id, notes);
     }
 
     /**
-     * Get search analytics data
+     * Search analytics for records the caller has already loaded, in one pass and without
+     * another database read
      */
-    public static SearchAnalytics getSearchAnalytics(Context context) {
-        List<VehicleSearchActivity.SearchRecord> records = getAllSearchRecords(context);
+    public static SearchAnalytics getSearchAnalytics(List<VehicleSearchActivity.SearchRecord> records) {
         SearchAnalytics analytics = new SearchAnalytics();
-        
-        analytics.totalSearches = records.size();
-        
-        // Count by status
         for (VehicleSearchActivity.SearchRecord record : records) {
-            switch (record.status) {
-                case "New":
-                    analytics.newSearches++;
-                    break;
-                case "Contacted":
-                    analytics.contactedSearches++;
-                    break;
-                case "Completed":
-                    analytics.completedSearches++;
-                    break;
-            }
+            analytics.add(record.status, record.searchQuery, record.locationAvailable);
         }
-        
-        // Count popular search terms
-        for (VehicleSearchActivity.SearchRecord record : records) {
-            String query = record.searchQuery.toLowerCase();
-            if (query.contains("sedan")) analytics.sedanSearches++;
-            if (query.contains("suv")) analytics.suvSearches++;
-            if (query.contains("van")) analytics.vanSearches++;
-            if (query.contains("luxury")) analytics.luxurySearches++;
+        return analytics;
+    }
+
+    /**
+     * Leads with a location within {@code radiusKm} of a point, nearest first
+     * (geohash index range scans, then an exact distance check on the candidates)
+     */
+    public static List<VehicleSearchActivity.SearchRecord> getLeadsWithinKm(Context context, double latitude,
+                                                                           double longitude, double radiusKm) {
+        SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
+        return toSearchRecords(leadsWithin(dao, latitude, longitude, radiusKm), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Leads with a location inside a latitude/longitude box, e.g. the visible map area
+     */
+    public static List<VehicleSearchActivity.SearchRecord> getLeadsInBoundingBox(Context context, double minLat,
+                                                                                double minLon, double maxLat,
+                                                                                double maxLon) {
+        SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
+        List<SearchRecordEntity> entities =
+                dao.findSearchRecords(SearchRecordQueries.inBoundingBox(minLat, minLon, maxLat, maxLon));
+
+        List<VehicleSearchActivity.SearchRecord> records = new ArrayList<>(entities.size());
+        for (SearchRecordEntity entity : entities) {
+            records.add(entity.toSearchRecord());
         }
-        
-        // Count searches with location
-        for (VehicleSearchActivity.SearchRecord record : records) {
-            if (record.locationAvailable) {
-                analytics.searchesWithLocation++;
+        return records;
+    }
+
+    /**
+     * The {@code count} leads nearest to a point, nearest first. Searches a small radius
+     * and widens it until it holds enough leads, so only nearby cells are read.
+     */
+    public static List<VehicleSearchActivity.SearchRecord> getNearestLeads(Context context, double latitude,
+                                                                          double longitude, int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
+        double radiusKm = NEAREST_INITIAL_RADIUS_KM;
+        List<NearbyLead> leads;
+        while (true) {
+            // Leads outside the radius may be closer than ones not read yet, so they do not count
+            leads = leadsWithin(dao, latitude, longitude, radiusKm);
+            if (leads.size() >= count || radiusKm >= NEAREST_MAX_RADIUS_KM) {
+                break;
             }
+            radiusKm = Math.min(radiusKm * 4, NEAREST_MAX_RADIUS_KM);
         }
-        
-        return analytics;
+        return toSearchRecords(leads, count);
     }
 
     /**
-     * Analytics data structure
+     * Lead counts per geohash cell for heat maps; {@code precision} is the cell's geohash
+     * length (4 is about 39 x 20 km, 5 about 4.9 x 4.9 km). Decode cells with GeoHash.decodeBounds.
      */
-    public static class SearchAnalytics {
-        public int totalSearches = 0;
-        public int newSearches = 0;
-        public int contactedSearches = 0;
-        public int completedSearches = 0;
-        public int searchesWithLocation = 0;
-        public int sedanSearches = 0;
-        public int suvSearches = 0;
-        public int vanSearches = 0;
-        public int luxurySearches = 0;
-        
-        public double getContactRate() {
-            if (totalSearches == 0) return 0.0;
-            return (double) contactedSearches / totalSearches * 100;
+    public static Map<String, Integer> getLeadHeatMap(Context context, int precision) {
+        SearchRecordDao dao = AppDatabase.getDatabase(context).searchRecordDao();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (LeadCellCount cell : dao.getLeadCellCounts(precision)) {
+            counts.put(cell.cell, cell.count);
         }
-        
-        public double getCompletionRate() {
-            if (totalSearches == 0) return 0.0;
-            return (double) completedSearches / totalSearches * 100;
+        return counts;
+    }
+
+    private static final class NearbyLead {
+        final SearchRecordEntity entity;
+        final double distanceKm;
+
+        NearbyLead(SearchRecordEntity entity, double distanceKm) {
+            this.entity = entity;
+            this.distanceKm = distanceKm;
         }
-        
-        public String getMostPopularVehicleType() {
-            int maxCount = Math.max(Math.max(sedanSearches, suvSearches), 
-                                  Math.max(vanSearches, luxurySearches));
-            
-            if (maxCount == 0) return "None";
-            
-            if (sedanSearches == maxCount) return "Sedan";
-            if (suvSearches == maxCount) return "SUV";
-            if (vanSearches == maxCount) return "Van";
-            if (luxurySearches == maxCount) return "Luxury";
-            
-            return "Mixed";
+    }
+
+    // Leads within the radius, nearest first
+    private static List<NearbyLead> leadsWithin(SearchRecordDao dao, double latitude, double longitude,
+                                                double radiusKm) {
+        List<NearbyLead> leads = new ArrayList<>();
+        for (SearchRecordEntity entity : dao.findSearchRecords(
+                SearchRecordQueries.aroundPoint(latitude, longitude, radiusKm))) {
+            double distanceKm = GeoHash.distanceKm(latitude, longitude, entity.latitude, entity.longitude);
+            if (distanceKm <= radiusKm) {
+                leads.add(new NearbyLead(entity, distanceKm));
+            }
         }
+        Collections.sort(leads, (a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return leads;
+    }
+
+    private static List<VehicleSearchActivity.SearchRecord> toSearchRecords(List<NearbyLead> leads, int limit) {
+        int size = Math.min(leads.size(), limit);
+        List<VehicleSearchActivity.SearchRecord> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add(leads.get(i).entity.toSearchRecord());
+        }
+        return records;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.vehiclebooking;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming Gson adapter for StatusChange, so status histories (Room converter, session
+ * and API JSON) are read and written without reflection.
+ * Uses the same field names as the @SerializedName annotations; unknown fields are skipped.
+ */
+public class StatusChangeAdapter extends TypeAdapter<StatusChange> {
+
+    public static final StatusChangeAdapter INSTANCE = new StatusChangeAdapter();
+
+    @Override
+    public void write(JsonWriter out, StatusChange change) throws IOException {
+        if (change == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("status").value(change.getStatus() != null ? change.getStatus().name() : null);
+        out.name("timestamp").value(change.getTimestamp());
+        out.name("reason").value(change.getReason());
+        out.endObject();
+    }
+
+    @Override
+    public StatusChange read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        BookingStatus status = null;
+        long timestamp = 0;
+        String reason = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "status":
+                    status = readStatus(in);
+                    break;
+                case "timestamp":
+                    timestamp = in.nextLong();
+                    break;
+                case "reason":
+                    reason = in.nextString();
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return new StatusChange(status, timestamp, reason);
+    }
+
+    /**
+     * Write a status history array; null is written as JSON null
+     */
+    public static void writeList(JsonWriter out, List<StatusChange> changes) throws IOException {
+        if (changes == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (StatusChange change : changes) {
+            INSTANCE.write(out, change);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Read a status history array; JSON null is returned as null
+     */
+    public static List<StatusChange> readList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<StatusChange> changes = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            changes.add(INSTANCE.read(in));
+        }
+        in.endArray();
+        return changes;
+    }
+
+    /**
+     * Unknown status names read as null, like Gson's own enum adapter
+     */
+    static BookingStatus readStatus(JsonReader in) throws IOException {
+        String name = in.nextString();
+        try {
+            return BookingStatus.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
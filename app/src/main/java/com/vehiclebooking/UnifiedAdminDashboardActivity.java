@@ -11,9 +11,11 @@ import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
+import com.vehiclebooking.data.DbExecutor;
 import java.util.List;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Map;
 
 public class UnifiedAdminDashboardActivity extends AppCompatActivity {
     private LinearLayout recordsContainer;
@@ -46,24 +48,28 @@ public class UnifiedAdminDashboardActivity extends AppCompatActivity {
     }
 
     private void loadAllData() {
+        // Get both bookings and vehicle searches
+        DbExecutor.load(this, () -> BookingStorage.getAllBookings(this), bookings ->
+            DbExecutor.load(this, () -> SearchStorage.getSearchRecords(this), searches ->
+                displayAllData(bookings, searches, SearchStorage.getSearchAnalytics(searches))));
+    }
+
+    private void displayAllData(List<BookingRequest> bookings, List<VehicleSearchActivity.SearchRecord> searches,
+                                SearchAnalytics searchAnalytics) {
         // Clear existing views
         recordsContainer.removeAllViews();
         
-        // Get both bookings and vehicle searches
-        List<BookingRequest> bookings = BookingStorage.getAllBookings(this);
-        List<VehicleSearchActivity.SearchRecord> searches = SearchStorage.getSearchRecords(this);
-        
         if (bookings.isEmpty() && searches.isEmpty()) {
             emptyStateText.setVisibility(View.VISIBLE);
             analyticsText.setText("📊 No data available");
         } else {
             emptyStateText.setVisibility(View.GONE);
-            displayUnifiedAnalytics(bookings, searches);
+            displayUnifiedAnalytics(bookings, searchAnalytics);
             displayAllRecords(bookings, searches);
         }
     }
 
-    private void displayUnifiedAnalytics(List<BookingRequest> bookings, List<VehicleSearchActivity.SearchRecord> searches) {
+    private void displayUnifiedAnalytics(List<BookingRequest> bookings, SearchAnalytics searchAnalytics) {
         StringBuilder analytics = new StringBuilder();
         
         // Booking Analytics
@@ -76,9 +82,6 @@ public class UnifiedAdminDashboardActivity extends AppCompatActivity {
             else if (booking.getStatus() == BookingStatus.COMPLETED) completedBookings++;
         }
         
-        // Search Analytics
-        SearchStorage.SearchAnalytics searchAnalytics = SearchStorage.getSearchAnalytics(this);
-        
         analytics.append("📊 UNIFIED ADMIN DASHBOARD\n");
         analytics.append("══════════════════════════\n\n");
         
@@ -99,10 +102,10 @@ public class UnifiedAdminDashboardActivity extends AppCompatActivity {
         
         analytics.append("🚗 POPULAR VEHICLES\n");
         analytics.append("══════════════════\n");
-        analytics.append("🚙 Sedan: ").append(searchAnalytics.sedanSearches).append(" requests\n");
-        analytics.append("🚐 SUV: ").append(searchAnalytics.suvSearches).append(" requests\n");
-        analytics.append("🚚 Van: ").append(searchAnalytics.vanSearches).append(" requests\n");
-        analytics.append("✨ Luxury: ").append(searchAnalytics.luxurySearches).append(" requests\n\n");
+        for (Map.Entry<String, Integer> entry : searchAnalytics.getVehicleTypeSearches().entrySet()) {
+            analytics.append("🚙 ").append(entry.getKey()).append(": ").append(entry.getValue()).append(" requests\n");
+        }
+        analytics.append("\n");
         
         int totalCustomerContacts = totalBookings + searchAnalytics.totalSearches;
         analytics.append("👥 TOTAL CUSTOMER CONTACTS: ").append(totalCustomerContacts).append("\n");
@@ -153,7 +156,7 @@ public class UnifiedAdminDashboardActivity extends AppCompatActivity {
         Collections.sort(searches, new Comparator<VehicleSearchActivity.SearchRecord>() {
             @Override
             public int compare(VehicleSearchActivity.SearchRecord r1, VehicleSearchActivity.SearchRecord r2) {
-                return r2.timestamp.compareTo(r1.timestamp);
+                return Long.compare(r2.timestamp, r1.timestamp);
             }
         });
         
@@ -258,7 +261,7 @@ public class UnifiedAdminDashboardActivity extends AppCompatActivity {
             search.searchQuery,
             search.customerName,
             search.phoneNumber,
-            search.timestamp,
+            search.getFormattedTimestamp(),
             locationInfo,
             search.status
         );
@@ -378,7 +381,7 @@ public class UnifiedAdminDashboardActivity extends AppCompatActivity {
             .setItems(statusOptions, (dialog, which) -> {
                 BookingStatus newStatus = statuses[which];
                 booking.changeStatus(newStatus, "Status updated by admin");
-                BookingStorage.updateBooking(this, booking);
+                DbExecutor.execute(() -> BookingStorage.updateBooking(this, booking));
                 loadAllData();
                 Toast.makeText(this, "Status updated to: " + newStatus.getDisplayName(), Toast.LENGTH_SHORT).show();
             })
@@ -393,7 +396,7 @@ public class UnifiedAdminDashboardActivity extends AppCompatActivity {
             .setTitle("Update Status for " + search.customerName)
             .setItems(statusOptions, (dialog, which) -> {
                 String newStatus = statusOptions[which];
-                SearchStorage.updateSearchStatus(this, search.phoneNumber, search.timestamp, newStatus);
+                DbExecutor.execute(() -> SearchStorage.updateSearchStatus(this, search.id, newStatus));
                 loadAllData();
                 Toast.makeText(this, "Status updated to: " + newStatus, Toast.LENGTH_SHORT).show();
             })
@@ -411,7 +414,7 @@ public class UnifiedAdminDashboardActivity extends AppCompatActivity {
             .setView(noteInput)
             .setPositiveButton("Save", (dialog, which) -> {
                 String notes = noteInput.getText().toString().trim();
-                SearchStorage.updateAdminNotes(this, search.phoneNumber, search.timestamp, notes);
+                DbExecutor.execute(() -> SearchStorage.updateAdminNotes(this, search.id, notes));
                 loadAllData();
                 Toast.makeText(this, "Notes saved!", Toast.LENGTH_SHORT).show();
             })
@@ -0,0 +1,108 @@
+package com.vehiclebooking;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming Gson adapter for User, used for the saved login session. Field names are the
+ * Java field names the reflective adapter used, so sessions saved by older versions still
+ * load; missing fields keep the defaults of User().
+ */
+public class UserAdapter extends TypeAdapter<User> {
+
+    public static final UserAdapter INSTANCE = new UserAdapter();
+
+    @Override
+    public void write(JsonWriter out, User user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("userId").value(user.getUserId());
+        out.name("username").value(user.getUsername());
+        out.name("email").value(user.getEmail());
+        out.name("phoneNumber").value(user.getPhoneNumber());
+        out.name("password").value(user.getPassword());
+        out.name("role").value(user.getRole() != null ? user.getRole().name() : null);
+        out.name("fullName").value(user.getFullName());
+        out.name("createdAt").value(user.getCreatedAt());
+        out.name("isActive").value(user.isActive());
+        out.name("licenseNumber").value(user.getLicenseNumber());
+        out.name("vehicleDetails").value(user.getVehicleDetails());
+        out.name("isAvailable").value(user.isAvailable());
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        User user = new User();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "userId":
+                    user.setUserId(in.nextString());
+                    break;
+                case "username":
+                    user.setUsername(in.nextString());
+                    break;
+                case "email":
+                    user.setEmail(in.nextString());
+                    break;
+                case "phoneNumber":
+                    user.setPhoneNumber(in.nextString());
+                    break;
+                case "password":
+                    user.setPassword(in.nextString());
+                    break;
+                case "role":
+                    user.setRole(readRole(in.nextString()));
+                    break;
+                case "fullName":
+                    user.setFullName(in.nextString());
+                    break;
+                case "createdAt":
+                    user.setCreatedAt(in.nextLong());
+                    break;
+                case "isActive":
+                    user.setActive(in.nextBoolean());
+                    break;
+                case "licenseNumber":
+                    user.setLicenseNumber(in.nextString());
+                    break;
+                case "vehicleDetails":
+                    user.setVehicleDetails(in.nextString());
+                    break;
+                case "isAvailable":
+                    user.setAvailable(in.nextBoolean());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return user;
+    }
+
+    private static UserRole readRole(String name) {
+        try {
+            return UserRole.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import com.google.gson.Gson;
 import com.vehiclebooking.data.AppDatabase;
+import com.vehiclebooking.data.DbExecutor;
 import com.vehiclebooking.data.dao.UserDao;
 import com.vehiclebooking.data.model.UserEntity;
 import com.vehiclebooking.security.PasswordHasher;
@@ -14,6 +15,10 @@ import com.vehiclebooking.utils.GsonProvider;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * User accounts and the logged-in session.
+ * Methods that touch the users table block; call them through DbExecutor from UI code.
+ */
 public class UserManager {
     private static final String PREFERENCES_NAME = "vehicle_booking_users";
     private static final String CURRENT_USER_KEY = "current_user";
@@ -38,7 +43,7 @@ public class UserManager {
     // Initialize with default admin user if no users exist
     public void initializeDefaultUsers() {
         UserDao userDao = AppDatabase.getDatabase(context).userDao();
-        List<UserEntity> users = userDao.getAllUsersBlocking();
+        List<UserEntity> users = userDao.findAllUsers();
         if (users.isEmpty()) {
             // Create default admin user with hashed password
             String hashedPassword = PasswordHasher.INSTANCE.hash("admin123");
@@ -79,14 +84,15 @@ public class UserManager {
         // Check if account is locked
         if (SecurityLogger.INSTANCE.isAccountLocked(context, username)) {
             int remainingMinutes = SecurityLogger.INSTANCE.getRemainingLockoutTime(context, username);
-            android.widget.Toast.makeText(context, 
+            // login() runs on the DbExecutor thread; toasts need the main looper
+            DbExecutor.postToMain(() -> android.widget.Toast.makeText(context, 
                 "Account locked. Try again in " + remainingMinutes + " minutes.", 
-                android.widget.Toast.LENGTH_LONG).show();
+                android.widget.Toast.LENGTH_LONG).show());
             return false;
         }
         
         UserDao userDao = AppDatabase.getDatabase(context).userDao();
-        UserEntity userEntity = userDao.getUserByUsernameBlocking(username);
+        UserEntity userEntity = userDao.findUserByUsername(username);
         
         if (userEntity != null && 
             userEntity.isActive && 
@@ -129,7 +135,7 @@ public class UserManager {
     private boolean saveUser(User user) {
         try {
             UserDao userDao = AppDatabase.getDatabase(context).userDao();
-            userDao.insertUserBlocking(new UserEntity(user));
+            userDao.insertUserRow(new UserEntity(user));
             return true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -140,7 +146,7 @@ public class UserManager {
     // Get all users
     private List<User> getAllUsers() {
         UserDao userDao = AppDatabase.getDatabase(context).userDao();
-        List<UserEntity> entities = userDao.getAllUsersBlocking();
+        List<UserEntity> entities = userDao.findAllUsers();
         List<User> users = new ArrayList<>();
         for (UserEntity entity : entities) {
             users.add(entity.toUser());
@@ -151,13 +157,13 @@ public class UserManager {
     // Check if username exists
     private boolean isUsernameExists(String username) {
         UserDao userDao = AppDatabase.getDatabase(context).userDao();
-        return userDao.getUserByUsernameBlocking(username) != null;
+        return userDao.findUserByUsername(username) != null;
     }
     
     // Check if email exists
     private boolean isEmailExists(String email) {
         UserDao userDao = AppDatabase.getDatabase(context).userDao();
-        return userDao.getUserByEmailBlocking(email) != null;
+        return userDao.findUserByEmail(email) != null;
     }
     
     // Save current user session
@@ -200,7 +206,7 @@ public class UserManager {
     public boolean updateUser(User updatedUser) {
         try {
             UserDao userDao = AppDatabase.getDatabase(context).userDao();
-            userDao.updateUserBlocking(new UserEntity(updatedUser));
+            userDao.updateUserRow(new UserEntity(updatedUser));
             
             if (currentUser != null && currentUser.getUserId().equals(updatedUser.getUserId())) {
                 currentUser = updatedUser;
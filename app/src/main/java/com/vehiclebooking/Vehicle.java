@@ -0,0 +1,61 @@
+package com.vehiclebooking;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A vehicle in the catalog customers search (see VehicleCatalog)
+ */
+public class Vehicle {
+    private final int id;
+    private final String name;
+    private final String vehicleType;
+    private final int capacity;
+    private final List<String> tags;
+
+    /**
+     * @param id       Room row id; 0 until saved
+     * @param name     make and model, e.g. "Toyota Camry"
+     * @param capacity passenger seats
+     * @param tags     free-form features such as "ac", "automatic" or "airport"
+     */
+    public Vehicle(int id, @NonNull String name, @NonNull String vehicleType, int capacity,
+                   @Nullable List<String> tags) {
+        this.id = id;
+        this.name = name;
+        this.vehicleType = vehicleType;
+        this.capacity = capacity;
+        this.tags = tags != null ? Collections.unmodifiableList(new ArrayList<>(tags)) : Collections.emptyList();
+    }
+
+    public int getId() { return id; }
+
+    @NonNull
+    public String getName() { return name; }
+
+    @NonNull
+    public String getVehicleType() { return vehicleType; }
+
+    public int getCapacity() { return capacity; }
+
+    @NonNull
+    public List<String> getTags() { return tags; }
+
+    /**
+     * "Toyota Camry - Sedan", the form stored as a search lead's vehicle interest
+     */
+    @NonNull
+    public String getDisplayName() {
+        return name + " - " + vehicleType;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return getDisplayName() + " (" + capacity + " seats)";
+    }
+}
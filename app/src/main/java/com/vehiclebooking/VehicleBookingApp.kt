@@ -1,13 +1,16 @@
 package com.vehiclebooking
 
 import android.app.Application
+import android.os.StrictMode
 import androidx.appcompat.app.AppCompatDelegate
 import com.google.android.material.color.DynamicColors
+import com.vehiclebooking.data.sync.BookingOutboxWorker
 import com.vehiclebooking.security.SecurePreferences
 
 /**
  * Application class for Vehicle Booking App
- * Handles dynamic colors, dark mode configuration, and security initialization
+ * Handles dynamic colors, dark mode configuration, security initialization
+ * and (debug builds) main-thread disk access detection
  */
 class VehicleBookingApp : Application() {
     
@@ -19,9 +22,23 @@ class VehicleBookingApp : Application() {
     override fun onCreate() {
         super.onCreate()
         
+        if (BuildConfig.DEBUG) {
+            // Database work belongs on DbExecutor; log anything that slips onto the main thread
+            StrictMode.setThreadPolicy(
+                StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .penaltyLog()
+                    .build()
+            )
+        }
+        
         // Initialize secure encrypted preferences
         SecurePreferences.init(this)
         
+        // Send booking changes left in the outbox by a previous run
+        BookingOutboxWorker.schedule(this)
+        
         // Enable dynamic colors (Android 12+)
         // Colors will adapt to user's wallpaper
         DynamicColors.applyToActivitiesIfAvailable(this)
@@ -0,0 +1,101 @@
+package com.vehiclebooking;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.vehiclebooking.data.AppDatabase;
+import com.vehiclebooking.data.dao.VehicleDao;
+import com.vehiclebooking.data.model.VehicleEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vehicle catalog persistence and search facade for the Java screens.
+ * The table starts with DefaultVehicles (written when it is created).
+ * Searches run against a VehicleSearchIndex built from the vehicles table on first use and
+ * rebuilt after Room reports a write to it, so a query does not touch SQLCipher.
+ * Storage methods block on SQLCipher I/O; UI code calls them through DbExecutor.
+ */
+public class VehicleCatalog {
+
+    private static final Object LOCK = new Object();
+    // Guarded by LOCK; generation changes whenever the table does, so a stale build is not kept
+    private static VehicleSearchIndex index;
+    private static long generation;
+    private static boolean observing;
+
+    /**
+     * Best matches for a customer's search text (see VehicleSearchIndex for the ranking)
+     */
+    public static List<Vehicle> search(Context context, String query) {
+        return search(context, query, VehicleSearchIndex.DEFAULT_LIMIT);
+    }
+
+    public static List<Vehicle> search(Context context, String query, int limit) {
+        return getIndex(context).search(query, limit);
+    }
+
+    // Get all vehicles in catalog order
+    public static List<Vehicle> getAllVehicles(Context context) {
+        VehicleDao dao = AppDatabase.getDatabase(context).vehicleDao();
+        return toVehicles(dao.findAllVehicles());
+    }
+
+    // Add vehicles, or replace the ones with the same id
+    public static void saveVehicles(Context context, List<Vehicle> vehicles) {
+        List<VehicleEntity> entities = new ArrayList<>(vehicles.size());
+        for (Vehicle vehicle : vehicles) {
+            entities.add(new VehicleEntity(vehicle));
+        }
+        AppDatabase.getDatabase(context).vehicleDao().insertVehicleRows(entities);
+    }
+
+    // Delete a vehicle
+    public static void deleteVehicle(Context context, int id) {
+        AppDatabase.getDatabase(context).vehicleDao().deleteVehicleRow(id);
+    }
+
+    @NonNull
+    private static VehicleSearchIndex getIndex(Context context) {
+        AppDatabase database = AppDatabase.getDatabase(context);
+        long loadedGeneration;
+        synchronized (LOCK) {
+            if (!observing) {
+                database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("vehicles") {
+                    @Override
+                    public void onInvalidated(@NonNull Set<String> tables) {
+                        synchronized (LOCK) {
+                            index = null;
+                            generation++;
+                        }
+                    }
+                });
+                observing = true;
+            }
+            if (index != null) {
+                return index;
+            }
+            loadedGeneration = generation;
+        }
+
+        VehicleSearchIndex built = new VehicleSearchIndex(toVehicles(database.vehicleDao().findAllVehicles()));
+        synchronized (LOCK) {
+            if (generation == loadedGeneration) {
+                index = built;
+            }
+        }
+        return built;
+    }
+
+    private static List<Vehicle> toVehicles(List<VehicleEntity> entities) {
+        List<Vehicle> vehicles = new ArrayList<>(entities.size());
+        for (VehicleEntity entity : entities) {
+            vehicles.add(entity.toVehicle());
+        }
+        return vehicles;
+    }
+}
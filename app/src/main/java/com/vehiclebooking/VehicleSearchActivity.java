@@ -17,6 +17,9 @@ import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.jakewharton.threetenabp.AndroidThreeTen;
+import com.vehiclebooking.data.DbExecutor;
+
+import java.util.List;
 
 public class VehicleSearchActivity extends AppCompatActivity {
     private EditText searchQuery;
@@ -30,18 +33,6 @@ public class VehicleSearchActivity extends AppCompatActivity {
     private Location userLocation;
     
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
-    
-    // Sample vehicle data - in real app this would come from database
-    private String[] availableVehicles = {
-        "Toyota Camry - Sedan",
-        "Honda CR-V - SUV", 
-        "Ford Transit - Van",
-        "BMW 3 Series - Luxury",
-        "Nissan Altima - Sedan",
-        "Chevrolet Tahoe - Large SUV",
-        "Mercedes Sprinter - Luxury Van",
-        "Hyundai Elantra - Compact"
-    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -163,7 +154,7 @@ public class VehicleSearchActivity extends AppCompatActivity {
         searchRecord.searchQuery = query;
         searchRecord.phoneNumber = phone;
         searchRecord.customerName = name.isEmpty() ? "Not provided" : name;
-        searchRecord.timestamp = DateUtils.formatTimestamp(DateUtils.localDateTimeToTimestamp(DateUtils.now()));
+        searchRecord.timestamp = System.currentTimeMillis();
         
         // Add location if available
         if (userLocation != null) {
@@ -175,10 +166,15 @@ public class VehicleSearchActivity extends AppCompatActivity {
         }
         
         // Save to storage (using our existing storage system)
-        SearchStorage.saveSearchRecord(this, searchRecord);
+        DbExecutor.execute(() -> SearchStorage.saveSearchRecord(this, searchRecord));
     }
     
     private void displaySearchResults(String query) {
+        DbExecutor.load(this, () -> VehicleCatalog.search(this, query),
+                vehicles -> showSearchResults(query, vehicles));
+    }
+
+    private void showSearchResults(String query, List<Vehicle> vehicles) {
         searchResultsContainer.removeAllViews();
         
         // Add search results header
@@ -188,18 +184,12 @@ public class VehicleSearchActivity extends AppCompatActivity {
         headerText.setPadding(0, 20, 0, 10);
         searchResultsContainer.addView(headerText);
         
-        // Search through available vehicles
-        boolean foundResults = false;
-        String queryLower = query.toLowerCase();
-        
-        for (String vehicle : availableVehicles) {
-            if (vehicle.toLowerCase().contains(queryLower)) {
-                foundResults = true;
-                addVehicleResult(vehicle);
-            }
+        // Ranked matches from the vehicle catalog
+        for (Vehicle vehicle : vehicles) {
+            addVehicleResult(vehicle);
         }
         
-        if (!foundResults) {
+        if (vehicles.isEmpty()) {
             TextView noResultsText = new TextView(this);
             noResultsText.setText("❌ No vehicles found matching \"" + query + "\"\n\n" +
                 "🔔 Don't worry! Our admin has been notified of your search and will contact you with available options.");
@@ -213,9 +203,10 @@ public class VehicleSearchActivity extends AppCompatActivity {
         }
     }
     
-    private void addVehicleResult(String vehicle) {
+    private void addVehicleResult(Vehicle vehicle) {
+        String vehicleName = vehicle.getDisplayName();
         TextView vehicleText = new TextView(this);
-        vehicleText.setText("🚗 " + vehicle);
+        vehicleText.setText("🚗 " + vehicleName + " · " + vehicle.getCapacity() + " seats");
         vehicleText.setTextSize(14);
         vehicleText.setPadding(0, 8, 0, 8);
         vehicleText.setBackgroundResource(android.R.drawable.list_selector_background);
@@ -225,11 +216,11 @@ public class VehicleSearchActivity extends AppCompatActivity {
             @Override
             public void onClick(View v) {
                 Toast.makeText(VehicleSearchActivity.this, 
-                    "✅ Interest in " + vehicle + " noted! Admin will contact you.", 
+                    "✅ Interest in " + vehicleName + " noted! Admin will contact you.", 
                     Toast.LENGTH_LONG).show();
                 
                 // Save specific vehicle interest
-                saveVehicleInterest(vehicle);
+                saveVehicleInterest(vehicleName);
             }
         });
         
@@ -239,7 +230,7 @@ public class VehicleSearchActivity extends AppCompatActivity {
     private void saveVehicleInterest(String vehicle) {
         // Update the search record with specific vehicle interest
         String phone = phoneNumber.getText().toString().trim();
-        SearchStorage.updateVehicleInterest(this, phone, vehicle);
+        DbExecutor.execute(() -> SearchStorage.updateVehicleInterest(this, phone, vehicle));
     }
     
     @Override
@@ -258,15 +249,20 @@ public class VehicleSearchActivity extends AppCompatActivity {
     
     // Inner class for search record structure
     public static class SearchRecord {
+        public int id; // Room row id; 0 until saved
         public String searchQuery;
         public String phoneNumber;
         public String customerName;
-        public String timestamp;
+        public long timestamp; // Epoch millis
         public double latitude;
         public double longitude;
         public boolean locationAvailable;
         public String vehicleInterest = "";
         public String status = "New"; // New, Contacted, Completed
         public String adminNotes = "";
+
+        public String getFormattedTimestamp() {
+            return DateUtils.formatTimestamp(timestamp);
+        }
     }
 }
\ No newline at end of file
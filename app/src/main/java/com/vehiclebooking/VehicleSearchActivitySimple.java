@@ -1,5 +1,6 @@
 package com.vehiclebooking;
 
+import android.content.Context;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -9,6 +10,9 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import com.jakewharton.threetenabp.AndroidThreeTen;
+import com.vehiclebooking.data.DbExecutor;
+
+import java.util.List;
 
 public class VehicleSearchActivitySimple extends AppCompatActivity {
     private EditText searchQuery;
@@ -16,18 +20,6 @@ public class VehicleSearchActivitySimple extends AppCompatActivity {
     private EditText customerName;
     private Button searchButton;
     private LinearLayout searchResultsContainer;
-    
-    // Sample vehicle data
-    private String[] availableVehicles = {
-        "Toyota Camry - Sedan",
-        "Honda CR-V - SUV", 
-        "Ford Transit - Van",
-        "BMW 3 Series - Luxury",
-        "Nissan Altima - Sedan",
-        "Chevrolet Tahoe - Large SUV",
-        "Mercedes Sprinter - Luxury Van",
-        "Hyundai Elantra - Compact"
-    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -119,28 +111,37 @@ public class VehicleSearchActivitySimple extends AppCompatActivity {
     }
     
     private void saveSearchData(String query, String phone, String name) {
-        try {
-            // Create search record for admin dashboard
-            VehicleSearchActivity.SearchRecord searchRecord = new VehicleSearchActivity.SearchRecord();
-            searchRecord.searchQuery = query;
-            searchRecord.phoneNumber = phone;
-            searchRecord.customerName = name; // Name is now mandatory, so always provided
-            searchRecord.timestamp = DateUtils.formatTimestamp(DateUtils.localDateTimeToTimestamp(DateUtils.now()));
-            
-            // No location data in simple version
-            searchRecord.locationAvailable = false;
-            searchRecord.latitude = 0.0;
-            searchRecord.longitude = 0.0;
-            
-            // Save to storage
-            SearchStorage.saveSearchRecord(this, searchRecord);
-        } catch (Exception e) {
-            // If saving fails, still continue with search display
-            Toast.makeText(this, "Note: Unable to save search data", Toast.LENGTH_SHORT).show();
-        }
+        // Create search record for admin dashboard
+        VehicleSearchActivity.SearchRecord searchRecord = new VehicleSearchActivity.SearchRecord();
+        searchRecord.searchQuery = query;
+        searchRecord.phoneNumber = phone;
+        searchRecord.customerName = name; // Name is now mandatory, so always provided
+        searchRecord.timestamp = System.currentTimeMillis();
+        
+        // No location data in simple version
+        searchRecord.locationAvailable = false;
+        searchRecord.latitude = 0.0;
+        searchRecord.longitude = 0.0;
+        
+        // Save to storage; failures are caught on the db-io thread, where they would otherwise crash the app
+        Context appContext = getApplicationContext();
+        DbExecutor.execute(() -> {
+            try {
+                SearchStorage.saveSearchRecord(appContext, searchRecord);
+            } catch (Exception e) {
+                // If saving fails, still continue with search display
+                DbExecutor.postToMain(() ->
+                    Toast.makeText(appContext, "Note: Unable to save search data", Toast.LENGTH_SHORT).show());
+            }
+        });
     }
     
     private void displaySearchResults(String query) {
+        DbExecutor.load(this, () -> VehicleCatalog.search(this, query),
+                vehicles -> showSearchResults(query, vehicles));
+    }
+
+    private void showSearchResults(String query, List<Vehicle> vehicles) {
         searchResultsContainer.removeAllViews();
         
         // Add search results header
@@ -150,18 +151,12 @@ public class VehicleSearchActivitySimple extends AppCompatActivity {
         headerText.setPadding(0, 20, 0, 10);
         searchResultsContainer.addView(headerText);
         
-        // Search through available vehicles
-        boolean foundResults = false;
-        String queryLower = query.toLowerCase();
-        
-        for (String vehicle : availableVehicles) {
-            if (vehicle.toLowerCase().contains(queryLower)) {
-                foundResults = true;
-                addVehicleResult(vehicle);
-            }
+        // Ranked matches from the vehicle catalog
+        for (Vehicle vehicle : vehicles) {
+            addVehicleResult(vehicle);
         }
         
-        if (!foundResults) {
+        if (vehicles.isEmpty()) {
             TextView noResultsText = new TextView(this);
             noResultsText.setText("❌ No vehicles found matching \"" + query + "\"\n\n" +
                 "🔔 Don't worry! Our admin has been notified of your search and will contact you with available options.");
@@ -175,9 +170,10 @@ public class VehicleSearchActivitySimple extends AppCompatActivity {
         }
     }
     
-    private void addVehicleResult(String vehicle) {
+    private void addVehicleResult(Vehicle vehicle) {
+        String vehicleName = vehicle.getDisplayName();
         TextView vehicleText = new TextView(this);
-        vehicleText.setText("🚗 " + vehicle);
+        vehicleText.setText("🚗 " + vehicleName + " · " + vehicle.getCapacity() + " seats");
         vehicleText.setTextSize(14);
         vehicleText.setPadding(0, 8, 0, 8);
         vehicleText.setBackgroundResource(android.R.drawable.list_selector_background);
@@ -187,11 +183,11 @@ public class VehicleSearchActivitySimple extends AppCompatActivity {
             @Override
             public void onClick(View v) {
                 Toast.makeText(VehicleSearchActivitySimple.this, 
-                    "✅ Interest in " + vehicle + " noted! Admin will contact you.", 
+                    "✅ Interest in " + vehicleName + " noted! Admin will contact you.", 
                     Toast.LENGTH_LONG).show();
                 
                 // Save specific vehicle interest
-                saveVehicleInterest(vehicle);
+                saveVehicleInterest(vehicleName);
             }
         });
         
@@ -199,12 +195,15 @@ public class VehicleSearchActivitySimple extends AppCompatActivity {
     }
     
     private void saveVehicleInterest(String vehicle) {
-        try {
-            // Update the search record with specific vehicle interest
-            String phone = phoneNumber.getText().toString().trim();
-            SearchStorage.updateVehicleInterest(this, phone, vehicle);
-        } catch (Exception e) {
-            // Ignore if update fails
-        }
+        // Update the search record with specific vehicle interest
+        String phone = phoneNumber.getText().toString().trim();
+        Context appContext = getApplicationContext();
+        DbExecutor.execute(() -> {
+            try {
+                SearchStorage.updateVehicleInterest(appContext, phone, vehicle);
+            } catch (Exception e) {
+                // Ignore if update fails
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,382 @@
+package com.vehiclebooking;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable inverted index over the vehicle catalog for the customer search box.
+ *
+ * Name, type, tags and seat count are split into lower-case tokens, each with a posting
+ * list of the vehicles that contain it. A query term matches a token exactly, as a prefix
+ * ("lux" finds luxury) or with one typo: a wrong, missing, extra or swapped letter, found
+ * through a map of single-letter deletions rather than by comparing against every token.
+ * Vehicles are ranked by how many query terms they match, then by a score that weighs the
+ * field a term was found in, how exactly it matched and how rare the token is (idf).
+ *
+ * VehicleCatalog builds one from the vehicles table and drops it when the table changes;
+ * since it is never modified after construction, searches need no locking.
+ */
+public final class VehicleSearchIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    private static final float TYPE_WEIGHT = 3f;
+    private static final float NAME_WEIGHT = 2f;
+    private static final float TAG_WEIGHT = 1f;
+    private static final float CAPACITY_WEIGHT = 1f;
+
+    private static final float PREFIX_QUALITY = 0.6f;
+    private static final float TYPO_QUALITY = 0.5f;
+    // Shorter terms match too much as prefixes or with a typo
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private final Vehicle[] vehicles;
+    // Sorted, so the tokens starting with a prefix are one range
+    private final String[] vocabulary;
+    private final Map<String, Integer> tokenIds;
+    // Per token: positions of the vehicles containing it (ascending) and the field weight there
+    private final int[][] postings;
+    private final float[][] weights;
+    private final float[] idf;
+    // Token with one letter removed -> tokens that reduce to it
+    private final Map<String, int[]> deletions;
+
+    public VehicleSearchIndex(@NonNull List<Vehicle> vehicles) {
+        this.vehicles = vehicles.toArray(new Vehicle[0]);
+
+        TreeMap<String, PostingBuilder> builders = new TreeMap<>();
+        for (int i = 0; i < this.vehicles.length; i++) {
+            Vehicle vehicle = this.vehicles[i];
+            addField(builders, i, vehicle.getName(), NAME_WEIGHT);
+            addField(builders, i, vehicle.getVehicleType(), TYPE_WEIGHT);
+            for (String tag : vehicle.getTags()) {
+                addField(builders, i, tag, TAG_WEIGHT);
+            }
+            if (vehicle.getCapacity() > 0) {
+                addField(builders, i, String.valueOf(vehicle.getCapacity()), CAPACITY_WEIGHT);
+            }
+        }
+
+        int size = builders.size();
+        vocabulary = new String[size];
+        tokenIds = new HashMap<>(size * 2);
+        postings = new int[size][];
+        weights = new float[size][];
+        idf = new float[size];
+        deletions = new HashMap<>();
+        int id = 0;
+        for (Map.Entry<String, PostingBuilder> entry : builders.entrySet()) {
+            String token = entry.getKey();
+            PostingBuilder builder = entry.getValue();
+            vocabulary[id] = token;
+            tokenIds.put(token, id);
+            postings[id] = Arrays.copyOf(builder.vehicles, builder.size);
+            weights[id] = Arrays.copyOf(builder.weights, builder.size);
+            idf[id] = (float) Math.log(1 + (double) this.vehicles.length / builder.size);
+            if (token.length() >= MIN_TYPO_LENGTH) {
+                for (int i = 0; i < token.length(); i++) {
+                    addDeletion(token.substring(0, i) + token.substring(i + 1), id);
+                }
+            }
+            id++;
+        }
+    }
+
+    public int size() {
+        return vehicles.length;
+    }
+
+    /**
+     * Up to {@code limit} vehicles matching any term of {@code query}, best first
+     */
+    @NonNull
+    public List<Vehicle> search(@NonNull String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        int count = vehicles.length;
+        float[] scores = new float[count];
+        int[] matchedTerms = new int[count];
+        // Best score of the current term per vehicle; termStamp tells whether it is set for this term
+        float[] termScores = new float[count];
+        int[] termStamp = new int[count];
+        int[] touched = new int[count];
+        int[] candidates = new int[count];
+        int candidateCount = 0;
+
+        for (int term = 0; term < terms.size(); term++) {
+            int stamp = term + 1;
+            int touchedCount = 0;
+            for (Map.Entry<Integer, Float> expansion : expand(terms.get(term)).entrySet()) {
+                int token = expansion.getKey();
+                float base = expansion.getValue() * idf[token];
+                int[] tokenVehicles = postings[token];
+                float[] tokenWeights = weights[token];
+                for (int i = 0; i < tokenVehicles.length; i++) {
+                    int vehicle = tokenVehicles[i];
+                    float score = base * tokenWeights[i];
+                    if (termStamp[vehicle] != stamp) {
+                        termStamp[vehicle] = stamp;
+                        termScores[vehicle] = score;
+                        touched[touchedCount++] = vehicle;
+                    } else if (score > termScores[vehicle]) {
+                        termScores[vehicle] = score;
+                    }
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                int vehicle = touched[i];
+                scores[vehicle] += termScores[vehicle];
+                if (matchedTerms[vehicle]++ == 0) {
+                    candidates[candidateCount++] = vehicle;
+                }
+            }
+        }
+
+        return top(candidates, candidateCount, scores, matchedTerms, limit);
+    }
+
+    /**
+     * Lower-case letter/digit runs. Hyphenated words are also indexed joined ("cr-v" gives
+     * cr, v and crv), so both spellings find them.
+     */
+    @NonNull
+    static List<String> tokenize(@NonNull String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        StringBuilder joined = new StringBuilder();
+        int parts = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+                joined.append(c);
+                continue;
+            }
+            if (word.length() > 0) {
+                tokens.add(word.toString());
+                word.setLength(0);
+                parts++;
+            }
+            if (c != '-') {
+                if (parts > 1) {
+                    tokens.add(joined.toString());
+                }
+                joined.setLength(0);
+                parts = 0;
+            }
+        }
+        return tokens;
+    }
+
+    // Tokens a query term matches, with the match quality (exact 1, prefix, typo)
+    private Map<Integer, Float> expand(String term) {
+        Map<Integer, Float> matches = new LinkedHashMap<>();
+        Integer exact = tokenIds.get(term);
+        if (exact != null) {
+            matches.put(exact, 1f);
+        }
+
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            int from = Arrays.binarySearch(vocabulary, term);
+            for (int i = from >= 0 ? from + 1 : -from - 1; i < vocabulary.length && vocabulary[i].startsWith(term); i++) {
+                matches.put(i, PREFIX_QUALITY);
+            }
+        }
+
+        if (term.length() >= MIN_TYPO_LENGTH) {
+            // A token one letter longer (a missing letter) reduces to the term itself
+            addTypos(matches, term, deletions.get(term));
+            for (int i = 0; i < term.length(); i++) {
+                String deleted = term.substring(0, i) + term.substring(i + 1);
+                // An extra letter in the term
+                Integer shorter = tokenIds.get(deleted);
+                if (shorter != null) {
+                    addTypos(matches, term, new int[]{shorter});
+                }
+                // A wrong or swapped letter: both reduce to the same deletion
+                addTypos(matches, term, deletions.get(deleted));
+            }
+        }
+        return matches;
+    }
+
+    private void addTypos(Map<Integer, Float> matches, String term, int[] tokens) {
+        if (tokens == null) {
+            return;
+        }
+        for (int token : tokens) {
+            if (!matches.containsKey(token) && isOneEditAway(term, vocabulary[token])) {
+                matches.put(token, TYPO_QUALITY);
+            }
+        }
+    }
+
+    // The best `limit` candidates, kept in a heap with the worst of them at the root
+    private List<Vehicle> top(int[] candidates, int candidateCount, float[] scores, int[] matchedTerms, int limit) {
+        int[] heap = new int[Math.min(limit, candidateCount)];
+        int heapSize = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int candidate = candidates[i];
+            if (heapSize < heap.length) {
+                heap[heapSize] = candidate;
+                siftUp(heap, heapSize++, scores, matchedTerms);
+            } else if (ranksBefore(candidate, heap[0], scores, matchedTerms)) {
+                heap[0] = candidate;
+                siftDown(heap, heapSize, scores, matchedTerms);
+            }
+        }
+
+        Vehicle[] results = new Vehicle[heapSize];
+        while (heapSize > 0) {
+            results[heapSize - 1] = vehicles[heap[0]];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, scores, matchedTerms);
+        }
+        return Arrays.asList(results);
+    }
+
+    // More matched terms first, then higher score, then catalog order
+    private static boolean ranksBefore(int a, int b, float[] scores, int[] matchedTerms) {
+        if (matchedTerms[a] != matchedTerms[b]) {
+            return matchedTerms[a] > matchedTerms[b];
+        }
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        return a < b;
+    }
+
+    private static void siftUp(int[] heap, int position, float[] scores, int[] matchedTerms) {
+        int item = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!ranksBefore(heap[parent], item, scores, matchedTerms)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = item;
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores, int[] matchedTerms) {
+        if (size == 0) {
+            return;
+        }
+        int item = heap[0];
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranksBefore(heap[child], heap[child + 1], scores, matchedTerms)) {
+                child++;
+            }
+            if (!ranksBefore(item, heap[child], scores, matchedTerms)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = item;
+    }
+
+    /**
+     * True if {@code a} and {@code b} differ by exactly one substituted, inserted, deleted
+     * or adjacent-swapped letter
+     */
+    static boolean isOneEditAway(@NonNull String a, @NonNull String b) {
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (Math.abs(lengthA - lengthB) > 1) {
+            return false;
+        }
+        if (lengthA == lengthB) {
+            int first = -1;
+            int differences = 0;
+            for (int i = 0; i < lengthA; i++) {
+                if (a.charAt(i) != b.charAt(i)) {
+                    if (++differences > 2) {
+                        return false;
+                    }
+                    if (first < 0) {
+                        first = i;
+                    }
+                }
+            }
+            if (differences == 1) {
+                return true;
+            }
+            // Two differences only count as one edit when they are a swap of neighbours
+            return differences == 2 && first + 1 < lengthA
+                    && a.charAt(first) == b.charAt(first + 1) && a.charAt(first + 1) == b.charAt(first)
+                    && a.regionMatches(first + 2, b, first + 2, lengthA - first - 2);
+        }
+
+        String shorter = lengthA < lengthB ? a : b;
+        String longer = lengthA < lengthB ? b : a;
+        int i = 0;
+        while (i < shorter.length() && shorter.charAt(i) == longer.charAt(i)) {
+            i++;
+        }
+        return shorter.regionMatches(i, longer, i + 1, shorter.length() - i);
+    }
+
+    private void addDeletion(String deleted, int token) {
+        int[] tokens = deletions.get(deleted);
+        if (tokens == null) {
+            deletions.put(deleted, new int[]{token});
+        } else if (tokens[tokens.length - 1] != token) {
+            // Deleting either of two repeated letters gives the same string
+            int[] grown = Arrays.copyOf(tokens, tokens.length + 1);
+            grown[tokens.length] = token;
+            deletions.put(deleted, grown);
+        }
+    }
+
+    private static void addField(Map<String, PostingBuilder> builders, int vehicle, String text, float weight) {
+        for (String token : tokenize(text)) {
+            PostingBuilder builder = builders.get(token);
+            if (builder == null) {
+                builder = new PostingBuilder();
+                builders.put(token, builder);
+            }
+            builder.add(vehicle, weight);
+        }
+    }
+
+    // Vehicles are added in order, so a repeat of the last one is the same vehicle in another field
+    private static final class PostingBuilder {
+        int[] vehicles = new int[4];
+        float[] weights = new float[4];
+        int size;
+
+        void add(int vehicle, float weight) {
+            if (size > 0 && vehicles[size - 1] == vehicle) {
+                weights[size - 1] = Math.max(weights[size - 1], weight);
+                return;
+            }
+            if (size == vehicles.length) {
+                vehicles = Arrays.copyOf(vehicles, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            vehicles[size] = vehicle;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
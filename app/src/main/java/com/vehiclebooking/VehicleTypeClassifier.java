@@ -0,0 +1,87 @@
+package com.vehiclebooking;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps free-text vehicle searches to the vehicle types they ask about, from a table of
+ * keywords per type. Queries are split into words (see VehicleSearchIndex.tokenize) and
+ * each word is looked up once, so the cost does not grow with the number of types and
+ * "caravan" is not a van search. A trailing "s" is ignored ("suvs").
+ * A query can mention several types ("luxury van").
+ *
+ * The keyword table is fixed at construction, so one instance (usually {@link #DEFAULT})
+ * can be shared between threads.
+ */
+public final class VehicleTypeClassifier {
+
+    /**
+     * Types in the order the dashboards list them
+     */
+    public static final VehicleTypeClassifier DEFAULT = new VehicleTypeClassifier(defaultKeywords());
+
+    private static final int MAX_TYPES = 64;
+
+    private final List<String> types;
+    // Keyword -> bit mask of the types it belongs to
+    private final Map<String, Long> typesByKeyword = new HashMap<>();
+
+    /**
+     * @param keywordsByType keywords (single lower-case words) per type, in report order
+     */
+    public VehicleTypeClassifier(@NonNull Map<String, ? extends Collection<String>> keywordsByType) {
+        if (keywordsByType.size() > MAX_TYPES) {
+            throw new IllegalArgumentException("At most " + MAX_TYPES + " vehicle types");
+        }
+        List<String> typeList = new ArrayList<>(keywordsByType.size());
+        for (Map.Entry<String, ? extends Collection<String>> entry : keywordsByType.entrySet()) {
+            long bit = 1L << typeList.size();
+            typeList.add(entry.getKey());
+            for (String keyword : entry.getValue()) {
+                Long mask = typesByKeyword.get(keyword);
+                typesByKeyword.put(keyword, mask != null ? mask | bit : bit);
+            }
+        }
+        this.types = Collections.unmodifiableList(typeList);
+    }
+
+    @NonNull
+    public List<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * Bit mask of the types {@code query} mentions: bit i is {@code getTypes().get(i)}
+     */
+    public long classify(@NonNull String query) {
+        long mask = 0;
+        for (String word : VehicleSearchIndex.tokenize(query)) {
+            Long types = typesByKeyword.get(word);
+            if (types == null && word.length() > 3 && word.endsWith("s")) {
+                types = typesByKeyword.get(word.substring(0, word.length() - 1));
+            }
+            if (types != null) {
+                mask |= types;
+            }
+        }
+        return mask;
+    }
+
+    private static Map<String, List<String>> defaultKeywords() {
+        Map<String, List<String>> keywords = new LinkedHashMap<>();
+        keywords.put("Sedan", Arrays.asList("sedan", "saloon"));
+        keywords.put("SUV", Arrays.asList("suv", "crossover", "jeep", "muv"));
+        keywords.put("Van", Arrays.asList("van", "minivan", "minibus", "tempo", "traveller"));
+        keywords.put("Luxury", Arrays.asList("luxury", "premium", "limo", "limousine"));
+        keywords.put("Hatchback", Arrays.asList("hatchback", "hatch"));
+        return keywords;
+    }
+}
@@ -11,6 +11,8 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import com.vehiclebooking.data.DbExecutor;
+import com.vehiclebooking.data.model.BookingSummary;
 import com.vehiclebooking.databinding.ActivityViewBookingsBinding;
 
 import java.util.List;
@@ -19,7 +21,7 @@ public class ViewBookingsActivity extends AppCompatActivity implements BookingAd
 
     private ActivityViewBookingsBinding binding;
     private BookingAdapter bookingAdapter;
-    private List<BookingRequest> bookingList;
+    private List<BookingSummary> bookingList;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -45,9 +47,10 @@ public class ViewBookingsActivity extends AppCompatActivity implements BookingAd
 
     private void loadBookings() {
         // Load bookings from storage
-        bookingList = BookingStorage.getAllBookings(this);
-        
-        updateUI();
+        DbExecutor.load(this, () -> BookingStorage.getBookingSummaries(this), summaries -> {
+            bookingList = summaries;
+            updateUI();
+        });
     }
 
     private void updateUI() {
@@ -87,8 +90,15 @@ public class ViewBookingsActivity extends AppCompatActivity implements BookingAd
     }
 
     @Override
-    public void onStatusChangeClick(BookingRequest booking, int position) {
-        showStatusChangeDialog(booking, position);
+    public void onStatusChangeClick(BookingSummary summary, int position) {
+        // List rows are summaries; load the full booking before changing it
+        DbExecutor.load(this, () -> BookingStorage.getBookingById(this, summary.bookingId), booking -> {
+            if (booking == null) {
+                Toast.makeText(this, "Booking not found", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            showStatusChangeDialog(booking, position);
+        });
     }
 
     private void showStatusChangeDialog(BookingRequest booking, int position) {
@@ -128,7 +138,7 @@ public class ViewBookingsActivity extends AppCompatActivity implements BookingAd
         
         if (booking.changeStatus(newStatus, reason)) {
             // Update the existing booking
-            BookingStorage.updateBooking(this, booking);
+            DbExecutor.execute(() -> BookingStorage.updateBooking(this, booking));
             
             // Show success message
             String message = newStatus.getTransitionMessage(newStatus);
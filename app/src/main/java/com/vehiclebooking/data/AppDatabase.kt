@@ -1,25 +1,53 @@
 package com.vehiclebooking.data
 
 import android.content.Context
+import android.os.Looper
+import android.util.Log
 import androidx.room.Database
 import androidx.room.Room
 import androidx.room.RoomDatabase
 import androidx.room.TypeConverters
 import androidx.sqlite.db.SupportSQLiteDatabase
+import com.vehiclebooking.BuildConfig
+import com.vehiclebooking.data.dao.BookingAggregateDao
 import com.vehiclebooking.data.dao.BookingDao
+import com.vehiclebooking.data.dao.DriverLocationDao
+import com.vehiclebooking.data.dao.OutboxDao
 import com.vehiclebooking.data.dao.SearchRecordDao
+import com.vehiclebooking.data.dao.SyncStateDao
 import com.vehiclebooking.data.dao.UserDao
+import com.vehiclebooking.data.dao.VehicleDao
+import com.vehiclebooking.data.model.BookingAggregateEntity
 import com.vehiclebooking.data.model.BookingEntity
+import com.vehiclebooking.data.model.BookingFtsEntity
+import com.vehiclebooking.data.model.DriverLocationEntity
+import com.vehiclebooking.data.model.OutboxEntity
+import com.vehiclebooking.data.model.RouteAggregateEntity
 import com.vehiclebooking.data.model.SearchRecordEntity
+import com.vehiclebooking.data.model.StatusChangeEntity
+import com.vehiclebooking.data.model.SyncStateEntity
 import com.vehiclebooking.data.model.UserEntity
+import com.vehiclebooking.data.model.VehicleEntity
 import com.vehiclebooking.security.SecurePreferences
 import net.sqlcipher.database.SQLiteDatabase
 import net.sqlcipher.database.SupportFactory
 import java.security.SecureRandom
 
 @Database(
-    entities = [UserEntity::class, BookingEntity::class, SearchRecordEntity::class],
-    version = 1,
+    entities = [
+        UserEntity::class,
+        BookingEntity::class,
+        BookingFtsEntity::class,
+        BookingAggregateEntity::class,
+        RouteAggregateEntity::class,
+        SearchRecordEntity::class,
+        StatusChangeEntity::class,
+        SyncStateEntity::class,
+        OutboxEntity::class,
+        VehicleEntity::class,
+        DriverLocationEntity::class
+    ],
+    version = 12,
     exportSchema = false
 )
 @TypeConverters(Converters::class)
@@ -27,7 +55,12 @@ abstract class AppDatabase : RoomDatabase() {
     
     abstract fun userDao(): UserDao
     abstract fun bookingDao(): BookingDao
+    abstract fun bookingAggregateDao(): BookingAggregateDao
     abstract fun searchRecordDao(): SearchRecordDao
+    abstract fun syncStateDao(): SyncStateDao
+    abstract fun outboxDao(): OutboxDao
+    abstract fun vehicleDao(): VehicleDao
+    abstract fun driverLocationDao(): DriverLocationDao
 
     companion object {
         @Volatile
@@ -35,6 +68,7 @@ abstract class AppDatabase : RoomDatabase() {
         
         private const val DB_NAME = "vehicle_booking_database"
         private const val PASSPHRASE_KEY = "db_passphrase"
+        private const val TAG = "AppDatabase"
 
         fun getDatabase(context: Context): AppDatabase {
             return INSTANCE ?: synchronized(this) {
@@ -50,14 +84,36 @@ abstract class AppDatabase : RoomDatabase() {
             val passphraseBytes = SQLiteDatabase.getBytes(passphrase.toCharArray())
             val factory = SupportFactory(passphraseBytes)
             
-            return Room.databaseBuilder(
+            val builder = Room.databaseBuilder(
                 context.applicationContext,
                 AppDatabase::class.java,
                 DB_NAME
             )
             .openHelperFactory(factory) // Enable SQLCipher encryption
-            .fallbackToDestructiveMigration() // Reset DB on version change
-            .build()
+            .addMigrations(*DatabaseMigrations.ALL) // Preserve data across schema changes
+            .addCallback(object : RoomDatabase.Callback() {
+                override fun onCreate(db: SupportSQLiteDatabase) {
+                    // Room creates tables from entities; triggers are ours to add
+                    BookingAggregateTriggers.create(db)
+                    DefaultVehicles.insert(db)
+                }
+
+                override fun onOpen(db: SupportSQLiteDatabase) {
+                    // REPLACE inserts only fire delete triggers (FTS, aggregates) with recursive triggers on
+                    db.query("PRAGMA recursive_triggers = ON").close()
+                }
+            })
+            
+            if (BuildConfig.DEBUG) {
+                // The callback runs on the querying thread, so a main-thread query shows up with its caller
+                builder.setQueryCallback({ sql, _ ->
+                    if (Looper.myLooper() == Looper.getMainLooper()) {
+                        Log.w(TAG, "Query on main thread: $sql", Throwable())
+                    }
+                }, Runnable::run)
+            }
+            
+            return builder.build()
         }
         
         /**
@@ -0,0 +1,101 @@
+package com.vehiclebooking.data
+
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * SQL triggers that keep booking_aggregates and route_aggregates in step with the bookings table.
+ * Every insert adds the row's contribution, every delete subtracts it, and an update does both,
+ * so the analytics dashboard reads a handful of counter rows instead of walking every booking.
+ * Bucket keys use local time, matching DateUtils.
+ */
+object BookingAggregateTriggers {
+
+    private const val TRIGGER_INSERT = "booking_aggregates_AFTER_INSERT"
+    private const val TRIGGER_DELETE = "booking_aggregates_AFTER_DELETE"
+    private const val TRIGGER_UPDATE = "booking_aggregates_AFTER_UPDATE"
+
+    /**
+     * Create the triggers (fresh installs and migrations)
+     */
+    fun create(db: SupportSQLiteDatabase) {
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS $TRIGGER_INSERT AFTER INSERT ON `bookings` BEGIN " +
+                applyRow("NEW", 1) + " END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS $TRIGGER_DELETE AFTER DELETE ON `bookings` BEGIN " +
+                applyRow("OLD", -1) + " END"
+        )
+        db.execSQL(
+            "CREATE TRIGGER IF NOT EXISTS $TRIGGER_UPDATE AFTER UPDATE ON `bookings` BEGIN " +
+                applyRow("OLD", -1) + " " + applyRow("NEW", 1) + " END"
+        )
+    }
+
+    /**
+     * Recompute all aggregates from the bookings table (used once when the tables are added)
+     */
+    fun rebuild(db: SupportSQLiteDatabase) {
+        db.execSQL("DELETE FROM `booking_aggregates`")
+        db.execSQL("DELETE FROM `route_aggregates`")
+
+        val buckets = listOf(
+            "status" to status("b"),
+            "hour" to localTime("%H", "b"),
+            "weekday" to localTime("%w", "b"),
+            "month" to localTime("%Y-%m", "b"),
+            "day" to localTime("%Y-%m-%d", "b"),
+            "total" to "'count'"
+        )
+        for ((kind, bucket) in buckets) {
+            db.execSQL(
+                "INSERT INTO `booking_aggregates`(kind, bucket, value) " +
+                    "SELECT '$kind', $bucket, COUNT(*) FROM `bookings` b GROUP BY 2"
+            )
+        }
+        db.execSQL(
+            "INSERT INTO `booking_aggregates`(kind, bucket, value) " +
+                "SELECT 'total', 'duration', COALESCE(SUM(${duration("b")}), 0) FROM `bookings` b"
+        )
+        db.execSQL(
+            "INSERT INTO `route_aggregates`(source, destination, status, count, totalDuration) " +
+                "SELECT COALESCE(b.source, ''), COALESCE(b.destination, ''), ${status("b")}, " +
+                "COUNT(*), SUM(${duration("b")}) FROM `bookings` b GROUP BY 1, 2, 3"
+        )
+    }
+
+    /**
+     * Statements adding (delta = 1) or removing (delta = -1) one booking row's contribution
+     */
+    private fun applyRow(row: String, delta: Int): String {
+        val statements = listOf(
+            bump("status", status(row), delta.toString()),
+            bump("hour", localTime("%H", row), delta.toString()),
+            bump("weekday", localTime("%w", row), delta.toString()),
+            bump("month", localTime("%Y-%m", row), delta.toString()),
+            bump("day", localTime("%Y-%m-%d", row), delta.toString()),
+            bump("total", "'count'", delta.toString()),
+            bump("total", "'duration'", "$delta * ${duration(row)}"),
+            "INSERT INTO `route_aggregates`(source, destination, status, count, totalDuration) " +
+                "VALUES (COALESCE($row.source, ''), COALESCE($row.destination, ''), ${status(row)}, " +
+                "$delta, $delta * ${duration(row)}) " +
+                "ON CONFLICT(source, destination, status) DO UPDATE SET " +
+                "count = count + excluded.count, totalDuration = totalDuration + excluded.totalDuration;"
+        )
+        return statements.joinToString(" ")
+    }
+
+    private fun bump(kind: String, bucket: String, amount: String): String =
+        "INSERT INTO `booking_aggregates`(kind, bucket, value) VALUES ('$kind', $bucket, $amount) " +
+            "ON CONFLICT(kind, bucket) DO UPDATE SET value = value + excluded.value;"
+
+    // A null status is counted as PENDING, as everywhere else in the app
+    private fun status(row: String) = "COALESCE($row.status, 'PENDING')"
+
+    private fun localTime(format: String, row: String) =
+        "strftime('$format', $row.timestamp / 1000, 'unixepoch', 'localtime')"
+
+    // Booking-to-travel-date span in ms; travelDate is local midnight (see DateUtils.localDateToTimestamp)
+    private fun duration(row: String) =
+        "(COALESCE(CAST(strftime('%s', $row.travelDate, 'utc') AS INTEGER) * 1000, $row.timestamp) - $row.timestamp)"
+}
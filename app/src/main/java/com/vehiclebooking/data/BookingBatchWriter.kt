@@ -0,0 +1,196 @@
+package com.vehiclebooking.data
+
+import androidx.sqlite.db.SupportSQLiteStatement
+import com.vehiclebooking.BookingStatus
+import com.vehiclebooking.StatusChange
+import com.vehiclebooking.data.model.BookingEntity
+
+/**
+ * Bulk write path for bookings (initial sync, Firestore snapshots, imports and restores).
+ *
+ * Rows are written in chunks of [chunkSize], one transaction per chunk, through two statements
+ * compiled once per call and re-bound for every row. Conflicts are resolved in SQL instead of
+ * reading each row first: [OnExisting.IGNORE] keeps the stored booking, [OnExisting.UPDATE]
+ * upserts unless the stored row has a newer statusUpdatedAt, and skips rows whose columns are
+ * unchanged, so an unchanged snapshot costs no writes (and fires no FTS or aggregate triggers).
+ * Status history is appended with INSERT OR IGNORE.
+ *
+ * Blocking; call it off the main thread.
+ */
+class BookingBatchWriter @JvmOverloads constructor(
+    private val database: AppDatabase,
+    private val chunkSize: Int = DEFAULT_CHUNK_SIZE
+) {
+
+    enum class OnExisting {
+        /** Keep the stored row; only new booking IDs are inserted (imports, restores) */
+        IGNORE,
+
+        /** Overwrite changed columns of the stored row unless it is newer (server snapshots) */
+        UPDATE
+    }
+
+    init {
+        require(chunkSize > 0) { "chunkSize must be positive" }
+    }
+
+    fun write(bookings: List<BookingEntity>, onExisting: OnExisting): BatchWriteStats {
+        if (bookings.isEmpty()) {
+            return BatchWriteStats.EMPTY
+        }
+
+        val startNanos = System.nanoTime()
+        var changedRows = 0
+        var historyRows = 0
+        var chunks = 0
+        var transactionNanos = 0L
+        var maxTransactionNanos = 0L
+
+        val bookingStatement = database.compileStatement(
+            if (onExisting == OnExisting.UPDATE) UPSERT_BOOKING else INSERT_BOOKING_IF_ABSENT
+        )
+        val historyStatement = database.compileStatement(INSERT_STATUS_CHANGE)
+        try {
+            var from = 0
+            while (from < bookings.size) {
+                val to = minOf(from + chunkSize, bookings.size)
+                val chunkStart = System.nanoTime()
+                database.runInTransaction {
+                    for (i in from until to) {
+                        val booking = bookings[i]
+                        bindBooking(bookingStatement, booking)
+                        val written = bookingStatement.executeUpdateDelete()
+                        changedRows += written
+                        // An ignored import must not graft its history onto the stored booking
+                        if (written > 0 || onExisting == OnExisting.UPDATE) {
+                            historyRows += appendHistory(historyStatement, booking.bookingId, booking.statusHistory)
+                        }
+                    }
+                }
+                val chunkNanos = System.nanoTime() - chunkStart
+                transactionNanos += chunkNanos
+                maxTransactionNanos = maxOf(maxTransactionNanos, chunkNanos)
+                chunks++
+                from = to
+            }
+        } finally {
+            bookingStatement.close()
+            historyStatement.close()
+        }
+
+        return BatchWriteStats(
+            bookings.size, changedRows, historyRows, chunks,
+            transactionNanos, maxTransactionNanos, System.nanoTime() - startNanos
+        )
+    }
+
+    private fun bindBooking(statement: SupportSQLiteStatement, booking: BookingEntity) {
+        statement.clearBindings()
+        statement.bindString(1, booking.bookingId)
+        bindNullable(statement, 2, booking.source)
+        bindNullable(statement, 3, booking.destination)
+        bindNullable(statement, 4, Converters.fromLocalDate(booking.travelDate))
+        statement.bindLong(5, booking.timestamp)
+        bindNullable(statement, 6, Converters.fromBookingStatus(booking.status))
+        statement.bindLong(7, booking.statusUpdatedAt)
+        bindNullable(statement, 8, booking.phoneNumber)
+        bindNullable(statement, 9, booking.vehicleType)
+    }
+
+    private fun appendHistory(statement: SupportSQLiteStatement, bookingId: String, history: List<StatusChange>?): Int {
+        if (history == null) return 0
+        var inserted = 0
+        for (change in history) {
+            // Gson may leave "non-null" fields null in server payloads
+            val status: BookingStatus? = change.status
+            if (status == null) continue
+            val reason: String? = change.reason
+            statement.clearBindings()
+            statement.bindString(1, bookingId)
+            statement.bindLong(2, change.timestamp)
+            statement.bindString(3, Converters.fromBookingStatus(status))
+            statement.bindString(4, reason ?: "")
+            inserted += statement.executeUpdateDelete()
+        }
+        return inserted
+    }
+
+    private fun bindNullable(statement: SupportSQLiteStatement, index: Int, value: String?) {
+        if (value == null) statement.bindNull(index) else statement.bindString(index, value)
+    }
+
+    /**
+     * Throughput of one [write] call. [changedRows] counts bookings actually inserted or updated;
+     * [transactionNanos] is the time spent inside chunk transactions.
+     */
+    data class BatchWriteStats(
+        val rows: Int,
+        val changedRows: Int,
+        val historyRows: Int,
+        val chunks: Int,
+        val transactionNanos: Long,
+        val maxTransactionNanos: Long,
+        val elapsedNanos: Long
+    ) {
+        val rowsPerSecond: Double
+            get() = if (elapsedNanos > 0) rows * 1_000_000_000.0 / elapsedNanos else 0.0
+
+        /**
+         * Totals over several writes, e.g. the chunks of a streamed import
+         */
+        operator fun plus(other: BatchWriteStats) = BatchWriteStats(
+            rows + other.rows,
+            changedRows + other.changedRows,
+            historyRows + other.historyRows,
+            chunks + other.chunks,
+            transactionNanos + other.transactionNanos,
+            maxOf(maxTransactionNanos, other.maxTransactionNanos),
+            elapsedNanos + other.elapsedNanos
+        )
+
+        override fun toString(): String =
+            "$rows rows ($changedRows changed, $historyRows history) in $chunks chunks, " +
+                "%.1f ms total, %.1f ms max transaction, %.0f rows/s".format(
+                    elapsedNanos / 1_000_000.0, maxTransactionNanos / 1_000_000.0, rowsPerSecond
+                )
+
+        companion object {
+            @JvmField
+            val EMPTY = BatchWriteStats(0, 0, 0, 0, 0L, 0L, 0L)
+        }
+    }
+
+    companion object {
+        const val DEFAULT_CHUNK_SIZE = 500
+
+        private const val BOOKING_COLUMNS =
+            "bookingId, source, destination, travelDate, timestamp, status, statusUpdatedAt, phoneNumber, vehicleType"
+        private const val BOOKING_PARAMS = "?, ?, ?, ?, ?, ?, ?, ?, ?"
+
+        private const val INSERT_BOOKING_IF_ABSENT =
+            "INSERT OR IGNORE INTO bookings ($BOOKING_COLUMNS) VALUES ($BOOKING_PARAMS)"
+
+        // Last writer wins on statusUpdatedAt: a snapshot older than the stored row (including one
+        // without status_updated_at, which arrives as 0) leaves it alone, so a stale server copy
+        // cannot revert a newer local status or leave it paired with the newer timestamp
+        private const val UPSERT_BOOKING =
+            "INSERT INTO bookings ($BOOKING_COLUMNS) VALUES ($BOOKING_PARAMS) " +
+                "ON CONFLICT(bookingId) DO UPDATE SET " +
+                "source = excluded.source, destination = excluded.destination, " +
+                "travelDate = excluded.travelDate, timestamp = excluded.timestamp, " +
+                "status = excluded.status, statusUpdatedAt = excluded.statusUpdatedAt, " +
+                "phoneNumber = excluded.phoneNumber, vehicleType = excluded.vehicleType " +
+                "WHERE excluded.statusUpdatedAt >= bookings.statusUpdatedAt " +
+                "AND (bookings.source IS NOT excluded.source " +
+                "OR bookings.destination IS NOT excluded.destination " +
+                "OR bookings.travelDate IS NOT excluded.travelDate " +
+                "OR bookings.timestamp IS NOT excluded.timestamp " +
+                "OR bookings.status IS NOT excluded.status " +
+                "OR bookings.statusUpdatedAt IS NOT excluded.statusUpdatedAt " +
+                "OR bookings.phoneNumber IS NOT excluded.phoneNumber " +
+                "OR bookings.vehicleType IS NOT excluded.vehicleType)"
+
+        private const val INSERT_STATUS_CHANGE =
+            "INSERT OR IGNORE INTO status_changes (bookingId, timestamp, status, reason) VALUES (?, ?, ?, ?)"
+    }
+}
@@ -0,0 +1,387 @@
+package com.vehiclebooking.data;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.InvalidationTracker;
+
+import com.vehiclebooking.BookingRequest;
+import com.vehiclebooking.BookingStatus;
+import com.vehiclebooking.StatusChange;
+import com.vehiclebooking.data.model.BookingEntity;
+
+import org.threeten.bp.LocalDate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide LRU cache of bookings for the Java screens, keyed by booking ID with
+ * secondary indexes by creation timestamp and by phone number, so the details, modify
+ * and status screens do not go back to SQLCipher for a booking they just showed.
+ *
+ * Room's InvalidationTracker reports every write to the bookings or status_changes tables
+ * (repository, sync, and BookingStorage itself) by table only and after the commit, so
+ * the whole cache is dropped each time. Writes made through BookingStorage also update
+ * the cache straight away, so a reload before that notification never sees the old row.
+ * Loads stamp what they put with {@link #generation()} so a read that raced an
+ * invalidation or a write-through cannot put stale rows back.
+ *
+ * Entries are immutable snapshots: every hit returns a new BookingRequest, so a screen
+ * can change the booking it got without changing the cache.
+ */
+public final class BookingCache {
+
+    public static final int DEFAULT_MAX_BOOKINGS = 256;
+    // Complete per-phone result lists (customer status screen)
+    private static final int MAX_PHONE_LISTS = 32;
+
+    private static volatile BookingCache instance;
+
+    /**
+     * Lookup counters since the process started
+     */
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long invalidations;
+        public final int size;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0.0;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.US,
+                    "%d hits, %d misses (%.0f%% hit rate), %d cached, %d evictions, %d invalidations",
+                    hits, misses, getHitRate() * 100, size, evictions, invalidations);
+        }
+    }
+
+    /**
+     * Immutable copy of a booking row; history is null when it was read without it
+     */
+    private static final class Snapshot {
+        final String bookingId;
+        final String source;
+        final String destination;
+        final LocalDate travelDate;
+        final long timestamp;
+        final BookingStatus status;
+        final long statusUpdatedAt;
+        final String phoneNumber;
+        final String vehicleType;
+        @Nullable
+        final List<StatusChange> history;
+
+        Snapshot(@NonNull BookingEntity entity, @Nullable List<StatusChange> history) {
+            this.bookingId = entity.bookingId;
+            this.source = entity.source;
+            this.destination = entity.destination;
+            this.travelDate = entity.travelDate;
+            this.timestamp = entity.timestamp;
+            this.status = entity.status;
+            this.statusUpdatedAt = entity.statusUpdatedAt;
+            this.phoneNumber = entity.phoneNumber;
+            this.vehicleType = entity.vehicleType;
+            this.history = history != null ? Collections.unmodifiableList(new ArrayList<>(history)) : null;
+        }
+
+        @NonNull
+        BookingRequest toBookingRequest() {
+            BookingRequest booking = new BookingRequest(source, destination, travelDate, timestamp, status,
+                    history != null ? new ArrayList<>(history) : null);
+            booking.setBookingId(bookingId);
+            booking.setPhoneNumber(phoneNumber);
+            booking.setVehicleType(vehicleType);
+            booking.setStatusUpdatedAt(statusUpdatedAt);
+            return booking;
+        }
+    }
+
+    private final int maxBookings;
+    private final LinkedHashMap<String, Snapshot> byId;
+    private final Map<Long, String> idByTimestamp = new HashMap<>();
+    private final LinkedHashMap<String, List<String>> idsByPhone;
+
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public BookingCache(int maxBookings) {
+        if (maxBookings <= 0) {
+            throw new IllegalArgumentException("maxBookings must be positive");
+        }
+        this.maxBookings = maxBookings;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true);
+        this.idsByPhone = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                return size() > MAX_PHONE_LISTS;
+            }
+        };
+    }
+
+    /**
+     * The shared cache, invalidated by the app database. Call off the main thread the
+     * first time (registering the observer may touch the database).
+     */
+    @NonNull
+    public static BookingCache get(@NonNull Context context) {
+        BookingCache cache = instance;
+        if (cache == null) {
+            synchronized (BookingCache.class) {
+                cache = instance;
+                if (cache == null) {
+                    cache = new BookingCache(DEFAULT_MAX_BOOKINGS);
+                    cache.attach(AppDatabase.getDatabase(context));
+                    instance = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Drop the cache whenever Room reports a write to the booking tables
+     */
+    public void attach(@NonNull AppDatabase database) {
+        database.getInvalidationTracker().addObserver(
+                new InvalidationTracker.Observer(new String[]{"bookings", "status_changes"}) {
+                    @Override
+                    public void onInvalidated(@NonNull Set<String> tables) {
+                        invalidateAll();
+                    }
+                });
+    }
+
+    /**
+     * Current generation, bumped by every invalidation and write-through; read it before
+     * loading and pass it to the put methods after
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * @param withHistory only count a hit if the status history was cached too
+     */
+    @Nullable
+    public synchronized BookingRequest getById(@NonNull String bookingId, boolean withHistory) {
+        return record(usable(byId.get(bookingId), withHistory));
+    }
+
+    @Nullable
+    public synchronized BookingRequest getByTimestamp(long timestamp, boolean withHistory) {
+        String bookingId = idByTimestamp.get(timestamp);
+        return record(usable(bookingId != null ? byId.get(bookingId) : null, withHistory));
+    }
+
+    /**
+     * Status history of a cached booking, or null if it is not cached with its history
+     */
+    @Nullable
+    public synchronized List<StatusChange> getStatusHistory(@NonNull String bookingId) {
+        Snapshot snapshot = usable(byId.get(bookingId), true);
+        if (snapshot == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new ArrayList<>(snapshot.history);
+    }
+
+    /**
+     * All bookings for a phone number in the order they were loaded, or null if that
+     * result is not cached (or one of its bookings has been evicted since)
+     */
+    @Nullable
+    public synchronized List<BookingRequest> getByPhoneNumber(@NonNull String phoneNumber) {
+        List<String> ids = idsByPhone.get(phoneNumber);
+        if (ids == null) {
+            misses++;
+            return null;
+        }
+        List<BookingRequest> bookings = new ArrayList<>(ids.size());
+        for (String bookingId : ids) {
+            Snapshot snapshot = byId.get(bookingId);
+            if (snapshot == null) {
+                idsByPhone.remove(phoneNumber);
+                misses++;
+                return null;
+            }
+            bookings.add(snapshot.toBookingRequest());
+        }
+        hits++;
+        return bookings;
+    }
+
+    /**
+     * Cache a booking loaded at {@code loadedGeneration}; ignored if the tables changed since
+     */
+    public synchronized void putLoaded(long loadedGeneration, @NonNull BookingEntity entity,
+                                       @Nullable List<StatusChange> history) {
+        if (loadedGeneration != generation) {
+            return;
+        }
+        Snapshot cached = byId.get(entity.bookingId);
+        // A row read without history does not make the cached history wrong in the same generation
+        if (history == null && cached != null) {
+            history = cached.history;
+        }
+        store(new Snapshot(entity, history));
+    }
+
+    /**
+     * Cache the complete result of a phone number lookup
+     */
+    public synchronized void putPhoneNumberResult(long loadedGeneration, @NonNull String phoneNumber,
+                                                  @NonNull List<BookingEntity> entities) {
+        // More rows than fit would be evicted straight away and the list never served
+        if (loadedGeneration != generation || entities.size() > maxBookings / 2) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(entities.size());
+        for (BookingEntity entity : entities) {
+            putLoaded(loadedGeneration, entity, null);
+            ids.add(entity.bookingId);
+        }
+        idsByPhone.put(phoneNumber, ids);
+    }
+
+    /**
+     * Write-through for a booking that was just inserted with exactly this history
+     */
+    public synchronized void onInserted(@NonNull BookingEntity entity) {
+        // A load that started before the insert must not put its result in after it
+        generation++;
+        store(new Snapshot(entity, entity.statusHistory));
+        // The cached list for this number does not have the new booking
+        idsByPhone.remove(entity.phoneNumber);
+    }
+
+    /**
+     * Write-through for an updated booking. Stored history only ever grows (re-saved changes
+     * are ignored), so a cached history is merged with the new one. Bookings that are not
+     * cached are left to the next load.
+     */
+    public synchronized void onUpdated(@NonNull BookingEntity entity) {
+        generation++;
+        Snapshot cached = byId.get(entity.bookingId);
+        if (cached == null) {
+            return;
+        }
+        List<StatusChange> history = cached.history != null
+                ? mergeHistory(cached.history, entity.statusHistory)
+                : null;
+        if (!equalsNullable(cached.phoneNumber, entity.phoneNumber)) {
+            idsByPhone.remove(cached.phoneNumber);
+            idsByPhone.remove(entity.phoneNumber);
+        }
+        store(new Snapshot(entity, history));
+    }
+
+    /**
+     * Forget everything, e.g. after a bulk write or when Room reports a change
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations++;
+        byId.clear();
+        idByTimestamp.clear();
+        idsByPhone.clear();
+    }
+
+    @NonNull
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, byId.size());
+    }
+
+    private void store(@NonNull Snapshot snapshot) {
+        Snapshot previous = byId.put(snapshot.bookingId, snapshot);
+        if (previous != null && previous.timestamp != snapshot.timestamp) {
+            unindexTimestamp(previous);
+        }
+        idByTimestamp.put(snapshot.timestamp, snapshot.bookingId);
+
+        if (byId.size() > maxBookings) {
+            Iterator<Snapshot> eldest = byId.values().iterator();
+            Snapshot evicted = eldest.next();
+            eldest.remove();
+            unindexTimestamp(evicted);
+            evictions++;
+        }
+    }
+
+    // Another booking may share the timestamp; only drop the index entry if it is this one's
+    private void unindexTimestamp(@NonNull Snapshot snapshot) {
+        if (snapshot.bookingId.equals(idByTimestamp.get(snapshot.timestamp))) {
+            idByTimestamp.remove(snapshot.timestamp);
+        }
+    }
+
+    @Nullable
+    private static Snapshot usable(@Nullable Snapshot snapshot, boolean withHistory) {
+        return snapshot != null && (!withHistory || snapshot.history != null) ? snapshot : null;
+    }
+
+    @Nullable
+    private BookingRequest record(@Nullable Snapshot snapshot) {
+        if (snapshot == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return snapshot.toBookingRequest();
+    }
+
+    @NonNull
+    private static List<StatusChange> mergeHistory(@NonNull List<StatusChange> stored,
+                                                   @Nullable List<StatusChange> written) {
+        List<StatusChange> merged = new ArrayList<>(stored);
+        if (written != null) {
+            for (StatusChange change : written) {
+                if (!containsChange(merged, change)) {
+                    merged.add(change);
+                }
+            }
+        }
+        // Same order as the status_changes query
+        Collections.sort(merged, (a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+        return merged;
+    }
+
+    // status_changes is keyed by (bookingId, timestamp, status)
+    private static boolean containsChange(@NonNull List<StatusChange> history, @NonNull StatusChange change) {
+        for (StatusChange existing : history) {
+            if (existing.getTimestamp() == change.getTimestamp() && existing.getStatus() == change.getStatus()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean equalsNullable(@Nullable String a, @Nullable String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,99 @@
+package com.vehiclebooking.data
+
+import com.vehiclebooking.security.SecurePreferences
+import java.security.SecureRandom
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Snowflake-style booking IDs: "BK" followed by the 19 zero-padded decimal digits of a 63-bit
+ * number made of milliseconds since [EPOCH_MILLIS] (41 bits, good until 2093), a per-install
+ * node (12 bits) and a per-millisecond sequence (10 bits).
+ *
+ * IDs from one generator are unique and strictly increasing, also as strings, with no lock
+ * and no database lookup: the last (millisecond, sequence) pair is advanced with a CAS. If
+ * the clock goes backwards, or more than 1024 IDs are taken in one millisecond, the generator
+ * keeps counting from the last pair instead of reusing it. The node keeps IDs made on
+ * different devices apart. Older IDs (BK + timestamp + random, 14-17 digits) cannot clash
+ * since they are shorter.
+ */
+class BookingIdGenerator @JvmOverloads constructor(
+    nodeId: Int,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    private val node: Long
+    // (milliseconds since the epoch shl SEQUENCE_BITS) or sequence, of the last ID
+    private val last = AtomicLong(-1)
+
+    init {
+        require(nodeId in 0 until MAX_NODES) { "nodeId must be in 0 until $MAX_NODES" }
+        node = nodeId.toLong()
+    }
+
+    fun nextId(): String = format(nextValue())
+
+    /**
+     * The numeric part of the next ID
+     */
+    fun nextValue(): Long {
+        while (true) {
+            val previous = last.get()
+            val now = maxOf(clock() - EPOCH_MILLIS, 0L)
+            // previous + 1 carries into the next millisecond when the sequence is used up
+            val next = maxOf(now shl SEQUENCE_BITS, previous + 1)
+            if (last.compareAndSet(previous, next)) {
+                val millis = next ushr SEQUENCE_BITS
+                check(millis < 1L shl TIME_BITS) { "Booking ID time range exhausted" }
+                return (millis shl (NODE_BITS + SEQUENCE_BITS)) or
+                    (node shl SEQUENCE_BITS) or
+                    (next and SEQUENCE_MASK)
+            }
+        }
+    }
+
+    companion object {
+        const val PREFIX = "BK"
+        // 2024-01-01T00:00:00Z
+        const val EPOCH_MILLIS = 1704067200000L
+
+        private const val TIME_BITS = 41
+        private const val NODE_BITS = 12
+        private const val SEQUENCE_BITS = 10
+        private const val SEQUENCE_MASK = (1L shl SEQUENCE_BITS) - 1
+        const val MAX_NODES = 1 shl NODE_BITS
+
+        private const val DIGITS = 19
+        private const val KEY_NODE = "booking_id_node"
+
+        @Volatile
+        private var shared: BookingIdGenerator? = null
+
+        /**
+         * Generator for this install. The node is picked at random on first use and kept in
+         * SecurePreferences, so it must be initialized (VehicleBookingApp does).
+         */
+        @JvmStatic
+        fun shared(): BookingIdGenerator = shared ?: synchronized(this) {
+            shared ?: BookingIdGenerator(deviceNode()).also { shared = it }
+        }
+
+        private fun deviceNode(): Int {
+            val stored = SecurePreferences.getInt(KEY_NODE, -1)
+            if (stored in 0 until MAX_NODES) return stored
+            return SecureRandom().nextInt(MAX_NODES).also { SecurePreferences.putInt(KEY_NODE, it) }
+        }
+
+        /**
+         * Fixed width keeps string order the same as numeric (creation) order
+         */
+        @JvmStatic
+        fun format(value: Long): String {
+            val digits = value.toString()
+            return buildString(PREFIX.length + DIGITS) {
+                append(PREFIX)
+                repeat(DIGITS - digits.length) { append('0') }
+                append(digits)
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.util.List;
 
 public class Converters {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final Type STATUS_CHANGE_LIST = new TypeToken<List<StatusChange>>() {}.getType();
 
     @TypeConverter
     public static LocalDate toLocalDate(String value) {
@@ -46,17 +47,18 @@ public class Converters {
         return status == null ? null : status.name();
     }
 
+    // Legacy JSON encoding of status history. Bookings now keep history in the
+    // status_changes table; this is still used to migrate old rows.
     @TypeConverter
     public static List<StatusChange> toStatusChangeList(String value) {
         if (value == null) {
             return Collections.emptyList();
         }
-        Type listType = new TypeToken<List<StatusChange>>() {}.getType();
-        return GsonProvider.getGson().fromJson(value, listType);
+        return GsonProvider.getGson().fromJson(value, STATUS_CHANGE_LIST);
     }
 
     @TypeConverter
     public static String fromStatusChangeList(List<StatusChange> list) {
-        return GsonProvider.getGson().toJson(list);
+        return GsonProvider.getGson().toJson(list, STATUS_CHANGE_LIST);
     }
 }
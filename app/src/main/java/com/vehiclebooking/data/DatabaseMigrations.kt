@@ -0,0 +1,269 @@
+package com.vehiclebooking.data
+
+import androidx.room.migration.Migration
+import com.vehiclebooking.BookingStatus
+import com.vehiclebooking.GeoHash
+import androidx.sqlite.db.SupportSQLiteDatabase
+
+/**
+ * Schema migrations for AppDatabase
+ * Index names must match the ones Room derives from the entity annotations
+ */
+object DatabaseMigrations {
+
+    /**
+     * v1 -> v2: Index bookings by phone, status and timestamp for keyset paging
+     */
+    val MIGRATION_1_2 = object : Migration(1, 2) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_bookings_phoneNumber_timestamp_bookingId` " +
+                    "ON `bookings` (`phoneNumber`, `timestamp`, `bookingId`)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_bookings_status_timestamp_bookingId` " +
+                    "ON `bookings` (`status`, `timestamp`, `bookingId`)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_bookings_timestamp_bookingId` " +
+                    "ON `bookings` (`timestamp`, `bookingId`)"
+            )
+        }
+    }
+
+    /**
+     * v2 -> v3: FTS4 search index over bookings, kept in sync by content triggers
+     */
+    val MIGRATION_2_3 = object : Migration(2, 3) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            val columns = "`bookingId`, `source`, `destination`, `vehicleType`, `phoneNumber`, `travelDate`"
+            val newValues = "NEW.`bookingId`, NEW.`source`, NEW.`destination`, " +
+                "NEW.`vehicleType`, NEW.`phoneNumber`, NEW.`travelDate`"
+
+            db.execSQL(
+                "CREATE VIRTUAL TABLE IF NOT EXISTS `bookings_fts` USING FTS4(" +
+                    "`bookingId` TEXT, `source` TEXT, `destination` TEXT, `vehicleType` TEXT, " +
+                    "`phoneNumber` TEXT, `travelDate` TEXT, content=`bookings`)"
+            )
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_bookings_fts_BEFORE_UPDATE " +
+                    "BEFORE UPDATE ON `bookings` BEGIN DELETE FROM `bookings_fts` WHERE `docid`=OLD.`rowid`; END"
+            )
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_bookings_fts_BEFORE_DELETE " +
+                    "BEFORE DELETE ON `bookings` BEGIN DELETE FROM `bookings_fts` WHERE `docid`=OLD.`rowid`; END"
+            )
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_bookings_fts_AFTER_UPDATE " +
+                    "AFTER UPDATE ON `bookings` BEGIN INSERT INTO `bookings_fts`(`docid`, $columns) " +
+                    "VALUES (NEW.`rowid`, $newValues); END"
+            )
+            db.execSQL(
+                "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_bookings_fts_AFTER_INSERT " +
+                    "AFTER INSERT ON `bookings` BEGIN INSERT INTO `bookings_fts`(`docid`, $columns) " +
+                    "VALUES (NEW.`rowid`, $newValues); END"
+            )
+
+            // Index the rows that already exist
+            db.execSQL("INSERT INTO `bookings_fts`(`bookings_fts`) VALUES('rebuild')")
+        }
+    }
+
+    /**
+     * v3 -> v4: Trigger-maintained analytics aggregates
+     */
+    val MIGRATION_3_4 = object : Migration(3, 4) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `booking_aggregates` (`kind` TEXT NOT NULL, `bucket` TEXT NOT NULL, " +
+                    "`value` INTEGER NOT NULL, PRIMARY KEY(`kind`, `bucket`))"
+            )
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `route_aggregates` (`source` TEXT NOT NULL, `destination` TEXT NOT NULL, " +
+                    "`status` TEXT NOT NULL, `count` INTEGER NOT NULL, `totalDuration` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`source`, `destination`, `status`))"
+            )
+            BookingAggregateTriggers.create(db)
+            BookingAggregateTriggers.rebuild(db)
+        }
+    }
+
+    /**
+     * v4 -> v5: Move status history out of the bookings JSON column into status_changes,
+     * keeping only the latest change time (statusUpdatedAt) on the booking row
+     */
+    val MIGRATION_4_5 = object : Migration(4, 5) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `status_changes` (`bookingId` TEXT NOT NULL, `timestamp` INTEGER NOT NULL, " +
+                    "`status` TEXT NOT NULL, `reason` TEXT NOT NULL, PRIMARY KEY(`bookingId`, `timestamp`, `status`))"
+            )
+            db.execSQL("ALTER TABLE `bookings` ADD COLUMN `statusUpdatedAt` INTEGER NOT NULL DEFAULT 0")
+
+            val insert = db.compileStatement(
+                "INSERT OR IGNORE INTO `status_changes` (`bookingId`, `timestamp`, `status`, `reason`) VALUES (?, ?, ?, ?)"
+            )
+            val touch = db.compileStatement("UPDATE `bookings` SET `statusUpdatedAt` = ? WHERE `bookingId` = ?")
+            db.query("SELECT `bookingId`, `timestamp`, `statusHistory` FROM `bookings`").use { cursor ->
+                while (cursor.moveToNext()) {
+                    val bookingId = cursor.getString(0)
+                    var updatedAt = cursor.getLong(1)
+                    val json = if (cursor.isNull(2)) null else cursor.getString(2)
+                    for (change in Converters.toStatusChangeList(json).orEmpty()) {
+                        // Gson may leave "non-null" fields null in hand-edited or truncated blobs
+                        val status: BookingStatus? = change.status
+                        if (status == null) continue
+                        val reason: String? = change.reason
+                        insert.bindString(1, bookingId)
+                        insert.bindLong(2, change.timestamp)
+                        insert.bindString(3, status.name)
+                        insert.bindString(4, reason ?: "")
+                        insert.executeInsert()
+                        updatedAt = change.timestamp
+                    }
+                    touch.bindLong(1, updatedAt)
+                    touch.bindString(2, bookingId)
+                    touch.executeUpdateDelete()
+                }
+            }
+
+            db.execSQL("ALTER TABLE `bookings` DROP COLUMN `statusHistory`")
+        }
+    }
+
+    /**
+     * v5 -> v6: Per-collection delta sync watermarks
+     */
+    val MIGRATION_5_6 = object : Migration(5, 6) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `sync_state` (`collection` TEXT NOT NULL, `cursor` TEXT, " +
+                    "`lastSyncedAt` INTEGER NOT NULL, PRIMARY KEY(`collection`))"
+            )
+        }
+    }
+
+    /**
+     * v6 -> v7: Outbox of booking writes waiting to be sent to the cloud
+     */
+    val MIGRATION_6_7 = object : Migration(6, 7) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `booking_outbox` (`bookingId` TEXT NOT NULL, `operation` TEXT NOT NULL, " +
+                    "`revision` INTEGER NOT NULL, `enqueuedAt` INTEGER NOT NULL, `attempts` INTEGER NOT NULL, " +
+                    "`lastError` TEXT, PRIMARY KEY(`bookingId`))"
+            )
+        }
+    }
+
+    /**
+     * v7 -> v8: Index search records by customer and time for the latest-search lookup
+     */
+    val MIGRATION_7_8 = object : Migration(7, 8) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_search_records_phoneNumber_timestamp` " +
+                    "ON `search_records` (`phoneNumber`, `timestamp`)"
+            )
+        }
+    }
+
+    /**
+     * v8 -> v9: Search record timestamps as epoch millis instead of "yyyy-MM-dd HH:mm:ss" text.
+     * SQLite cannot change a column's type, so the table is rebuilt. The old text was local
+     * time; 'utc' converts it the same way DateUtils produced it. Unparseable values become 0.
+     */
+    val MIGRATION_8_9 = object : Migration(8, 9) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            val columns = "`id`, `searchQuery`, `phoneNumber`, `customerName`, `timestamp`, `latitude`, " +
+                "`longitude`, `locationAvailable`, `vehicleInterest`, `status`, `adminNotes`"
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `search_records_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`searchQuery` TEXT, `phoneNumber` TEXT, `customerName` TEXT, `timestamp` INTEGER NOT NULL, " +
+                    "`latitude` REAL NOT NULL, `longitude` REAL NOT NULL, `locationAvailable` INTEGER NOT NULL, " +
+                    "`vehicleInterest` TEXT, `status` TEXT, `adminNotes` TEXT)"
+            )
+            db.execSQL(
+                "INSERT INTO `search_records_new` ($columns) " +
+                    "SELECT `id`, `searchQuery`, `phoneNumber`, `customerName`, " +
+                    "COALESCE(CAST(strftime('%s', `timestamp`, 'utc') AS INTEGER) * 1000, 0), `latitude`, " +
+                    "`longitude`, `locationAvailable`, `vehicleInterest`, `status`, `adminNotes` FROM `search_records`"
+            )
+            db.execSQL("DROP TABLE `search_records`")
+            db.execSQL("ALTER TABLE `search_records_new` RENAME TO `search_records`")
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_search_records_phoneNumber_timestamp` " +
+                    "ON `search_records` (`phoneNumber`, `timestamp`)"
+            )
+            db.execSQL(
+                "CREATE INDEX IF NOT EXISTS `index_search_records_timestamp` ON `search_records` (`timestamp`)"
+            )
+        }
+    }
+
+    /**
+     * v9 -> v10: Indexed geohash of each lead's location for the nearby-lead queries.
+     * SQL cannot compute a geohash, so existing rows with a location are filled in here.
+     */
+    val MIGRATION_9_10 = object : Migration(9, 10) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL("ALTER TABLE `search_records` ADD COLUMN `geohash` TEXT")
+
+            val update = db.compileStatement("UPDATE `search_records` SET `geohash` = ? WHERE `id` = ?")
+            db.query("SELECT `id`, `latitude`, `longitude` FROM `search_records` WHERE `locationAvailable` = 1")
+                .use { cursor ->
+                    while (cursor.moveToNext()) {
+                        update.bindString(1, GeoHash.encode(cursor.getDouble(1), cursor.getDouble(2)))
+                        update.bindLong(2, cursor.getLong(0))
+                        update.executeUpdateDelete()
+                    }
+                }
+
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_search_records_geohash` ON `search_records` (`geohash`)")
+        }
+    }
+
+    /**
+     * v10 -> v11: Vehicle catalog, seeded with the default vehicles
+     */
+    val MIGRATION_10_11 = object : Migration(10, 11) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `vehicles` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`name` TEXT NOT NULL, `vehicleType` TEXT NOT NULL, `capacity` INTEGER NOT NULL, " +
+                    "`tags` TEXT NOT NULL)"
+            )
+            DefaultVehicles.insert(db)
+        }
+    }
+
+    /**
+     * v11 -> v12: Last known driver locations, so dispatch can be seeded from the database
+     */
+    val MIGRATION_11_12 = object : Migration(11, 12) {
+        override fun migrate(db: SupportSQLiteDatabase) {
+            db.execSQL(
+                "CREATE TABLE IF NOT EXISTS `driver_locations` (`driverId` TEXT NOT NULL, " +
+                    "`latitude` REAL NOT NULL, `longitude` REAL NOT NULL, `updatedAt` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`driverId`))"
+            )
+        }
+    }
+
+    /**
+     * All migrations in version order, registered on the database builder
+     */
+    val ALL: Array<Migration> = arrayOf(
+        MIGRATION_1_2,
+        MIGRATION_2_3,
+        MIGRATION_3_4,
+        MIGRATION_4_5,
+        MIGRATION_5_6,
+        MIGRATION_6_7,
+        MIGRATION_7_8,
+        MIGRATION_8_9,
+        MIGRATION_9_10,
+        MIGRATION_10_11,
+        MIGRATION_11_12
+    )
+}
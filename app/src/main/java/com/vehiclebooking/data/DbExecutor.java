@@ -0,0 +1,121 @@
+package com.vehiclebooking.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Async facade for the synchronous storage classes (BookingStorage, SearchStorage,
+ * UserManager, BookingAnalyticsStore). Activities hand the storage call to
+ * {@link #load} or {@link #execute} instead of running it on the main thread.
+ *
+ * All work runs on one background thread, in submission order, so a write followed
+ * by a reload always sees the write.
+ */
+public final class DbExecutor {
+
+    private static final String TAG = "DbExecutor";
+
+    /**
+     * Receives a storage result on the main thread
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    /**
+     * Receives the exception a storage call threw, on the main thread
+     */
+    public interface ErrorCallback {
+        void onError(@NonNull Exception error);
+    }
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "db-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private DbExecutor() {}
+
+    /**
+     * Run a write (or any fire-and-forget storage call) in the background
+     */
+    public static void execute(@NonNull Runnable work) {
+        IO.execute(work);
+    }
+
+    /**
+     * Run a write in the background, then call {@code onDone} on the main thread
+     * if {@code owner} is still alive
+     */
+    public static void execute(@NonNull LifecycleOwner owner, @NonNull Runnable work, @NonNull Runnable onDone) {
+        IO.execute(() -> {
+            work.run();
+            deliver(owner, onDone);
+        });
+    }
+
+    /**
+     * Run a storage read in the background and hand the result to {@code callback}
+     * on the main thread. The result is dropped if {@code owner} has been destroyed.
+     * A failure is rethrown on the main thread, with the caller's screen still in the
+     * picture, instead of taking down the db-io thread; use the overload with an
+     * {@link ErrorCallback} where a failure is expected and can be shown.
+     */
+    public static <T> void load(@NonNull LifecycleOwner owner, @NonNull Callable<T> work,
+                                @NonNull Callback<T> callback) {
+        load(owner, work, callback, DbExecutor::rethrow);
+    }
+
+    /**
+     * Like {@link #load(LifecycleOwner, Callable, Callback)}, but an exception thrown by
+     * {@code work} is handed to {@code onError} on the main thread, the way results are
+     */
+    public static <T> void load(@NonNull LifecycleOwner owner, @NonNull Callable<T> work,
+                                @NonNull Callback<T> callback, @NonNull ErrorCallback onError) {
+        IO.execute(() -> {
+            T result;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                // Logged as well, since the callback is skipped once the owner is destroyed
+                Log.w(TAG, "Storage call failed", e);
+                deliver(owner, () -> onError.onError(e));
+                return;
+            }
+            deliver(owner, () -> callback.onResult(result));
+        });
+    }
+
+    /**
+     * Post to the main thread (e.g. for UI feedback from inside background work)
+     */
+    public static void postToMain(@NonNull Runnable action) {
+        MAIN.post(action);
+    }
+
+    private static void deliver(@NonNull LifecycleOwner owner, @NonNull Runnable action) {
+        MAIN.post(() -> {
+            if (owner.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.CREATED)) {
+                action.run();
+            }
+        });
+    }
+
+    private static void rethrow(@NonNull Exception error) {
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        throw new RuntimeException(error);
+    }
+}
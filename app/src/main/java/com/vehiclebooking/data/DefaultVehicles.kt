@@ -0,0 +1,44 @@
+package com.vehiclebooking.data
+
+import androidx.sqlite.db.SupportSQLiteDatabase
+import com.vehiclebooking.Vehicle
+import com.vehiclebooking.data.model.VehicleEntity
+
+/**
+ * The vehicles the search screens offered before the catalog was stored. They are written
+ * once, when the vehicles table is created (fresh installs and the v10 -> v11 migration),
+ * so a catalog the admin has emptied stays empty.
+ */
+object DefaultVehicles {
+
+    val VEHICLES: List<Vehicle> = listOf(
+        Vehicle(0, "Toyota Camry", "Sedan", 5, listOf("ac", "automatic", "airport")),
+        Vehicle(0, "Honda CR-V", "SUV", 5, listOf("ac", "family", "luggage")),
+        Vehicle(0, "Ford Transit", "Van", 12, listOf("group", "luggage")),
+        Vehicle(0, "BMW 3 Series", "Luxury", 5, listOf("ac", "premium", "wedding")),
+        Vehicle(0, "Nissan Altima", "Sedan", 5, listOf("ac", "city")),
+        Vehicle(0, "Chevrolet Tahoe", "Large SUV", 7, listOf("ac", "family", "outstation")),
+        Vehicle(0, "Mercedes Sprinter", "Luxury Van", 14, listOf("ac", "premium", "group")),
+        Vehicle(0, "Hyundai Elantra", "Compact", 5, listOf("budget", "city"))
+    )
+
+    /**
+     * Insert the default vehicles; plain SQL, since Room's DAOs are not usable while the
+     * database is being created or migrated
+     */
+    fun insert(db: SupportSQLiteDatabase) {
+        db.compileStatement(
+            "INSERT INTO `vehicles` (`name`, `vehicleType`, `capacity`, `tags`) VALUES (?, ?, ?, ?)"
+        ).use { statement ->
+            for (vehicle in VEHICLES) {
+                // Tags are joined the way VehicleEntity stores them
+                val entity = VehicleEntity(vehicle)
+                statement.bindString(1, entity.name)
+                statement.bindString(2, entity.vehicleType)
+                statement.bindLong(3, entity.capacity.toLong())
+                statement.bindString(4, entity.tags)
+                statement.executeInsert()
+            }
+        }
+    }
+}
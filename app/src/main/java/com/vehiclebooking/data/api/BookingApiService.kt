@@ -1,6 +1,9 @@
 package com.vehiclebooking.data.api
 
+import com.vehiclebooking.data.model.dto.BookingChangesDto
 import com.vehiclebooking.data.model.dto.BookingDto
+import okhttp3.ResponseBody
+import retrofit2.Response
 import retrofit2.http.*
 
 /**
@@ -11,14 +14,21 @@ interface BookingApiService {
     
     @GET("bookings")
     suspend fun getAllBookings(): List<BookingDto>
+
+    // Same list, left undecoded so large exports can be streamed (see BookingStreamDecoder)
+    @Streaming
+    @GET("bookings")
+    suspend fun streamAllBookings(): ResponseBody
     
     @GET("bookings/{id}")
     suspend fun getBookingById(@Path("id") bookingId: String): BookingDto
     
     @POST("bookings")
+    @Headers(GzipRequestInterceptor.MARKER)
     suspend fun createBooking(@Body booking: BookingDto): BookingDto
     
     @PUT("bookings/{id}")
+    @Headers(GzipRequestInterceptor.MARKER)
     suspend fun updateBooking(
         @Path("id") bookingId: String,
         @Body booking: BookingDto
@@ -29,4 +39,22 @@ interface BookingApiService {
     
     @GET("bookings/user/{phoneNumber}")
     suspend fun getBookingsByPhoneNumber(@Path("phoneNumber") phoneNumber: String): List<BookingDto>
+
+    // Delta sync: rows changed or deleted after the `since` cursor, oldest change first.
+    // Omit `since` for an initial (paged) snapshot. HTTP 410 means the cursor has expired
+    // and the client must start again without one. Responses are wrapped so the caller can
+    // read the status and Cache-Control max-age (see BookingDeltaSync).
+
+    @GET("bookings/changes")
+    suspend fun getBookingChanges(
+        @Query("since") since: String?,
+        @Query("limit") limit: Int
+    ): Response<BookingChangesDto>
+
+    @GET("bookings/user/{phoneNumber}/changes")
+    suspend fun getBookingChangesByPhoneNumber(
+        @Path("phoneNumber") phoneNumber: String,
+        @Query("since") since: String?,
+        @Query("limit") limit: Int
+    ): Response<BookingChangesDto>
 }
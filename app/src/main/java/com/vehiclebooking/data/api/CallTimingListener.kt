@@ -0,0 +1,124 @@
+package com.vehiclebooking.data.api
+
+import okhttp3.Call
+import okhttp3.EventListener
+import okhttp3.Handshake
+import okhttp3.Protocol
+import java.io.IOException
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.net.Proxy
+
+/**
+ * Records where the time of each HTTP call goes: DNS, TCP connect, TLS handshake, time to
+ * first byte and the whole call.
+ * Phases a call skipped (a pooled connection needs no DNS, connect or TLS) are reported as -1.
+ * One listener is created per call, so no state is shared between calls.
+ */
+class CallTimingListener private constructor(
+    private val call: Call,
+    private val sink: (CallTimings) -> Unit
+) : EventListener() {
+
+    /**
+     * Phase durations of one call in milliseconds; connect includes the TLS handshake.
+     */
+    data class CallTimings(
+        val method: String,
+        val path: String,
+        val dnsMillis: Double,
+        val connectMillis: Double,
+        val tlsMillis: Double,
+        // From the request being written to the first response header byte
+        val ttfbMillis: Double,
+        val totalMillis: Double,
+        val failed: Boolean
+    ) {
+        override fun toString(): String =
+            "$method $path: total %.1f ms, dns %.1f, connect %.1f, tls %.1f, ttfb %.1f%s".format(
+                totalMillis, dnsMillis, connectMillis, tlsMillis, ttfbMillis, if (failed) ", FAILED" else ""
+            )
+    }
+
+    private var callStart = 0L
+    private var dnsStart = 0L
+    private var dnsNanos = -1L
+    private var connectStart = 0L
+    private var connectNanos = -1L
+    private var tlsStart = 0L
+    private var tlsNanos = -1L
+    private var requestStart = 0L
+    private var ttfbNanos = -1L
+
+    override fun callStart(call: Call) {
+        callStart = System.nanoTime()
+    }
+
+    override fun dnsStart(call: Call, domainName: String) {
+        dnsStart = System.nanoTime()
+    }
+
+    override fun dnsEnd(call: Call, domainName: String, inetAddressList: List<InetAddress>) {
+        dnsNanos = System.nanoTime() - dnsStart
+    }
+
+    override fun connectStart(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy) {
+        connectStart = System.nanoTime()
+    }
+
+    override fun secureConnectStart(call: Call) {
+        tlsStart = System.nanoTime()
+    }
+
+    override fun secureConnectEnd(call: Call, handshake: Handshake?) {
+        tlsNanos = System.nanoTime() - tlsStart
+    }
+
+    override fun connectEnd(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy, protocol: Protocol?) {
+        connectNanos = System.nanoTime() - connectStart
+    }
+
+    override fun connectFailed(
+        call: Call,
+        inetSocketAddress: InetSocketAddress,
+        proxy: Proxy,
+        protocol: Protocol?,
+        ioe: IOException
+    ) {
+        connectNanos = System.nanoTime() - connectStart
+    }
+
+    override fun requestHeadersStart(call: Call) {
+        requestStart = System.nanoTime()
+    }
+
+    override fun responseHeadersStart(call: Call) {
+        ttfbNanos = System.nanoTime() - requestStart
+    }
+
+    override fun callEnd(call: Call) = report(false)
+
+    override fun callFailed(call: Call, ioe: IOException) = report(true)
+
+    private fun report(failed: Boolean) {
+        val request = call.request()
+        sink(
+            CallTimings(
+                request.method,
+                request.url.encodedPath,
+                millis(dnsNanos),
+                millis(connectNanos),
+                millis(tlsNanos),
+                millis(ttfbNanos),
+                millis(System.nanoTime() - callStart),
+                failed
+            )
+        )
+    }
+
+    private fun millis(nanos: Long): Double = if (nanos < 0) -1.0 else nanos / 1_000_000.0
+
+    class Factory(private val sink: (CallTimings) -> Unit) : EventListener.Factory {
+        override fun create(call: Call): EventListener = CallTimingListener(call, sink)
+    }
+}
@@ -0,0 +1,59 @@
+package com.vehiclebooking.data.api
+
+import okhttp3.Interceptor
+import okhttp3.MediaType
+import okhttp3.RequestBody
+import okhttp3.RequestBody.Companion.toRequestBody
+import okhttp3.Response
+import okio.Buffer
+import okio.GzipSink
+import okio.buffer
+
+/**
+ * Gzips the body of requests marked with [MARKER] (see BookingApiService), e.g. booking
+ * uploads. The body is compressed into memory so the request keeps a Content-Length;
+ * bodies under [minBytes] are sent as they are, since gzip would not make them smaller.
+ */
+class GzipRequestInterceptor @JvmOverloads constructor(
+    private val minBytes: Long = DEFAULT_MIN_BYTES
+) : Interceptor {
+
+    override fun intercept(chain: Interceptor.Chain): Response {
+        val request = chain.request()
+        if (request.header(MARKER_NAME) == null) {
+            return chain.proceed(request)
+        }
+
+        val builder = request.newBuilder().removeHeader(MARKER_NAME)
+        val body = request.body
+        if (body == null || request.header("Content-Encoding") != null ||
+            body.contentLength() in 0 until minBytes
+        ) {
+            return chain.proceed(builder.build())
+        }
+
+        return chain.proceed(
+            builder
+                .header("Content-Encoding", "gzip")
+                .method(request.method, gzip(body, body.contentType()))
+                .build()
+        )
+    }
+
+    private fun gzip(body: RequestBody, contentType: MediaType?): RequestBody {
+        val compressed = Buffer()
+        GzipSink(compressed).buffer().use { body.writeTo(it) }
+        return compressed.readByteString().toRequestBody(contentType)
+    }
+
+    companion object {
+        private const val MARKER_NAME = "X-Gzip-Request"
+
+        /**
+         * Retrofit header that opts a request in: @Headers(GzipRequestInterceptor.MARKER)
+         */
+        const val MARKER = "$MARKER_NAME: true"
+
+        const val DEFAULT_MIN_BYTES = 1024L
+    }
+}
@@ -0,0 +1,25 @@
+package com.vehiclebooking.data.dao
+
+import androidx.room.Dao
+import androidx.room.Query
+import com.vehiclebooking.data.model.BookingAggregateEntity
+import com.vehiclebooking.data.model.RouteAggregateEntity
+
+/**
+ * Read access to the trigger-maintained analytics aggregates
+ * Writes happen only through the triggers in BookingAggregateTriggers
+ */
+@Dao
+interface BookingAggregateDao {
+    @Query("SELECT * FROM booking_aggregates WHERE kind = :kind AND value != 0")
+    fun getBuckets(kind: String): List<BookingAggregateEntity>
+
+    @Query("SELECT COALESCE(SUM(value), 0) FROM booking_aggregates WHERE kind = :kind AND bucket >= :fromBucket")
+    fun sumBucketsFrom(kind: String, fromBucket: String): Long
+
+    @Query("SELECT COALESCE(MAX(value), 0) FROM booking_aggregates WHERE kind = :kind AND bucket = :bucket")
+    fun getValue(kind: String, bucket: String): Long
+
+    @Query("SELECT * FROM route_aggregates WHERE count > 0")
+    fun getRouteAggregates(): List<RouteAggregateEntity>
+}
@@ -1,11 +1,15 @@
 package com.vehiclebooking.data.dao
 
+import androidx.paging.PagingSource
 import androidx.room.*
+import androidx.sqlite.db.SupportSQLiteQuery
 import com.vehiclebooking.BookingStatus
+import com.vehiclebooking.data.model.BookingCounts
 import com.vehiclebooking.data.model.BookingEntity
+import com.vehiclebooking.data.model.BookingSummary
+import com.vehiclebooking.data.model.BookingWithHistory
+import com.vehiclebooking.data.model.StatusChangeEntity
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.first
-import kotlinx.coroutines.runBlocking
 
 @Dao
 interface BookingDao {
@@ -24,38 +28,215 @@ interface BookingDao {
     @Query("SELECT * FROM bookings WHERE status = :status ORDER BY timestamp DESC")
     fun getBookingsByStatus(status: BookingStatus): List<BookingEntity>
 
+    @Query("SELECT * FROM bookings WHERE timestamp = :timestamp LIMIT 1")
+    fun findBookingByTimestamp(timestamp: Long): BookingEntity?
+
+    @Query("SELECT * FROM bookings ORDER BY timestamp DESC LIMIT 1")
+    fun getNewestBooking(): BookingEntity?
+
+    @Query("SELECT * FROM bookings ORDER BY timestamp ASC LIMIT 1")
+    fun getOldestBooking(): BookingEntity?
+
+    @Query("SELECT * FROM bookings ORDER BY timestamp DESC")
+    fun findAllBookings(): List<BookingEntity>
+
+    @Query("SELECT * FROM bookings WHERE phoneNumber = :phoneNumber ORDER BY timestamp DESC, bookingId DESC")
+    fun findBookingsByPhoneNumber(phoneNumber: String): List<BookingEntity>
+
+    @Query("SELECT bookingId FROM bookings")
+    fun findAllBookingIds(): List<String>
+
+    @Query("SELECT bookingId FROM bookings WHERE phoneNumber = :phoneNumber")
+    fun findBookingIdsByPhoneNumber(phoneNumber: String): List<String>
+
+    // Keyset pages, newest first. The cursor is the (timestamp, bookingId) of the last
+    // row of the previous page; pass Long.MAX_VALUE and "" for the first page.
+
+    @Query(
+        "SELECT * FROM bookings " +
+        "WHERE timestamp <= :beforeTimestamp AND (timestamp < :beforeTimestamp OR bookingId < :beforeBookingId) " +
+        "ORDER BY timestamp DESC, bookingId DESC LIMIT :limit"
+    )
+    fun getBookingsPage(beforeTimestamp: Long, beforeBookingId: String, limit: Int): List<BookingEntity>
+
+    @Query(
+        "SELECT * FROM bookings WHERE phoneNumber = :phoneNumber " +
+        "AND timestamp <= :beforeTimestamp AND (timestamp < :beforeTimestamp OR bookingId < :beforeBookingId) " +
+        "ORDER BY timestamp DESC, bookingId DESC LIMIT :limit"
+    )
+    fun getBookingsByPhoneNumberPage(
+        phoneNumber: String,
+        beforeTimestamp: Long,
+        beforeBookingId: String,
+        limit: Int
+    ): List<BookingEntity>
+
+    @Query(
+        "SELECT * FROM bookings WHERE status = :status " +
+        "AND timestamp <= :beforeTimestamp AND (timestamp < :beforeTimestamp OR bookingId < :beforeBookingId) " +
+        "ORDER BY timestamp DESC, bookingId DESC LIMIT :limit"
+    )
+    fun getBookingsByStatusPage(
+        status: BookingStatus,
+        beforeTimestamp: Long,
+        beforeBookingId: String,
+        limit: Int
+    ): List<BookingEntity>
+
+    @Query(
+        "SELECT * FROM bookings WHERE timestamp >= :fromTimestamp " +
+        "AND timestamp <= :beforeTimestamp AND (timestamp < :beforeTimestamp OR bookingId < :beforeBookingId) " +
+        "ORDER BY timestamp DESC, bookingId DESC LIMIT :limit"
+    )
+    fun getBookingsSincePage(
+        fromTimestamp: Long,
+        beforeTimestamp: Long,
+        beforeBookingId: String,
+        limit: Int
+    ): List<BookingEntity>
+
+    // Prefix search over the FTS index, e.g. match = "del* air*" (see BookingQueries.ftsPrefixMatch)
+    @Query(
+        "SELECT bookings.* FROM bookings JOIN bookings_fts ON bookings.rowid = bookings_fts.docid " +
+        "WHERE bookings_fts MATCH :match ORDER BY bookings.timestamp DESC LIMIT :limit"
+    )
+    fun searchBookings(match: String, limit: Int): List<BookingEntity>
+
+    @RawQuery
+    fun countBookings(query: SupportSQLiteQuery): Int
+
+    // Slim projections for list screens (see BookingSummary)
+    @Query("SELECT ${BookingSummary.COLUMNS} FROM bookings ORDER BY timestamp DESC, bookingId DESC")
+    fun getAllBookingSummaries(): List<BookingSummary>
+
+    @Query(
+        "SELECT ${BookingSummary.COLUMNS} FROM bookings " +
+        "WHERE timestamp <= :beforeTimestamp AND (timestamp < :beforeTimestamp OR bookingId < :beforeBookingId) " +
+        "ORDER BY timestamp DESC, bookingId DESC LIMIT :limit"
+    )
+    fun getBookingSummariesPage(beforeTimestamp: Long, beforeBookingId: String, limit: Int): List<BookingSummary>
+
+    // Filtered/sorted list built by BookingQueries; Room invalidates it on bookings writes
+    @RawQuery(observedEntities = [BookingEntity::class])
+    fun getBookingSummariesPagingSource(query: SupportSQLiteQuery): PagingSource<Int, BookingSummary>
+
+    @Query("SELECT status, COUNT(*) AS count FROM bookings GROUP BY status")
+    fun getStatusCounts(): List<BookingCounts.ByStatus>
+
+    @Query("SELECT vehicleType, COUNT(*) AS count FROM bookings GROUP BY vehicleType")
+    fun getVehicleTypeCounts(): List<BookingCounts.ByVehicleType>
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
-    suspend fun insertBooking(booking: BookingEntity)
+    fun insertBookingRow(booking: BookingEntity)
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
-    suspend fun insertBookings(bookings: List<BookingEntity>)
+    fun insertBookingRows(bookings: List<BookingEntity>)
+
+    // Returns -1 when a booking with the same ID already exists
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    fun insertBookingRowIfAbsent(booking: BookingEntity): Long
 
     @Update
-    suspend fun updateBooking(booking: BookingEntity)
+    fun updateBookingRow(booking: BookingEntity)
 
     @Delete
-    suspend fun deleteBooking(booking: BookingEntity)
+    fun deleteBookingRow(booking: BookingEntity)
 
     @Query("DELETE FROM bookings")
-    suspend fun deleteAllBookings()
+    fun deleteAllBookingRows()
 
-    @Query("SELECT COUNT(*) FROM bookings")
-    fun getBookingCount(): Flow<Int>
-    
-    // Blocking wrappers for Java compatibility (to be deprecated)
-    fun getAllBookingsBlocking(): List<BookingEntity> = runBlocking {
-        getAllBookings().first()
+    @Query("DELETE FROM bookings WHERE bookingId IN (:bookingIds)")
+    fun deleteBookingRowsById(bookingIds: List<String>): Int
+
+    // Status history (status_changes). Rows are append-only: re-inserting a known change is ignored.
+    @Query("SELECT * FROM status_changes WHERE bookingId = :bookingId ORDER BY timestamp")
+    fun getStatusHistory(bookingId: String): List<StatusChangeEntity>
+
+    @Transaction
+    @Query("SELECT * FROM bookings WHERE timestamp = :timestamp LIMIT 1")
+    fun findBookingWithHistoryByTimestamp(timestamp: Long): BookingWithHistory?
+
+    // Current state of bookings waiting in the outbox; callers keep the list under the parameter limit
+    @Transaction
+    @Query("SELECT * FROM bookings WHERE bookingId IN (:bookingIds)")
+    fun findBookingsWithHistoryById(bookingIds: List<String>): List<BookingWithHistory>
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    fun insertStatusChanges(changes: List<StatusChangeEntity>)
+
+    @Query("DELETE FROM status_changes WHERE bookingId = :bookingId")
+    fun deleteStatusHistory(bookingId: String)
+
+    @Query("DELETE FROM status_changes")
+    fun deleteAllStatusHistory()
+
+    @Query("DELETE FROM status_changes WHERE bookingId IN (:bookingIds)")
+    fun deleteStatusHistoryById(bookingIds: List<String>)
+
+    // Writes keep bookings and status_changes in step. The plain variants are for the
+    // Java storage classes and must run off the main thread (see DbExecutor).
+    @Transaction
+    fun insertBookingAndHistory(booking: BookingEntity) {
+        insertBookingRow(booking)
+        insertStatusChanges(StatusChangeEntity.fromHistory(booking.bookingId, booking.statusHistory))
+    }
+
+    // Insert-if-absent in one statement instead of a getBookingById round trip first
+    @Transaction
+    fun insertNewBookingAndHistory(booking: BookingEntity): Boolean {
+        if (insertBookingRowIfAbsent(booking) == -1L) return false
+        insertStatusChanges(StatusChangeEntity.fromHistory(booking.bookingId, booking.statusHistory))
+        return true
     }
-    
-    fun insertBookingBlocking(booking: BookingEntity) = runBlocking {
-        insertBooking(booking)
+
+    @Transaction
+    fun insertBookingsAndHistory(bookings: List<BookingEntity>) {
+        insertBookingRows(bookings)
+        bookings.forEach { insertStatusChanges(StatusChangeEntity.fromHistory(it.bookingId, it.statusHistory)) }
     }
-    
-    fun updateBookingBlocking(booking: BookingEntity) = runBlocking {
-        updateBooking(booking)
+
+    @Transaction
+    fun updateBookingAndHistory(booking: BookingEntity) {
+        updateBookingRow(booking)
+        insertStatusChanges(StatusChangeEntity.fromHistory(booking.bookingId, booking.statusHistory))
     }
-    
-    fun deleteAllBookingsBlocking() = runBlocking {
-        deleteAllBookings()
+
+    @Transaction
+    fun deleteBookingAndHistory(booking: BookingEntity) {
+        deleteBookingRow(booking)
+        deleteStatusHistory(booking.bookingId)
     }
+
+    // Server tombstones; callers keep each list under SQLite's parameter limit
+    @Transaction
+    fun deleteBookingsAndHistoryById(bookingIds: List<String>): Int {
+        val deleted = deleteBookingRowsById(bookingIds)
+        deleteStatusHistoryById(bookingIds)
+        return deleted
+    }
+
+    @Transaction
+    fun deleteAllBookingsAndHistory() {
+        deleteAllBookingRows()
+        deleteAllStatusHistory()
+    }
+
+    // Suspend variants for the Kotlin repositories; Room runs them on its transaction executor
+    @Transaction
+    suspend fun insertBooking(booking: BookingEntity) = insertBookingAndHistory(booking)
+
+    @Transaction
+    suspend fun insertBookings(bookings: List<BookingEntity>) = insertBookingsAndHistory(bookings)
+
+    @Transaction
+    suspend fun updateBooking(booking: BookingEntity) = updateBookingAndHistory(booking)
+
+    @Transaction
+    suspend fun deleteBooking(booking: BookingEntity) = deleteBookingAndHistory(booking)
+
+    @Transaction
+    suspend fun deleteAllBookings() = deleteAllBookingsAndHistory()
+
+    @Query("SELECT COUNT(*) FROM bookings")
+    fun getBookingCount(): Flow<Int>
 }
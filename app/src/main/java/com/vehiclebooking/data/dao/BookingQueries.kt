@@ -0,0 +1,134 @@
+package com.vehiclebooking.data.dao
+
+import androidx.sqlite.db.SimpleSQLiteQuery
+import androidx.sqlite.db.SupportSQLiteQuery
+import com.vehiclebooking.BookingFilter
+import com.vehiclebooking.BookingStatus
+import com.vehiclebooking.data.model.BookingSummary
+
+/**
+ * Builds the SQL behind the booking list screens.
+ * Mirrors BookingFilter.filterBookings / sortBookings so the status filter,
+ * search query and sort order are evaluated by SQLite instead of in Java.
+ * Text search goes through the bookings_fts index, so its cost does not grow with the table.
+ *
+ * Search differs from BookingFilter.matchesSearchQuery in one way: words match by prefix
+ * ("del" finds Delhi, "elhi" does not), where the Java filter matched any substring. The
+ * booking number shown in the list and the dd/MM/yyyy travel date are not indexed words, so
+ * queries that could be part of them are still matched as substrings (see [buildWhere]).
+ */
+object BookingQueries {
+
+    /**
+     * SELECT of [BookingSummary] rows for a filtered, sorted booking list (used as a PagingSource)
+     */
+    @JvmStatic
+    fun filteredBookingSummaries(
+        searchQuery: String?,
+        status: BookingStatus?,
+        sortType: BookingFilter.SortType
+    ): SupportSQLiteQuery {
+        val args = ArrayList<Any>()
+        val where = buildWhere(searchQuery, status, args)
+        return SimpleSQLiteQuery(
+            "SELECT ${BookingSummary.COLUMNS} FROM bookings$where ORDER BY ${orderBy(sortType)}",
+            args.toTypedArray()
+        )
+    }
+
+    /**
+     * COUNT(*) matching the same filter as [filteredBookingSummaries]
+     */
+    @JvmStatic
+    fun countFilteredBookings(searchQuery: String?, status: BookingStatus?): SupportSQLiteQuery {
+        val args = ArrayList<Any>()
+        val where = buildWhere(searchQuery, status, args)
+        return SimpleSQLiteQuery("SELECT COUNT(*) FROM bookings$where", args.toTypedArray())
+    }
+
+    private fun buildWhere(searchQuery: String?, status: BookingStatus?, args: MutableList<Any>): String {
+        val clauses = ArrayList<String>()
+
+        // Status filter (null status is treated as PENDING, as in BookingFilter)
+        if (status != null) {
+            clauses.add(if (status == BookingStatus.PENDING) "(status = ? OR status IS NULL)" else "status = ?")
+            args.add(status.name)
+        }
+
+        // Search filter - prefix match against the FTS index, plus status display names
+        val query = searchQuery?.trim()?.lowercase()
+        if (!query.isNullOrEmpty()) {
+            val matches = ArrayList<String>()
+
+            val ftsMatch = ftsPrefixMatch(query)
+            if (ftsMatch != null) {
+                matches.add("rowid IN (SELECT docid FROM bookings_fts WHERE bookings_fts MATCH ?)")
+                args.add(ftsMatch)
+            }
+
+            // "BK" + timestamp digits from the 9th on, as BookingAdapter displays it. Substring
+            // matches cannot use an index, so only queries shaped like part of one run this scan.
+            if (DISPLAYED_ID_QUERY.matches(query)) {
+                matches.add("('bk' || substr(timestamp, 9)) LIKE ?")
+                args.add("%$query%")
+            }
+
+            // Travel date as displayed (dd/MM/yyyy); stored as yyyy-MM-dd
+            if (DISPLAYED_DATE_QUERY.matches(query)) {
+                matches.add(
+                    "(substr(travelDate, 9, 2) || '/' || substr(travelDate, 6, 2) || '/' || " +
+                        "substr(travelDate, 1, 4)) LIKE ?"
+                )
+                args.add("%$query%")
+            }
+
+            // Status display names are resolved up front into an IN list
+            val statuses = BookingStatus.values().filter { it.displayName.lowercase().contains(query) }
+            if (statuses.isNotEmpty()) {
+                matches.add("status IN (" + statuses.joinToString(", ") { "?" } + ")")
+                statuses.forEach { args.add(it.name) }
+                if (BookingStatus.PENDING in statuses) {
+                    matches.add("status IS NULL")
+                }
+            }
+
+            clauses.add(if (matches.isEmpty()) "0" else matches.joinToString(" OR ", "(", ")"))
+        }
+
+        return if (clauses.isEmpty()) "" else " WHERE " + clauses.joinToString(" AND ")
+    }
+
+    private fun orderBy(sortType: BookingFilter.SortType): String = when (sortType) {
+        BookingFilter.SortType.DATE_NEWEST_FIRST -> "timestamp DESC, bookingId DESC"
+        BookingFilter.SortType.DATE_OLDEST_FIRST -> "timestamp ASC, bookingId ASC"
+        BookingFilter.SortType.STATUS ->
+            "CASE status " +
+                "WHEN 'CONFIRMED' THEN 2 WHEN 'IN_PROGRESS' THEN 3 " +
+                "WHEN 'COMPLETED' THEN 4 WHEN 'CANCELLED' THEN 5 ELSE 1 END, " +
+                "timestamp DESC, bookingId DESC"
+        BookingFilter.SortType.ROUTE_ALPHABETICAL ->
+            "(source || ' → ' || destination) COLLATE NOCASE, bookingId"
+    }
+
+    /**
+     * Turn free text into an FTS4 prefix query: every token must match the start of a word.
+     * "del air" -> "del* air*". Returns null when the text has no searchable tokens.
+     */
+    @JvmStatic
+    fun ftsPrefixMatch(searchQuery: String?): String? {
+        if (searchQuery == null) return null
+        val tokens = searchQuery.lowercase()
+            .split(NON_TOKEN_CHARS)
+            .filter { it.isNotEmpty() }
+        return if (tokens.isEmpty()) null else tokens.joinToString(" ") { "$it*" }
+    }
+
+    // Could be a substring of "bk" + digits; contains no LIKE wildcards
+    private val DISPLAYED_ID_QUERY = Regex("b?k?\\d*")
+
+    // Could be a substring of a dd/MM/yyyy date
+    private val DISPLAYED_DATE_QUERY = Regex("[\\d/]+")
+
+    // Matches the separators of FTS4's default "simple" tokenizer
+    private val NON_TOKEN_CHARS = Regex("[^\\p{L}\\p{N}]+")
+}
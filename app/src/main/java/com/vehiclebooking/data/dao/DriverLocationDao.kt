@@ -0,0 +1,25 @@
+package com.vehiclebooking.data.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.vehiclebooking.data.model.AvailableDriver
+import com.vehiclebooking.data.model.DriverLocationEntity
+
+/**
+ * Last known driver locations for dispatch (see DriverDispatch)
+ */
+@Dao
+interface DriverLocationDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun saveDriverLocation(location: DriverLocationEntity)
+
+    @Query(
+        "SELECT users.userId AS driverId, users.vehicleDetails, driver_locations.latitude, " +
+            "driver_locations.longitude FROM users " +
+            "JOIN driver_locations ON driver_locations.driverId = users.userId " +
+            "WHERE users.role = 'DRIVER' AND users.isAvailable = 1 AND users.isActive = 1"
+    )
+    fun findAvailableDrivers(): List<AvailableDriver>
+}
@@ -0,0 +1,72 @@
+package com.vehiclebooking.data.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.Query
+import androidx.room.Transaction
+import androidx.room.Update
+import com.vehiclebooking.data.model.OutboxEntity
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Pending cloud writes for bookings (see BookingOutboxWorker)
+ */
+@Dao
+interface OutboxDao {
+    @Query("SELECT * FROM booking_outbox WHERE bookingId = :bookingId LIMIT 1")
+    fun getOutboxEntry(bookingId: String): OutboxEntity?
+
+    // Oldest first, so a booking that keeps changing cannot starve the others
+    @Query("SELECT * FROM booking_outbox ORDER BY enqueuedAt, bookingId LIMIT :limit")
+    fun getPendingBatch(limit: Int): List<OutboxEntity>
+
+    // Bookings with local changes not sent yet; inbound sync must not overwrite or delete them
+    @Query("SELECT bookingId FROM booking_outbox")
+    fun getPendingBookingIds(): List<String>
+
+    @Query("SELECT COUNT(*) FROM booking_outbox")
+    fun getPendingCount(): Flow<Int>
+
+    @Insert
+    fun insertOutboxEntry(entry: OutboxEntity)
+
+    @Update
+    fun updateOutboxEntry(entry: OutboxEntity)
+
+    // No-op if the booking changed again while the sent revision was in flight
+    @Query("DELETE FROM booking_outbox WHERE bookingId = :bookingId AND revision = :revision")
+    fun acknowledge(bookingId: String, revision: Int): Int
+
+    @Query("UPDATE booking_outbox SET attempts = attempts + 1, lastError = :error WHERE bookingId IN (:bookingIds)")
+    fun recordFailure(bookingIds: List<String>, error: String)
+
+    // Rows that failed too often to be worth retrying; returns them so they can be logged
+    @Query("SELECT * FROM booking_outbox WHERE attempts >= :maxAttempts")
+    fun getExhaustedEntries(maxAttempts: Int): List<OutboxEntity>
+
+    @Query("DELETE FROM booking_outbox WHERE attempts >= :maxAttempts")
+    fun deleteExhaustedEntries(maxAttempts: Int): Int
+
+    /**
+     * Queue [operation] for a booking, merged with what is already pending for it: an unsent
+     * create stays a create when the booking is edited, and a delete replaces anything queued
+     */
+    @Transaction
+    fun enqueue(bookingId: String, operation: String, now: Long) {
+        val pending = getOutboxEntry(bookingId)
+        if (pending == null) {
+            insertOutboxEntry(OutboxEntity(bookingId, operation, now))
+            return
+        }
+        if (!(pending.operation == OutboxEntity.CREATE && operation == OutboxEntity.UPDATE)) {
+            pending.operation = operation
+        }
+        pending.revision++
+        updateOutboxEntry(pending)
+    }
+
+    @Transaction
+    fun acknowledgeAll(entries: List<OutboxEntity>) {
+        entries.forEach { acknowledge(it.bookingId, it.revision) }
+    }
+}
@@ -1,20 +1,20 @@
 package com.vehiclebooking.data.dao
 
 import androidx.room.*
+import androidx.sqlite.db.SupportSQLiteQuery
+import com.vehiclebooking.data.model.LeadCellCount
 import com.vehiclebooking.data.model.SearchRecordEntity
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.first
-import kotlinx.coroutines.runBlocking
 
 @Dao
 interface SearchRecordDao {
-    @Query("SELECT * FROM search_records ORDER BY timestamp DESC")
+    @Query("SELECT * FROM search_records ORDER BY timestamp DESC, id DESC")
     fun getAllSearchRecords(): Flow<List<SearchRecordEntity>>
 
-    @Query("SELECT * FROM search_records WHERE phoneNumber = :phoneNumber AND timestamp = :timestamp LIMIT 1")
-    suspend fun getSearchRecord(phoneNumber: String, timestamp: String): SearchRecordEntity?
+    @Query("SELECT * FROM search_records WHERE id = :id")
+    suspend fun getSearchRecord(id: Int): SearchRecordEntity?
 
-    @Query("SELECT * FROM search_records WHERE status = :status ORDER BY timestamp DESC")
+    @Query("SELECT * FROM search_records WHERE status = :status ORDER BY timestamp DESC, id DESC")
     fun getSearchRecordsByStatus(status: String): Flow<List<SearchRecordEntity>>
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
@@ -29,41 +29,71 @@ interface SearchRecordDao {
     @Delete
     suspend fun deleteSearchRecord(record: SearchRecordEntity)
 
-    @Query("DELETE FROM search_records WHERE phoneNumber = :phoneNumber AND timestamp = :timestamp")
-    suspend fun deleteSearchRecord(phoneNumber: String, timestamp: String)
+    @Query("DELETE FROM search_records WHERE id = :id")
+    suspend fun deleteSearchRecord(id: Int)
+
+    @Query("UPDATE search_records SET status = :status WHERE id = :id")
+    suspend fun updateSearchStatus(id: Int, status: String)
+
+    @Query("UPDATE search_records SET adminNotes = :notes WHERE id = :id")
+    suspend fun updateAdminNotes(id: Int, notes: String)
 
     @Query("DELETE FROM search_records")
     suspend fun deleteAllSearchRecords()
 
     @Query("SELECT COUNT(*) FROM search_records")
     fun getSearchRecordCount(): Flow<Int>
-    
-    // Blocking wrappers for Java compatibility
-    fun getAllSearchRecordsBlocking(): List<SearchRecordEntity> = runBlocking {
-        getAllSearchRecords().first()
-    }
-    
-    fun getSearchRecordBlocking(phoneNumber: String, timestamp: String): SearchRecordEntity? = runBlocking {
-        getSearchRecord(phoneNumber, timestamp)
-    }
-    
-    fun getSearchRecordsByStatusBlocking(status: String): List<SearchRecordEntity> = runBlocking {
-        getSearchRecordsByStatus(status).first()
-    }
-    
-    fun insertSearchRecordBlocking(record: SearchRecordEntity) = runBlocking {
-        insertSearchRecord(record)
-    }
-    
-    fun updateSearchRecordBlocking(record: SearchRecordEntity) = runBlocking {
-        updateSearchRecord(record)
-    }
-    
-    fun deleteAllSearchRecordsBlocking() = runBlocking {
-        deleteAllSearchRecords()
-    }
-    
-    fun deleteSearchRecordBlocking(phoneNumber: String, timestamp: String) = runBlocking {
-        deleteSearchRecord(phoneNumber, timestamp)
-    }
+
+    // Plain variants for the Java storage classes; call them off the main thread (see DbExecutor)
+    @Query("SELECT * FROM search_records ORDER BY timestamp DESC, id DESC")
+    fun findAllSearchRecords(): List<SearchRecordEntity>
+
+    @Query("SELECT * FROM search_records WHERE id = :id")
+    fun findSearchRecord(id: Int): SearchRecordEntity?
+
+    @Query("SELECT * FROM search_records WHERE status = :status ORDER BY timestamp DESC, id DESC")
+    fun findSearchRecordsByStatus(status: String): List<SearchRecordEntity>
+
+    /**
+     * Append [vehicleInterest] to the customer's latest search in one statement.
+     * Returns the number of rows changed: 0 if the phone number has no searches.
+     */
+    @Query(
+        "UPDATE search_records SET vehicleInterest = CASE " +
+            "WHEN vehicleInterest IS NULL OR vehicleInterest = '' THEN :vehicleInterest " +
+            "ELSE vehicleInterest || ', ' || :vehicleInterest END " +
+            "WHERE id = (SELECT id FROM search_records WHERE phoneNumber = :phoneNumber " +
+            "ORDER BY timestamp DESC, id DESC LIMIT 1)"
+    )
+    fun appendVehicleInterest(phoneNumber: String, vehicleInterest: String): Int
+
+    // Spatial lookups built by SearchRecordQueries (geohash index range scans)
+    @RawQuery
+    fun findSearchRecords(query: SupportSQLiteQuery): List<SearchRecordEntity>
+
+    // Lead counts per geohash cell of the given length, for heat maps
+    @Query(
+        "SELECT substr(geohash, 1, :precision) AS cell, COUNT(*) AS count FROM search_records " +
+            "WHERE geohash IS NOT NULL GROUP BY cell"
+    )
+    fun getLeadCellCounts(precision: Int): List<LeadCellCount>
+
+    // Returns the new row id
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun insertSearchRecordRow(record: SearchRecordEntity): Long
+
+    @Update
+    fun updateSearchRecordRow(record: SearchRecordEntity)
+
+    @Query("UPDATE search_records SET status = :status WHERE id = :id")
+    fun updateSearchStatusRow(id: Int, status: String)
+
+    @Query("UPDATE search_records SET adminNotes = :notes WHERE id = :id")
+    fun updateAdminNotesRow(id: Int, notes: String)
+
+    @Query("DELETE FROM search_records WHERE id = :id")
+    fun deleteSearchRecordRow(id: Int)
+
+    @Query("DELETE FROM search_records")
+    fun deleteAllSearchRecordRows()
 }
@@ -0,0 +1,45 @@
+package com.vehiclebooking.data.dao
+
+import androidx.sqlite.db.SimpleSQLiteQuery
+import androidx.sqlite.db.SupportSQLiteQuery
+import com.vehiclebooking.GeoHash
+
+/**
+ * Builds the spatial lookups over search_records.
+ * The box is covered with a few geohash cells (GeoHash.coverBoundingBox), each of which is
+ * one range scan on the geohash index; the latitude/longitude test then trims the cells
+ * back to the box. Rows without a location have no geohash and are never read.
+ */
+object SearchRecordQueries {
+
+    /**
+     * Leads inside a latitude/longitude box; minLon > maxLon wraps across the antimeridian
+     */
+    @JvmStatic
+    fun inBoundingBox(minLat: Double, minLon: Double, maxLat: Double, maxLon: Double): SupportSQLiteQuery {
+        val args = ArrayList<Any>()
+        val ranges = GeoHash.coverBoundingBox(minLat, minLon, maxLat, maxLon).joinToString(" OR ", "(", ")") {
+            args.add(it)
+            args.add(GeoHash.rangeEnd(it))
+            "(geohash >= ? AND geohash < ?)"
+        }
+        args.add(minLat)
+        args.add(maxLat)
+        args.add(minLon)
+        args.add(maxLon)
+        val longitude = if (minLon > maxLon) "(longitude >= ? OR longitude <= ?)" else "longitude BETWEEN ? AND ?"
+        return SimpleSQLiteQuery(
+            "SELECT * FROM search_records WHERE $ranges AND latitude BETWEEN ? AND ? AND $longitude",
+            args.toTypedArray()
+        )
+    }
+
+    /**
+     * [inBoundingBox] for the box around a circle; callers still check the distance
+     */
+    @JvmStatic
+    fun aroundPoint(latitude: Double, longitude: Double, radiusKm: Double): SupportSQLiteQuery {
+        val box = GeoHash.boundingBox(latitude, longitude, radiusKm)
+        return inBoundingBox(box[0], box[1], box[2], box[3])
+    }
+}
@@ -0,0 +1,22 @@
+package com.vehiclebooking.data.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.vehiclebooking.data.model.SyncStateEntity
+
+/**
+ * Persisted delta sync watermarks (see BookingDeltaSync)
+ */
+@Dao
+interface SyncStateDao {
+    @Query("SELECT * FROM sync_state WHERE collection = :collection LIMIT 1")
+    fun getSyncState(collection: String): SyncStateEntity?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun saveSyncState(state: SyncStateEntity)
+
+    @Query("DELETE FROM sync_state WHERE collection = :collection")
+    fun clearSyncState(collection: String)
+}
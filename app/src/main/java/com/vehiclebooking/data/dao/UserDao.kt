@@ -4,8 +4,6 @@ import androidx.room.*
 import com.vehiclebooking.UserRole
 import com.vehiclebooking.data.model.UserEntity
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.first
-import kotlinx.coroutines.runBlocking
 
 @Dao
 interface UserDao {
@@ -38,25 +36,26 @@ interface UserDao {
 
     @Query("SELECT COUNT(*) FROM users")
     fun getUserCount(): Flow<Int>
-    
-    // Blocking wrappers for Java compatibility
-    fun getAllUsersBlocking(): List<UserEntity> = runBlocking {
-        getAllUsers().first()
-    }
-    
-    fun getUserByUsernameBlocking(username: String): UserEntity? = runBlocking {
-        getUserByUsername(username)
-    }
-    
-    fun getUserByEmailBlocking(email: String): UserEntity? = runBlocking {
-        getUserByEmail(email)
-    }
-    
-    fun insertUserBlocking(user: UserEntity) = runBlocking {
-        insertUser(user)
-    }
-    
-    fun updateUserBlocking(user: UserEntity) = runBlocking {
-        updateUser(user)
-    }
+
+    // Plain variants for UserManager; call them off the main thread (see DbExecutor)
+    @Query("SELECT * FROM users")
+    fun findAllUsers(): List<UserEntity>
+
+    @Query("SELECT * FROM users WHERE username = :username LIMIT 1")
+    fun findUserByUsername(username: String): UserEntity?
+
+    @Query("SELECT * FROM users WHERE email = :email LIMIT 1")
+    fun findUserByEmail(email: String): UserEntity?
+
+    @Query("SELECT * FROM users WHERE userId = :userId LIMIT 1")
+    fun findUserById(userId: String): UserEntity?
+
+    @Query("UPDATE users SET isAvailable = :available WHERE userId = :userId")
+    fun setUserAvailable(userId: String, available: Boolean)
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun insertUserRow(user: UserEntity)
+
+    @Update
+    fun updateUserRow(user: UserEntity)
 }
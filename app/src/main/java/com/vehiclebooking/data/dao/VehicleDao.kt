@@ -0,0 +1,29 @@
+package com.vehiclebooking.data.dao
+
+import androidx.room.Dao
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.Query
+import com.vehiclebooking.data.model.VehicleEntity
+
+/**
+ * Vehicle catalog rows; text search is done by VehicleCatalog's in-memory index.
+ * Call these off the main thread (see DbExecutor).
+ */
+@Dao
+interface VehicleDao {
+    @Query("SELECT * FROM vehicles ORDER BY id")
+    fun findAllVehicles(): List<VehicleEntity>
+
+    @Query("SELECT * FROM vehicles WHERE id = :id")
+    fun findVehicle(id: Int): VehicleEntity?
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun insertVehicleRows(vehicles: List<VehicleEntity>)
+
+    @Query("DELETE FROM vehicles WHERE id = :id")
+    fun deleteVehicleRow(id: Int)
+
+    @Query("DELETE FROM vehicles")
+    fun deleteAllVehicleRows()
+}
@@ -1,11 +1,18 @@
 package com.vehiclebooking.data.firebase
 
+import com.google.firebase.firestore.DocumentChange
+import com.google.firebase.firestore.DocumentSnapshot
+import com.google.firebase.firestore.FieldPath
 import com.google.firebase.firestore.FirebaseFirestore
 import com.google.firebase.firestore.ktx.firestore
 import com.google.firebase.ktx.Firebase
 import com.vehiclebooking.data.model.dto.BookingDto
+import com.vehiclebooking.data.sync.BookingChangeSet
+import com.vehiclebooking.data.sync.BookingDocumentChange
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.channels.awaitClose
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.callbackFlow
 import kotlinx.coroutines.tasks.await
 
@@ -34,26 +41,29 @@ class FirestoreManager {
     }
     
     /**
-     * Upload multiple bookings to Firestore
+     * Upload multiple bookings and delete others in one atomic batch commit
+     * Throws if the commit fails so the caller can retry; Firestore allows at most
+     * [MAX_BATCH_WRITES] writes per batch
      */
-    suspend fun uploadBookings(bookings: List<BookingDto>) {
-        try {
-            val batch = db.batch()
-            bookings.forEach { booking ->
-                val docRef = bookingsCollection.document(booking.bookingId)
-                batch.set(docRef, booking)
-            }
-            batch.commit().await()
-        } catch (e: Exception) {
-            e.printStackTrace()
+    suspend fun uploadBookings(bookings: List<BookingDto>, deletedIds: List<String> = emptyList()) {
+        require(bookings.size + deletedIds.size <= MAX_BATCH_WRITES) { "Too many writes for one batch" }
+        val batch = db.batch()
+        bookings.forEach { booking ->
+            val docRef = bookingsCollection.document(booking.bookingId)
+            batch.set(docRef, booking)
+        }
+        deletedIds.forEach { bookingId ->
+            batch.delete(bookingsCollection.document(bookingId))
         }
+        batch.commit().await()
     }
     
     /**
      * Listen to real-time changes in Firestore
-     * Returns a Flow that emits whenever bookings change
+     * Emits only the documents added, modified or removed since the previous snapshot; the
+     * first emission holds the whole collection as added documents
      */
-    fun listenToBookingChanges(): Flow<List<BookingDto>> = callbackFlow {
+    fun listenToBookingChanges(): Flow<BookingChangeSet> = callbackFlow {
         val listener = bookingsCollection.addSnapshotListener { snapshot, error ->
             if (error != null) {
                 // Handle error
@@ -62,19 +72,25 @@ class FirestoreManager {
             }
             
             if (snapshot != null) {
-                val bookings = snapshot.documents.mapNotNull { doc ->
-                    try {
-                        doc.toObject(BookingDto::class.java)
-                    } catch (e: Exception) {
-                        null
+                val changes = snapshot.documentChanges.map { change ->
+                    val type = when (change.type) {
+                        DocumentChange.Type.ADDED -> BookingDocumentChange.Type.ADDED
+                        DocumentChange.Type.MODIFIED -> BookingDocumentChange.Type.MODIFIED
+                        DocumentChange.Type.REMOVED -> BookingDocumentChange.Type.REMOVED
                     }
+                    BookingDocumentChange(
+                        type,
+                        change.document.id,
+                        if (type == BookingDocumentChange.Type.REMOVED) null else toBooking(change.document),
+                        change.document.metadata.hasPendingWrites()
+                    )
                 }
-                trySend(bookings)
+                BookingChangeSet.of(changes)?.let { trySend(it) }
             }
         }
         
         awaitClose { listener.remove() }
-    }
+    }.buffer(Channel.UNLIMITED) // trySend must not drop events while the collector is writing
     
     /**
      * Fetch all bookings from Firestore (one-time)
@@ -82,19 +98,28 @@ class FirestoreManager {
     suspend fun fetchAllBookings(): List<BookingDto> {
         return try {
             val snapshot = bookingsCollection.get().await()
-            snapshot.documents.mapNotNull { doc ->
-                try {
-                    doc.toObject(BookingDto::class.java)
-                } catch (e: Exception) {
-                    null
-                }
-            }
+            snapshot.documents.mapNotNull { toBooking(it) }
         } catch (e: Exception) {
             e.printStackTrace()
             emptyList()
         }
     }
     
+    /**
+     * Fetch all bookings one page at a time, ordered by document ID, so only [pageSize]
+     * documents are held in memory. Errors are thrown to the caller.
+     */
+    suspend fun fetchBookingPages(pageSize: Int, onPage: suspend (List<BookingDto>) -> Unit) {
+        var query = bookingsCollection.orderBy(FieldPath.documentId()).limit(pageSize.toLong())
+        while (true) {
+            val snapshot = query.get().await()
+            if (snapshot.isEmpty) break
+            onPage(snapshot.documents.mapNotNull { toBooking(it) })
+            if (snapshot.size() < pageSize) break
+            query = query.startAfter(snapshot.documents.last())
+        }
+    }
+    
     /**
      * Delete a booking from Firestore
      */
@@ -105,4 +130,16 @@ class FirestoreManager {
             e.printStackTrace()
         }
     }
+    
+    private fun toBooking(document: DocumentSnapshot): BookingDto? {
+        return try {
+            document.toObject(BookingDto::class.java)
+        } catch (e: Exception) {
+            null
+        }
+    }
+    
+    companion object {
+        const val MAX_BATCH_WRITES = 500
+    }
 }
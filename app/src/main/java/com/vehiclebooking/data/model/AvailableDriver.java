@@ -0,0 +1,11 @@
+package com.vehiclebooking.data.model;
+
+/**
+ * An active, available driver with a stored location (row of DriverLocationDao.findAvailableDrivers)
+ */
+public class AvailableDriver {
+    public String driverId;
+    public String vehicleDetails;
+    public double latitude;
+    public double longitude;
+}
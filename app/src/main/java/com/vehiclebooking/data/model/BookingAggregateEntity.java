@@ -0,0 +1,28 @@
+package com.vehiclebooking.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Materialized booking counter, maintained by SQL triggers on the bookings table.
+ * One row per (kind, bucket), e.g. ("status", "CONFIRMED"), ("hour", "09"),
+ * ("weekday", "1"), ("month", "2024-06"), ("day", "2024-06-14"), ("total", "count").
+ */
+@Entity(tableName = "booking_aggregates", primaryKeys = {"kind", "bucket"})
+public class BookingAggregateEntity {
+    public static final String KIND_STATUS = "status";
+    public static final String KIND_HOUR = "hour";
+    public static final String KIND_WEEKDAY = "weekday";
+    public static final String KIND_MONTH = "month";
+    public static final String KIND_DAY = "day";
+    public static final String KIND_TOTAL = "total";
+
+    public static final String TOTAL_COUNT = "count";
+    public static final String TOTAL_DURATION = "duration";
+
+    @NonNull
+    public String kind = "";
+    @NonNull
+    public String bucket = "";
+    public long value;
+}
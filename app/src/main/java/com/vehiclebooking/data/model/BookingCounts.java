@@ -0,0 +1,25 @@
+package com.vehiclebooking.data.model;
+
+import com.vehiclebooking.BookingStatus;
+
+/**
+ * Row types for GROUP BY count queries on the bookings table
+ */
+public class BookingCounts {
+
+    /**
+     * Number of bookings with a given status
+     */
+    public static class ByStatus {
+        public BookingStatus status;
+        public int count;
+    }
+
+    /**
+     * Number of bookings requesting a given vehicle type
+     */
+    public static class ByVehicleType {
+        public String vehicleType;
+        public int count;
+    }
+}
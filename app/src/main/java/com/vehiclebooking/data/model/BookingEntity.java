@@ -1,7 +1,10 @@
 package com.vehiclebooking.data.model;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import com.vehiclebooking.BookingRequest;
 import com.vehiclebooking.BookingStatus;
@@ -9,7 +12,21 @@ import com.vehiclebooking.StatusChange;
 import org.threeten.bp.LocalDate;
 import java.util.List;
 
-@Entity(tableName = "bookings")
+/**
+ * Room entity for bookings.
+ * Composite indexes end in (timestamp, bookingId) so keyset pages by phone, status
+ * or time range are served straight from the index in ORDER BY order.
+ * Status history lives in the status_changes table and is only loaded on demand
+ * (see BookingWithHistory); list reads carry just statusUpdatedAt.
+ */
+@Entity(
+    tableName = "bookings",
+    indices = {
+        @Index(value = {"phoneNumber", "timestamp", "bookingId"}),
+        @Index(value = {"status", "timestamp", "bookingId"}),
+        @Index(value = {"timestamp", "bookingId"})
+    }
+)
 public class BookingEntity {
     @PrimaryKey
     @NonNull
@@ -19,10 +36,18 @@ public class BookingEntity {
     public LocalDate travelDate;
     public long timestamp;
     public BookingStatus status;
-    public List<StatusChange> statusHistory;
+    @ColumnInfo(defaultValue = "0")
+    public long statusUpdatedAt;
     public String phoneNumber;
     public String vehicleType;
 
+    /**
+     * History to persist alongside the row, or the history loaded with it.
+     * Null when the booking was read without its history.
+     */
+    @Ignore
+    public List<StatusChange> statusHistory;
+
     public BookingEntity() {}
 
     public BookingEntity(BookingRequest booking) {
@@ -32,6 +57,7 @@ public class BookingEntity {
         this.travelDate = booking.getTravelDate();
         this.timestamp = booking.getTimestamp();
         this.status = booking.getStatus();
+        this.statusUpdatedAt = booking.getStatusUpdatedAt();
         this.statusHistory = booking.getStatusHistory();
         this.phoneNumber = booking.getPhoneNumber();
         this.vehicleType = booking.getVehicleType();
@@ -43,6 +69,7 @@ public class BookingEntity {
         booking.setBookingId(this.bookingId);
         booking.setPhoneNumber(this.phoneNumber);
         booking.setVehicleType(this.vehicleType);
+        booking.setStatusUpdatedAt(this.statusUpdatedAt);
         return booking;
     }
 }
@@ -0,0 +1,20 @@
+package com.vehiclebooking.data.model;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+
+/**
+ * FTS4 shadow index over the searchable booking columns.
+ * External-content table: rows live in `bookings`, and Room keeps this index in
+ * sync with INSERT/UPDATE/DELETE triggers on that table. Join on bookings.rowid = docid.
+ */
+@Fts4(contentEntity = BookingEntity.class)
+@Entity(tableName = "bookings_fts")
+public class BookingFtsEntity {
+    public String bookingId;
+    public String source;
+    public String destination;
+    public String vehicleType;
+    public String phoneNumber;
+    public String travelDate;
+}
@@ -0,0 +1,32 @@
+package com.vehiclebooking.data.model;
+
+import androidx.annotation.NonNull;
+import com.vehiclebooking.BookingStatus;
+import org.threeten.bp.LocalDate;
+
+/**
+ * Slim projection of a bookings row for list screens: only the columns item_booking renders.
+ * Phone number, vehicle type and status history are left out; load the full booking
+ * with BookingStorage.getBookingById when a row is acted on.
+ */
+public class BookingSummary {
+    /**
+     * Projection column list, shared by the DAO queries and BookingQueries
+     */
+    public static final String COLUMNS =
+            "bookingId, source, destination, travelDate, timestamp, status, statusUpdatedAt";
+
+    @NonNull
+    public String bookingId = "";
+    public String source;
+    public String destination;
+    public LocalDate travelDate;
+    public long timestamp;
+    public BookingStatus status;
+    public long statusUpdatedAt;
+
+    @NonNull
+    public BookingStatus getStatusOrDefault() {
+        return status != null ? status : BookingStatus.PENDING;
+    }
+}
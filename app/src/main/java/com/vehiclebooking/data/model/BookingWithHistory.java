@@ -0,0 +1,29 @@
+package com.vehiclebooking.data.model;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+import com.vehiclebooking.BookingRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A booking together with its full status history, for the details screen
+ */
+public class BookingWithHistory {
+    @Embedded
+    public BookingEntity booking;
+
+    @Relation(parentColumn = "bookingId", entityColumn = "bookingId")
+    public List<StatusChangeEntity> statusHistory;
+
+    public BookingRequest toBookingRequest() {
+        List<StatusChangeEntity> changes = statusHistory != null ? new ArrayList<>(statusHistory) : new ArrayList<>();
+        // @Relation does not guarantee row order
+        Collections.sort(changes, Comparator.comparingLong(change -> change.timestamp));
+        booking.statusHistory = StatusChangeEntity.toHistory(changes);
+        return booking.toBookingRequest();
+    }
+}
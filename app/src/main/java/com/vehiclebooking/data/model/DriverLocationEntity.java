@@ -0,0 +1,28 @@
+package com.vehiclebooking.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Where a driver was when they last went available; seeds the dispatch index on app start
+ * (see DriverDispatch). Kept out of the users table so a full-row user update cannot reset it.
+ */
+@Entity(tableName = "driver_locations")
+public class DriverLocationEntity {
+    @PrimaryKey
+    @NonNull
+    public String driverId = "";
+    public double latitude;
+    public double longitude;
+    public long updatedAt;
+
+    public DriverLocationEntity() {}
+
+    public DriverLocationEntity(@NonNull String driverId, double latitude, double longitude, long updatedAt) {
+        this.driverId = driverId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.vehiclebooking.data.model;
+
+/**
+ * Number of search leads in one geohash cell (heat map bucket)
+ */
+public class LeadCellCount {
+    public String cell;
+    public int count;
+}
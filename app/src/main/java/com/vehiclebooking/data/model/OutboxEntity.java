@@ -0,0 +1,39 @@
+package com.vehiclebooking.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * A booking mutation waiting to be sent to the API and Firestore (see BookingOutboxWorker).
+ * There is at most one row per booking: a later change to the same booking replaces the
+ * operation and bumps {@link #revision}, and the payload is read from the bookings table
+ * when the row is sent, so only the latest state goes over the network.
+ */
+@Entity(tableName = "booking_outbox")
+public class OutboxEntity {
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    @PrimaryKey
+    @NonNull
+    public String bookingId = "";
+    @NonNull
+    public String operation = UPDATE;
+    // Incremented on every coalesced change; a send only acknowledges the revision it read
+    public int revision;
+    public long enqueuedAt;
+    public int attempts;
+    @Nullable
+    public String lastError;
+
+    public OutboxEntity() {}
+
+    public OutboxEntity(@NonNull String bookingId, @NonNull String operation, long enqueuedAt) {
+        this.bookingId = bookingId;
+        this.operation = operation;
+        this.enqueuedAt = enqueuedAt;
+    }
+}
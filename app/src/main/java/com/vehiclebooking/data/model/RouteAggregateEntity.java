@@ -0,0 +1,21 @@
+package com.vehiclebooking.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import com.vehiclebooking.BookingStatus;
+
+/**
+ * Materialized per-route status histogram, maintained by SQL triggers on the bookings table.
+ * totalDuration is the summed time from booking to travel date, in milliseconds.
+ */
+@Entity(tableName = "route_aggregates", primaryKeys = {"source", "destination", "status"})
+public class RouteAggregateEntity {
+    @NonNull
+    public String source = "";
+    @NonNull
+    public String destination = "";
+    @NonNull
+    public BookingStatus status = BookingStatus.PENDING;
+    public int count;
+    public long totalDuration;
+}
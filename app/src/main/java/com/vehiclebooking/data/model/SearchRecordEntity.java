@@ -2,10 +2,27 @@ package com.vehiclebooking.data.model;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import com.vehiclebooking.GeoHash;
 import com.vehiclebooking.VehicleSearchActivity;
 
-@Entity(tableName = "search_records")
+/**
+ * Room entity for customer searches (leads).
+ * timestamp is epoch milliseconds; format it only for display (SearchRecord.getFormattedTimestamp).
+ * The (phoneNumber, timestamp) index serves a customer's latest search and the timestamp index
+ * the newest-first lists, without reading the whole table. Rows are addressed by id.
+ * geohash is derived from latitude/longitude (null without a location) and indexed for
+ * the nearby-lead queries built by SearchRecordQueries.
+ */
+@Entity(
+    tableName = "search_records",
+    indices = {
+        @Index(value = {"phoneNumber", "timestamp"}),
+        @Index(value = {"timestamp"}),
+        @Index(value = {"geohash"})
+    }
+)
 public class SearchRecordEntity {
     @PrimaryKey(autoGenerate = true)
     public int id;
@@ -13,10 +30,11 @@ public class SearchRecordEntity {
     public String searchQuery;
     public String phoneNumber;
     public String customerName;
-    public String timestamp;
+    public long timestamp;
     public double latitude;
     public double longitude;
     public boolean locationAvailable;
+    public String geohash;
     public String vehicleInterest;
     public String status;
     public String adminNotes;
@@ -24,6 +42,7 @@ public class SearchRecordEntity {
     public SearchRecordEntity() {}
 
     public SearchRecordEntity(VehicleSearchActivity.SearchRecord record) {
+        this.id = record.id;
         this.searchQuery = record.searchQuery;
         this.phoneNumber = record.phoneNumber;
         this.customerName = record.customerName;
@@ -31,6 +50,7 @@ public class SearchRecordEntity {
         this.latitude = record.latitude;
         this.longitude = record.longitude;
         this.locationAvailable = record.locationAvailable;
+        this.geohash = record.locationAvailable ? GeoHash.encode(record.latitude, record.longitude) : null;
         this.vehicleInterest = record.vehicleInterest;
         this.status = record.status;
         this.adminNotes = record.adminNotes;
@@ -38,6 +58,7 @@ public class SearchRecordEntity {
 
     public VehicleSearchActivity.SearchRecord toSearchRecord() {
         VehicleSearchActivity.SearchRecord record = new VehicleSearchActivity.SearchRecord();
+        record.id = this.id;
         record.searchQuery = this.searchQuery;
         record.phoneNumber = this.phoneNumber;
         record.customerName = this.customerName;
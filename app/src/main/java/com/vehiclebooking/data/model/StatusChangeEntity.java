@@ -0,0 +1,60 @@
+package com.vehiclebooking.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+import com.vehiclebooking.BookingStatus;
+import com.vehiclebooking.StatusChange;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One row of a booking's status history.
+ * The primary key makes re-saving an already stored change a no-op, so writers
+ * can append whatever history they hold in memory without reading it back first.
+ */
+@Entity(tableName = "status_changes", primaryKeys = {"bookingId", "timestamp", "status"})
+public class StatusChangeEntity {
+    @NonNull
+    public String bookingId = "";
+    public long timestamp;
+    @NonNull
+    public BookingStatus status = BookingStatus.PENDING;
+    @NonNull
+    public String reason = "";
+
+    public StatusChangeEntity() {}
+
+    public StatusChangeEntity(@NonNull String bookingId, @NonNull StatusChange change) {
+        this.bookingId = bookingId;
+        this.timestamp = change.getTimestamp();
+        this.status = change.getStatus();
+        this.reason = change.getReason();
+    }
+
+    @NonNull
+    public StatusChange toStatusChange() {
+        return new StatusChange(status, timestamp, reason);
+    }
+
+    @NonNull
+    public static List<StatusChangeEntity> fromHistory(@NonNull String bookingId, @Nullable List<StatusChange> history) {
+        List<StatusChangeEntity> entities = new ArrayList<>();
+        if (history != null) {
+            for (StatusChange change : history) {
+                entities.add(new StatusChangeEntity(bookingId, change));
+            }
+        }
+        return entities;
+    }
+
+    @NonNull
+    public static List<StatusChange> toHistory(@NonNull List<StatusChangeEntity> entities) {
+        List<StatusChange> history = new ArrayList<>(entities.size());
+        for (StatusChangeEntity entity : entities) {
+            history.add(entity.toStatusChange());
+        }
+        return history;
+    }
+}
@@ -0,0 +1,28 @@
+package com.vehiclebooking.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Delta sync watermark for one server collection, e.g. "bookings" or "bookings:phone:<number>".
+ * The cursor is opaque to the app and is stored in the same transaction as the page it ends.
+ */
+@Entity(tableName = "sync_state")
+public class SyncStateEntity {
+    @PrimaryKey
+    @NonNull
+    public String collection = "";
+    @Nullable
+    public String cursor;
+    public long lastSyncedAt;
+
+    public SyncStateEntity() {}
+
+    public SyncStateEntity(@NonNull String collection, @Nullable String cursor, long lastSyncedAt) {
+        this.collection = collection;
+        this.cursor = cursor;
+        this.lastSyncedAt = lastSyncedAt;
+    }
+}
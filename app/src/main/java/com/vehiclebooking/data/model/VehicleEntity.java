@@ -0,0 +1,55 @@
+package com.vehiclebooking.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import com.vehiclebooking.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Room entity for the vehicle catalog. Tags are stored comma-separated.
+ * Searches go through the in-memory VehicleSearchIndex built from this table, not SQL.
+ */
+@Entity(tableName = "vehicles")
+public class VehicleEntity {
+    @PrimaryKey(autoGenerate = true)
+    public int id;
+
+    @NonNull
+    public String name = "";
+    @NonNull
+    public String vehicleType = "";
+    public int capacity;
+    @NonNull
+    public String tags = "";
+
+    public VehicleEntity() {}
+
+    public VehicleEntity(Vehicle vehicle) {
+        this.id = vehicle.getId();
+        this.name = vehicle.getName();
+        this.vehicleType = vehicle.getVehicleType();
+        this.capacity = vehicle.getCapacity();
+        StringBuilder joined = new StringBuilder();
+        for (String tag : vehicle.getTags()) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(tag);
+        }
+        this.tags = joined.toString();
+    }
+
+    public Vehicle toVehicle() {
+        List<String> tagList = new ArrayList<>();
+        for (String tag : tags.split(",")) {
+            String trimmed = tag.trim();
+            if (!trimmed.isEmpty()) {
+                tagList.add(trimmed);
+            }
+        }
+        return new Vehicle(id, name, vehicleType, capacity, tagList);
+    }
+}
@@ -0,0 +1,33 @@
+package com.vehiclebooking.data.model.dto
+
+import com.google.gson.annotations.SerializedName
+
+/**
+ * One page of a delta sync response (GET bookings/changes).
+ * Lists are nullable because Gson leaves absent fields null regardless of Kotlin types.
+ */
+data class BookingChangesDto(
+    @SerializedName("changes")
+    val changes: List<BookingDto>? = null,
+
+    @SerializedName("deleted")
+    val deleted: List<BookingTombstoneDto>? = null,
+
+    // Opaque server watermark; pass it back as `since` to continue after this page
+    @SerializedName("next_cursor")
+    val nextCursor: String? = null,
+
+    @SerializedName("has_more")
+    val hasMore: Boolean = false
+)
+
+/**
+ * Marker for a booking deleted on the server since the requested cursor
+ */
+data class BookingTombstoneDto(
+    @SerializedName("booking_id")
+    val bookingId: String,
+
+    @SerializedName("deleted_at")
+    val deletedAt: Long
+)
@@ -1,15 +1,19 @@
 package com.vehiclebooking.data.model.dto
 
+import com.google.gson.annotations.JsonAdapter
 import com.google.gson.annotations.SerializedName
 import com.vehiclebooking.BookingRequest
 import com.vehiclebooking.BookingStatus
+import com.vehiclebooking.StatusChange
 import com.vehiclebooking.data.model.BookingEntity
 import org.threeten.bp.LocalDate
 
 /**
  * Data Transfer Object for Booking API responses
  * Maps between API JSON and internal models
+ * (Gson reads and writes it through BookingDtoAdapter; keep the two in step)
  */
+@JsonAdapter(BookingDtoAdapter::class)
 data class BookingDto(
     @SerializedName("booking_id")
     val bookingId: String,
@@ -36,22 +40,28 @@ data class BookingDto(
     val status: String,
     
     @SerializedName("status_history")
-    val statusHistory: List<String>? = null
+    val statusHistory: List<StatusChange>? = null,
+
+    @SerializedName("status_updated_at")
+    val statusUpdatedAt: Long = 0
 ) {
     /**
      * Convert DTO to Entity for Room database
      */
     fun toEntity(): BookingEntity {
-        return BookingEntity(
-            source = source,
-            destination = destination,
-            travelDate = LocalDate.parse(travelDate),
-            timestamp = timestamp,
-            phoneNumber = phoneNumber,
-            vehicleType = vehicleType,
-            status = BookingStatus.valueOf(status),
-            bookingId = bookingId
-        )
+        // BookingEntity is a Java class with a no-arg constructor and public fields
+        return BookingEntity().also {
+            it.bookingId = bookingId
+            it.source = source
+            it.destination = destination
+            it.travelDate = LocalDate.parse(travelDate)
+            it.timestamp = timestamp
+            it.phoneNumber = phoneNumber
+            it.vehicleType = vehicleType
+            it.status = BookingStatus.valueOf(status)
+            it.statusUpdatedAt = statusUpdatedAt
+            it.statusHistory = statusHistory
+        }
     }
 
     companion object {
@@ -65,10 +75,11 @@ data class BookingDto(
                 destination = booking.destination,
                 travelDate = booking.travelDate.toString(),
                 timestamp = booking.timestamp,
-                phoneNumber = booking.phoneNumber,
+                phoneNumber = booking.phoneNumber ?: "",
                 vehicleType = booking.vehicleType,
-                status = booking.status.name,
-                statusHistory = booking.statusHistory
+                status = (booking.status ?: BookingStatus.PENDING).name,
+                statusHistory = booking.statusHistory,
+                statusUpdatedAt = booking.statusUpdatedAt
             )
         }
         
@@ -85,7 +96,8 @@ data class BookingDto(
                 phoneNumber = entity.phoneNumber,
                 vehicleType = entity.vehicleType,
                 status = entity.status.name,
-                statusHistory = null // Can be enhanced later
+                statusHistory = entity.statusHistory,
+                statusUpdatedAt = entity.statusUpdatedAt
             )
         }
     }
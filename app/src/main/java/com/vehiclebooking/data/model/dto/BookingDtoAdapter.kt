@@ -0,0 +1,94 @@
+package com.vehiclebooking.data.model.dto
+
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import com.google.gson.stream.JsonWriter
+import com.vehiclebooking.StatusChange
+import com.vehiclebooking.StatusChangeAdapter
+
+/**
+ * Streaming Gson adapter for BookingDto, attached with @JsonAdapter so every Gson instance
+ * (Retrofit, the export decoder) uses it. Reflection would leave missing non-null Kotlin
+ * properties null; here a booking without an id, route, date or status reads as null instead,
+ * which callers already treat as an unusable record.
+ */
+class BookingDtoAdapter : TypeAdapter<BookingDto>() {
+
+    override fun write(out: JsonWriter, dto: BookingDto?) {
+        if (dto == null) {
+            out.nullValue()
+            return
+        }
+        out.beginObject()
+        out.name("booking_id").value(dto.bookingId)
+        out.name("source").value(dto.source)
+        out.name("destination").value(dto.destination)
+        out.name("travel_date").value(dto.travelDate)
+        out.name("timestamp").value(dto.timestamp)
+        out.name("phone_number").value(dto.phoneNumber)
+        out.name("vehicle_type").value(dto.vehicleType)
+        out.name("status").value(dto.status)
+        out.name("status_history")
+        StatusChangeAdapter.writeList(out, dto.statusHistory)
+        out.name("status_updated_at").value(dto.statusUpdatedAt)
+        out.endObject()
+    }
+
+    override fun read(reader: JsonReader): BookingDto? {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull()
+            return null
+        }
+        var bookingId: String? = null
+        var source: String? = null
+        var destination: String? = null
+        var travelDate: String? = null
+        var timestamp = 0L
+        var phoneNumber: String? = null
+        var vehicleType: String? = null
+        var status: String? = null
+        var statusHistory: List<StatusChange>? = null
+        var statusUpdatedAt = 0L
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            val name = reader.nextName()
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull()
+                continue
+            }
+            when (name) {
+                "booking_id" -> bookingId = reader.nextString()
+                "source" -> source = reader.nextString()
+                "destination" -> destination = reader.nextString()
+                "travel_date" -> travelDate = reader.nextString()
+                "timestamp" -> timestamp = reader.nextLong()
+                "phone_number" -> phoneNumber = reader.nextString()
+                "vehicle_type" -> vehicleType = reader.nextString()
+                "status" -> status = reader.nextString()
+                "status_history" -> statusHistory = StatusChangeAdapter.readList(reader)
+                "status_updated_at" -> statusUpdatedAt = reader.nextLong()
+                else -> reader.skipValue()
+            }
+        }
+        reader.endObject()
+
+        if (bookingId == null || source == null || destination == null || travelDate == null || status == null) {
+            return null
+        }
+        return BookingDto(
+            bookingId = bookingId,
+            source = source,
+            destination = destination,
+            travelDate = travelDate,
+            timestamp = timestamp,
+            // Optional for guests; the app already sends "" when there is none
+            phoneNumber = phoneNumber ?: "",
+            vehicleType = vehicleType,
+            status = status,
+            statusHistory = statusHistory,
+            statusUpdatedAt = statusUpdatedAt
+        )
+    }
+}
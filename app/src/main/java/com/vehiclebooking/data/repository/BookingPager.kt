@@ -0,0 +1,46 @@
+package com.vehiclebooking.data.repository
+
+import android.content.Context
+import androidx.lifecycle.LiveData
+import androidx.paging.Pager
+import androidx.paging.PagingConfig
+import androidx.paging.PagingData
+import androidx.paging.liveData
+import com.vehiclebooking.BookingFilter
+import com.vehiclebooking.BookingStatus
+import com.vehiclebooking.BookingStorage
+import com.vehiclebooking.data.AppDatabase
+import com.vehiclebooking.data.dao.BookingQueries
+import com.vehiclebooking.data.model.BookingSummary
+
+/**
+ * Paging 3 entry points for booking lists
+ * Only the visible window of bookings is held in memory, as slim BookingSummary rows
+ */
+object BookingPager {
+
+    private val config = PagingConfig(
+        pageSize = BookingStorage.PAGE_SIZE,
+        prefetchDistance = BookingStorage.PAGE_SIZE / 2,
+        enablePlaceholders = false,
+        maxSize = BookingStorage.PAGE_SIZE * 6
+    )
+
+    /**
+     * Paged booking summaries matching the given filter, in the given sort order
+     */
+    @JvmStatic
+    fun getBookingSummaries(
+        context: Context,
+        searchQuery: String?,
+        status: BookingStatus?,
+        sortType: BookingFilter.SortType
+    ): LiveData<PagingData<BookingSummary>> {
+        val bookingDao = AppDatabase.getDatabase(context).bookingDao()
+        return Pager(config) {
+            bookingDao.getBookingSummariesPagingSource(
+                BookingQueries.filteredBookingSummaries(searchQuery, status, sortType)
+            )
+        }.liveData
+    }
+}
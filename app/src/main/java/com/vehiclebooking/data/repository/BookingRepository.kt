@@ -1,57 +1,91 @@
 package com.vehiclebooking.data.repository
 
 import android.content.Context
+import android.util.Log
+import androidx.room.withTransaction
 import com.vehiclebooking.BookingRequest
 import com.vehiclebooking.data.AppDatabase
+import com.vehiclebooking.data.BookingBatchWriter
 import com.vehiclebooking.data.api.RetrofitClient
 import com.vehiclebooking.data.dao.BookingDao
+import com.vehiclebooking.data.dao.OutboxDao
 import com.vehiclebooking.data.firebase.FirestoreManager
 import com.vehiclebooking.data.model.BookingEntity
+import com.vehiclebooking.data.model.OutboxEntity
 import com.vehiclebooking.data.model.dto.BookingDto
+import com.vehiclebooking.data.sync.BookingDeltaSync
+import com.vehiclebooking.data.sync.BookingOutboxWorker
+import com.vehiclebooking.data.sync.BookingStreamDecoder
+import com.vehiclebooking.data.sync.RealtimeBookingSync
+import com.vehiclebooking.data.sync.RoomDeltaSyncStore
+import com.vehiclebooking.data.sync.SyncCollection
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.withContext
+import retrofit2.HttpException
 
 /**
  * Offline-first repository for booking operations
  * Implements single source of truth pattern with Room as cache
  */
 class BookingRepository(context: Context) {
-    private val bookingDao: BookingDao = AppDatabase.getDatabase(context).bookingDao()
+    private val appContext = context.applicationContext
+    private val database = AppDatabase.getDatabase(context)
+    private val bookingDao: BookingDao = database.bookingDao()
+    private val outboxDao: OutboxDao = database.outboxDao()
+    private val batchWriter = BookingBatchWriter(database)
+    private val streamDecoder = BookingStreamDecoder()
+    private val syncStore = RoomDeltaSyncStore(database)
+    private val deltaSync = BookingDeltaSync(syncStore)
+    private val realtimeSync = RealtimeBookingSync(syncStore)
     private val apiService = RetrofitClient.bookingApiService
     private val firestoreManager = FirestoreManager()
 
     /**
      * Get all bookings with offline-first pattern
-     * Loads from DB first, then syncs with network if needed
+     * Observes the DB and syncs with the network when the cached list is stale
      */
     fun getAllBookings(): Flow<Resource<List<BookingRequest>>> {
-        return object : NetworkBoundResource<List<BookingRequest>, List<BookingDto>>() {
+        val collection = SyncCollection.ALL
+        return object : NetworkBoundResource<List<BookingRequest>, BookingDeltaSync.Result?>(
+            collection.key, BOOKINGS_FRESHNESS
+        ) {
             
             override suspend fun loadFromDb(): Flow<List<BookingRequest>> {
                 return bookingDao.getAllBookings()
                     .map { entities -> entities.map { it.toBookingRequest() } }
             }
             
-            override suspend fun fetchFromNetwork(): List<BookingDto> {
-                // Try API first, fallback to Firestore
+            override suspend fun fetchFromNetwork(): BookingDeltaSync.Result? {
+                // Try API delta sync first, fallback to the full export or a Firestore snapshot
                 return try {
-                    apiService.getAllBookings()
+                    deltaSync.sync(collection) { since, limit ->
+                        apiService.getBookingChanges(since, limit)
+                    }.also { Log.d(TAG, "Delta sync (all bookings): $it") }
+                } catch (e: CancellationException) {
+                    throw e
                 } catch (e: Exception) {
-                    // If API fails, try Firestore
-                    firestoreManager.fetchAllBookings()
+                    if (e is HttpException && e.code() == HTTP_NOT_FOUND) {
+                        // A server without the changes endpoint: stream its full export instead
+                        importAllBookings()
+                    } else {
+                        // If API fails, try Firestore, one page in memory at a time
+                        firestoreManager.fetchBookingPages(FIRESTORE_PAGE_SIZE) { page ->
+                            upsertRemote(page, "Firestore page")
+                        }
+                    }
+                    null
                 }
             }
             
-            override suspend fun saveNetworkResult(data: List<BookingDto>) {
-                val entities = data.map { it.toEntity() }
-                bookingDao.insertBookings(entities)
+            override suspend fun saveNetworkResult(data: BookingDeltaSync.Result?) {
+                // Delta pages are stored as they arrive, each with its cursor
             }
             
-            override fun shouldFetch(data: List<BookingRequest>?): Boolean {
-                // Fetch if data is empty or stale (can add timestamp logic)
-                return data.isNullOrEmpty()
-            }
+            override fun maxAgeMillis(response: BookingDeltaSync.Result?): Long? = response?.maxAgeMillis
         }.asFlow()
     }
 
@@ -59,49 +93,77 @@ class BookingRepository(context: Context) {
      * Get bookings by phone number with offline-first
      */
     fun getBookingsByPhoneNumber(phoneNumber: String): Flow<Resource<List<BookingRequest>>> {
-        return object : NetworkBoundResource<List<BookingRequest>, List<BookingDto>>() {
+        val collection = SyncCollection.forPhoneNumber(phoneNumber)
+        return object : NetworkBoundResource<List<BookingRequest>, BookingDeltaSync.Result>(
+            collection.key, BOOKINGS_FRESHNESS
+        ) {
             
             override suspend fun loadFromDb(): Flow<List<BookingRequest>> {
                 return bookingDao.getBookingsByPhoneNumber(phoneNumber)
                     .map { entities -> entities.map { it.toBookingRequest() } }
             }
             
-            override suspend fun fetchFromNetwork(): List<BookingDto> {
-                return try {
-                    apiService.getBookingsByPhoneNumber(phoneNumber)
-                } catch (e: Exception) {
-                    emptyList()
-                }
+            override suspend fun fetchFromNetwork(): BookingDeltaSync.Result {
+                // Offline: the error is emitted together with the cached rows
+                return deltaSync.sync(collection) { since, limit ->
+                    apiService.getBookingChangesByPhoneNumber(phoneNumber, since, limit)
+                }.also { Log.d(TAG, "Delta sync (phone): $it") }
             }
             
-            override suspend fun saveNetworkResult(data: List<BookingDto>) {
-                val entities = data.map { it.toEntity() }
-                bookingDao.insertBookings(entities)
+            override suspend fun saveNetworkResult(data: BookingDeltaSync.Result) {
+                // Delta pages are stored as they arrive, each with its cursor
             }
             
-            override fun shouldFetch(data: List<BookingRequest>?): Boolean {
-                return data.isNullOrEmpty()
-            }
+            override fun maxAgeMillis(response: BookingDeltaSync.Result): Long? = response.maxAgeMillis
         }.asFlow()
     }
 
+    /**
+     * Load a full server export into the local database, streamed: bookings are decoded and
+     * written in chunks as the response arrives, so memory use does not grow with its size
+     * (see BookingStreamDecoderTest). Bookings with unsent local changes are left alone.
+     */
+    private suspend fun importAllBookings(): BookingBatchWriter.BatchWriteStats = withContext(Dispatchers.IO) {
+        val start = System.nanoTime()
+        var stats = BookingBatchWriter.BatchWriteStats.EMPTY
+        val result = apiService.streamAllBookings().use { body ->
+            streamDecoder.decode(body.charStream()) { chunk ->
+                stats += syncStore.applySnapshot(chunk)
+            }
+        }
+        Log.d(
+            TAG,
+            "Streamed import: ${result.decoded} bookings (${result.skipped} skipped), $stats, " +
+                "%.1f ms with decoding".format((System.nanoTime() - start) / 1_000_000.0)
+        )
+        stats
+    }
+
+    /**
+     * Force booking lists to revalidate (pull to refresh); screens showing them refresh now
+     */
+    fun refreshBookings() {
+        RefreshCoordinator.shared.invalidateAll(SyncCollection.ALL.key)
+    }
+
+    /**
+     * Cache hit/miss/refresh counters for all booking lists
+     */
+    fun getRefreshStats(): RefreshCoordinator.Stats = RefreshCoordinator.shared.totals()
+
     /**
      * Create a new booking (saves locally and syncs to cloud)
+     * The cloud write is queued in the same transaction and sent by BookingOutboxWorker
      */
     suspend fun createBooking(booking: BookingRequest): Resource<BookingRequest> {
         return try {
             // Save to local DB first (offline-first)
-            bookingDao.insertBooking(BookingEntity(booking))
-            
-            // Try to sync to cloud
-            val dto = BookingDto.fromBookingRequest(booking)
-            try {
-                apiService.createBooking(dto)
-                firestoreManager.uploadBooking(dto)
-            } catch (e: Exception) {
-                // Cloud sync failed, but local save succeeded
-                // Can queue for later sync
+            val entity = BookingEntity(booking)
+            database.withTransaction {
+                bookingDao.insertBooking(entity)
+                outboxDao.enqueue(entity.bookingId, OutboxEntity.CREATE, System.currentTimeMillis())
             }
+            BookingOutboxWorker.schedule(appContext)
             
             Resource.Success(booking)
         } catch (e: Exception) {
@@ -114,18 +176,13 @@ class BookingRepository(context: Context) {
      */
     suspend fun updateBooking(booking: BookingRequest): Resource<BookingRequest> {
         return try {
-            bookingDao.updateBooking(BookingEntity(booking))
-            
-            // Sync to cloud
-            val dto = BookingDto.fromBookingRequest(booking)
-            try {
-                booking.bookingId?.let { 
-                    apiService.updateBooking(it, dto)
-                    firestoreManager.uploadBooking(dto)
-                }
-            } catch (e: Exception) {
-                // Cloud sync failed
+            val entity = BookingEntity(booking)
+            database.withTransaction {
+                bookingDao.updateBooking(entity)
+                // Repeated edits before the next sync collapse into one upload
+                outboxDao.enqueue(entity.bookingId, OutboxEntity.UPDATE, System.currentTimeMillis())
             }
+            BookingOutboxWorker.schedule(appContext)
             
             Resource.Success(booking)
         } catch (e: Exception) {
@@ -138,17 +195,12 @@ class BookingRepository(context: Context) {
      */
     suspend fun deleteBooking(booking: BookingRequest): Resource<Unit> {
         return try {
-            bookingDao.deleteBooking(BookingEntity(booking))
-            
-            // Sync deletion to cloud
-            try {
-                booking.bookingId?.let {
-                    apiService.deleteBooking(it)
-                    firestoreManager.deleteBooking(it)
-                }
-            } catch (e: Exception) {
-                // Cloud sync failed
+            val entity = BookingEntity(booking)
+            database.withTransaction {
+                bookingDao.deleteBooking(entity)
+                outboxDao.enqueue(entity.bookingId, OutboxEntity.DELETE, System.currentTimeMillis())
             }
+            BookingOutboxWorker.schedule(appContext)
             
             Resource.Success(Unit)
         } catch (e: Exception) {
@@ -159,20 +211,36 @@ class BookingRepository(context: Context) {
     /**
      * Listen to real-time Firestore changes
      * Use this to enable real-time sync across devices
+     * Document changes are coalesced briefly and applied as targeted upserts and deletes;
+     * Success is emitted after each write
      */
     fun syncWithFirestore(): Flow<Resource<Unit>> = flow {
         emit(Resource.Loading())
         try {
-            firestoreManager.listenToBookingChanges().collect { dtos ->
-                val entities = dtos.map { it.toEntity() }
-                bookingDao.insertBookings(entities)
+            realtimeSync.run(firestoreManager.listenToBookingChanges()) { flush, stats ->
+                Log.d(TAG, "Firestore changes: $flush; session: $stats")
                 emit(Resource.Success(Unit))
             }
+        } catch (e: CancellationException) {
+            throw e
         } catch (e: Exception) {
             emit(Resource.Error(e.message ?: "Firestore sync failed"))
         }
     }
 
+    /**
+     * Write server rows through the batched upsert path. Unchanged bookings cost nothing,
+     * so re-applying a full fetch only touches what actually changed; bookings with unsent
+     * local changes are skipped (see RoomDeltaSyncStore).
+     */
+    private suspend fun upsertRemote(dtos: List<BookingDto>, source: String) {
+        val entities = dtos.map { it.toEntity() }
+        val stats = withContext(Dispatchers.IO) {
+            syncStore.applySnapshot(entities)
+        }
+        Log.d(TAG, "$source: $stats")
+    }
+
     // Legacy compatibility methods
     val allBookings: Flow<List<BookingRequest>> = bookingDao.getAllBookings()
         .map { entities -> entities.map { it.toBookingRequest() } }
@@ -188,10 +256,23 @@ class BookingRepository(context: Context) {
     }
 
     suspend fun insertBookings(bookings: List<BookingRequest>) {
-        bookingDao.insertBookings(bookings.map { BookingEntity(it) })
+        // Chunked transactions instead of one write holding the whole list
+        withContext(Dispatchers.IO) {
+            batchWriter.write(bookings.map { BookingEntity(it) }, BookingBatchWriter.OnExisting.UPDATE)
+        }
     }
 
     suspend fun deleteAllBookings() {
         bookingDao.deleteAllBookings()
     }
+
+    companion object {
+        private const val TAG = "BookingRepository"
+        private const val FIRESTORE_PAGE_SIZE = 500
+        private const val HTTP_NOT_FOUND = 404
+
+        // A delta sync is cheap but not free; unless the server says otherwise, a list opened
+        // again within a minute is shown from the database without a round trip
+        private val BOOKINGS_FRESHNESS = FreshnessPolicy.serverMaxAge(60_000L)
+    }
 }
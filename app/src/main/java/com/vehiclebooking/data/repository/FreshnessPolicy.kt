@@ -0,0 +1,49 @@
+package com.vehiclebooking.data.repository
+
+/**
+ * Decides when cached data for a NetworkBoundResource key must be revalidated against the
+ * network. Manual invalidation (see RefreshCoordinator.invalidate) makes a key stale whatever
+ * its policy says.
+ */
+fun interface FreshnessPolicy {
+
+    fun isStale(record: FetchRecord, now: Long): Boolean
+
+    companion object {
+        /**
+         * Revalidate on every subscription
+         */
+        @JvmField
+        val ALWAYS = FreshnessPolicy { _, _ -> true }
+
+        /**
+         * Fetch once per process, afterwards only when invalidated
+         */
+        @JvmField
+        val ONCE = FreshnessPolicy { record, _ -> record.fetchedAt == null }
+
+        /**
+         * Data is fresh for [ttlMillis] after a successful fetch
+         */
+        @JvmStatic
+        fun ttl(ttlMillis: Long) = FreshnessPolicy { record, now ->
+            val fetchedAt = record.fetchedAt
+            fetchedAt == null || now - fetchedAt >= ttlMillis
+        }
+
+        /**
+         * Honour the Cache-Control max-age the server sent with the last fetch, falling back
+         * to [fallbackTtlMillis] when it sent none
+         */
+        @JvmStatic
+        fun serverMaxAge(fallbackTtlMillis: Long) = FreshnessPolicy { record, now ->
+            val fetchedAt = record.fetchedAt
+            fetchedAt == null || now - fetchedAt >= (record.maxAgeMillis ?: fallbackTtlMillis)
+        }
+    }
+}
+
+/**
+ * The last successful fetch of a key in this process; [fetchedAt] is null if there was none
+ */
+data class FetchRecord(val fetchedAt: Long?, val maxAgeMillis: Long?)
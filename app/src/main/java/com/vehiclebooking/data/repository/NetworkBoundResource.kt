@@ -1,47 +1,85 @@
 package com.vehiclebooking.data.repository
 
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.channels.ProducerScope
 import kotlinx.coroutines.flow.*
+import kotlinx.coroutines.launch
 
 /**
  * A generic class that implements the offline-first pattern.
- * It loads data from the local database first, then fetches from network if needed.
- * 
+ * It observes the local database and revalidates against the network (stale-while-revalidate):
+ * cached data is emitted right away, and while a refresh runs it is emitted as Loading(data).
+ *
+ * When to refresh is decided by [policy] for [cacheKey]; fetches for the same key are shared
+ * through [coordinator], which also handles manual invalidation.
+ *
  * @param ResultType Type for the Resource data (domain model)
  * @param RequestType Type for the API response (DTO)
  */
-abstract class NetworkBoundResource<ResultType, RequestType> {
+abstract class NetworkBoundResource<ResultType, RequestType>(
+    private val cacheKey: String,
+    private val policy: FreshnessPolicy = FreshnessPolicy.ALWAYS,
+    private val coordinator: RefreshCoordinator = RefreshCoordinator.shared
+) {
 
-    fun asFlow(): Flow<Resource<ResultType>> = flow {
+    private sealed class Status {
+        // Nothing decided yet: the first database emission has not arrived
+        object Pending : Status()
+        object Fresh : Status()
+        object Refreshing : Status()
+        class Failed(val message: String) : Status()
+    }
+
+    fun asFlow(): Flow<Resource<ResultType>> = channelFlow {
         // Emit Loading state
-        emit(Resource.Loading())
+        send(Resource.Loading())
+
+        val status = MutableStateFlow<Status>(Status.Pending)
 
-        // Load data from local database
-        val dbData = loadFromDb().first()
-        
-        // Emit Loading with cached data
-        emit(Resource.Loading(dbData))
+        // Invalidated while on screen: refresh now rather than on the next subscription
+        val invalidationWatcher = launch {
+            coordinator.invalidations
+                .filter { it == cacheKey }
+                .collect { revalidate(status) }
+        }
 
-        // Check if we should fetch from network
-        if (shouldFetch(dbData)) {
-            try {
-                // Fetch from network
-                val apiResponse = fetchFromNetwork()
-                
-                // Save network result to database
-                saveNetworkResult(apiResponse)
-                
-                // Load fresh data from database and emit
-                val freshData = loadFromDb().first()
-                emit(Resource.Success(freshData))
-                
+        // Keep observing the database; every change is emitted with the current fetch status
+        loadFromDb()
+            .onEach { data ->
+                if (status.value == Status.Pending) {
+                    if (shouldFetch(data)) revalidate(status) else status.value = Status.Fresh
+                }
+            }
+            .combine(status) { data, current ->
+                when (current) {
+                    Status.Pending -> null
+                    Status.Fresh -> Resource.Success(data)
+                    Status.Refreshing -> Resource.Loading(data)
+                    is Status.Failed -> Resource.Error(current.message, data)
+                }
+            }
+            .filterNotNull()
+            .collect { send(it) }
+        invalidationWatcher.cancel()
+    }
+
+    private fun ProducerScope<Resource<ResultType>>.revalidate(status: MutableStateFlow<Status>) {
+        status.value = Status.Refreshing
+        launch {
+            status.value = try {
+                coordinator.refresh(cacheKey) {
+                    // Fetch from network and save the result to the database
+                    val response = fetchFromNetwork()
+                    saveNetworkResult(response)
+                    maxAgeMillis(response)
+                }
+                Status.Fresh
+            } catch (e: CancellationException) {
+                throw e
             } catch (throwable: Throwable) {
-                // Emit error with cached data
-                val errorMessage = throwable.message ?: "Unknown error occurred"
-                emit(Resource.Error(errorMessage, dbData))
+                // Keep emitting cached data, flagged with the error
+                Status.Failed(throwable.message ?: "Unknown error occurred")
             }
-        } else {
-            // Just emit the cached data as success
-            emit(Resource.Success(dbData))
         }
     }
 
@@ -60,10 +98,17 @@ abstract class NetworkBoundResource<ResultType, RequestType> {
      */
     protected abstract suspend fun saveNetworkResult(data: RequestType)
 
+    /**
+     * Server-provided freshness lifetime of a response (Cache-Control max-age), if any
+     */
+    protected open fun maxAgeMillis(response: RequestType): Long? = null
+
     /**
      * Determine whether to fetch from network
+     * Called once per subscription with the first database emission; by default asks the
+     * freshness policy
      * @param data Current data from database
      * @return true if should fetch from network, false otherwise
      */
-    protected abstract fun shouldFetch(data: ResultType?): Boolean
+    protected open fun shouldFetch(data: ResultType?): Boolean = coordinator.checkStale(cacheKey, policy)
 }
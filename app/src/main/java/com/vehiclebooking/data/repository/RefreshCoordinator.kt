@@ -0,0 +1,163 @@
+package com.vehiclebooking.data.repository
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Shared fetch state for NetworkBoundResource keys: when each key was last fetched, manual
+ * invalidation, and deduplication of concurrent fetches.
+ *
+ * Fetches run in the coordinator's own scope, so screens that subscribe to the same key while
+ * a fetch is in flight wait for that fetch instead of starting another one, and a fetch
+ * finishes (and is stored) even if the screen that started it goes away.
+ */
+class RefreshCoordinator @JvmOverloads constructor(
+    private val clock: () -> Long = System::currentTimeMillis,
+    private val scope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+) {
+
+    /**
+     * Counters for one key, or all keys together. A hit is a subscription served from fresh
+     * cached data, a miss one that needed revalidating; [refreshes] counts network fetches
+     * and [joined] subscriptions that waited for a fetch already in flight.
+     */
+    data class Stats(
+        val hits: Long,
+        val misses: Long,
+        val refreshes: Long,
+        val joined: Long,
+        val failures: Long,
+        val invalidations: Long
+    ) {
+        val hitRate: Double
+            get() = if (hits + misses > 0) hits.toDouble() / (hits + misses) else 0.0
+
+        operator fun plus(other: Stats) = Stats(
+            hits + other.hits, misses + other.misses, refreshes + other.refreshes,
+            joined + other.joined, failures + other.failures, invalidations + other.invalidations
+        )
+
+        override fun toString(): String =
+            "$hits hits, $misses misses (%.0f%% hit rate), $refreshes refreshes, $joined joined, ".format(hitRate * 100) +
+                "$failures failures, $invalidations invalidations"
+    }
+
+    private class Entry {
+        var fetchedAt: Long? = null
+        var maxAgeMillis: Long? = null
+        // Bumped by invalidate(); data is valid only if fetched after the latest bump
+        var generation = 0
+        var fetchedGeneration = 0
+        var inFlight: Deferred<Unit>? = null
+        var inFlightGeneration = 0
+
+        var hits = 0L
+        var misses = 0L
+        var refreshes = 0L
+        var joined = 0L
+        var failures = 0L
+        var invalidations = 0L
+
+        fun stats() = Stats(hits, misses, refreshes, joined, failures, invalidations)
+    }
+
+    private val entries = ConcurrentHashMap<String, Entry>()
+    private val invalidatedKeys = MutableSharedFlow<String>(extraBufferCapacity = 64)
+
+    /**
+     * Keys passed to [invalidate], so active subscriptions can revalidate right away
+     */
+    val invalidations: SharedFlow<String> = invalidatedKeys.asSharedFlow()
+
+    /**
+     * Whether [key] needs a fetch under [policy]; counts the subscription as a hit or a miss
+     */
+    fun checkStale(key: String, policy: FreshnessPolicy): Boolean {
+        val entry = entry(key)
+        synchronized(entry) {
+            val stale = entry.fetchedGeneration != entry.generation ||
+                policy.isStale(FetchRecord(entry.fetchedAt, entry.maxAgeMillis), clock())
+            if (stale) entry.misses++ else entry.hits++
+            return stale
+        }
+    }
+
+    /**
+     * Run [fetch] for [key], or wait for the fetch already in flight for it. [fetch] returns
+     * the server's max-age in milliseconds, if it sent one. Failures are rethrown to every
+     * waiting caller.
+     */
+    suspend fun refresh(key: String, fetch: suspend () -> Long?) {
+        val entry = entry(key)
+        val deferred = synchronized(entry) {
+            val current = entry.inFlight
+            // A fetch that started before an invalidation may return what was invalidated
+            if (current != null && current.isActive && entry.inFlightGeneration == entry.generation) {
+                entry.joined++
+                current
+            } else {
+                val generation = entry.generation
+                entry.refreshes++
+                scope.async {
+                    val maxAgeMillis = try {
+                        fetch()
+                    } catch (e: Throwable) {
+                        synchronized(entry) { entry.failures++ }
+                        throw e
+                    }
+                    synchronized(entry) {
+                        entry.fetchedAt = clock()
+                        entry.maxAgeMillis = maxAgeMillis
+                        entry.fetchedGeneration = maxOf(entry.fetchedGeneration, generation)
+                    }
+                }.also {
+                    entry.inFlight = it
+                    entry.inFlightGeneration = generation
+                }
+            }
+        }
+        deferred.await()
+    }
+
+    /**
+     * Mark [key] stale and have its active subscriptions revalidate
+     */
+    fun invalidate(key: String) {
+        val entry = entry(key)
+        synchronized(entry) {
+            entry.generation++
+            entry.invalidations++
+        }
+        invalidatedKeys.tryEmit(key)
+    }
+
+    /**
+     * [invalidate] every known key starting with [prefix], e.g. "bookings" for all booking lists
+     */
+    fun invalidateAll(prefix: String = "") {
+        entries.keys.filter { it.startsWith(prefix) }.forEach { invalidate(it) }
+    }
+
+    fun stats(key: String): Stats = entry(key).let { synchronized(it) { it.stats() } }
+
+    fun totals(): Stats = entries.values
+        .map { synchronized(it) { it.stats() } }
+        .fold(Stats(0, 0, 0, 0, 0, 0)) { sum, stats -> sum + stats }
+
+    private fun entry(key: String): Entry = entries.getOrPut(key) { Entry() }
+
+    companion object {
+        /**
+         * Process-wide instance used by the repositories
+         */
+        @JvmStatic
+        val shared = RefreshCoordinator()
+    }
+}
@@ -23,8 +23,8 @@ class SearchRepository(context: Context) {
     val searchRecordCount: Flow<Int> = searchRecordDao.getSearchRecordCount()
 
     // Suspend functions for write operations
-    suspend fun getSearchRecord(phoneNumber: String, timestamp: String): VehicleSearchActivity.SearchRecord? {
-        return searchRecordDao.getSearchRecord(phoneNumber, timestamp)?.toSearchRecord()
+    suspend fun getSearchRecord(id: Int): VehicleSearchActivity.SearchRecord? {
+        return searchRecordDao.getSearchRecord(id)?.toSearchRecord()
     }
 
     suspend fun insertSearchRecord(record: VehicleSearchActivity.SearchRecord) {
@@ -39,24 +39,16 @@ class SearchRepository(context: Context) {
         searchRecordDao.updateSearchRecord(record)
     }
 
-    suspend fun updateSearchStatus(phoneNumber: String, timestamp: String, newStatus: String) {
-        val record = searchRecordDao.getSearchRecord(phoneNumber, timestamp)
-        record?.let {
-            it.status = newStatus
-            searchRecordDao.updateSearchRecord(it)
-        }
+    suspend fun updateSearchStatus(id: Int, newStatus: String) {
+        searchRecordDao.updateSearchStatus(id, newStatus)
     }
 
-    suspend fun updateAdminNotes(phoneNumber: String, timestamp: String, notes: String) {
-        val record = searchRecordDao.getSearchRecord(phoneNumber, timestamp)
-        record?.let {
-            it.adminNotes = notes
-            searchRecordDao.updateSearchRecord(it)
-        }
+    suspend fun updateAdminNotes(id: Int, notes: String) {
+        searchRecordDao.updateAdminNotes(id, notes)
     }
 
-    suspend fun deleteSearchRecord(phoneNumber: String, timestamp: String) {
-        searchRecordDao.deleteSearchRecord(phoneNumber, timestamp)
+    suspend fun deleteSearchRecord(id: Int) {
+        searchRecordDao.deleteSearchRecord(id)
     }
 
     suspend fun deleteAllSearchRecords() {
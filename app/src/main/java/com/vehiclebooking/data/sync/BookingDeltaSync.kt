@@ -0,0 +1,99 @@
+package com.vehiclebooking.data.sync
+
+import com.vehiclebooking.data.model.dto.BookingChangesDto
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import okhttp3.CacheControl
+import retrofit2.HttpException
+import retrofit2.Response
+
+/**
+ * Cursor-based delta sync for bookings.
+ *
+ * Each run asks the server for what changed after the stored watermark, one page at a time,
+ * and applies every page together with its cursor (see [DeltaSyncStore.applyPage]). A collection
+ * that was never synced starts without a cursor and receives a paged snapshot. If the server
+ * answers 410 Gone the cursor has expired: the run restarts from scratch and afterwards drops
+ * local rows the snapshot no longer contains, since their tombstones are gone.
+ * Other error responses are thrown as HttpException.
+ */
+class BookingDeltaSync @JvmOverloads constructor(
+    private val store: DeltaSyncStore,
+    private val pageSize: Int = DEFAULT_PAGE_SIZE,
+    private val ioDispatcher: CoroutineDispatcher = Dispatchers.IO
+) {
+
+    /**
+     * Outcome of one [sync] run
+     */
+    data class Result(
+        val pages: Int,
+        val changes: Int,
+        val deletions: Int,
+        // True for a first sync or a restart after an expired cursor
+        val fullResync: Boolean,
+        val elapsedNanos: Long,
+        // Cache-Control max-age of the last page: how long the server expects nothing new
+        val maxAgeMillis: Long? = null
+    ) {
+        override fun toString(): String =
+            "$changes changes, $deletions deletions in $pages pages" +
+                (if (fullResync) " (full resync)" else "") +
+                ", %.1f ms".format(elapsedNanos / 1_000_000.0)
+    }
+
+    suspend fun sync(
+        collection: SyncCollection,
+        fetchPage: suspend (since: String?, limit: Int) -> Response<BookingChangesDto>
+    ): Result {
+        val start = System.nanoTime()
+        var cursor = withContext(ioDispatcher) { store.getCursor(collection) }
+        val initial = cursor == null
+        var expired = false
+        var seen: MutableSet<String>? = null
+        var pages = 0
+        var changes = 0
+        var deletions = 0
+        var maxAgeSeconds: Int
+
+        while (true) {
+            val response = fetchPage(cursor, pageSize)
+            if (!response.isSuccessful) {
+                if (response.code() != HTTP_GONE || cursor == null || expired) throw HttpException(response)
+                // Start over; everything the snapshot returns is remembered for the final sweep
+                expired = true
+                cursor = null
+                seen = HashSet()
+                continue
+            }
+            val page = response.body() ?: throw HttpException(response)
+            maxAgeSeconds = CacheControl.parse(response.headers()).maxAgeSeconds
+
+            val changed = page.changes.orEmpty()
+            val deleted = page.deleted.orEmpty()
+            val next = page.nextCursor ?: cursor
+            check(!page.hasMore || next != cursor) { "Server cursor did not advance" }
+
+            withContext(ioDispatcher) { store.applyPage(collection, changed, deleted, next) }
+            seen?.let { ids -> changed.forEach { ids.add(it.bookingId) } }
+            pages++
+            changes += changed.size
+            deletions += deleted.size
+            cursor = next
+
+            if (!page.hasMore) break
+        }
+
+        seen?.let { ids -> withContext(ioDispatcher) { store.retainOnly(collection, ids) } }
+        return Result(
+            pages, changes, deletions, initial || expired, System.nanoTime() - start,
+            if (maxAgeSeconds >= 0) maxAgeSeconds * 1000L else null
+        )
+    }
+
+    companion object {
+        const val DEFAULT_PAGE_SIZE = 500
+        private const val HTTP_GONE = 410
+    }
+}
@@ -0,0 +1,184 @@
+package com.vehiclebooking.data.sync
+
+import android.content.Context
+import android.util.Log
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.CoroutineWorker
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkManager
+import androidx.work.WorkerParameters
+import com.vehiclebooking.data.AppDatabase
+import com.vehiclebooking.data.api.BookingApiService
+import com.vehiclebooking.data.api.RetrofitClient
+import com.vehiclebooking.data.firebase.FirestoreManager
+import com.vehiclebooking.data.model.OutboxEntity
+import com.vehiclebooking.data.model.dto.BookingDto
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import retrofit2.HttpException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Drains the booking outbox: pending mutations are sent in batches of [BATCH_SIZE], with the
+ * API calls of a batch in flight together and one Firestore batch commit per batch. A row is
+ * removed only when both succeeded and the booking was not changed again meanwhile; transient
+ * failures leave it queued and the work is retried with exponential backoff. A row that has
+ * failed [MAX_ATTEMPTS] times is dropped so it cannot keep the worker retrying forever.
+ *
+ * The worker never returns failure: work appended behind it by [schedule] would fail with it.
+ */
+class BookingOutboxWorker(
+    context: Context,
+    params: WorkerParameters
+) : CoroutineWorker(context, params) {
+
+    private val database = AppDatabase.getDatabase(context)
+    private val outboxDao = database.outboxDao()
+    private val bookingDao = database.bookingDao()
+    private val apiService: BookingApiService = RetrofitClient.bookingApiService
+    private val firestoreManager = FirestoreManager()
+
+    private enum class Outcome { SENT, REJECTED, FAILED }
+
+    override suspend fun doWork(): Result {
+        var sent = 0
+        var batches = 0
+        val start = System.nanoTime()
+
+        while (true) {
+            val batch = outboxDao.getPendingBatch(BATCH_SIZE)
+            if (batch.isEmpty()) break
+            batches++
+
+            val payloads = bookingDao.findBookingsWithHistoryById(
+                batch.filter { it.operation != OutboxEntity.DELETE }.map { it.bookingId }
+            ).associate { it.booking.bookingId to BookingDto.fromBookingRequest(it.toBookingRequest()) }
+
+            val outcomes = sendToApi(batch, payloads)
+            val failed = batch.filter { outcomes[it.bookingId] == Outcome.FAILED }
+            val firestoreError = try {
+                firestoreManager.uploadBookings(
+                    batch.mapNotNull { if (it.operation != OutboxEntity.DELETE) payloads[it.bookingId] else null },
+                    batch.filter { it.operation == OutboxEntity.DELETE }.map { it.bookingId }
+                )
+                null
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                e
+            }
+
+            val done = if (firestoreError == null) batch - failed.toSet() else emptyList()
+            outboxDao.acknowledgeAll(done)
+            sent += done.size
+
+            val retry = if (firestoreError == null) failed else batch
+            if (retry.isNotEmpty()) {
+                val error = firestoreError?.toString() ?: "API call failed"
+                outboxDao.recordFailure(retry.map { it.bookingId }, error)
+                dropExhausted()
+                Log.w(TAG, "Outbox: ${retry.size} of ${batch.size} mutations not sent ($error), retrying later")
+                return Result.retry()
+            }
+        }
+
+        Log.d(TAG, "Outbox: $sent mutations sent in $batches batches, %.1f ms".format((System.nanoTime() - start) / 1_000_000.0))
+        return Result.success()
+    }
+
+    private fun dropExhausted() {
+        database.runInTransaction {
+            outboxDao.getExhaustedEntries(MAX_ATTEMPTS).forEach {
+                Log.e(TAG, "Outbox: giving up on ${it.operation} ${it.bookingId} after ${it.attempts} attempts (${it.lastError})")
+            }
+            outboxDao.deleteExhaustedEntries(MAX_ATTEMPTS)
+        }
+    }
+
+    private suspend fun sendToApi(
+        batch: List<OutboxEntity>,
+        payloads: Map<String, BookingDto>
+    ): Map<String, Outcome> = coroutineScope {
+        batch.map { entry ->
+            async { entry.bookingId to send(entry, payloads[entry.bookingId]) }
+        }.awaitAll().toMap()
+    }
+
+    private suspend fun send(entry: OutboxEntity, payload: BookingDto?): Outcome {
+        return try {
+            when {
+                entry.operation == OutboxEntity.DELETE -> apiService.deleteBooking(entry.bookingId)
+                // Deleted locally after it was queued; the delete is what will be sent next
+                payload == null -> return Outcome.SENT
+                entry.operation == OutboxEntity.CREATE -> createOrUpdate(payload)
+                else -> apiService.updateBooking(entry.bookingId, payload)
+            }
+            Outcome.SENT
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: HttpException) {
+            when {
+                entry.operation == OutboxEntity.DELETE && e.code() == HTTP_NOT_FOUND -> Outcome.SENT
+                isRetryable(e.code()) -> Outcome.FAILED
+                else -> {
+                    // The server will never accept this one; keeping it would block the queue
+                    Log.w(TAG, "Outbox: ${entry.operation} ${entry.bookingId} rejected with HTTP ${e.code()}")
+                    Outcome.REJECTED
+                }
+            }
+        } catch (e: Exception) {
+            Outcome.FAILED
+        }
+    }
+
+    private suspend fun createOrUpdate(payload: BookingDto) {
+        try {
+            apiService.createBooking(payload)
+        } catch (e: HttpException) {
+            // A create that timed out may have reached the server before the retry
+            if (e.code() != HTTP_CONFLICT) throw e
+            apiService.updateBooking(payload.bookingId, payload)
+        }
+    }
+
+    private fun isRetryable(code: Int): Boolean =
+        code >= 500 || code == HTTP_REQUEST_TIMEOUT || code == HTTP_TOO_MANY_REQUESTS
+
+    companion object {
+        private const val TAG = "BookingOutboxWorker"
+        private const val WORK_NAME = "booking-outbox"
+        const val BATCH_SIZE = 100
+        // With the 10 s exponential backoff (capped at 5 h by WorkManager) this is about two days
+        const val MAX_ATTEMPTS = 20
+
+        private const val HTTP_NOT_FOUND = 404
+        private const val HTTP_REQUEST_TIMEOUT = 408
+        private const val HTTP_CONFLICT = 409
+        private const val HTTP_TOO_MANY_REQUESTS = 429
+
+        /**
+         * Make sure the outbox gets drained once the device is online. Called after every
+         * enqueue and at app start. The request is appended to work that is already queued or
+         * running: a running worker may have read the outbox for the last time before the new
+         * row was written, and keeping it as the only request would strand that row.
+         */
+        @JvmStatic
+        fun schedule(context: Context) {
+            val request = OneTimeWorkRequestBuilder<BookingOutboxWorker>()
+                .setConstraints(
+                    Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build()
+                )
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 10, TimeUnit.SECONDS)
+                .build()
+            WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request)
+        }
+    }
+}
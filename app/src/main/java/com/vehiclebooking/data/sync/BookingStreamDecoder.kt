@@ -0,0 +1,97 @@
+package com.vehiclebooking.data.sync
+
+import com.google.gson.Gson
+import com.google.gson.JsonSyntaxException
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.MalformedJsonException
+import com.vehiclebooking.data.BookingBatchWriter
+import com.vehiclebooking.data.model.BookingEntity
+import com.vehiclebooking.data.model.dto.BookingDto
+import com.vehiclebooking.utils.GsonProvider
+import java.io.EOFException
+import java.io.Reader
+
+/**
+ * Decodes a JSON array of bookings (a full export) one element at a time and hands them on
+ * as BookingEntity chunks of at most [chunkSize], so memory use depends on the chunk size
+ * rather than on the size of the payload. Meant to feed BookingBatchWriter chunk by chunk.
+ */
+class BookingStreamDecoder @JvmOverloads constructor(
+    private val gson: Gson = GsonProvider.getGson(),
+    private val chunkSize: Int = BookingBatchWriter.DEFAULT_CHUNK_SIZE
+) {
+
+    /**
+     * [skipped] counts elements that decoded but could not be mapped (missing or invalid
+     * date or status); they are left out rather than failing the whole export
+     */
+    data class Result(val decoded: Int, val skipped: Int, val chunks: Int)
+
+    init {
+        require(chunkSize > 0) { "chunkSize must be positive" }
+    }
+
+    /**
+     * Read the array from [reader] and call [onChunk] for every full chunk and the remainder.
+     * The list passed to [onChunk] is reused for the next chunk and must not be kept.
+     * Closes [reader]. Malformed or truncated JSON, or a payload that is not an array, throws
+     * com.google.gson.JsonSyntaxException (as Gson.fromJson does); an IOException from [reader]
+     * itself, such as a dropped connection, is passed through.
+     */
+    fun decode(reader: Reader, onChunk: (List<BookingEntity>) -> Unit): Result {
+        val adapter = gson.getAdapter(BookingDto::class.java)
+        val chunk = ArrayList<BookingEntity>(chunkSize)
+        var decoded = 0
+        var skipped = 0
+        var chunks = 0
+
+        JsonReader(reader).use { json ->
+            parsing { json.beginArray() }
+            while (parsing { json.hasNext() }) {
+                val entity = toEntityOrNull(parsing { adapter.read(json) })
+                if (entity == null) {
+                    skipped++
+                    continue
+                }
+                decoded++
+                chunk.add(entity)
+                if (chunk.size == chunkSize) {
+                    onChunk(chunk)
+                    chunk.clear()
+                    chunks++
+                }
+            }
+            parsing { json.endArray() }
+        }
+
+        if (chunk.isNotEmpty()) {
+            onChunk(chunk)
+            chunks++
+        }
+        return Result(decoded, skipped, chunks)
+    }
+
+    // JsonReader reports bad syntax as IOException or IllegalStateException; [onChunk] is not
+    // wrapped, so its failures keep their own type
+    private inline fun <T> parsing(read: () -> T): T {
+        return try {
+            read()
+        } catch (e: MalformedJsonException) {
+            throw JsonSyntaxException(e)
+        } catch (e: EOFException) {
+            throw JsonSyntaxException(e)
+        } catch (e: IllegalStateException) {
+            throw JsonSyntaxException(e)
+        }
+    }
+
+    private fun toEntityOrNull(dto: BookingDto?): BookingEntity? {
+        if (dto == null) return null
+        return try {
+            dto.toEntity()
+        } catch (e: RuntimeException) {
+            // Unparseable travel date or unknown status
+            null
+        }
+    }
+}
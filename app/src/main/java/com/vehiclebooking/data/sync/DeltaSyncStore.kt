@@ -0,0 +1,53 @@
+package com.vehiclebooking.data.sync
+
+import com.vehiclebooking.data.model.dto.BookingDto
+import com.vehiclebooking.data.model.dto.BookingTombstoneDto
+
+/**
+ * Local side of a booking delta sync: the persisted watermark plus the rows it covers.
+ * Implementations block and are called off the main thread by BookingDeltaSync and
+ * RealtimeBookingSync.
+ */
+interface DeltaSyncStore {
+
+    /**
+     * Cursor returned with the last applied page, or null if the collection was never synced
+     */
+    fun getCursor(collection: SyncCollection): String?
+
+    /**
+     * Store one page and advance the cursor to [nextCursor] atomically, so an interrupted
+     * sync resumes after the last page that was fully applied
+     */
+    fun applyPage(
+        collection: SyncCollection,
+        changes: List<BookingDto>,
+        tombstones: List<BookingTombstoneDto>,
+        nextCursor: String?
+    )
+
+    /**
+     * Delete local bookings in [collection] that a full resync did not return.
+     * Only used after an expired cursor, when missed tombstones cannot be replayed.
+     */
+    fun retainOnly(collection: SyncCollection, bookingIds: Set<String>)
+
+    /**
+     * Apply pushed changes that carry no cursor (Firestore listener events) in one transaction.
+     * Returns the number of booking rows inserted, updated or deleted.
+     */
+    fun applyChanges(changes: List<BookingDto>, deletedIds: List<String>): Int
+}
+
+/**
+ * A server collection with its own watermark: every booking, or one customer's bookings
+ */
+data class SyncCollection(val key: String, val phoneNumber: String?) {
+    companion object {
+        @JvmField
+        val ALL = SyncCollection("bookings", null)
+
+        @JvmStatic
+        fun forPhoneNumber(phoneNumber: String) = SyncCollection("bookings:phone:$phoneNumber", phoneNumber)
+    }
+}
@@ -0,0 +1,168 @@
+package com.vehiclebooking.data.sync
+
+import com.vehiclebooking.data.model.dto.BookingDto
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.produceIn
+import kotlinx.coroutines.withContext
+
+/**
+ * One document change as the Firestore listener reports it, without Firestore types
+ */
+data class BookingDocumentChange(
+    val type: Type,
+    // Documents are keyed by bookingId
+    val documentId: String,
+    // Null for removals and for documents that could not be read as a booking
+    val booking: BookingDto?,
+    // Echo of a write made on this device, which Room already has
+    val hasPendingWrites: Boolean
+) {
+    enum class Type { ADDED, MODIFIED, REMOVED }
+}
+
+/**
+ * Document changes from one listener callback: bookings added or modified, and IDs removed
+ */
+data class BookingChangeSet(val upserts: List<BookingDto>, val removedIds: List<String>) {
+    val size: Int
+        get() = upserts.size + removedIds.size
+
+    companion object {
+        /**
+         * The changes in one listener callback that need applying locally, or null if there are
+         * none: local echoes and unreadable documents are skipped
+         */
+        @JvmStatic
+        fun of(changes: List<BookingDocumentChange>): BookingChangeSet? {
+            val upserts = ArrayList<BookingDto>()
+            val removedIds = ArrayList<String>()
+            for (change in changes) {
+                if (change.hasPendingWrites) continue
+                when (change.type) {
+                    BookingDocumentChange.Type.ADDED, BookingDocumentChange.Type.MODIFIED ->
+                        change.booking?.let { upserts.add(it) }
+                    BookingDocumentChange.Type.REMOVED -> removedIds.add(change.documentId)
+                }
+            }
+            return if (upserts.isEmpty() && removedIds.isEmpty()) null else BookingChangeSet(upserts, removedIds)
+        }
+    }
+}
+
+/**
+ * Applies pushed booking changes (the Firestore listener) to the local store.
+ *
+ * Changes arriving within [windowMillis] of the first pending one are coalesced into a single
+ * write, keeping only the latest state of each booking, so a burst of status updates costs one
+ * transaction instead of one per event. The window is not extended by later events, which bounds
+ * how stale the local copy can get on a busy fleet. A flush takes change sets until about
+ * [maxPending] bookings are pending and leaves the rest for the next one.
+ */
+class RealtimeBookingSync @JvmOverloads constructor(
+    private val store: DeltaSyncStore,
+    private val windowMillis: Long = DEFAULT_WINDOW_MILLIS,
+    private val maxPending: Int = DEFAULT_MAX_PENDING,
+    private val ioDispatcher: CoroutineDispatcher = Dispatchers.IO
+) {
+
+    /**
+     * One coalesced write. [events] counts document changes received, [upserts] and [deletions]
+     * what was left after coalescing, [rowsTouched] the booking rows that actually changed.
+     */
+    data class Flush(
+        val events: Int,
+        val upserts: Int,
+        val deletions: Int,
+        val rowsTouched: Int,
+        val writeNanos: Long
+    ) {
+        override fun toString(): String =
+            "$events events -> $upserts upserts, $deletions deletions, $rowsTouched rows touched" +
+                ", %.1f ms".format(writeNanos / 1_000_000.0)
+    }
+
+    /**
+     * Totals since [run] started
+     */
+    data class Stats(
+        val events: Long,
+        val flushes: Long,
+        val rowsTouched: Long,
+        val elapsedNanos: Long
+    ) {
+        val eventsPerSecond: Double
+            get() = if (elapsedNanos > 0) events * 1_000_000_000.0 / elapsedNanos else 0.0
+
+        override fun toString(): String =
+            "$events events (%.2f/s), $flushes flushes, $rowsTouched rows touched".format(eventsPerSecond)
+    }
+
+    init {
+        require(windowMillis >= 0) { "windowMillis must not be negative" }
+        require(maxPending > 0) { "maxPending must be positive" }
+    }
+
+    /**
+     * Collect [changes] until the flow completes or the caller is cancelled, calling [onFlush]
+     * after every write. Errors from the flow are rethrown; changes still pending are dropped and
+     * come back with the first snapshot of the next listener.
+     */
+    suspend fun run(
+        changes: Flow<BookingChangeSet>,
+        onFlush: suspend (Flush, Stats) -> Unit = { _, _ -> }
+    ) = coroutineScope {
+        val incoming = changes.produceIn(this)
+        val start = System.nanoTime()
+        // Latest state per booking, in arrival order; null marks a removal
+        val pending = LinkedHashMap<String, BookingDto?>()
+        var totalEvents = 0L
+        var flushes = 0L
+        var totalRows = 0L
+
+        while (true) {
+            val first = incoming.receiveCatching()
+            if (first.isClosed) {
+                first.exceptionOrNull()?.let { throw it }
+                break
+            }
+            var events = merge(pending, first.getOrThrow())
+
+            // Let the burst queue up, then drain it without suspending: a receive cancelled by a
+            // timeout could lose the element it was resuming with
+            delay(windowMillis)
+            while (pending.size < maxPending) {
+                val next = incoming.tryReceive()
+                if (!next.isSuccess) break
+                events += merge(pending, next.getOrThrow())
+            }
+
+            val upserts = pending.values.filterNotNull()
+            val removedIds = pending.filterValues { it == null }.keys.toList()
+            pending.clear()
+
+            val writeStart = System.nanoTime()
+            val rows = withContext(ioDispatcher) { store.applyChanges(upserts, removedIds) }
+            val flush = Flush(events, upserts.size, removedIds.size, rows, System.nanoTime() - writeStart)
+
+            totalEvents += events
+            totalRows += rows
+            flushes++
+            onFlush(flush, Stats(totalEvents, flushes, totalRows, System.nanoTime() - start))
+        }
+    }
+
+    private fun merge(pending: MutableMap<String, BookingDto?>, changeSet: BookingChangeSet): Int {
+        changeSet.upserts.forEach { pending[it.bookingId] = it }
+        changeSet.removedIds.forEach { pending[it] = null }
+        return changeSet.size
+    }
+
+    companion object {
+        const val DEFAULT_WINDOW_MILLIS = 250L
+        const val DEFAULT_MAX_PENDING = 500
+    }
+}
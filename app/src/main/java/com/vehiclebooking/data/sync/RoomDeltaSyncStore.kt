@@ -0,0 +1,86 @@
+package com.vehiclebooking.data.sync
+
+import com.vehiclebooking.data.AppDatabase
+import com.vehiclebooking.data.BookingBatchWriter
+import com.vehiclebooking.data.model.BookingEntity
+import com.vehiclebooking.data.model.SyncStateEntity
+import com.vehiclebooking.data.model.dto.BookingDto
+import com.vehiclebooking.data.model.dto.BookingTombstoneDto
+
+/**
+ * DeltaSyncStore backed by AppDatabase: pages go through the batched upsert path and the
+ * watermark lives in sync_state, written in the same transaction as the page.
+ *
+ * Bookings with a row in booking_outbox are left alone by every inbound write: the local
+ * edit, create or delete has not reached the server yet, and overwriting it here would make
+ * BookingOutboxWorker send the server's state back. Once the outbox row is acknowledged the
+ * next delta or listener event brings the server's version in.
+ */
+class RoomDeltaSyncStore(private val database: AppDatabase) : DeltaSyncStore {
+
+    private val bookingDao = database.bookingDao()
+    private val syncStateDao = database.syncStateDao()
+    private val outboxDao = database.outboxDao()
+    private val batchWriter = BookingBatchWriter(database)
+
+    override fun getCursor(collection: SyncCollection): String? =
+        syncStateDao.getSyncState(collection.key)?.cursor
+
+    override fun applyPage(
+        collection: SyncCollection,
+        changes: List<BookingDto>,
+        tombstones: List<BookingTombstoneDto>,
+        nextCursor: String?
+    ) {
+        database.runInTransaction {
+            val pending = pendingBookingIds()
+            batchWriter.write(toEntities(changes, pending), BookingBatchWriter.OnExisting.UPDATE)
+            deleteBookings(tombstones.map { it.bookingId }.filterNot { it in pending })
+            syncStateDao.saveSyncState(SyncStateEntity(collection.key, nextCursor, System.currentTimeMillis()))
+        }
+    }
+
+    override fun retainOnly(collection: SyncCollection, bookingIds: Set<String>) {
+        database.runInTransaction {
+            val localIds = collection.phoneNumber?.let { bookingDao.findBookingIdsByPhoneNumber(it) }
+                ?: bookingDao.findAllBookingIds()
+            // Local creates that were never sent are not on the server yet either
+            val pending = pendingBookingIds()
+            deleteBookings(localIds.filterNot { it in bookingIds || it in pending })
+        }
+    }
+
+    override fun applyChanges(changes: List<BookingDto>, deletedIds: List<String>): Int {
+        return database.runInTransaction<Int> {
+            val pending = pendingBookingIds()
+            batchWriter.write(toEntities(changes, pending), BookingBatchWriter.OnExisting.UPDATE).changedRows +
+                deleteBookings(deletedIds.filterNot { it in pending })
+        }
+    }
+
+    /**
+     * Upsert bookings from a full fetch that carries no cursor or deletions (the streamed
+     * export, Firestore pages), one transaction per call
+     */
+    fun applySnapshot(bookings: List<BookingEntity>): BookingBatchWriter.BatchWriteStats {
+        return database.runInTransaction<BookingBatchWriter.BatchWriteStats> {
+            val pending = pendingBookingIds()
+            batchWriter.write(bookings.filterNot { it.bookingId in pending }, BookingBatchWriter.OnExisting.UPDATE)
+        }
+    }
+
+    // Read inside the caller's transaction, so a mutation enqueued meanwhile is not overwritten
+    private fun pendingBookingIds(): Set<String> = outboxDao.getPendingBookingIds().toHashSet()
+
+    private fun toEntities(changes: List<BookingDto>, pending: Set<String>) =
+        changes.filterNot { it.bookingId in pending }.map { it.toEntity() }
+
+    private fun deleteBookings(bookingIds: List<String>): Int {
+        // Stay under SQLite's bound-parameter limit
+        return bookingIds.chunked(MAX_IDS_PER_STATEMENT).sumOf { bookingDao.deleteBookingsAndHistoryById(it) }
+    }
+
+    companion object {
+        private const val MAX_IDS_PER_STATEMENT = 500
+    }
+}
@@ -0,0 +1,131 @@
+package com.vehiclebooking.dispatch
+
+import com.vehiclebooking.BookingRequest
+import com.vehiclebooking.BookingStatus
+
+/**
+ * Matches pending bookings to the nearest available driver with the requested vehicle type.
+ *
+ * Available drivers live in a [DriverIndex] that is updated as their availability or location
+ * changes, so a match reads a few index cells instead of every user and booking. A matched
+ * driver leaves the index until they are made available again (e.g. at the drop-off point).
+ * Bookings do not store pickup coordinates, so callers pass the pickup point with each request.
+ * All methods are synchronized and cheap enough to call on the main thread.
+ */
+class DispatchEngine @JvmOverloads constructor(
+    private val maxRadiusKm: Double = DEFAULT_MAX_RADIUS_KM
+) {
+
+    /**
+     * A booking waiting for a driver; a null or blank vehicle type accepts any driver
+     */
+    data class PickupRequest(
+        val bookingId: String,
+        val vehicleType: String?,
+        val latitude: Double,
+        val longitude: Double
+    )
+
+    data class Match(val bookingId: String, val driverId: String, val distanceKm: Double)
+
+    private val index = DriverIndex()
+    // Where each matched driver was when taken out of the index, for release(); at most one entry per driver
+    private val matched = HashMap<String, DriverIndex.Driver>()
+
+    init {
+        require(maxRadiusKm > 0) { "maxRadiusKm must be positive" }
+    }
+
+    /**
+     * Make a driver available at a location, or move one who already is
+     */
+    @Synchronized
+    fun setDriverAvailable(driverId: String, vehicleType: String?, latitude: Double, longitude: Double) {
+        matched.remove(driverId)
+        index.put(DriverIndex.Driver(driverId, DriverIndex.vehicleKey(vehicleType), latitude, longitude))
+    }
+
+    /**
+     * Move an available driver; returns false (and does nothing) if they are not available
+     */
+    @Synchronized
+    fun updateDriverLocation(driverId: String, latitude: Double, longitude: Double): Boolean {
+        val driver = index[driverId] ?: return false
+        index.put(DriverIndex.Driver(driverId, driver.vehicleKey, latitude, longitude))
+        return true
+    }
+
+    @Synchronized
+    fun setDriverOffline(driverId: String) {
+        matched.remove(driverId)
+        index.remove(driverId)
+    }
+
+    @Synchronized
+    fun isDriverAvailable(driverId: String): Boolean = index[driverId] != null
+
+    @Synchronized
+    fun availableDriverCount(): Int = index.size
+
+    /**
+     * Assign the nearest matching driver within the search radius, or return null if there is none.
+     * The driver is taken out of the index.
+     */
+    @Synchronized
+    fun match(request: PickupRequest): Match? {
+        val vehicleKey = DriverIndex.vehicleKey(request.vehicleType).ifEmpty { null }
+        val candidate = index.nearest(request.latitude, request.longitude, vehicleKey, maxRadiusKm) ?: return null
+        index.remove(candidate.driver.driverId)
+        matched[candidate.driver.driverId] = candidate.driver
+        return Match(request.bookingId, candidate.driver.driverId, candidate.distanceKm)
+    }
+
+    /**
+     * Undo a [match] whose assignment could not be saved: the driver is available again where they
+     * were matched. Does nothing if the driver has since gone available or offline elsewhere.
+     */
+    @Synchronized
+    fun release(match: Match) {
+        val driver = matched.remove(match.driverId) ?: return
+        if (index[driver.driverId] == null) index.put(driver)
+    }
+
+    /**
+     * [match] for a stored booking; only PENDING bookings (or ones without a status) are dispatched
+     */
+    fun match(booking: BookingRequest, pickupLatitude: Double, pickupLongitude: Double): Match? {
+        val status = booking.status
+        if (status != null && status != BookingStatus.PENDING) return null
+        val bookingId: String = booking.bookingId ?: return null
+        return match(PickupRequest(bookingId, booking.vehicleType, pickupLatitude, pickupLongitude))
+    }
+
+    /**
+     * Match requests in the given order (oldest first for fairness); unmatched requests are skipped
+     */
+    @Synchronized
+    fun matchAll(requests: List<PickupRequest>): List<Match> = requests.mapNotNull { match(it) }
+
+    companion object {
+        const val DEFAULT_MAX_RADIUS_KM = 25.0
+
+        private val instance by lazy { DispatchEngine() }
+
+        /**
+         * The process-wide engine, kept in step with the users and driver_locations tables by DriverDispatch
+         */
+        @JvmStatic
+        fun shared(): DispatchEngine = instance
+
+        /**
+         * Vehicle type from a driver's vehicle details, written like "Toyota Innova - SUV":
+         * the part after the last " - ", or the whole text when there is none
+         */
+        @JvmStatic
+        fun vehicleTypeOf(vehicleDetails: String?): String? {
+            val details = vehicleDetails?.trim()
+            if (details.isNullOrEmpty()) return null
+            return details.substringAfterLast(" - ").trim()
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.vehiclebooking.dispatch
+
+import com.vehiclebooking.GeoHash
+import java.util.Locale
+import java.util.TreeMap
+
+/**
+ * In-memory spatial index of available drivers, one geohash-ordered map per vehicle type.
+ * A geohash prefix is a contiguous key range, so the drivers near a point are found by
+ * covering a box around it with a few cells (GeoHash.coverBoundingBox) and reading those
+ * ranges, the same way search_records is queried. Adding, moving and removing a driver
+ * are O(log n). Not thread-safe; DispatchEngine serialises access.
+ */
+class DriverIndex {
+
+    class Driver(
+        val driverId: String,
+        // Normalised with vehicleKey; "" for a driver whose vehicle type is unknown
+        val vehicleKey: String,
+        val latitude: Double,
+        val longitude: Double
+    ) {
+        internal val geohash: String = GeoHash.encode(latitude, longitude)
+    }
+
+    class Candidate(val driver: Driver, val distanceKm: Double)
+
+    private val byId = HashMap<String, Driver>()
+    // vehicle key -> geohash -> drivers in that cell by ID
+    private val byType = HashMap<String, TreeMap<String, MutableMap<String, Driver>>>()
+
+    val size: Int
+        get() = byId.size
+
+    operator fun get(driverId: String): Driver? = byId[driverId]
+
+    /**
+     * Add a driver, or move one already indexed to its new type and location
+     */
+    fun put(driver: Driver) {
+        remove(driver.driverId)
+        byId[driver.driverId] = driver
+        byType.getOrPut(driver.vehicleKey) { TreeMap() }
+            .getOrPut(driver.geohash) { HashMap(2) }[driver.driverId] = driver
+    }
+
+    fun remove(driverId: String): Driver? {
+        val driver = byId.remove(driverId) ?: return null
+        val cells = byType.getValue(driver.vehicleKey)
+        val cell = cells.getValue(driver.geohash)
+        cell.remove(driverId)
+        if (cell.isEmpty()) {
+            cells.remove(driver.geohash)
+            if (cells.isEmpty()) byType.remove(driver.vehicleKey)
+        }
+        return driver
+    }
+
+    /**
+     * Nearest driver of [vehicleKey] (any type when null) within [maxRadiusKm], or null.
+     * Searches a small radius first and doubles it, so only cells near the point are read.
+     * Equally distant drivers are ordered by ID, which keeps matching deterministic.
+     */
+    fun nearest(latitude: Double, longitude: Double, vehicleKey: String?, maxRadiusKm: Double): Candidate? {
+        val buckets = if (vehicleKey == null) byType.values.toList() else listOfNotNull(byType[vehicleKey])
+        if (buckets.isEmpty()) return null
+
+        var radiusKm = minOf(INITIAL_RADIUS_KM, maxRadiusKm)
+        while (true) {
+            val best = nearestWithin(buckets, latitude, longitude, radiusKm)
+            // Anything outside the radius is further away than a driver found inside it
+            if (best != null || radiusKm >= maxRadiusKm) return best
+            radiusKm = minOf(radiusKm * 2, maxRadiusKm)
+        }
+    }
+
+    private fun nearestWithin(
+        buckets: List<TreeMap<String, MutableMap<String, Driver>>>,
+        latitude: Double,
+        longitude: Double,
+        radiusKm: Double
+    ): Candidate? {
+        val box = GeoHash.boundingBox(latitude, longitude, radiusKm)
+        val cells = GeoHash.coverBoundingBox(box[0], box[1], box[2], box[3])
+        var best: Candidate? = null
+        for (bucket in buckets) {
+            for (cell in cells) {
+                for (drivers in bucket.subMap(cell, GeoHash.rangeEnd(cell)).values) {
+                    for (driver in drivers.values) {
+                        val distanceKm = GeoHash.distanceKm(latitude, longitude, driver.latitude, driver.longitude)
+                        if (distanceKm <= radiusKm && (best == null || closer(distanceKm, driver, best))) {
+                            best = Candidate(driver, distanceKm)
+                        }
+                    }
+                }
+            }
+        }
+        return best
+    }
+
+    private fun closer(distanceKm: Double, driver: Driver, best: Candidate): Boolean =
+        distanceKm < best.distanceKm || (distanceKm == best.distanceKm && driver.driverId < best.driver.driverId)
+
+    companion object {
+        private const val INITIAL_RADIUS_KM = 1.0
+
+        /**
+         * Index key for a vehicle type: trimmed and lower case, "" when blank
+         */
+        @JvmStatic
+        fun vehicleKey(vehicleType: String?): String = vehicleType?.trim()?.lowercase(Locale.ROOT).orEmpty()
+    }
+}
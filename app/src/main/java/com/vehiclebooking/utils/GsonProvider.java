@@ -2,11 +2,20 @@ package com.vehiclebooking.utils;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.vehiclebooking.BookingRequest;
+import com.vehiclebooking.BookingRequestAdapter;
 import com.vehiclebooking.LocalDateAdapter;
+import com.vehiclebooking.StatusChange;
+import com.vehiclebooking.StatusChangeAdapter;
+import com.vehiclebooking.User;
+import com.vehiclebooking.UserAdapter;
 import org.threeten.bp.LocalDate;
 
 /**
  * Singleton provider for Gson instance to avoid redundant object creation.
+ * The model classes that are serialized most (bookings, status histories and the user session)
+ * use hand-written streaming adapters instead of Gson's reflection, which is faster and does
+ * not depend on field names surviving R8. BookingDto carries its own adapter (@JsonAdapter).
  */
 public class GsonProvider {
     private static Gson gson;
@@ -18,7 +27,10 @@ public class GsonProvider {
     public static synchronized Gson getGson() {
         if (gson == null) {
             gson = new GsonBuilder()
-                    .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                    .registerTypeAdapter(LocalDate.class, LocalDateAdapter.INSTANCE)
+                    .registerTypeAdapter(StatusChange.class, StatusChangeAdapter.INSTANCE)
+                    .registerTypeAdapter(BookingRequest.class, BookingRequestAdapter.INSTANCE)
+                    .registerTypeAdapter(User.class, UserAdapter.INSTANCE)
                     .create();
         }
         return gson;
@@ -0,0 +1,78 @@
+package com.vehiclebooking
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+/**
+ * Tokenizing, one-edit typo detection and result ranking of the in-memory vehicle search.
+ */
+class VehicleSearchIndexTest {
+
+    private val catalog = listOf(
+        Vehicle(1, "Toyota Camry", "Sedan", 5, listOf("ac", "automatic", "airport")),
+        Vehicle(2, "Honda CR-V", "SUV", 5, listOf("ac", "family", "luggage")),
+        Vehicle(3, "Ford Transit", "Van", 12, listOf("group", "luggage")),
+        Vehicle(4, "BMW 3 Series", "Luxury", 5, listOf("ac", "premium", "wedding")),
+        Vehicle(5, "Nissan Altima", "Sedan", 5, listOf("ac", "city")),
+        Vehicle(6, "Mercedes Sprinter", "Luxury Van", 14, listOf("ac", "premium", "group"))
+    )
+    private val index = VehicleSearchIndex(catalog)
+
+    @Test
+    fun tokenizeSplitsLowerCasesAndJoinsHyphenatedWords() {
+        assertEquals(listOf("honda", "cr", "v", "crv", "5", "seats"), VehicleSearchIndex.tokenize("Honda CR-V, 5 seats"))
+        assertEquals(listOf("large", "suv"), VehicleSearchIndex.tokenize("  LARGE   suv!"))
+        assertEquals(emptyList<String>(), VehicleSearchIndex.tokenize(" - , "))
+    }
+
+    @Test
+    fun oneEditAwayCountsSingleEditsOnly() {
+        assertTrue(VehicleSearchIndex.isOneEditAway("sedan", "sedam")) // wrong letter
+        assertTrue(VehicleSearchIndex.isOneEditAway("sedan", "sedn")) // missing letter
+        assertTrue(VehicleSearchIndex.isOneEditAway("sedan", "sedaan")) // extra letter
+        assertTrue(VehicleSearchIndex.isOneEditAway("sedan", "sdean")) // swapped neighbours
+
+        assertFalse(VehicleSearchIndex.isOneEditAway("sedan", "sedan"))
+        assertFalse(VehicleSearchIndex.isOneEditAway("sedan", "sdeam"))
+        assertFalse(VehicleSearchIndex.isOneEditAway("sedan", "nades"))
+        assertFalse(VehicleSearchIndex.isOneEditAway("van", "vanss"))
+    }
+
+    @Test
+    fun matchesPrefixesTyposAndHyphenatedNames() {
+        assertEquals(listOf(4, 6), ids(index.search("lux", 10)))
+        assertEquals(listOf(1, 5), ids(index.search("sedna", 10)))
+        assertEquals(listOf(2), ids(index.search("crv", 10)))
+        assertEquals(listOf(3), ids(index.search("12", 10)))
+        assertEquals(emptyList<Int>(), ids(index.search("  ", 10)))
+    }
+
+    @Test
+    fun ranksByMatchedTermsThenScoreThenCatalogOrder() {
+        // Mercedes matches both terms; the rest tie on one type match and keep catalog order
+        assertEquals(listOf(6, 3, 4), ids(index.search("luxury van", 10)))
+        // The best of the "ac" ties, in catalog order
+        assertEquals(listOf(1, 2), ids(index.search("ac", 2)))
+    }
+
+    @Test
+    fun scoresByFieldAndMatchQuality() {
+        val byField = VehicleSearchIndex(listOf(
+            Vehicle(1, "Ford Van Hire", "Sedan", 5, null),
+            Vehicle(2, "Ford Transit", "Van", 12, null)
+        ))
+        // A type match outranks a name match
+        assertEquals(listOf(2, 1), ids(byField.search("van", 10)))
+
+        val byQuality = VehicleSearchIndex(listOf(
+            Vehicle(1, "Vanguard Tourer", "Sedan", 5, null),
+            Vehicle(2, "Van Hire", "Sedan", 5, null)
+        ))
+        // An exact token outranks a prefix of a longer one
+        assertEquals(listOf(2, 1), ids(byQuality.search("van", 10)))
+    }
+
+    private fun ids(vehicles: List<Vehicle>) = vehicles.map { it.id }
+}
@@ -0,0 +1,69 @@
+package com.vehiclebooking.data
+
+import com.vehiclebooking.BookingStatus
+import com.vehiclebooking.data.model.BookingEntity
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Test
+
+/**
+ * A load reads the generation, queries SQLCipher, then puts what it read. Writes made through
+ * BookingStorage in between must win over the row the load read before them.
+ */
+class BookingCacheTest {
+
+    private val cache = BookingCache(16)
+
+    @Test
+    fun loadThenUpdateThenStalePutKeepsTheUpdate() {
+        cache.putLoaded(cache.generation(), booking("BK1", BookingStatus.PENDING), null)
+
+        val loaded = cache.generation()
+        val read = booking("BK1", BookingStatus.PENDING)
+        cache.onUpdated(booking("BK1", BookingStatus.CONFIRMED))
+        cache.putLoaded(loaded, read, null)
+
+        assertEquals(BookingStatus.CONFIRMED, cache.getById("BK1", false)!!.status)
+    }
+
+    @Test
+    fun loadThenUpdateOfUncachedBookingThenStalePutIsIgnored() {
+        val loaded = cache.generation()
+        val read = booking("BK2", BookingStatus.PENDING)
+        // Not cached, so the write-through has nothing to replace
+        cache.onUpdated(booking("BK2", BookingStatus.CANCELLED))
+        cache.putLoaded(loaded, read, null)
+
+        assertNull(cache.getById("BK2", false))
+    }
+
+    @Test
+    fun loadThenInsertThenStalePhoneListIsIgnored() {
+        val loaded = cache.generation()
+        val read = listOf(booking("BK1", BookingStatus.PENDING))
+        cache.onInserted(booking("BK3", BookingStatus.PENDING))
+        cache.putPhoneNumberResult(loaded, PHONE, read)
+
+        // The list read before the insert would be missing BK3
+        assertNull(cache.getByPhoneNumber(PHONE))
+        assertEquals(BookingStatus.PENDING, cache.getById("BK3", false)!!.status)
+
+        cache.putPhoneNumberResult(cache.generation(), PHONE, read + booking("BK3", BookingStatus.PENDING))
+        assertEquals(listOf("BK1", "BK3"), cache.getByPhoneNumber(PHONE)!!.map { it.bookingId })
+    }
+
+    private fun booking(bookingId: String, status: BookingStatus) = BookingEntity().also {
+        it.bookingId = bookingId
+        it.source = "Andheri"
+        it.destination = "Airport"
+        it.timestamp = 1_735_000_000_000L + bookingId.removePrefix("BK").toLong()
+        it.status = status
+        it.statusUpdatedAt = 1_735_000_000_000L
+        it.phoneNumber = PHONE
+        it.statusHistory = emptyList()
+    }
+
+    private companion object {
+        const val PHONE = "9800000000"
+    }
+}
@@ -0,0 +1,94 @@
+package com.vehiclebooking.data
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Uniqueness and ordering of booking IDs under concurrent creates, a frozen clock and a
+ * clock that jumps backwards.
+ */
+class BookingIdGeneratorTest {
+
+    private val validId = Regex("^BK[0-9]{10,}$") // InputValidator.sanitizeBookingId
+
+    @Test
+    fun concurrentCreatesNeverCollide() {
+        val threads = 8
+        val perThread = 50_000
+        val generator = BookingIdGenerator(nodeId = 7)
+        val ids = ConcurrentHashMap.newKeySet<String>()
+        val start = CountDownLatch(1)
+        val pool = Executors.newFixedThreadPool(threads)
+
+        val started = System.nanoTime()
+        val results = (0 until threads).map {
+            pool.submit<Boolean> {
+                start.await()
+                var previous = ""
+                var ordered = true
+                repeat(perThread) {
+                    val id = generator.nextId()
+                    ids.add(id)
+                    // Each thread must see its own IDs increase, as strings
+                    if (id <= previous) ordered = false
+                    previous = id
+                }
+                ordered
+            }
+        }
+        start.countDown()
+        val ordered = results.all { it.get(60, TimeUnit.SECONDS) }
+        val elapsedMillis = (System.nanoTime() - started) / 1_000_000.0
+        pool.shutdown()
+
+        println("${threads * perThread} IDs on $threads threads in %.1f ms".format(elapsedMillis))
+        assertEquals(threads * perThread, ids.size)
+        assertTrue(ordered)
+        assertTrue(ids.all { validId.matches(it) })
+    }
+
+    @Test
+    fun frozenClockBorrowsFromTheNextMillisecond() {
+        val generator = BookingIdGenerator(nodeId = 1, clock = { BookingIdGenerator.EPOCH_MILLIS + 1000 })
+        // Well past the 1024 IDs one millisecond holds
+        val ids = List(10_000) { generator.nextId() }
+        assertEquals(ids.size, ids.toSet().size)
+        assertEquals(ids.sorted(), ids)
+    }
+
+    @Test
+    fun clockGoingBackwardsKeepsIdsIncreasing() {
+        val now = AtomicLong(BookingIdGenerator.EPOCH_MILLIS + 60_000)
+        val generator = BookingIdGenerator(nodeId = 2, clock = { now.get() })
+        val before = generator.nextId()
+        now.addAndGet(-30_000)
+        val after = generator.nextId()
+        assertTrue(after > before)
+    }
+
+    @Test
+    fun nodesKeepDevicesApart() {
+        val clock = { BookingIdGenerator.EPOCH_MILLIS + 5_000 }
+        val a = BookingIdGenerator(nodeId = 3, clock = clock)
+        val b = BookingIdGenerator(nodeId = 4, clock = clock)
+        val ids = List(5_000) { a.nextId() } + List(5_000) { b.nextId() }
+        assertEquals(ids.size, ids.toSet().size)
+    }
+
+    @Test
+    fun idsAreFixedWidthAndLongerThanLegacyIds() {
+        val generator = BookingIdGenerator(nodeId = 0, clock = { BookingIdGenerator.EPOCH_MILLIS })
+        val first = generator.nextId()
+        assertEquals("BK" + "0".repeat(19), first)
+        // Legacy IDs were BK + 13-digit millis + up to 4 random digits
+        val current = BookingIdGenerator(nodeId = BookingIdGenerator.MAX_NODES - 1).nextId()
+        assertEquals(21, current.length)
+        assertTrue(validId.matches(current))
+    }
+}
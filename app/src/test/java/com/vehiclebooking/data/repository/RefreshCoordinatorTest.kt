@@ -0,0 +1,154 @@
+package com.vehiclebooking.data.repository
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+/**
+ * Stale-while-revalidate against a fake network on virtual time: the coordinator's clock and
+ * scope are the test scheduler's, so fetch timing and TTLs are exact.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class RefreshCoordinatorTest {
+
+    @Test
+    fun concurrentSubscriptionsShareOneFetch() = runTest {
+        val coordinator = coordinator()
+        val network = FakeNetwork()
+        val first = CountingResource(coordinator, network, FreshnessPolicy.ttl(60_000))
+        val second = CountingResource(coordinator, network, FreshnessPolicy.ttl(60_000))
+
+        val results = listOf(first, second).map { resource ->
+            async { resource.asFlow().first { it is Resource.Success }.data }
+        }
+
+        assertEquals(listOf(listOf("v1"), listOf("v1")), results.map { it.await() })
+        assertEquals(1, network.fetches)
+        val stats = coordinator.stats(KEY)
+        assertEquals(1, stats.refreshes)
+        assertEquals(1, stats.joined)
+        assertEquals(2, stats.misses)
+    }
+
+    @Test
+    fun invalidationForcesTheNextRefresh() = runTest {
+        val coordinator = coordinator()
+        val network = FakeNetwork()
+        val resource = CountingResource(coordinator, network, FreshnessPolicy.ONCE)
+
+        resource.asFlow().first { it is Resource.Success }
+        // Fresh under the policy: served from the database
+        assertEquals(listOf("v1"), resource.asFlow().first { it is Resource.Success }.data)
+        assertEquals(1, network.fetches)
+
+        coordinator.invalidate(KEY)
+        assertEquals(listOf("v2"), resource.asFlow().first { it is Resource.Success }.data)
+        assertEquals(2, network.fetches)
+
+        // A subscription on screen revalidates as soon as its key is invalidated
+        val onScreen = ArrayList<Resource<List<String>>>()
+        val subscription = launch { resource.asFlow().collect { onScreen.add(it) } }
+        runCurrent()
+        coordinator.invalidate(KEY)
+        // Fetches run in the coordinator's (background) scope, which advanceUntilIdle does not wait for
+        advanceTimeBy(200)
+        assertEquals(3, network.fetches)
+        assertEquals(listOf("v3"), onScreen.last { it is Resource.Success }.data)
+        subscription.cancel()
+    }
+
+    @Test
+    fun fetchStartedBeforeInvalidationIsNotJoined() = runTest {
+        val coordinator = coordinator()
+        val release = CompletableDeferred<Unit>()
+        var fetches = 0
+        val fetch: suspend () -> Long? = { fetches++; release.await(); null }
+
+        val before = async { coordinator.refresh(KEY, fetch) }
+        runCurrent()
+        coordinator.invalidate(KEY)
+        // Joining would return data from before the invalidation
+        val after = async { coordinator.refresh(KEY, fetch) }
+        runCurrent()
+        release.complete(Unit)
+        before.await()
+        after.await()
+
+        assertEquals(2, fetches)
+        assertEquals(0, coordinator.stats(KEY).joined)
+        assertFalse(coordinator.checkStale(KEY, FreshnessPolicy.ONCE))
+    }
+
+    @Test
+    fun ttlBoundary() = runTest {
+        val ttl = FreshnessPolicy.ttl(1_000)
+        assertTrue(ttl.isStale(FetchRecord(null, null), 0))
+        assertFalse(ttl.isStale(FetchRecord(5_000, null), 5_999))
+        assertTrue(ttl.isStale(FetchRecord(5_000, null), 6_000))
+
+        // The server's max-age wins over the fallback, in either direction
+        val serverMaxAge = FreshnessPolicy.serverMaxAge(1_000)
+        assertFalse(serverMaxAge.isStale(FetchRecord(5_000, 200), 5_199))
+        assertTrue(serverMaxAge.isStale(FetchRecord(5_000, 200), 5_200))
+        assertFalse(serverMaxAge.isStale(FetchRecord(5_000, 3_000), 7_999))
+        assertTrue(serverMaxAge.isStale(FetchRecord(5_000, null), 6_000))
+
+        // The same boundary through the coordinator, on its clock
+        val coordinator = coordinator()
+        coordinator.refresh(KEY) { delay(10); null }
+        val fetchedAt = testScheduler.currentTime
+        delay(999)
+        assertFalse(coordinator.checkStale(KEY, ttl))
+        assertEquals(fetchedAt + 999, testScheduler.currentTime)
+        delay(1)
+        assertTrue(coordinator.checkStale(KEY, ttl))
+    }
+
+    private fun TestScope.coordinator() = RefreshCoordinator({ testScheduler.currentTime }, backgroundScope)
+
+    /**
+     * Server whose list changes on every fetch, each fetch taking 100 ms, and the local table
+     * every resource reads
+     */
+    private class FakeNetwork {
+        val database = MutableStateFlow(emptyList<String>())
+        var fetches = 0
+
+        suspend fun fetch(): List<String> {
+            delay(100)
+            fetches++
+            return listOf("v$fetches")
+        }
+    }
+
+    private class CountingResource(
+        coordinator: RefreshCoordinator,
+        private val network: FakeNetwork,
+        policy: FreshnessPolicy
+    ) : NetworkBoundResource<List<String>, List<String>>(KEY, policy, coordinator) {
+        override suspend fun loadFromDb(): Flow<List<String>> = network.database
+
+        override suspend fun fetchFromNetwork(): List<String> = network.fetch()
+
+        override suspend fun saveNetworkResult(data: List<String>) {
+            network.database.value = data
+        }
+    }
+
+    private companion object {
+        const val KEY = "bookings"
+    }
+}
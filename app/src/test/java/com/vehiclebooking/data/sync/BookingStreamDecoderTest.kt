@@ -0,0 +1,120 @@
+package com.vehiclebooking.data.sync
+
+import com.google.gson.Gson
+import com.google.gson.JsonSyntaxException
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.io.IOException
+import java.io.Reader
+import java.io.StringReader
+
+/**
+ * Streaming decode of full booking exports. The large export is generated as it is read,
+ * so the test can check how far the decoder has read ahead whenever it hands on a chunk:
+ * memory use is bounded by the chunk size, not by the payload.
+ */
+class BookingStreamDecoderTest {
+
+    @Test
+    fun largeExportIsDecodedWithoutReadingAhead() {
+        // About 57 MB of JSON; every 1000th booking has an invalid date and is skipped
+        val export = GeneratedExport(bookings = 200_000) { n -> n % 1000 == 7 }
+        var rows = 0
+        var maxChunk = 0
+        var maxReadAhead = 0L
+
+        val result = BookingStreamDecoder(Gson(), CHUNK_SIZE).decode(export) { chunk ->
+            rows += chunk.size
+            maxChunk = maxOf(maxChunk, chunk.size)
+            val last = chunk.last().bookingId.removePrefix("BK").toInt()
+            maxReadAhead = maxOf(maxReadAhead, export.charsRead - export.endOf(last))
+        }
+
+        println("Streamed ${export.charsRead / 1_000_000} MB export: $result, read ahead at most $maxReadAhead chars")
+        assertTrue(export.charsRead > 50_000_000, "export should be large")
+        assertEquals(199_800, result.decoded)
+        assertEquals(200, result.skipped)
+        assertEquals(rows, result.decoded)
+        assertEquals(400, result.chunks)
+        assertEquals(CHUNK_SIZE, maxChunk)
+        // Never more than JsonReader's 1024-char buffer, however large the export
+        assertTrue(maxReadAhead < 4_096, "decoder read $maxReadAhead chars ahead of the chunk it handed on")
+    }
+
+    @Test
+    fun syntaxErrorsAreJsonSyntaxExceptions() {
+        val decoder = BookingStreamDecoder(Gson(), CHUNK_SIZE)
+        val valid = GeneratedExport.booking(1, invalidDate = false)
+
+        // Not an array, malformed, and truncated
+        for (json in listOf(valid, "[$valid,, $valid]", "[$valid, ${valid.take(40)}")) {
+            assertThrows(JsonSyntaxException::class.java) { decoder.decode(StringReader(json)) {} }
+        }
+    }
+
+    @Test
+    fun readerFailuresAndCallbackFailuresKeepTheirType() {
+        val decoder = BookingStreamDecoder(Gson(), 1)
+        val failing = object : Reader() {
+            override fun read(buffer: CharArray, offset: Int, length: Int): Int = throw IOException("connection reset")
+            override fun close() {}
+        }
+        assertThrows(IOException::class.java) { decoder.decode(failing) {} }
+
+        val json = "[${GeneratedExport.booking(1, invalidDate = false)}]"
+        assertThrows(IllegalStateException::class.java) {
+            decoder.decode(StringReader(json)) { throw IllegalStateException("database closed") }
+        }
+    }
+
+    /**
+     * A JSON array of bookings "BK0".."BK<n-1>", produced on demand; [endOf] is the offset just
+     * after a booking's closing brace
+     */
+    private class GeneratedExport(private val bookings: Int, private val invalidDate: (Int) -> Boolean) : Reader() {
+        private val ends = LongArray(bookings)
+        private var next = 0
+        private var pending = "["
+        private var position = 0
+        var charsRead = 0L
+            private set
+
+        fun endOf(booking: Int): Long = ends[booking]
+
+        override fun read(buffer: CharArray, offset: Int, length: Int): Int {
+            if (position == pending.length) {
+                if (next > bookings) return -1
+                pending = when {
+                    next == bookings -> "]"
+                    else -> (if (next > 0) "," else "") + booking(next, invalidDate(next))
+                }
+                // Offsets are known once the text is produced, before any of it is read
+                if (next < bookings) ends[next] = charsRead + pending.length
+                next++
+                position = 0
+            }
+            val count = minOf(length, pending.length - position)
+            pending.toCharArray(buffer, offset, position, position + count)
+            position += count
+            charsRead += count
+            return count
+        }
+
+        override fun close() {}
+
+        companion object {
+            fun booking(n: Int, invalidDate: Boolean): String =
+                "{\"booking_id\":\"BK$n\",\"source\":\"Andheri East, Mumbai $n\"," +
+                    "\"destination\":\"Chhatrapati Shivaji International Airport, Terminal 2\"," +
+                    "\"travel_date\":\"${if (invalidDate) "not a date" else "2025-01-0${n % 9 + 1}"}\"," +
+                    "\"timestamp\":${1_735_000_000_000L + n},\"phone_number\":\"98${"%08d".format(n)}\"," +
+                    "\"vehicle_type\":\"SUV\",\"status\":\"PENDING\",\"status_updated_at\":${1_735_000_000_000L + n}}"
+        }
+    }
+
+    private companion object {
+        const val CHUNK_SIZE = 500
+    }
+}
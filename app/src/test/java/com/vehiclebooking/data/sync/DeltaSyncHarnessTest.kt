@@ -0,0 +1,267 @@
+package com.vehiclebooking.data.sync
+
+import com.google.gson.Gson
+import com.vehiclebooking.data.api.BookingApiService
+import com.vehiclebooking.data.model.dto.BookingChangesDto
+import com.vehiclebooking.data.model.dto.BookingDto
+import com.vehiclebooking.data.model.dto.BookingTombstoneDto
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+import okhttp3.Call
+import okhttp3.EventListener
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import retrofit2.Retrofit
+import retrofit2.converter.gson.GsonConverterFactory
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Delta sync against a local MockWebServer backend, compared with full refreshes.
+ * Reports response bytes, request count and wall time for each phase.
+ */
+class DeltaSyncHarnessTest {
+
+    private lateinit var server: MockWebServer
+    private lateinit var backend: FakeBookingBackend
+    private lateinit var api: BookingApiService
+    private val responseBytes = AtomicLong()
+    private val requests = AtomicInteger()
+
+    @BeforeEach
+    fun setUp() {
+        backend = FakeBookingBackend()
+        server = MockWebServer()
+        server.dispatcher = backend
+        server.start()
+
+        val client = OkHttpClient.Builder()
+            .eventListener(object : EventListener() {
+                override fun responseBodyEnd(call: Call, byteCount: Long) {
+                    responseBytes.addAndGet(byteCount)
+                    requests.incrementAndGet()
+                }
+            })
+            .build()
+        api = Retrofit.Builder()
+            .baseUrl(server.url("/"))
+            .client(client)
+            .addConverterFactory(GsonConverterFactory.create())
+            .build()
+            .create(BookingApiService::class.java)
+    }
+
+    @AfterEach
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun deltaSyncTransfersFractionOfFullRefresh() = runBlocking {
+        backend.insert(5_000)
+        val fullStore = HashMap<String, BookingDto>()
+        val deltaStore = InMemoryDeltaSyncStore()
+        val sync = BookingDeltaSync(deltaStore, pageSize = 500, ioDispatcher = Dispatchers.Unconfined)
+
+        val fullInitial = measure("full refresh, initial") { fullRefresh(fullStore) }
+        val deltaInitial = measure("delta sync, initial") { deltaSync(sync) }
+
+        // 1% updated, 0.2% deleted, 0.4% new
+        backend.update(50)
+        backend.delete(10)
+        backend.insert(20)
+
+        val fullIncremental = measure("full refresh, after changes") { fullRefresh(fullStore) }
+        val deltaIncremental = measure("delta sync, after changes") { deltaSync(sync) }
+        val deltaIdle = measure("delta sync, nothing changed") { deltaSync(sync) }
+
+        assertEquals(backend.snapshot(), fullStore)
+        assertEquals(backend.snapshot(), deltaStore.bookings)
+        assertTrue(deltaInitial.bytes < fullInitial.bytes * 2, "initial snapshot paging overhead")
+        assertTrue(deltaIncremental.bytes * 20 < fullIncremental.bytes, "delta should be <5% of a full refresh")
+        assertTrue(deltaIdle.bytes < 200, "an idle sync is a single empty page")
+    }
+
+    @Test
+    fun expiredCursorFallsBackToFullResync() = runBlocking {
+        backend.insert(200)
+        val store = InMemoryDeltaSyncStore()
+        val sync = BookingDeltaSync(store, pageSize = 50, ioDispatcher = Dispatchers.Unconfined)
+        sync.sync(SyncCollection.ALL) { since, limit -> api.getBookingChanges(since, limit) }
+
+        // Deletions happen while the client is away, then the server forgets them
+        backend.delete(5)
+        backend.update(3)
+        backend.compactLog()
+
+        val result = sync.sync(SyncCollection.ALL) { since, limit -> api.getBookingChanges(since, limit) }
+
+        assertTrue(result.fullResync)
+        assertEquals(backend.snapshot(), store.bookings)
+    }
+
+    private suspend fun fullRefresh(store: MutableMap<String, BookingDto>) {
+        val all = api.getAllBookings()
+        store.clear()
+        all.associateByTo(store) { it.bookingId }
+    }
+
+    private suspend fun deltaSync(sync: BookingDeltaSync) {
+        sync.sync(SyncCollection.ALL) { since, limit -> api.getBookingChanges(since, limit) }
+    }
+
+    private data class Phase(val bytes: Long, val requests: Int, val millis: Double)
+
+    private suspend fun measure(label: String, block: suspend () -> Unit): Phase {
+        responseBytes.set(0)
+        requests.set(0)
+        val start = System.nanoTime()
+        block()
+        val phase = Phase(responseBytes.get(), requests.get(), (System.nanoTime() - start) / 1_000_000.0)
+        println("%-30s %10d bytes %4d requests %9.1f ms".format(label, phase.bytes, phase.requests, phase.millis))
+        return phase
+    }
+
+    /**
+     * Applies pages to a map, like RoomDeltaSyncStore does to the bookings table
+     */
+    private class InMemoryDeltaSyncStore : DeltaSyncStore {
+        val bookings = HashMap<String, BookingDto>()
+        private val cursors = HashMap<String, String?>()
+
+        override fun getCursor(collection: SyncCollection): String? = cursors[collection.key]
+
+        override fun applyPage(
+            collection: SyncCollection,
+            changes: List<BookingDto>,
+            tombstones: List<BookingTombstoneDto>,
+            nextCursor: String?
+        ) {
+            changes.forEach { bookings[it.bookingId] = it }
+            tombstones.forEach { bookings.remove(it.bookingId) }
+            cursors[collection.key] = nextCursor
+        }
+
+        override fun retainOnly(collection: SyncCollection, bookingIds: Set<String>) {
+            bookings.keys.retainAll(bookingIds)
+        }
+
+        override fun applyChanges(changes: List<BookingDto>, deletedIds: List<String>): Int {
+            changes.forEach { bookings[it.bookingId] = it }
+            return changes.size + deletedIds.count { bookings.remove(it) != null }
+        }
+    }
+
+    /**
+     * Server with an append-only change log. Cursors are "s:<offset>:<version>" while paging an
+     * initial snapshot and "v:<version>" afterwards; compacting the log expires older cursors.
+     */
+    private class FakeBookingBackend : Dispatcher() {
+        private val gson = Gson()
+        private val bookings = sortedMapOf<String, BookingDto>()
+        private val log = ArrayList<Event>()
+        private var version = 0L
+        private var oldestVersion = 0L
+        private var nextId = 0
+
+        private data class Event(val version: Long, val bookingId: String, val deleted: Boolean)
+
+        @Synchronized
+        fun insert(count: Int) = repeat(count) {
+            val n = nextId++
+            val booking = BookingDto(
+                bookingId = "BK%07d".format(n),
+                source = "Pickup point $n",
+                destination = "Drop point ${n * 7 % 1000}",
+                travelDate = "2025-%02d-%02d".format(n % 12 + 1, n % 28 + 1),
+                timestamp = 1_700_000_000_000L + n * 60_000L,
+                phoneNumber = "98%08d".format(n % 2_000),
+                vehicleType = listOf("Sedan", "SUV", "Van", "Luxury")[n % 4],
+                status = "PENDING"
+            )
+            bookings[booking.bookingId] = booking
+            record(booking.bookingId, false)
+        }
+
+        @Synchronized
+        fun update(count: Int) = bookings.keys.take(count).forEach { id ->
+            bookings[id] = bookings.getValue(id).copy(status = "CONFIRMED")
+            record(id, false)
+        }
+
+        @Synchronized
+        fun delete(count: Int) = bookings.keys.toList().takeLast(count).forEach { id ->
+            bookings.remove(id)
+            record(id, true)
+        }
+
+        @Synchronized
+        fun compactLog() {
+            log.clear()
+            oldestVersion = version
+        }
+
+        @Synchronized
+        fun snapshot(): Map<String, BookingDto> = HashMap(bookings)
+
+        private fun record(bookingId: String, deleted: Boolean) {
+            log.add(Event(++version, bookingId, deleted))
+        }
+
+        @Synchronized
+        override fun dispatch(request: RecordedRequest): MockResponse {
+            val url = request.requestUrl ?: return MockResponse().setResponseCode(400)
+            return when (url.encodedPath) {
+                "/bookings" -> json(bookings.values.toList())
+                "/bookings/changes" -> changes(url.queryParameter("since"), url.queryParameter("limit")!!.toInt())
+                else -> MockResponse().setResponseCode(404)
+            }
+        }
+
+        private fun changes(since: String?, limit: Int): MockResponse {
+            if (since == null || since.startsWith("s:")) {
+                val parts = since?.split(":")
+                val offset = parts?.get(1)?.toInt() ?: 0
+                val snapshotVersion = parts?.get(2)?.toLong() ?: version
+                val page = bookings.values.drop(offset).take(limit)
+                val done = offset + page.size >= bookings.size
+                return json(
+                    BookingChangesDto(
+                        changes = page,
+                        nextCursor = if (done) "v:$snapshotVersion" else "s:${offset + page.size}:$snapshotVersion",
+                        hasMore = !done || version > snapshotVersion
+                    )
+                )
+            }
+
+            val after = since.removePrefix("v:").toLong()
+            if (after < oldestVersion) return MockResponse().setResponseCode(410)
+
+            val events = log.filter { it.version > after }
+            val page = events.take(limit)
+            // Latest event per booking wins: a booking is either changed or deleted in one page
+            val latest = LinkedHashMap<String, Event>()
+            page.forEach { latest[it.bookingId] = it }
+            return json(
+                BookingChangesDto(
+                    changes = latest.values.filter { !it.deleted }.mapNotNull { bookings[it.bookingId] },
+                    deleted = latest.values.filter { it.deleted }.map { BookingTombstoneDto(it.bookingId, it.version) },
+                    nextCursor = "v:${page.lastOrNull()?.version ?: after}",
+                    hasMore = events.size > page.size
+                )
+            )
+        }
+
+        private fun json(body: Any) = MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(gson.toJson(body))
+    }
+}
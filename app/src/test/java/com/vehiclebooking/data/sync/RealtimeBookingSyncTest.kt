@@ -0,0 +1,118 @@
+package com.vehiclebooking.data.sync
+
+import com.vehiclebooking.data.model.dto.BookingDto
+import com.vehiclebooking.data.model.dto.BookingTombstoneDto
+import com.vehiclebooking.data.sync.BookingDocumentChange.Type.ADDED
+import com.vehiclebooking.data.sync.BookingDocumentChange.Type.MODIFIED
+import com.vehiclebooking.data.sync.BookingDocumentChange.Type.REMOVED
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.mapNotNull
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestCoroutineScheduler
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Test
+
+/**
+ * Pushed changes from a scripted listener, mapped the way FirestoreManager maps snapshot
+ * callbacks and applied by RealtimeBookingSync on virtual time, so the coalescing window is
+ * checked to the millisecond without waiting for it.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class RealtimeBookingSyncTest {
+
+    @Test
+    fun burstWithinWindowIsOneWrite() = runTest {
+        val store = RecordingStore(testScheduler)
+        val sync = RealtimeBookingSync(store, windowMillis = 250, ioDispatcher = StandardTestDispatcher(testScheduler))
+        val listener = flow {
+            emit(listOf(change(ADDED, "BK1", "PENDING"), change(ADDED, "BK2", "PENDING")))
+            delay(100)
+            emit(listOf(change(MODIFIED, "BK1", "CONFIRMED"), change(MODIFIED, "BK3", "CANCELLED", pendingWrites = true)))
+            delay(100)
+            emit(listOf(change(REMOVED, "BK2")))
+            // After the window: starts the next write
+            delay(100)
+            emit(listOf(change(MODIFIED, "BK1", "COMPLETED")))
+        }
+        val flushes = ArrayList<RealtimeBookingSync.Flush>()
+
+        sync.run(listener.mapNotNull { BookingChangeSet.of(it) }) { flush, _ -> flushes.add(flush) }
+
+        // The window runs from the first change and is not extended by the ones after it
+        assertEquals(listOf(250L, 550L), store.writes.map { it.at })
+        val first = store.writes[0]
+        assertEquals(listOf("BK1" to "CONFIRMED"), first.upserts)
+        assertEquals(listOf("BK2"), first.deletedIds)
+        // BK3 was an echo of a local write and never reached the store
+        assertEquals(4, flushes[0].events)
+        assertEquals(listOf("BK1" to "COMPLETED"), store.writes[1].upserts)
+        assertEquals(emptyList<String>(), store.writes[1].deletedIds)
+    }
+
+    @Test
+    fun changeSetKeepsRemotesAndMapsRemovals() {
+        val changeSet = BookingChangeSet.of(
+            listOf(
+                change(ADDED, "BK1", "PENDING"),
+                change(MODIFIED, "BK2", "CONFIRMED", pendingWrites = true),
+                change(REMOVED, "BK3"),
+                // A local delete not yet acknowledged by the server
+                change(REMOVED, "BK4", pendingWrites = true),
+                // A document that could not be read as a booking
+                BookingDocumentChange(MODIFIED, "BK5", null, false)
+            )
+        )
+
+        assertEquals(listOf("BK1"), changeSet!!.upserts.map { it.bookingId })
+        assertEquals(listOf("BK3"), changeSet.removedIds)
+        assertNull(BookingChangeSet.of(listOf(change(MODIFIED, "BK2", "CONFIRMED", pendingWrites = true))))
+    }
+
+    private fun change(
+        type: BookingDocumentChange.Type,
+        bookingId: String,
+        status: String? = null,
+        pendingWrites: Boolean = false
+    ) = BookingDocumentChange(type, bookingId, status?.let { booking(bookingId, it) }, pendingWrites)
+
+    private fun booking(bookingId: String, status: String) = BookingDto(
+        bookingId = bookingId,
+        source = "Andheri",
+        destination = "Airport",
+        travelDate = "2025-01-02",
+        timestamp = 1_735_000_000_000L,
+        phoneNumber = "9800000000",
+        vehicleType = "SUV",
+        status = status
+    )
+
+    /**
+     * Records each pushed write with the virtual time it was made at
+     */
+    private class RecordingStore(private val scheduler: TestCoroutineScheduler) : DeltaSyncStore {
+        val writes = ArrayList<Write>()
+
+        override fun getCursor(collection: SyncCollection): String? = null
+
+        override fun applyPage(
+            collection: SyncCollection,
+            changes: List<BookingDto>,
+            tombstones: List<BookingTombstoneDto>,
+            nextCursor: String?
+        ) = throw UnsupportedOperationException()
+
+        override fun retainOnly(collection: SyncCollection, bookingIds: Set<String>) =
+            throw UnsupportedOperationException()
+
+        override fun applyChanges(changes: List<BookingDto>, deletedIds: List<String>): Int {
+            writes.add(Write(scheduler.currentTime, changes.map { it.bookingId to it.status }, deletedIds))
+            return changes.size + deletedIds.size
+        }
+    }
+
+    private data class Write(val at: Long, val upserts: List<Pair<String, String>>, val deletedIds: List<String>)
+}
@@ -0,0 +1,59 @@
+package com.vehiclebooking.data.sync
+
+import androidx.sqlite.db.SupportSQLiteStatement
+import com.vehiclebooking.data.AppDatabase
+import com.vehiclebooking.data.dao.OutboxDao
+import com.vehiclebooking.data.model.BookingEntity
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.util.concurrent.Callable
+
+/**
+ * Full-fetch fallbacks (streamed export, Firestore pages) must not overwrite bookings whose
+ * local create, update or delete is still waiting in booking_outbox. The database is mocked
+ * down to the compiled upsert statement, so the test sees exactly which rows are written.
+ */
+class RoomDeltaSyncStoreTest {
+
+    private val outboxDao = mockk<OutboxDao>()
+    private val bookingStatement = mockk<SupportSQLiteStatement>(relaxed = true)
+    private val historyStatement = mockk<SupportSQLiteStatement>(relaxed = true)
+    private val database = mockk<AppDatabase>(relaxed = true)
+    // Booking IDs bound into the upsert statement, in order
+    private val written = ArrayList<String>()
+
+    @BeforeEach
+    fun setUp() {
+        every { database.outboxDao() } returns outboxDao
+        every { database.runInTransaction(any<Runnable>()) } answers { firstArg<Runnable>().run() }
+        every { database.runInTransaction(any<Callable<Any?>>()) } answers { firstArg<Callable<Any?>>().call() }
+        every { database.compileStatement(match { it.contains("INTO bookings") }) } returns bookingStatement
+        every { database.compileStatement(match { it.contains("INTO status_changes") }) } returns historyStatement
+        every { bookingStatement.bindString(1, any()) } answers { written.add(secondArg()) }
+        every { bookingStatement.executeUpdateDelete() } returns 1
+    }
+
+    @Test
+    fun snapshotSkipsBookingsWithPendingOutboxRows() {
+        // BK2 has an unsent local edit; BK4 was deleted locally and the delete is not sent yet
+        every { outboxDao.getPendingBookingIds() } returns listOf("BK2", "BK4")
+        val store = RoomDeltaSyncStore(database)
+
+        val stats = store.applySnapshot(listOf(booking("BK1"), booking("BK2"), booking("BK3"), booking("BK4")))
+
+        assertEquals(listOf("BK1", "BK3"), written)
+        assertEquals(2, stats.rows)
+    }
+
+    private fun booking(bookingId: String) = BookingEntity().also {
+        it.bookingId = bookingId
+        it.source = "Andheri"
+        it.destination = "Airport"
+        it.timestamp = 1_735_000_000_000L
+        it.statusUpdatedAt = 1_735_000_000_000L
+        it.phoneNumber = "9800000000"
+    }
+}
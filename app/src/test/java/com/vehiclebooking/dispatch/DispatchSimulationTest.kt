@@ -0,0 +1,265 @@
+package com.vehiclebooking.dispatch
+
+import com.vehiclebooking.GeoHash
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.Random
+
+/**
+ * Replays a seeded day of dispatching: N drivers going on and off shift and moving around
+ * five cities while M bookings arrive. Every match is checked against a linear scan of the
+ * available drivers, and match latency percentiles are printed for both.
+ */
+class DispatchSimulationTest {
+
+    @Test
+    fun indexMatchesLinearScanAndReportsLatency() {
+        val scenario = Scenario(drivers = 5_000, bookings = 20_000, seed = 42)
+        // Warm up the JIT so the first dispatcher measured is not at a disadvantage
+        val warmUp = Scenario(drivers = 1_000, bookings = 5_000, seed = 1)
+        warmUp.replay(EngineDispatcher(DispatchEngine()))
+        warmUp.replay(LinearScanDispatcher())
+
+        val indexed = scenario.replay(EngineDispatcher(DispatchEngine()))
+        val linear = scenario.replay(LinearScanDispatcher())
+
+        assertEquals(linear.matches, indexed.matches)
+        assertTrue(indexed.matches.count { it != null } > scenario.bookings / 2, "most bookings should be matched")
+
+        // Latency is reported, not asserted: timings on a shared CI machine are too noisy to gate on
+        indexed.report("driver index")
+        linear.report("linear scan")
+    }
+
+    @Test
+    fun replayIsDeterministic() {
+        val first = Scenario(drivers = 500, bookings = 2_000, seed = 7).replay(EngineDispatcher(DispatchEngine()))
+        val second = Scenario(drivers = 500, bookings = 2_000, seed = 7).replay(EngineDispatcher(DispatchEngine()))
+        assertEquals(first.matches, second.matches)
+    }
+
+    @Test
+    fun matchesOnlyRequestedVehicleTypeAndRespectsRadius() {
+        val engine = DispatchEngine(maxRadiusKm = 10.0)
+        engine.setDriverAvailable("near-suv", "SUV", 19.0760, 72.8777)
+        engine.setDriverAvailable("nearer-sedan", "Sedan", 19.0761, 72.8777)
+        engine.setDriverAvailable("far-sedan", " sedan ", 19.3000, 72.8777)
+
+        assertEquals("near-suv", engine.match(DispatchEngine.PickupRequest("b1", "suv", 19.0762, 72.8777))?.driverId)
+        assertEquals("nearer-sedan", engine.match(DispatchEngine.PickupRequest("b2", null, 19.0762, 72.8777))?.driverId)
+        // far-sedan is about 25 km away
+        assertEquals(null, engine.match(DispatchEngine.PickupRequest("b3", "Sedan", 19.0762, 72.8777)))
+        assertEquals(1, engine.availableDriverCount())
+
+        assertTrue(engine.updateDriverLocation("far-sedan", 19.0800, 72.8777))
+        assertEquals("far-sedan", engine.match(DispatchEngine.PickupRequest("b4", "Sedan", 19.0762, 72.8777))?.driverId)
+        assertEquals(false, engine.updateDriverLocation("far-sedan", 19.0, 72.0))
+    }
+
+    @Test
+    fun releasedDriverIsMatchableAgain() {
+        val engine = DispatchEngine()
+        engine.setDriverAvailable("d1", "SUV", 19.0760, 72.8777)
+        val match = engine.match(DispatchEngine.PickupRequest("b1", "SUV", 19.0762, 72.8777))!!
+        assertEquals(0, engine.availableDriverCount())
+
+        // Saving the assignment failed: the driver is back where they were matched
+        engine.release(match)
+        assertEquals(match, engine.match(DispatchEngine.PickupRequest("b1", "SUV", 19.0762, 72.8777)))
+
+        // A driver who went offline after the match stays offline
+        engine.setDriverOffline("d1")
+        engine.release(match)
+        assertEquals(0, engine.availableDriverCount())
+    }
+
+    @Test
+    fun vehicleTypeFromDetails() {
+        assertEquals("SUV", DispatchEngine.vehicleTypeOf("Toyota Innova - SUV"))
+        assertEquals("Large SUV", DispatchEngine.vehicleTypeOf("Chevrolet Tahoe - Large SUV"))
+        assertEquals("Sedan", DispatchEngine.vehicleTypeOf(" Sedan "))
+        assertEquals(null, DispatchEngine.vehicleTypeOf("  "))
+    }
+
+    private interface Dispatcher {
+        fun available(driverId: String, vehicleType: String, latitude: Double, longitude: Double)
+        fun move(driverId: String, latitude: Double, longitude: Double)
+        fun offline(driverId: String)
+        fun match(request: DispatchEngine.PickupRequest): DispatchEngine.Match?
+    }
+
+    private class EngineDispatcher(private val engine: DispatchEngine) : Dispatcher {
+        override fun available(driverId: String, vehicleType: String, latitude: Double, longitude: Double) =
+            engine.setDriverAvailable(driverId, vehicleType, latitude, longitude)
+
+        override fun move(driverId: String, latitude: Double, longitude: Double) {
+            engine.updateDriverLocation(driverId, latitude, longitude)
+        }
+
+        override fun offline(driverId: String) = engine.setDriverOffline(driverId)
+
+        override fun match(request: DispatchEngine.PickupRequest) = engine.match(request)
+    }
+
+    /**
+     * Reference: haversine over every available driver, same radius and tie-break as the engine
+     */
+    private class LinearScanDispatcher : Dispatcher {
+        private class Driver(val vehicleKey: String, var latitude: Double, var longitude: Double)
+
+        private val drivers = HashMap<String, Driver>()
+
+        override fun available(driverId: String, vehicleType: String, latitude: Double, longitude: Double) {
+            drivers[driverId] = Driver(DriverIndex.vehicleKey(vehicleType), latitude, longitude)
+        }
+
+        override fun move(driverId: String, latitude: Double, longitude: Double) {
+            drivers[driverId]?.let {
+                it.latitude = latitude
+                it.longitude = longitude
+            }
+        }
+
+        override fun offline(driverId: String) {
+            drivers.remove(driverId)
+        }
+
+        override fun match(request: DispatchEngine.PickupRequest): DispatchEngine.Match? {
+            val vehicleKey = DriverIndex.vehicleKey(request.vehicleType)
+            var bestId: String? = null
+            var bestKm = Double.MAX_VALUE
+            for ((id, driver) in drivers) {
+                if (vehicleKey.isNotEmpty() && driver.vehicleKey != vehicleKey) continue
+                val km = GeoHash.distanceKm(request.latitude, request.longitude, driver.latitude, driver.longitude)
+                if (km <= DispatchEngine.DEFAULT_MAX_RADIUS_KM && (km < bestKm || (km == bestKm && id < bestId!!))) {
+                    bestId = id
+                    bestKm = km
+                }
+            }
+            val driverId = bestId ?: return null
+            drivers.remove(driverId)
+            return DispatchEngine.Match(request.bookingId, driverId, bestKm)
+        }
+    }
+
+    // A matched driver becomes available again at the drop-off point
+    private class TripEnd(val driverId: String, val latitude: Double, val longitude: Double)
+
+    private class Result(val matches: List<DispatchEngine.Match?>, private val latencyNanos: LongArray) {
+        private val sorted = latencyNanos.sortedArray()
+
+        fun percentile(p: Double): Double =
+            sorted[minOf(sorted.size - 1, (p / 100 * sorted.size).toInt())] / 1_000.0
+
+        fun report(label: String) {
+            println(
+                "%-14s %6d bookings, %6d matched: p50 %8.1f us, p90 %8.1f us, p99 %8.1f us, p99.9 %8.1f us, max %9.1f us".format(
+                    label, matches.size, matches.count { it != null },
+                    percentile(50.0), percentile(90.0), percentile(99.0), percentile(99.9), sorted.last() / 1_000.0
+                )
+            )
+        }
+    }
+
+    /**
+     * A fixed event sequence; trips end (the driver becomes available at the drop-off) a seeded
+     * number of bookings after they were matched, so both dispatchers see the same timeline
+     * as long as they make the same matches.
+     */
+    private class Scenario(val drivers: Int, val bookings: Int, private val seed: Long) {
+
+        fun replay(dispatcher: Dispatcher): Result {
+            val random = Random(seed)
+            val types = HashMap<String, String>()
+            val positions = HashMap<String, Pair<Double, Double>>()
+            val online = ArrayList<String>()
+            val offline = ArrayList<String>()
+            // booking index at which matched drivers finish their trips
+            val trips = HashMap<Int, MutableList<TripEnd>>()
+            val matches = ArrayList<DispatchEngine.Match?>(bookings)
+            val latency = LongArray(bookings)
+
+            for (d in 0 until drivers) {
+                val id = "DRV%05d".format(d)
+                types[id] = VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.size)]
+                if (random.nextInt(4) == 0) {
+                    offline.add(id)
+                } else {
+                    val (lat, lon) = point(random)
+                    dispatcher.available(id, types.getValue(id), lat, lon)
+                    positions[id] = Pair(lat, lon)
+                    online.add(id)
+                }
+            }
+
+            for (b in 0 until bookings) {
+                trips.remove(b)?.forEach {
+                    dispatcher.available(it.driverId, types.getValue(it.driverId), it.latitude, it.longitude)
+                    positions[it.driverId] = Pair(it.latitude, it.longitude)
+                    online.add(it.driverId)
+                }
+
+                // Shift changes and drivers moving between bookings
+                repeat(2) {
+                    when (random.nextInt(10)) {
+                        0 -> if (online.isNotEmpty()) {
+                            val id = online.removeAt(random.nextInt(online.size))
+                            dispatcher.offline(id)
+                            offline.add(id)
+                        }
+                        1 -> if (offline.isNotEmpty()) {
+                            val id = offline.removeAt(random.nextInt(offline.size))
+                            val (lat, lon) = point(random)
+                            dispatcher.available(id, types.getValue(id), lat, lon)
+                            positions[id] = Pair(lat, lon)
+                            online.add(id)
+                        }
+                        else -> if (online.isNotEmpty()) {
+                            // About a kilometre in any direction
+                            val id = online[random.nextInt(online.size)]
+                            val (lat, lon) = positions.getValue(id)
+                            val moved = Pair(lat + jitter(random, 0.01), lon + jitter(random, 0.01))
+                            dispatcher.move(id, moved.first, moved.second)
+                            positions[id] = moved
+                        }
+                    }
+                }
+
+                val (pickupLat, pickupLon) = point(random)
+                val (dropLat, dropLon) = point(random)
+                val type = if (random.nextInt(5) == 0) null else VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.size)]
+                val request = DispatchEngine.PickupRequest("BK%06d".format(b), type, pickupLat, pickupLon)
+
+                val start = System.nanoTime()
+                val match = dispatcher.match(request)
+                latency[b] = System.nanoTime() - start
+                matches.add(match)
+
+                if (match != null) {
+                    online.remove(match.driverId)
+                    val finish = b + TRIP_LENGTH_BOOKINGS + random.nextInt(TRIP_LENGTH_BOOKINGS)
+                    trips.getOrPut(finish) { ArrayList() }.add(TripEnd(match.driverId, dropLat, dropLon))
+                }
+            }
+            return Result(matches, latency)
+        }
+
+        companion object {
+            private val CENTRES = arrayOf(
+                doubleArrayOf(19.076, 72.878), doubleArrayOf(28.614, 77.209), doubleArrayOf(12.972, 77.595),
+                doubleArrayOf(17.385, 78.487), doubleArrayOf(13.083, 80.271)
+            )
+            private val VEHICLE_TYPES = listOf("Sedan", "SUV", "Hatchback", "Van", "Luxury")
+            private const val TRIP_LENGTH_BOOKINGS = 200
+
+            // Around a city centre, roughly 15 km spread
+            private fun point(random: Random): Pair<Double, Double> {
+                val centre = CENTRES[random.nextInt(CENTRES.size)]
+                return Pair(centre[0] + random.nextGaussian() * 0.15, centre[1] + random.nextGaussian() * 0.15)
+            }
+
+            private fun jitter(random: Random, degrees: Double) = (random.nextDouble() - 0.5) * 2 * degrees
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.vehiclebooking.benchmark;
+
+import com.vehiclebooking.BookingAnalytics;
+import com.vehiclebooking.BookingRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking analytics as computed for the analytics and admin dashboards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingAnalyticsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<BookingRequest> bookings;
+
+    @Setup
+    public void setUp() {
+        bookings = BookingDataset.bookings(size);
+    }
+
+    @Benchmark
+    public BookingAnalytics.BookingStats bookingStats() {
+        return BookingAnalytics.calculateBookingStats(bookings);
+    }
+
+    @Benchmark
+    public List<BookingAnalytics.RouteStats> routePopularity() {
+        return BookingAnalytics.analyzeRoutePopularity(bookings);
+    }
+
+    @Benchmark
+    public BookingAnalytics.BookingTrends bookingTrends() {
+        return BookingAnalytics.analyzeBookingTrends(bookings);
+    }
+
+    @Benchmark
+    public BookingAnalytics.AnalyticsReport fullReport() {
+        return BookingAnalytics.analyze(bookings);
+    }
+
+    @Benchmark
+    public BookingAnalytics.BookingInsights insights() {
+        return BookingAnalytics.generateInsights(bookings);
+    }
+}
@@ -0,0 +1,161 @@
+package com.vehiclebooking.benchmark;
+
+import com.vehiclebooking.BookingRequest;
+import com.vehiclebooking.BookingStatus;
+import com.vehiclebooking.StatusChange;
+import com.vehiclebooking.Vehicle;
+import com.vehiclebooking.data.Converters;
+
+import org.threeten.bp.LocalDate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic data shared by the benchmarks. A fixed seed keeps
+ * runs comparable across machines and commits.
+ */
+final class BookingDataset {
+
+    static final String[] CITIES = {
+            "Mumbai", "Delhi", "Bengaluru", "Hyderabad", "Ahmedabad", "Chennai",
+            "Kolkata", "Pune", "Jaipur", "Lucknow", "Kanpur", "Nagpur",
+            "Indore", "Bhopal", "Patna", "Vadodara", "Ludhiana", "Agra",
+            "Nashik", "Surat"
+    };
+
+    static final String[] VEHICLE_TYPES = {"Sedan", "SUV", "Hatchback", "Van", "Luxury"};
+
+    static final String[] SEARCH_QUERIES = {
+            "sedan to airport", "suv for family trip", "van", "luxury car",
+            "cheap ride", "Sedan AC", "7 seater SUV", "mini van hire", "outstation cab"
+    };
+
+    static final String[] SEARCH_STATUSES = {"New", "Contacted", "Completed"};
+
+    private static final long SEED = 42L;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    /** 2024-01-01T00:00:00Z, so month/weekday buckets are stable between runs. */
+    private static final long EPOCH_START = 1704067200000L;
+
+    private BookingDataset() {
+    }
+
+    static List<BookingRequest> bookings(int size) {
+        Random random = new Random(SEED);
+        BookingStatus[] statuses = BookingStatus.values();
+        List<BookingRequest> bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String source = CITIES[random.nextInt(CITIES.length)];
+            String destination = CITIES[random.nextInt(CITIES.length)];
+            long timestamp = EPOCH_START + (long) (random.nextDouble() * 365 * DAY_MS) + i;
+            LocalDate travelDate = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(400));
+            BookingStatus status = statuses[random.nextInt(statuses.length)];
+
+            List<StatusChange> history = new ArrayList<>();
+            history.add(new StatusChange(BookingStatus.PENDING, timestamp, "Booking request submitted"));
+            if (status != BookingStatus.PENDING) {
+                history.add(new StatusChange(status, timestamp + DAY_MS, "Updated by admin"));
+            }
+
+            BookingRequest booking = new BookingRequest(source, destination, travelDate,
+                    timestamp, status, history);
+            booking.setPhoneNumber(String.format("98%08d", random.nextInt(100_000_000)));
+            booking.setVehicleType(VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.length)]);
+            booking.setBookingId("BK" + String.valueOf(timestamp).substring(8));
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    /** Status histories as they are stored in the bookings table. */
+    static String[] encodedStatusHistories(List<BookingRequest> bookings) {
+        String[] encoded = new String[bookings.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = Converters.fromStatusChangeList(bookings.get(i).getStatusHistory());
+        }
+        return encoded;
+    }
+
+    /** Search record fields in the shape the search analytics consume. */
+    static SearchRow[] searchRows(int size) {
+        Random random = new Random(SEED);
+        SearchRow[] rows = new SearchRow[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = new SearchRow(
+                    SEARCH_STATUSES[random.nextInt(SEARCH_STATUSES.length)],
+                    SEARCH_QUERIES[random.nextInt(SEARCH_QUERIES.length)],
+                    random.nextBoolean());
+        }
+        return rows;
+    }
+
+    static final class SearchRow {
+        final String status;
+        final String searchQuery;
+        final boolean locationAvailable;
+
+        SearchRow(String status, String searchQuery, boolean locationAvailable) {
+            this.status = status;
+            this.searchQuery = searchQuery;
+            this.locationAvailable = locationAvailable;
+        }
+    }
+
+    /** City centres the synthetic leads cluster around, as {latitude, longitude}. */
+    static final double[][] LEAD_CENTRES = {
+            {19.076, 72.878}, {28.614, 77.209}, {12.972, 77.595}, {17.385, 78.487}, {13.083, 80.271}
+    };
+
+    /**
+     * Lead locations as {latitude, longitude} pairs, scattered around
+     * {@link #LEAD_CENTRES} with a spread of roughly 30 km.
+     */
+    static double[][] leadLocations(int size) {
+        Random random = new Random(SEED);
+        double[][] locations = new double[size][];
+        for (int i = 0; i < size; i++) {
+            double[] centre = LEAD_CENTRES[random.nextInt(LEAD_CENTRES.length)];
+            locations[i] = new double[]{
+                    centre[0] + random.nextGaussian() * 0.3,
+                    centre[1] + random.nextGaussian() * 0.3
+            };
+        }
+        return locations;
+    }
+
+    static final String[] VEHICLE_MODELS = {
+            "Toyota Camry", "Honda CR-V", "Ford Transit", "BMW 3 Series", "Nissan Altima",
+            "Chevrolet Tahoe", "Mercedes Sprinter", "Hyundai Elantra", "Maruti Swift Dzire",
+            "Mahindra XUV700", "Toyota Innova Crysta", "Tata Nexon", "Kia Carens", "Audi A6",
+            "Force Traveller", "Honda City", "Hyundai Creta", "Skoda Superb", "Renault Triber",
+            "Tata Winger"
+    };
+
+    static final String[] VEHICLE_TAGS = {
+            "ac", "automatic", "airport", "family", "luggage", "group", "premium", "wedding",
+            "city", "outstation", "budget", "electric", "diesel", "sunroof", "wheelchair"
+    };
+
+    private static final int[] CAPACITIES = {4, 5, 5, 5, 6, 7, 7, 8, 12, 14};
+
+    /** A vehicle catalog of the given size with the attributes VehicleSearchIndex indexes. */
+    static List<Vehicle> vehicles(int size) {
+        Random random = new Random(SEED);
+        List<Vehicle> vehicles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String[] tags = new String[1 + random.nextInt(3)];
+            for (int t = 0; t < tags.length; t++) {
+                tags[t] = VEHICLE_TAGS[random.nextInt(VEHICLE_TAGS.length)];
+            }
+            vehicles.add(new Vehicle(i + 1,
+                    VEHICLE_MODELS[random.nextInt(VEHICLE_MODELS.length)] + " " + (2015 + random.nextInt(10)),
+                    VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.length)],
+                    CAPACITIES[random.nextInt(CAPACITIES.length)],
+                    Arrays.asList(tags)));
+        }
+        return vehicles;
+    }
+}
@@ -0,0 +1,64 @@
+package com.vehiclebooking.benchmark;
+
+import com.vehiclebooking.BookingFilter;
+import com.vehiclebooking.BookingRequest;
+import com.vehiclebooking.BookingStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory filtering and sorting as done by the bookings list screens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"DATE_NEWEST_FIRST", "STATUS", "ROUTE_ALPHABETICAL"})
+    public BookingFilter.SortType sortType;
+
+    private List<BookingRequest> bookings;
+
+    @Setup
+    public void setUp() {
+        bookings = BookingDataset.bookings(size);
+    }
+
+    @Benchmark
+    public List<BookingRequest> filterByQuery() {
+        return BookingFilter.filterBookings(bookings, "pune", null);
+    }
+
+    @Benchmark
+    public List<BookingRequest> filterByQueryAndStatus() {
+        return BookingFilter.filterBookings(bookings, "pune", BookingStatus.CONFIRMED);
+    }
+
+    @Benchmark
+    public List<BookingRequest> sort() {
+        return BookingFilter.sortBookings(bookings, sortType);
+    }
+
+    @Benchmark
+    public List<String> searchSuggestions() {
+        return BookingFilter.getSearchSuggestions(bookings);
+    }
+
+    @Benchmark
+    public BookingFilter.FilterStats filterStats() {
+        return BookingFilter.getFilterStats(bookings);
+    }
+}
@@ -0,0 +1,67 @@
+package com.vehiclebooking.benchmark;
+
+import com.vehiclebooking.BookingRequest;
+import com.vehiclebooking.StatusChange;
+import com.vehiclebooking.data.Converters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room type converter cost for a full table read/write: one statusHistory
+ * decode or encode per booking row, plus the LocalDate round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConvertersBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<BookingRequest> bookings;
+    private String[] encodedHistories;
+    private String[] encodedDates;
+
+    @Setup
+    public void setUp() {
+        bookings = BookingDataset.bookings(size);
+        encodedHistories = BookingDataset.encodedStatusHistories(bookings);
+        encodedDates = new String[size];
+        for (int i = 0; i < size; i++) {
+            encodedDates[i] = Converters.fromLocalDate(bookings.get(i).getTravelDate());
+        }
+    }
+
+    @Benchmark
+    public void decodeStatusHistory(Blackhole blackhole) {
+        for (String json : encodedHistories) {
+            List<StatusChange> history = Converters.toStatusChangeList(json);
+            blackhole.consume(history);
+        }
+    }
+
+    @Benchmark
+    public void encodeStatusHistory(Blackhole blackhole) {
+        for (BookingRequest booking : bookings) {
+            blackhole.consume(Converters.fromStatusChangeList(booking.getStatusHistory()));
+        }
+    }
+
+    @Benchmark
+    public void decodeTravelDate(Blackhole blackhole) {
+        for (String date : encodedDates) {
+            blackhole.consume(Converters.toLocalDate(date));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.vehiclebooking.benchmark;
+
+import com.vehiclebooking.GeoHash;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Leads within 5 km of a driver" as {@code SearchStorage.getLeadsWithinKm} runs it:
+ * geohash cells covering the box, a range scan per cell and the exact distance check,
+ * against a haversine over every lead. The geohash index is modelled as a sorted array
+ * searched with binary search, as SQLite walks its B-tree; Room itself is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeoIndexBenchmark {
+
+    private static final double RADIUS_KM = 5.0;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    // Leads in geohash order, like the index
+    private String[] geohashes;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double driverLat;
+    private double driverLon;
+
+    @Setup
+    public void setUp() {
+        double[][] locations = BookingDataset.leadLocations(size);
+        Integer[] order = new Integer[size];
+        String[] unsorted = new String[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            unsorted[i] = GeoHash.encode(locations[i][0], locations[i][1]);
+        }
+        Arrays.sort(order, (a, b) -> unsorted[a].compareTo(unsorted[b]));
+
+        geohashes = new String[size];
+        latitudes = new double[size];
+        longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            geohashes[i] = unsorted[order[i]];
+            latitudes[i] = locations[order[i]][0];
+            longitudes[i] = locations[order[i]][1];
+        }
+        driverLat = BookingDataset.LEAD_CENTRES[0][0];
+        driverLon = BookingDataset.LEAD_CENTRES[0][1];
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int found = 0;
+        for (int i = 0; i < size; i++) {
+            if (GeoHash.distanceKm(driverLat, driverLon, latitudes[i], longitudes[i]) <= RADIUS_KM) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int geohashIndex() {
+        double[] box = GeoHash.boundingBox(driverLat, driverLon, RADIUS_KM);
+        List<String> cells = GeoHash.coverBoundingBox(box[0], box[1], box[2], box[3]);
+        int found = 0;
+        for (String cell : cells) {
+            int end = lowerBound(GeoHash.rangeEnd(cell));
+            for (int i = lowerBound(cell); i < end; i++) {
+                if (latitudes[i] >= box[0] && latitudes[i] <= box[2]
+                        && longitudes[i] >= box[1] && longitudes[i] <= box[3]
+                        && GeoHash.distanceKm(driverLat, driverLon, latitudes[i], longitudes[i]) <= RADIUS_KM) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    // First position whose geohash is not less than key
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = geohashes.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (geohashes[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,84 @@
+package com.vehiclebooking.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.vehiclebooking.BookingRequest;
+import com.vehiclebooking.LocalDateAdapter;
+import com.vehiclebooking.User;
+import com.vehiclebooking.UserRole;
+import com.vehiclebooking.utils.GsonProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.threeten.bp.LocalDate;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson encode/decode throughput with the hand-written model adapters (GsonProvider) against
+ * Gson's reflective adapter, which is what GsonProvider used before (LocalDate only).
+ * Covers a booking list as sent to or received from the API and the user session JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GsonAdaptersBenchmark {
+
+    private static final Type BOOKING_LIST = new TypeToken<List<BookingRequest>>() {}.getType();
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"reflective", "streaming"})
+    public String adapters;
+
+    private Gson gson;
+    private List<BookingRequest> bookings;
+    private String encodedBookings;
+    private User user;
+    private String encodedUser;
+
+    @Setup
+    public void setUp() {
+        gson = adapters.equals("streaming")
+                ? GsonProvider.getGson()
+                : new GsonBuilder().registerTypeAdapter(LocalDate.class, new LocalDateAdapter()).create();
+        bookings = BookingDataset.bookings(size);
+        encodedBookings = gson.toJson(bookings, BOOKING_LIST);
+
+        user = new User("driver42", "driver42@example.com", "9800000042", "secret",
+                UserRole.DRIVER, "Test Driver");
+        user.setLicenseNumber("MH12-2024-0042");
+        user.setVehicleDetails("Sedan, MH 12 AB 4242");
+        encodedUser = gson.toJson(user);
+    }
+
+    @Benchmark
+    public String encodeBookings() {
+        return gson.toJson(bookings, BOOKING_LIST);
+    }
+
+    @Benchmark
+    public List<BookingRequest> decodeBookings() {
+        return gson.fromJson(encodedBookings, BOOKING_LIST);
+    }
+
+    /** One session round trip per booking, so the score scales like the list benchmarks. */
+    @Benchmark
+    public void userSessionRoundTrip(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(gson.toJson(user));
+            blackhole.consume(gson.fromJson(encodedUser, User.class));
+        }
+    }
+}
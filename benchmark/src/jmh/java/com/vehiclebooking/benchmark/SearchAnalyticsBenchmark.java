@@ -0,0 +1,43 @@
+package com.vehiclebooking.benchmark;
+
+import com.vehiclebooking.SearchAnalytics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one-pass tally {@code SearchStorage.getSearchAnalytics(records)} runs over
+ * records a dashboard has already loaded; the Room read is not part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchAnalyticsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private BookingDataset.SearchRow[] rows;
+
+    @Setup
+    public void setUp() {
+        rows = BookingDataset.searchRows(size);
+    }
+
+    @Benchmark
+    public SearchAnalytics searchAnalytics() {
+        SearchAnalytics analytics = new SearchAnalytics();
+        for (BookingDataset.SearchRow row : rows) {
+            analytics.add(row.status, row.searchQuery, row.locationAvailable);
+        }
+        return analytics;
+    }
+}
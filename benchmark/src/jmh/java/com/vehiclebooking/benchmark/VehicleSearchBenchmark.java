@@ -0,0 +1,65 @@
+package com.vehiclebooking.benchmark;
+
+import com.vehiclebooking.Vehicle;
+import com.vehiclebooking.VehicleSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One customer search as {@code VehicleCatalog.search} runs it against the in-memory
+ * index, next to the lower-case contains scan over display names the search screens
+ * used before. The queries mix single terms, several terms, prefixes and typos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VehicleSearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"sedan", "7 seater suv airport", "lux", "toyta innova"})
+    public String query;
+
+    private VehicleSearchIndex index;
+    private String[] displayNames;
+
+    @Setup
+    public void setUp() {
+        List<Vehicle> vehicles = BookingDataset.vehicles(size);
+        index = new VehicleSearchIndex(vehicles);
+        displayNames = new String[vehicles.size()];
+        for (int i = 0; i < displayNames.length; i++) {
+            displayNames[i] = vehicles.get(i).getDisplayName();
+        }
+    }
+
+    @Benchmark
+    public List<Vehicle> invertedIndex() {
+        return index.search(query, VehicleSearchIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<String> containsScan() {
+        List<String> matches = new ArrayList<>();
+        String queryLower = query.toLowerCase(Locale.ROOT);
+        for (String name : displayNames) {
+            if (name.toLowerCase(Locale.ROOT).contains(queryLower)) {
+                matches.add(name);
+            }
+        }
+        return matches;
+    }
+}
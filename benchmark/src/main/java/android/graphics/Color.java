@@ -0,0 +1,23 @@
+package android.graphics;
+
+/**
+ * JVM stand-in for the single {@code Color} call the booking core makes.
+ */
+public final class Color {
+
+    private Color() {
+    }
+
+    public static int parseColor(String colorString) {
+        if (colorString.charAt(0) != '#') {
+            throw new IllegalArgumentException("Unknown color");
+        }
+        long color = Long.parseLong(colorString.substring(1), 16);
+        if (colorString.length() == 7) {
+            color |= 0x00000000ff000000L;
+        } else if (colorString.length() != 9) {
+            throw new IllegalArgumentException("Unknown color");
+        }
+        return (int) color;
+    }
+}
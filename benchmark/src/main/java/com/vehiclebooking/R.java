@@ -0,0 +1,22 @@
+package com.vehiclebooking;
+
+/**
+ * JVM stand-in for the generated resource class; only the ids referenced by
+ * {@link BookingStatus} are needed.
+ */
+public final class R {
+
+    private R() {
+    }
+
+    public static final class color {
+        public static final int status_pending = 0x7f050001;
+        public static final int status_confirmed = 0x7f050002;
+        public static final int status_in_progress = 0x7f050003;
+        public static final int status_completed = 0x7f050004;
+        public static final int status_cancelled = 0x7f050005;
+
+        private color() {
+        }
+    }
+}